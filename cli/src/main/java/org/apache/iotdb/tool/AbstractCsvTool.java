@@ -30,6 +30,7 @@ import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVPrinter;
 import org.apache.commons.csv.QuoteMode;
 
+import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.time.ZoneId;
@@ -213,6 +214,19 @@ public abstract class AbstractCsvTool {
    */
   public static Boolean writeCsvFile(
       List<String> headerNames, List<List<Object>> records, String filePath) {
+    return writeCsvFile(headerNames, records, filePath, false);
+  }
+
+  /**
+   * write data to CSV file.
+   *
+   * @param headerNames the header names of CSV file
+   * @param records the records of CSV file
+   * @param filePath the directory to save the file
+   * @param append whether to append the records to the file if it exists
+   */
+  public static Boolean writeCsvFile(
+      List<String> headerNames, List<List<Object>> records, String filePath, boolean append) {
     try {
       CSVPrinter printer =
           CSVFormat.Builder.create(CSVFormat.DEFAULT)
@@ -221,7 +235,7 @@ public abstract class AbstractCsvTool {
               .setEscape('\\')
               .setQuoteMode(QuoteMode.NONE)
               .build()
-              .print(new PrintWriter(filePath));
+              .print(new PrintWriter(new FileWriter(filePath, append)));
       if (headerNames != null) {
         printer.printRecord(headerNames);
       }
@@ -22,12 +22,12 @@ package org.apache.iotdb.tool;
 import org.apache.iotdb.cli.utils.JlineUtils;
 import org.apache.iotdb.exception.ArgsErrorException;
 import org.apache.iotdb.rpc.IoTDBConnectionException;
+import org.apache.iotdb.rpc.IoTDBRpcColumnBatch;
 import org.apache.iotdb.rpc.RpcUtils;
 import org.apache.iotdb.rpc.StatementExecutionException;
 import org.apache.iotdb.session.Session;
 import org.apache.iotdb.session.SessionDataSet;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
-import org.apache.iotdb.tsfile.read.common.RowRecord;
 
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.CommandLineParser;
@@ -44,14 +44,32 @@ import org.jline.reader.LineReader;
 
 import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.time.Instant;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * Export CSV file.
@@ -75,6 +93,9 @@ public class ExportCsv extends AbstractCsvTool {
   private static final String QUERY_COMMAND_ARGS = "q";
   private static final String QUERY_COMMAND_NAME = "queryCommand";
 
+  private static final String THREAD_NUM_ARGS = "tn";
+  private static final String THREAD_NUM_NAME = "threadNum";
+
   private static final String TSFILEDB_CLI_PREFIX = "ExportCsv";
 
   private static final String DUMP_FILE_NAME_DEFAULT = "dump";
@@ -90,6 +111,30 @@ public class ExportCsv extends AbstractCsvTool {
 
   private static final int EXPORT_PER_LINE_COUNT = 10000;
 
+  private static int threadNum = 1;
+
+  // sessions used by the threads that export the time segments of a query
+  private static BlockingQueue<Session> exportSessions;
+
+  // each thread exports several segments, so that a dense segment does not hold up the others
+  private static final int SEGMENTS_PER_THREAD = 4;
+
+  private static final Pattern SPLITTABLE_QUERY =
+      Pattern.compile(
+          "select\\s+(.+?)\\s+from\\s+(.+?)(?:\\s+where\\s+(.+))?",
+          Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+  // queries with these clauses can not be answered by concatenating the results of time segments
+  private static final Pattern UNSPLITTABLE_CLAUSE =
+      Pattern.compile(
+          "\\b(group\\s+by|order\\s+by|limit|slimit|offset|soffset|fill|align\\s+by|into"
+              + "|without\\s+null|last)\\b",
+          Pattern.CASE_INSENSITIVE);
+
+  private static final String PROGRESS_SQL = "sql";
+  private static final String PROGRESS_BOUNDARIES = "boundaries";
+  private static final String PROGRESS_FINISHED = "finished";
+
   /** main function of export csv tool. */
   public static void main(String[] args) {
     Options options = createOptions();
@@ -127,6 +172,9 @@ public class ExportCsv extends AbstractCsvTool {
       session.open(false);
       timestampPrecision = session.getTimestampPrecision();
       setTimeZone();
+      if (threadNum > 1) {
+        openExportSessions();
+      }
 
       if (queryCommand == null) {
         String sqlFile = commandLine.getOptionValue(SQL_FILE_ARGS);
@@ -170,6 +218,17 @@ public class ExportCsv extends AbstractCsvTool {
               "Encounter an error when closing session, error is: " + e.getMessage());
         }
       }
+      if (exportSessions != null) {
+        for (Session exportSession : exportSessions) {
+          try {
+            exportSession.close();
+          } catch (IoTDBConnectionException e) {
+            exitCode = CODE_ERROR;
+            System.out.println(
+                "Encounter an error when closing session, error is: " + e.getMessage());
+          }
+        }
+      }
     }
     System.exit(exitCode);
   }
@@ -191,6 +250,12 @@ public class ExportCsv extends AbstractCsvTool {
       timeFormat = "default";
     }
     timeZoneID = commandLine.getOptionValue(TIME_ZONE_ARGS);
+    if (commandLine.getOptionValue(THREAD_NUM_ARGS) != null) {
+      threadNum = Integer.parseInt(commandLine.getOptionValue(THREAD_NUM_ARGS));
+      if (threadNum < 1) {
+        throw new ArgsErrorException("The number of threads should be positive");
+      }
+    }
     if (!targetDirectory.endsWith("/") && !targetDirectory.endsWith("\\")) {
       targetDirectory += File.separator;
     }
@@ -267,6 +332,18 @@ public class ExportCsv extends AbstractCsvTool {
             .build();
     options.addOption(opQuery);
 
+    Option opThreadNum =
+        Option.builder(THREAD_NUM_ARGS)
+            .argName(THREAD_NUM_NAME)
+            .hasArg()
+            .desc(
+                "The number of threads to export a query with. If it is more than 1, the time "
+                    + "range of the query is split into segments exported to separate files, and "
+                    + "an interrupted export resumes from the unfinished segments. 1 by default "
+                    + "(optional)")
+            .build();
+    options.addOption(opThreadNum);
+
     Option opHelp =
         Option.builder(HELP_ARGS)
             .longOpt(HELP_ARGS)
@@ -302,6 +379,20 @@ public class ExportCsv extends AbstractCsvTool {
    * @param index used to create dump file name
    */
   private static void dumpResult(String sql, int index) {
+    if (threadNum > 1) {
+      String query = sql.trim();
+      while (query.endsWith(";")) {
+        query = query.substring(0, query.length() - 1).trim();
+      }
+      Matcher matcher = SPLITTABLE_QUERY.matcher(query);
+      if (matcher.matches()
+          && !matcher.group(1).contains("(")
+          && !UNSPLITTABLE_CLAUSE.matcher(query).find()
+          && dumpResultInSegments(
+              query, matcher.group(1), matcher.group(2), matcher.group(3), index)) {
+        return;
+      }
+    }
     final String path = targetDirectory + targetFile + index + ".csv";
     try {
       SessionDataSet sessionDataSet = session.executeQueryStatement(sql);
@@ -313,6 +404,230 @@ public class ExportCsv extends AbstractCsvTool {
     }
   }
 
+  private static void openExportSessions()
+      throws IoTDBConnectionException, StatementExecutionException {
+    exportSessions = new ArrayBlockingQueue<>(threadNum);
+    for (int i = 0; i < threadNum; i++) {
+      Session exportSession = new Session(host, Integer.parseInt(port), username, password);
+      exportSession.open(false);
+      if (timeZoneID != null) {
+        exportSession.setTimeZone(timeZoneID);
+      }
+      exportSessions.add(exportSession);
+    }
+  }
+
+  /**
+   * Split the time range of the query into segments, and export them to separate files in
+   * parallel. The finished segments are recorded in a progress file, so that a rerun of the same
+   * query only exports the segments that were not finished.
+   *
+   * @return false if the query has no result, then it is exported as a whole
+   */
+  private static boolean dumpResultInSegments(
+      String sql, String selectClause, String fromClause, String whereClause, int index) {
+    String progressPath = targetDirectory + targetFile + index + ".progress";
+    Properties progress = loadProgress(progressPath, sql);
+    long[] boundaries;
+    try {
+      boundaries =
+          progress.containsKey(PROGRESS_BOUNDARIES)
+              ? parseLongs(progress.getProperty(PROGRESS_BOUNDARIES))
+              : splitTimeRange(selectClause, fromClause, whereClause);
+    } catch (StatementExecutionException | IoTDBConnectionException e) {
+      System.out.println("Cannot dump result because: " + e.getMessage());
+      return true;
+    }
+    if (boundaries == null) {
+      return false;
+    }
+    progress.setProperty(PROGRESS_SQL, sql);
+    progress.setProperty(PROGRESS_BOUNDARIES, joinLongs(boundaries));
+    Set<Long> finished = new HashSet<>();
+    for (long segment : parseLongs(progress.getProperty(PROGRESS_FINISHED, ""))) {
+      finished.add(segment);
+    }
+    if (!finished.isEmpty()) {
+      System.out.printf(
+          "Resume exporting %s, %d of %d segments are finished%n",
+          sql, finished.size(), boundaries.length - 1);
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(threadNum);
+    List<Future<Boolean>> futures = new ArrayList<>();
+    for (int segment = 0; segment < boundaries.length - 1; segment++) {
+      if (finished.contains((long) segment)) {
+        continue;
+      }
+      final int currentSegment = segment;
+      String segmentSql =
+          String.format(
+              "select %s from %s where time >= %d and time %s %d%s",
+              selectClause,
+              fromClause,
+              boundaries[segment],
+              segment == boundaries.length - 2 ? "<=" : "<",
+              boundaries[segment + 1],
+              whereClause == null ? "" : " and (" + whereClause + ")");
+      futures.add(
+          executor.submit(
+              () -> {
+                String path = targetDirectory + targetFile + index + "_" + currentSegment + ".csv";
+                if (!dumpSegment(segmentSql, path)) {
+                  return false;
+                }
+                synchronized (progress) {
+                  finished.add((long) currentSegment);
+                  progress.setProperty(PROGRESS_FINISHED, joinLongs(finished));
+                  saveProgress(progress, progressPath);
+                }
+                return true;
+              }));
+    }
+    executor.shutdown();
+
+    boolean allFinished = true;
+    for (Future<Boolean> future : futures) {
+      try {
+        allFinished &= future.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        allFinished = false;
+      } catch (ExecutionException e) {
+        System.out.println("Cannot dump result because: " + e.getCause().getMessage());
+        allFinished = false;
+      }
+    }
+    if (allFinished) {
+      new File(progressPath).delete();
+      System.out.println("Export completely!");
+    } else {
+      System.out.printf(
+          "Export of %s is not finished, run the same command again to resume it from %s%n",
+          sql, progressPath);
+    }
+    return true;
+  }
+
+  /**
+   * @return the start of each segment followed by the max time of the query, or null if the query
+   *     has no result
+   */
+  private static long[] splitTimeRange(String selectClause, String fromClause, String whereClause)
+      throws StatementExecutionException, IoTDBConnectionException {
+    String sql =
+        "select "
+            + selectClause
+            + " from "
+            + fromClause
+            + (whereClause == null ? "" : " where " + whereClause);
+    Long minTime = queryFirstTime(sql + " limit 1");
+    Long maxTime = queryFirstTime(sql + " order by time desc limit 1");
+    if (minTime == null || maxTime == null || maxTime - minTime < 0) {
+      return null;
+    }
+    int segmentNum =
+        (int) Math.min((long) threadNum * SEGMENTS_PER_THREAD, maxTime - minTime + 1);
+    long step = (maxTime - minTime) / segmentNum + 1;
+    long[] boundaries = new long[segmentNum + 1];
+    // the step is rounded up, so the last segments may start after maxTime and are dropped
+    int startNum = 0;
+    while (startNum < segmentNum && minTime + step * startNum <= maxTime) {
+      boundaries[startNum] = minTime + step * startNum;
+      startNum++;
+    }
+    boundaries[startNum] = maxTime;
+    return Arrays.copyOf(boundaries, startNum + 1);
+  }
+
+  private static Long queryFirstTime(String sql)
+      throws StatementExecutionException, IoTDBConnectionException {
+    SessionDataSet sessionDataSet = session.executeQueryStatement(sql);
+    try {
+      return sessionDataSet.hasNext() ? sessionDataSet.next().getTimestamp() : null;
+    } finally {
+      sessionDataSet.closeOperationHandle();
+    }
+  }
+
+  /** Export a segment to a temporary file, which is renamed to the target file if it succeeds. */
+  private static boolean dumpSegment(String sql, String path) throws InterruptedException {
+    Session exportSession = exportSessions.take();
+    try {
+      File tempFile = new File(path + ".tmp");
+      SessionDataSet sessionDataSet = exportSession.executeQueryStatement(sql);
+      try {
+        writeCsvFile(sessionDataSet, tempFile.getPath());
+      } finally {
+        sessionDataSet.closeOperationHandle();
+      }
+      Files.move(tempFile.toPath(), Paths.get(path), StandardCopyOption.REPLACE_EXISTING);
+      return true;
+    } catch (StatementExecutionException | IoTDBConnectionException | IOException e) {
+      System.out.println("Cannot dump result of " + sql + " because: " + e.getMessage());
+      return false;
+    } finally {
+      exportSessions.add(exportSession);
+    }
+  }
+
+  /** @return the progress of the sql, or an empty one if the progress file is of another sql */
+  private static Properties loadProgress(String progressPath, String sql) {
+    Properties progress = new Properties();
+    File progressFile = new File(progressPath);
+    if (!progressFile.exists()) {
+      return progress;
+    }
+    try (FileInputStream inputStream = new FileInputStream(progressFile)) {
+      progress.load(inputStream);
+    } catch (IOException e) {
+      System.out.println("Ignore the progress file because: " + e.getMessage());
+      return new Properties();
+    }
+    return sql.equals(progress.getProperty(PROGRESS_SQL)) ? progress : new Properties();
+  }
+
+  private static void saveProgress(Properties progress, String progressPath) throws IOException {
+    File tempFile = new File(progressPath + ".tmp");
+    try (FileOutputStream outputStream = new FileOutputStream(tempFile)) {
+      progress.store(outputStream, null);
+    }
+    Files.move(tempFile.toPath(), Paths.get(progressPath), StandardCopyOption.REPLACE_EXISTING);
+  }
+
+  private static long[] parseLongs(String values) {
+    if (values.isEmpty()) {
+      return new long[0];
+    }
+    String[] split = values.split(",");
+    long[] longs = new long[split.length];
+    for (int i = 0; i < split.length; i++) {
+      longs[i] = Long.parseLong(split[i]);
+    }
+    return longs;
+  }
+
+  private static String joinLongs(long[] values) {
+    StringBuilder builder = new StringBuilder();
+    for (long value : values) {
+      if (builder.length() > 0) {
+        builder.append(',');
+      }
+      builder.append(value);
+    }
+    return builder.toString();
+  }
+
+  private static String joinLongs(Collection<Long> values) {
+    long[] longs = new long[values.size()];
+    int i = 0;
+    for (long value : values) {
+      longs[i++] = value;
+    }
+    Arrays.sort(longs);
+    return joinLongs(longs);
+  }
+
   public static String timeTrans(Long time) {
     switch (timeFormat) {
       case "default":
@@ -356,32 +671,40 @@ public class ExportCsv extends AbstractCsvTool {
     }
     printer.printRecord(headers);
 
-    while (sessionDataSet.hasNext()) {
-      RowRecord rowRecord = sessionDataSet.next();
-      ArrayList<String> record = new ArrayList<>();
-      if (rowRecord.getTimestamp() != 0) {
-        record.add(timeTrans(rowRecord.getTimestamp()));
+    // convert the fetched batches column by column while the next batch is being fetched
+    sessionDataSet.enablePrefetch();
+    IoTDBRpcColumnBatch batch;
+    while ((batch = sessionDataSet.nextBatch()) != null) {
+      long[] times = batch.getTimes();
+      for (int row = 0; row < batch.getRowCount(); row++) {
+        ArrayList<String> record = new ArrayList<>(batch.getColumnCount() + 1);
+        if (times[row] != 0) {
+          record.add(timeTrans(times[row]));
+        }
+        for (int column = 0; column < batch.getColumnCount(); column++) {
+          record.add(formatValue(batch, column, row));
+        }
+        printer.printRecord(record);
       }
-      rowRecord
-          .getFields()
-          .forEach(
-              field -> {
-                String fieldStringValue = field.getStringValue();
-                if (!"null".equals(field.getStringValue())) {
-                  if (field.getDataType() == TSDataType.TEXT
-                      && !fieldStringValue.startsWith("root.")) {
-                    fieldStringValue = "\"" + fieldStringValue + "\"";
-                  }
-                  record.add(fieldStringValue);
-                } else {
-                  record.add("");
-                }
-              });
-      printer.printRecord(record);
     }
 
     printer.flush();
     printer.close();
     return true;
   }
+
+  private static String formatValue(IoTDBRpcColumnBatch batch, int column, int row) {
+    Object value = batch.getObject(column, row);
+    if (value == null) {
+      return "";
+    }
+    String stringValue = value.toString();
+    if ("null".equals(stringValue)) {
+      return "";
+    }
+    if (batch.getDataType(column) == TSDataType.TEXT && !stringValue.startsWith("root.")) {
+      return "\"" + stringValue + "\"";
+    }
+    return stringValue;
+  }
 }
@@ -0,0 +1,464 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tool;
+
+import org.apache.iotdb.exception.ArgsErrorException;
+import org.apache.iotdb.rpc.IoTDBConnectionException;
+import org.apache.iotdb.rpc.IoTDBRpcColumnBatch;
+import org.apache.iotdb.rpc.StatementExecutionException;
+import org.apache.iotdb.session.Session;
+import org.apache.iotdb.session.SessionDataSet;
+import org.apache.iotdb.tsfile.exception.write.WriteProcessException;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.common.Field;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.common.RowRecord;
+import org.apache.iotdb.tsfile.utils.BitMap;
+import org.apache.iotdb.tsfile.utils.Pair;
+import org.apache.iotdb.tsfile.write.TsFileWriter;
+import org.apache.iotdb.tsfile.write.record.Tablet;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.CommandLineParser;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Option;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Export the data of the timeseries matching a path pattern into TsFiles, one for each storage
+ * group. The timeseries keep the encodings and compressions of the server, and the files are named
+ * by the TsFile naming convention, so that they can be loaded by another IoTDB directly.
+ */
+public class ExportTsFile extends AbstractCsvTool {
+
+  private static final String TARGET_DIR_ARGS = "td";
+  private static final String TARGET_DIR_NAME = "targetDirectory";
+
+  private static final String PATH_ARGS = "path";
+  private static final String PATH_NAME = "pathPattern";
+
+  private static final String START_TIME_ARGS = "start";
+  private static final String START_TIME_NAME = "startTime";
+
+  private static final String END_TIME_ARGS = "end";
+  private static final String END_TIME_NAME = "endTime";
+
+  private static final String TSFILEDB_CLI_PREFIX = "ExportTsFile";
+
+  private static final String DEFAULT_PATH_PATTERN = "root.**";
+
+  private static final String COLUMN_TIMESERIES = "timeseries";
+  private static final String COLUMN_STORAGE_GROUP = "storage group";
+  private static final String COLUMN_DATATYPE = "dataType";
+  private static final String COLUMN_ENCODING = "encoding";
+  private static final String COLUMN_COMPRESSION = "compression";
+  private static final String COLUMN_DEVICES = "devices";
+  private static final String COLUMN_IS_ALIGNED = "isAligned";
+
+  private static String targetDirectory;
+  private static String pathPattern = DEFAULT_PATH_PATTERN;
+  private static Long startTime;
+  private static Long endTime;
+
+  /** main function of export tsfile tool. */
+  public static void main(String[] args) {
+    Options options = createOptions();
+    HelpFormatter hf = new HelpFormatter();
+    CommandLine commandLine = null;
+    CommandLineParser parser = new DefaultParser();
+    hf.setOptionComparator(null); // avoid reordering
+    hf.setWidth(MAX_HELP_CONSOLE_WIDTH);
+
+    if (args == null || args.length == 0) {
+      System.out.println("Too few params input, please check the following hint.");
+      hf.printHelp(TSFILEDB_CLI_PREFIX, options, true);
+      System.exit(CODE_ERROR);
+    }
+    try {
+      commandLine = parser.parse(options, args);
+    } catch (ParseException e) {
+      System.out.println(e.getMessage());
+      hf.printHelp(TSFILEDB_CLI_PREFIX, options, true);
+      System.exit(CODE_ERROR);
+    }
+    if (commandLine.hasOption(HELP_ARGS)) {
+      hf.printHelp(TSFILEDB_CLI_PREFIX, options, true);
+      System.exit(CODE_ERROR);
+    }
+    int exitCode = CODE_OK;
+    try {
+      parseBasicParams(commandLine);
+      parseSpecialParams(commandLine);
+
+      session = new Session(host, Integer.parseInt(port), username, password);
+      session.open(false);
+
+      exportTsFiles();
+    } catch (IOException e) {
+      System.out.println("Failed to operate on file, because " + e.getMessage());
+      exitCode = CODE_ERROR;
+    } catch (ArgsErrorException e) {
+      System.out.println("Invalid args: " + e.getMessage());
+      exitCode = CODE_ERROR;
+    } catch (IoTDBConnectionException | StatementExecutionException e) {
+      System.out.println("Connect failed because " + e.getMessage());
+      exitCode = CODE_ERROR;
+    } catch (WriteProcessException e) {
+      System.out.println("Failed to write TsFile, because " + e.getMessage());
+      exitCode = CODE_ERROR;
+    } finally {
+      if (session != null) {
+        try {
+          session.close();
+        } catch (IoTDBConnectionException e) {
+          exitCode = CODE_ERROR;
+          System.out.println(
+              "Encounter an error when closing session, error is: " + e.getMessage());
+        }
+      }
+    }
+    System.exit(exitCode);
+  }
+
+  private static void parseSpecialParams(CommandLine commandLine) throws ArgsErrorException {
+    targetDirectory = checkRequiredArg(TARGET_DIR_ARGS, TARGET_DIR_NAME, commandLine);
+    if (!targetDirectory.endsWith("/") && !targetDirectory.endsWith("\\")) {
+      targetDirectory += File.separator;
+    }
+    if (commandLine.getOptionValue(PATH_ARGS) != null) {
+      pathPattern = commandLine.getOptionValue(PATH_ARGS);
+    }
+    try {
+      if (commandLine.getOptionValue(START_TIME_ARGS) != null) {
+        startTime = Long.parseLong(commandLine.getOptionValue(START_TIME_ARGS));
+      }
+      if (commandLine.getOptionValue(END_TIME_ARGS) != null) {
+        endTime = Long.parseLong(commandLine.getOptionValue(END_TIME_ARGS));
+      }
+    } catch (NumberFormatException e) {
+      throw new ArgsErrorException("The start and end time should be timestamps");
+    }
+  }
+
+  /**
+   * commandline option create.
+   *
+   * @return object Options
+   */
+  private static Options createOptions() {
+    Options options = createNewOptions();
+
+    Option opTargetDir =
+        Option.builder(TARGET_DIR_ARGS)
+            .required()
+            .argName(TARGET_DIR_NAME)
+            .hasArg()
+            .desc("Target File Directory (required)")
+            .build();
+    options.addOption(opTargetDir);
+
+    Option opPath =
+        Option.builder(PATH_ARGS)
+            .argName(PATH_NAME)
+            .hasArg()
+            .desc("The path pattern of the timeseries to export, root.** by default (optional)")
+            .build();
+    options.addOption(opPath);
+
+    Option opStartTime =
+        Option.builder(START_TIME_ARGS)
+            .argName(START_TIME_NAME)
+            .hasArg()
+            .desc("The timestamp that the exported data starts from, inclusive (optional)")
+            .build();
+    options.addOption(opStartTime);
+
+    Option opEndTime =
+        Option.builder(END_TIME_ARGS)
+            .argName(END_TIME_NAME)
+            .hasArg()
+            .desc("The timestamp that the exported data ends at, inclusive (optional)")
+            .build();
+    options.addOption(opEndTime);
+
+    Option opHelp =
+        Option.builder(HELP_ARGS)
+            .longOpt(HELP_ARGS)
+            .hasArg(false)
+            .desc("Display help information")
+            .build();
+    options.addOption(opHelp);
+
+    return options;
+  }
+
+  private static void exportTsFiles()
+      throws IoTDBConnectionException, StatementExecutionException, IOException,
+          WriteProcessException {
+    Map<String, Map<String, List<MeasurementSchema>>> storageGroupSchemas = querySchemas();
+    if (storageGroupSchemas.isEmpty()) {
+      System.out.println("No timeseries matches " + pathPattern);
+      return;
+    }
+    long fileTime = System.currentTimeMillis();
+    int version = 0;
+    for (Map.Entry<String, Map<String, List<MeasurementSchema>>> storageGroup :
+        storageGroupSchemas.entrySet()) {
+      Set<String> alignedDevices = queryAlignedDevices(storageGroup.getKey());
+      // a TsFile can only be loaded into one storage group, and only if its name is
+      // {systemTime}-{versionNum}-{in_space_compaction_num}-{cross_space_compaction_num}.tsfile
+      File file = new File(targetDirectory + fileTime + "-" + ++version + "-0-0.tsfile");
+      long pointCount = 0;
+      try (TsFileWriter writer = new TsFileWriter(file)) {
+        for (Map.Entry<String, List<MeasurementSchema>> device :
+            storageGroup.getValue().entrySet()) {
+          pointCount +=
+              exportDevice(
+                  writer,
+                  device.getKey(),
+                  device.getValue(),
+                  alignedDevices.contains(device.getKey()));
+        }
+      }
+      if (pointCount == 0) {
+        file.delete();
+        System.out.printf("No data of %s is exported%n", storageGroup.getKey());
+      } else {
+        System.out.printf(
+            "Export %d points of %s to %s%n", pointCount, storageGroup.getKey(), file.getPath());
+      }
+    }
+    System.out.println("Export completely!");
+  }
+
+  /** @return storage group -> device -> schemas of the timeseries matching the path pattern */
+  private static Map<String, Map<String, List<MeasurementSchema>>> querySchemas()
+      throws IoTDBConnectionException, StatementExecutionException {
+    Map<String, Map<String, List<MeasurementSchema>>> storageGroupSchemas = new LinkedHashMap<>();
+    SessionDataSet dataSet = session.executeQueryStatement("show timeseries " + pathPattern);
+    try {
+      List<String> columnNames = dataSet.getColumnNames();
+      while (dataSet.hasNext()) {
+        RowRecord record = dataSet.next();
+        Pair<String, String> deviceAndMeasurement =
+            splitLastNode(getField(record, columnNames, COLUMN_TIMESERIES));
+        MeasurementSchema schema =
+            new MeasurementSchema(
+                deviceAndMeasurement.right,
+                TSDataType.valueOf(getField(record, columnNames, COLUMN_DATATYPE)),
+                TSEncoding.valueOf(getField(record, columnNames, COLUMN_ENCODING)),
+                CompressionType.valueOf(getField(record, columnNames, COLUMN_COMPRESSION)));
+        storageGroupSchemas
+            .computeIfAbsent(
+                getField(record, columnNames, COLUMN_STORAGE_GROUP), k -> new LinkedHashMap<>())
+            .computeIfAbsent(deviceAndMeasurement.left, k -> new ArrayList<>())
+            .add(schema);
+      }
+    } finally {
+      dataSet.closeOperationHandle();
+    }
+    return storageGroupSchemas;
+  }
+
+  private static Set<String> queryAlignedDevices(String storageGroup)
+      throws IoTDBConnectionException, StatementExecutionException {
+    Set<String> alignedDevices = new HashSet<>();
+    SessionDataSet dataSet = session.executeQueryStatement("show devices " + storageGroup + ".**");
+    try {
+      List<String> columnNames = dataSet.getColumnNames();
+      if (!columnNames.contains(COLUMN_IS_ALIGNED)) {
+        return alignedDevices;
+      }
+      while (dataSet.hasNext()) {
+        RowRecord record = dataSet.next();
+        if (Boolean.parseBoolean(getField(record, columnNames, COLUMN_IS_ALIGNED))) {
+          alignedDevices.add(getField(record, columnNames, COLUMN_DEVICES));
+        }
+      }
+    } finally {
+      dataSet.closeOperationHandle();
+    }
+    return alignedDevices;
+  }
+
+  /**
+   * Query the data of a device, and write it into the TsFile batch by batch.
+   *
+   * @return the number of points written
+   */
+  private static long exportDevice(
+      TsFileWriter writer, String device, List<MeasurementSchema> schemas, boolean aligned)
+      throws IoTDBConnectionException, StatementExecutionException, IOException,
+          WriteProcessException {
+    if (aligned) {
+      writer.registerAlignedTimeseries(new Path(device), schemas);
+    } else {
+      writer.registerTimeseries(new Path(device), schemas);
+    }
+    Map<String, MeasurementSchema> measurementSchemas = new LinkedHashMap<>();
+    StringBuilder sql = new StringBuilder("select ");
+    for (MeasurementSchema schema : schemas) {
+      if (!measurementSchemas.isEmpty()) {
+        sql.append(", ");
+      }
+      sql.append(schema.getMeasurementId());
+      measurementSchemas.put(schema.getMeasurementId(), schema);
+    }
+    sql.append(" from ").append(device);
+    if (startTime != null || endTime != null) {
+      sql.append(" where ");
+      if (startTime != null) {
+        sql.append("time >= ").append(startTime);
+      }
+      if (startTime != null && endTime != null) {
+        sql.append(" and ");
+      }
+      if (endTime != null) {
+        sql.append("time <= ").append(endTime);
+      }
+    }
+
+    long pointCount = 0;
+    SessionDataSet dataSet = session.executeQueryStatement(sql.toString());
+    try {
+      // convert a fetched batch while the next batch is being fetched
+      dataSet.enablePrefetch();
+      IoTDBRpcColumnBatch batch;
+      while ((batch = dataSet.nextBatch()) != null) {
+        if (batch.getRowCount() == 0) {
+          continue;
+        }
+        Pair<Tablet, Long> tablet = toTablet(device, batch, measurementSchemas);
+        if (aligned) {
+          writer.writeAligned(tablet.left);
+        } else {
+          writer.write(tablet.left);
+        }
+        pointCount += tablet.right;
+      }
+    } finally {
+      dataSet.closeOperationHandle();
+    }
+    return pointCount;
+  }
+
+  /**
+   * Wrap the columns of a batch as a tablet without copying the values.
+   *
+   * @return the tablet and the number of non-null values in it
+   */
+  private static Pair<Tablet, Long> toTablet(
+      String device, IoTDBRpcColumnBatch batch, Map<String, MeasurementSchema> measurementSchemas) {
+    int rowCount = batch.getRowCount();
+    List<MeasurementSchema> schemas = new ArrayList<>();
+    List<Integer> columns = new ArrayList<>();
+    for (int column = 0; column < batch.getColumnCount(); column++) {
+      String columnName = batch.getColumnName(column);
+      MeasurementSchema schema =
+          columnName.length() > device.length()
+              ? measurementSchemas.get(columnName.substring(device.length() + 1))
+              : null;
+      if (schema != null) {
+        schemas.add(schema);
+        columns.add(column);
+      }
+    }
+
+    // the columns of the tablet are replaced by the ones of the batch
+    Tablet tablet = new Tablet(device, schemas, 0);
+    tablet.timestamps = batch.getTimes();
+    tablet.values = new Object[schemas.size()];
+    tablet.bitMaps = new BitMap[schemas.size()];
+    long pointCount = 0;
+    for (int i = 0; i < schemas.size(); i++) {
+      int column = columns.get(i);
+      switch (batch.getDataType(column)) {
+        case BOOLEAN:
+          tablet.values[i] = batch.getBooleans(column);
+          break;
+        case INT32:
+          tablet.values[i] = batch.getInts(column);
+          break;
+        case INT64:
+          tablet.values[i] = batch.getLongs(column);
+          break;
+        case FLOAT:
+          tablet.values[i] = batch.getFloats(column);
+          break;
+        case DOUBLE:
+          tablet.values[i] = batch.getDoubles(column);
+          break;
+        default:
+          tablet.values[i] = batch.getBinaries(column);
+          break;
+      }
+      boolean[] nulls = batch.getNulls(column);
+      for (int row = 0; row < rowCount; row++) {
+        if (nulls[row]) {
+          if (tablet.bitMaps[i] == null) {
+            tablet.bitMaps[i] = new BitMap(rowCount);
+          }
+          tablet.bitMaps[i].mark(row);
+        } else {
+          pointCount++;
+        }
+      }
+    }
+    tablet.rowSize = rowCount;
+    return new Pair<>(tablet, pointCount);
+  }
+
+  private static String getField(RowRecord record, List<String> columnNames, String columnName) {
+    List<Field> fields = record.getFields();
+    // there is no time column in the fields of a show statement
+    int index = columnNames.indexOf(columnName) - (columnNames.size() - fields.size());
+    Field field = fields.get(index);
+    return field == null ? null : field.getStringValue();
+  }
+
+  /** @return the device and the measurement of a timeseries, whose nodes may be quoted by ` */
+  public static Pair<String, String> splitLastNode(String path) {
+    int separator;
+    if (path.endsWith("`")) {
+      separator = path.lastIndexOf('`', path.length() - 2);
+      while (separator > 0 && path.charAt(separator - 1) == '`') {
+        // `` is an escaped ` in a quoted node
+        separator = path.lastIndexOf('`', separator - 2);
+      }
+      separator--;
+    } else {
+      separator = path.lastIndexOf('.');
+    }
+    return new Pair<>(path.substring(0, separator), path.substring(separator + 1));
+  }
+}
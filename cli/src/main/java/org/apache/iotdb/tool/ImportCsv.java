@@ -24,7 +24,10 @@ import org.apache.iotdb.rpc.IoTDBConnectionException;
 import org.apache.iotdb.rpc.StatementExecutionException;
 import org.apache.iotdb.session.Session;
 import org.apache.iotdb.session.SessionDataSet;
+import org.apache.iotdb.session.pool.SessionPool;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.write.record.Tablet;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
 
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.CommandLineParser;
@@ -46,13 +49,19 @@ import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -79,6 +88,9 @@ public class ImportCsv extends AbstractCsvTool {
   private static final String ALIGNED_ARGS = "aligned";
   private static final String ALIGNED_NAME = "use the aligned interface";
 
+  private static final String THREAD_NUM_ARGS = "tn";
+  private static final String THREAD_NUM_NAME = "thread num";
+
   private static final String CSV_SUFFIXS = "csv";
   private static final String TXT_SUFFIXS = "txt";
 
@@ -93,6 +105,13 @@ public class ImportCsv extends AbstractCsvTool {
 
   private static int batchPointSize = 100_000;
 
+  private static int threadNum = 1;
+
+  private static final int MAX_RETRY_TIMES = 3;
+
+  // sessions that the chunks of the CSV files are written with
+  private static SessionPool sessionPool;
+
   /**
    * create the commandline options.
    *
@@ -153,6 +172,16 @@ public class ImportCsv extends AbstractCsvTool {
             .build();
     options.addOption(opBatchPointSize);
 
+    Option opThreadNum =
+        Option.builder(THREAD_NUM_ARGS)
+            .argName(THREAD_NUM_NAME)
+            .hasArg()
+            .desc(
+                "The number of threads to convert and write the records with, "
+                    + "1 by default (optional)")
+            .build();
+    options.addOption(opThreadNum);
+
     return options;
   }
 
@@ -178,6 +207,9 @@ public class ImportCsv extends AbstractCsvTool {
     if (commandLine.getOptionValue(ALIGNED_ARGS) != null) {
       aligned = Boolean.valueOf(commandLine.getOptionValue(ALIGNED_ARGS));
     }
+    if (commandLine.getOptionValue(THREAD_NUM_ARGS) != null) {
+      threadNum = Math.max(1, Integer.parseInt(commandLine.getOptionValue(THREAD_NUM_ARGS)));
+    }
   }
 
   public static void main(String[] args) throws IoTDBConnectionException {
@@ -247,6 +279,7 @@ public class ImportCsv extends AbstractCsvTool {
       session.open(false);
       timeZoneID = timeZone;
       setTimeZone();
+      sessionPool = new SessionPool(host, port, username, password, threadNum);
 
       File file = new File(targetPath);
       if (file.isFile()) {
@@ -273,6 +306,9 @@ public class ImportCsv extends AbstractCsvTool {
       if (session != null) {
         session.close();
       }
+      if (sessionPool != null) {
+        sessionPool.close();
+      }
     }
     return CODE_OK;
   }
@@ -296,16 +332,18 @@ public class ImportCsv extends AbstractCsvTool {
           System.out.println("No headers!");
           return;
         }
-        String failedFilePath = null;
+        String basePath;
         if (failedFileDirectory == null) {
-          failedFilePath = file.getAbsolutePath() + ".failed";
+          basePath = file.getAbsolutePath();
         } else {
-          failedFilePath = failedFileDirectory + file.getName() + ".failed";
+          basePath = failedFileDirectory + file.getName();
         }
+        ImportProgress progress =
+            new ImportProgress(basePath + ".progress", basePath + ".failed", headerNames);
         if (!deviceColumn.equalsIgnoreCase(headerNames.get(1))) {
-          writeDataAlignedByTime(headerNames, records, failedFilePath);
+          writeDataAlignedByTime(headerNames, records, progress);
         } else {
-          writeDataAlignedByDevice(headerNames, records, failedFilePath);
+          writeDataAlignedByDevice(headerNames, records, progress);
         }
       } catch (IOException e) {
         System.out.println("CSV file read exception because: " + e.getMessage());
@@ -320,12 +358,13 @@ public class ImportCsv extends AbstractCsvTool {
    *
    * @param headerNames the header names of CSV file
    * @param records the records of CSV file
-   * @param failedFilePath the directory to save the failed files
+   * @param progress the progress of importing the CSV file
    */
   private static void writeDataAlignedByTime(
-      List<String> headerNames, Stream<CSVRecord> records, String failedFilePath) {
+      List<String> headerNames, Stream<CSVRecord> records, ImportProgress progress) {
     HashMap<String, List<String>> deviceAndMeasurementNames = new HashMap<>();
-    HashMap<String, TSDataType> headerTypeMap = new HashMap<>();
+    // types may be null, so a ConcurrentHashMap does not fit
+    Map<String, TSDataType> headerTypeMap = Collections.synchronizedMap(new HashMap<>());
     HashMap<String, String> headerNameMap = new HashMap<>();
     parseHeaders(headerNames, deviceAndMeasurementNames, headerTypeMap, headerNameMap);
 
@@ -337,28 +376,11 @@ public class ImportCsv extends AbstractCsvTool {
       e.printStackTrace();
     }
 
-    List<String> deviceIds = new ArrayList<>();
-    List<Long> times = new ArrayList<>();
-    List<List<String>> measurementsList = new ArrayList<>();
-    List<List<TSDataType>> typesList = new ArrayList<>();
-    List<List<Object>> valuesList = new ArrayList<>();
-
-    AtomicReference<SimpleDateFormat> timeFormatter = new AtomicReference<>(null);
-    AtomicReference<Boolean> hasStarted = new AtomicReference<>(false);
-    AtomicInteger pointSize = new AtomicInteger(0);
-
-    ArrayList<List<Object>> failedRecords = new ArrayList<>();
-
-    records.forEach(
-        record -> {
-          if (!hasStarted.get()) {
-            hasStarted.set(true);
-            timeFormatter.set(formatterInit(record.get(0)));
-          } else if (pointSize.get() >= batchPointSize) {
-            writeAndEmptyDataSet(deviceIds, times, typesList, valuesList, measurementsList, 3);
-            pointSize.set(0);
-          }
-
+    importInChunks(
+        records,
+        1,
+        progress,
+        (record, time, tablets) -> {
           boolean isFail = false;
 
           for (String deviceId : deviceAndMeasurementNames.keySet()) {
@@ -375,7 +397,7 @@ public class ImportCsv extends AbstractCsvTool {
                 if (!headerTypeMap.containsKey(headerNameMap.get(header))) {
                   type = typeInfer(value);
                   if (type != null) {
-                    headerTypeMap.put(header, type);
+                    headerTypeMap.putIfAbsent(header, type);
                   } else {
                     System.out.printf(
                         "Line '%s', column '%s': '%s' unknown type%n",
@@ -395,46 +417,16 @@ public class ImportCsv extends AbstractCsvTool {
                     measurements.add(headerNameMap.get(header).replace(deviceId + '.', ""));
                     types.add(type);
                     values.add(valueTrans);
-                    pointSize.getAndIncrement();
                   }
                 }
               }
             }
             if (!measurements.isEmpty()) {
-              if (timeFormatter.get() == null) {
-                times.add(Long.valueOf(record.get(timeColumn)));
-              } else {
-                try {
-                  times.add(timeFormatter.get().parse(record.get(timeColumn)).getTime());
-                } catch (ParseException e) {
-                  System.out.println(
-                      "Meet error when insert csv because the format of time is not supported");
-                  System.exit(0);
-                }
-              }
-              deviceIds.add(deviceId);
-              typesList.add(types);
-              valuesList.add(values);
-              measurementsList.add(measurements);
+              tablets.addRow(deviceId, time, measurements, types, values);
             }
           }
-          if (isFail) {
-            failedRecords.add(record.stream().collect(Collectors.toList()));
-          }
+          return !isFail;
         });
-    if (!deviceIds.isEmpty()) {
-      writeAndEmptyDataSet(deviceIds, times, typesList, valuesList, measurementsList, 3);
-      pointSize.set(0);
-    }
-
-    if (!failedRecords.isEmpty()) {
-      writeCsvFile(headerNames, failedRecords, failedFilePath);
-    }
-    if (hasStarted.get()) {
-      System.out.println("Import completely!");
-    } else {
-      System.out.println("No records!");
-    }
   }
 
   /**
@@ -442,54 +434,29 @@ public class ImportCsv extends AbstractCsvTool {
    *
    * @param headerNames the header names of CSV file
    * @param records the records of CSV file
-   * @param failedFilePath the directory to save the failed files
+   * @param progress the progress of importing the CSV file
    */
   private static void writeDataAlignedByDevice(
-      List<String> headerNames, Stream<CSVRecord> records, String failedFilePath) {
-    HashMap<String, TSDataType> headerTypeMap = new HashMap<>();
+      List<String> headerNames, Stream<CSVRecord> records, ImportProgress progress) {
+    Map<String, TSDataType> headerTypeMap = Collections.synchronizedMap(new HashMap<>());
     HashMap<String, String> headerNameMap = new HashMap<>();
     parseHeaders(headerNames, null, headerTypeMap, headerNameMap);
 
-    AtomicReference<SimpleDateFormat> timeFormatter = new AtomicReference<>(null);
-    AtomicReference<String> deviceName = new AtomicReference<>(null);
-
-    HashSet<String> typeQueriedDevice = new HashSet<>();
-
-    // the data that interface need
-    List<Long> times = new ArrayList<>();
-    List<List<TSDataType>> typesList = new ArrayList<>();
-    List<List<Object>> valuesList = new ArrayList<>();
-    List<List<String>> measurementsList = new ArrayList<>();
-
-    AtomicInteger pointSize = new AtomicInteger(0);
-
-    ArrayList<List<Object>> failedRecords = new ArrayList<>();
-
-    records.forEach(
-        record -> {
-          // only run in first record
-          if (deviceName.get() == null) {
-            deviceName.set(record.get(1));
-            timeFormatter.set(formatterInit(record.get(0)));
-          } else if (!Objects.equals(deviceName.get(), record.get(1))) {
-            // if device changed
-            writeAndEmptyDataSet(
-                deviceName.get(), times, typesList, valuesList, measurementsList, 3);
-            deviceName.set(record.get(1));
-            pointSize.set(0);
-          } else if (pointSize.get() >= batchPointSize) {
-            // insert a batch
-            writeAndEmptyDataSet(
-                deviceName.get(), times, typesList, valuesList, measurementsList, 3);
-            pointSize.set(0);
-          }
+    Set<String> typeQueriedDevice = ConcurrentHashMap.newKeySet();
+
+    importInChunks(
+        records,
+        2,
+        progress,
+        (record, time, tablets) -> {
+          String deviceName = record.get(1);
 
           // the data of the record
           ArrayList<TSDataType> types = new ArrayList<>();
           ArrayList<Object> values = new ArrayList<>();
           ArrayList<String> measurements = new ArrayList<>();
 
-          AtomicReference<Boolean> isFail = new AtomicReference<>(false);
+          boolean isFail = false;
 
           // read data from record
           for (String measurement : headerNameMap.keySet()) {
@@ -499,10 +466,10 @@ public class ImportCsv extends AbstractCsvTool {
               if (!headerTypeMap.containsKey(headerNameMap.get(measurement))) {
                 boolean hasResult = false;
                 // query the data type in iotdb
-                if (!typeQueriedDevice.contains(deviceName.get())) {
+                if (!typeQueriedDevice.contains(deviceName)) {
                   try {
-                    hasResult = queryType(deviceName.get(), headerTypeMap, "Device");
-                    typeQueriedDevice.add(deviceName.get());
+                    hasResult = queryType(deviceName, headerTypeMap, "Device");
+                    typeQueriedDevice.add(deviceName);
                   } catch (IoTDBConnectionException e) {
                     e.printStackTrace();
                   }
@@ -510,12 +477,12 @@ public class ImportCsv extends AbstractCsvTool {
                 if (!hasResult) {
                   type = typeInfer(value);
                   if (type != null) {
-                    headerTypeMap.put(measurement, type);
+                    headerTypeMap.putIfAbsent(measurement, type);
                   } else {
                     System.out.printf(
                         "Line '%s', column '%s': '%s' unknown type%n",
                         record.getRecordNumber(), measurement, value);
-                    isFail.set(true);
+                    isFail = true;
                   }
                 }
               }
@@ -523,7 +490,7 @@ public class ImportCsv extends AbstractCsvTool {
               if (type != null) {
                 Object valueTrans = typeTrans(value, type);
                 if (valueTrans == null) {
-                  isFail.set(true);
+                  isFail = true;
                   System.out.printf(
                       "Line '%s', column '%s': '%s' can't convert to '%s'%n",
                       record.getRecordNumber(), headerNameMap.get(measurement), value, type);
@@ -531,105 +498,246 @@ public class ImportCsv extends AbstractCsvTool {
                   values.add(valueTrans);
                   measurements.add(headerNameMap.get(measurement));
                   types.add(type);
-                  pointSize.getAndIncrement();
                 }
               }
             }
           }
-          if (isFail.get()) {
-            failedRecords.add(record.stream().collect(Collectors.toList()));
-          }
           if (!measurements.isEmpty()) {
-            if (timeFormatter.get() == null) {
-              times.add(Long.valueOf(record.get(timeColumn)));
-            } else {
-              try {
-                times.add(timeFormatter.get().parse(record.get(timeColumn)).getTime());
-              } catch (ParseException e) {
-                System.out.println(
-                    "Meet error when insert csv because the format of time is not supported");
-                System.exit(0);
-              }
-            }
-            typesList.add(types);
-            valuesList.add(values);
-            measurementsList.add(measurements);
+            tablets.addRow(deviceName, time, measurements, types, values);
           }
+          return !isFail;
         });
-    if (times.size() != 0) {
-      writeAndEmptyDataSet(deviceName.get(), times, typesList, valuesList, measurementsList, 3);
-      pointSize.set(0);
+  }
+
+  /**
+   * Cut the records into chunks of about batchPointSize points, which are converted into tablets
+   * and written by threadNum threads. Chunks are cut by the reader at record boundaries, as a
+   * quoted value may span lines. The records imported by the last run are skipped.
+   *
+   * @param firstValueColumn the index of the first column that holds values
+   */
+  private static void importInChunks(
+      Stream<CSVRecord> records,
+      int firstValueColumn,
+      ImportProgress progress,
+      RecordConverter converter) {
+    ExecutorService executor = Executors.newFixedThreadPool(threadNum);
+    // bound the records in memory while the threads are writing
+    Semaphore pendingChunks = new Semaphore(threadNum * 2);
+    long importedRecords = progress.getImportedRecords();
+    if (importedRecords > 0) {
+      System.out.printf("Resume importing from the record after line %d%n", importedRecords);
     }
-    if (!failedRecords.isEmpty()) {
-      writeCsvFile(headerNames, failedRecords, failedFilePath);
+
+    SimpleDateFormat timeFormatter = null;
+    boolean hasStarted = false;
+    List<CSVRecord> chunkRecords = new ArrayList<>();
+    int pointSize = 0;
+    int chunkNum = 0;
+    try {
+      Iterator<CSVRecord> iterator = records.iterator();
+      while (iterator.hasNext() && !progress.isFailed()) {
+        CSVRecord record = iterator.next();
+        if (!hasStarted) {
+          hasStarted = true;
+          timeFormatter = formatterInit(record.get(0));
+        }
+        if (record.getRecordNumber() <= importedRecords) {
+          continue;
+        }
+        chunkRecords.add(record);
+        for (int i = firstValueColumn; i < record.size(); i++) {
+          if (!record.get(i).isEmpty()) {
+            pointSize++;
+          }
+        }
+        if (pointSize >= batchPointSize) {
+          submitChunk(
+              executor,
+              pendingChunks,
+              chunkNum++,
+              chunkRecords,
+              timeFormatter,
+              converter,
+              progress);
+          chunkRecords = new ArrayList<>();
+          pointSize = 0;
+        }
+      }
+      if (!chunkRecords.isEmpty() && !progress.isFailed()) {
+        submitChunk(
+            executor, pendingChunks, chunkNum++, chunkRecords, timeFormatter, converter, progress);
+      }
+      executor.shutdown();
+      executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      executor.shutdownNow();
+      progress.fail();
+    }
+
+    if (!hasStarted) {
+      System.out.println("No records!");
+    } else if (progress.isFinished(chunkNum)) {
+      progress.delete();
+      System.out.println("Import completely!");
+    } else {
+      System.out.printf(
+          "Import is not finished, run the same command again to resume it from %s%n",
+          progress.getProgressPath());
     }
-    System.out.println("Import completely!");
   }
 
-  private static void writeAndEmptyDataSet(
-      String device,
-      List<Long> times,
-      List<List<TSDataType>> typesList,
-      List<List<Object>> valuesList,
-      List<List<String>> measurementsList,
-      int retryTime) {
-    try {
-      if (!aligned) {
-        session.insertRecordsOfOneDevice(device, times, measurementsList, typesList, valuesList);
-      } else {
-        session.insertAlignedRecordsOfOneDevice(
-            device, times, measurementsList, typesList, valuesList);
+  private static void submitChunk(
+      ExecutorService executor,
+      Semaphore pendingChunks,
+      int chunkIndex,
+      List<CSVRecord> chunkRecords,
+      SimpleDateFormat timeFormatter,
+      RecordConverter converter,
+      ImportProgress progress)
+      throws InterruptedException {
+    long lastRecordNumber = chunkRecords.get(chunkRecords.size() - 1).getRecordNumber();
+    // SimpleDateFormat is not thread safe
+    SimpleDateFormat chunkTimeFormatter =
+        timeFormatter == null ? null : (SimpleDateFormat) timeFormatter.clone();
+    pendingChunks.acquire();
+    executor.submit(
+        () -> {
+          try {
+            importChunk(
+                chunkIndex,
+                chunkRecords,
+                lastRecordNumber,
+                chunkTimeFormatter,
+                converter,
+                progress);
+          } finally {
+            pendingChunks.release();
+          }
+        });
+  }
+
+  private static void importChunk(
+      int chunkIndex,
+      List<CSVRecord> chunkRecords,
+      long lastRecordNumber,
+      SimpleDateFormat timeFormatter,
+      RecordConverter converter,
+      ImportProgress progress) {
+    TabletsBuilder tablets = new TabletsBuilder();
+    List<List<Object>> failedRecords = new ArrayList<>();
+    for (CSVRecord record : chunkRecords) {
+      Long time = parseTime(record.get(timeColumn), timeFormatter);
+      if (time == null || !converter.convert(record, time, tablets)) {
+        failedRecords.add(record.stream().collect(Collectors.toList()));
       }
+    }
+    try {
+      writeTablets(tablets.build(), MAX_RETRY_TIMES);
+      progress.finish(chunkIndex, lastRecordNumber, failedRecords);
     } catch (IoTDBConnectionException e) {
-      if (retryTime > 0) {
-        try {
-          session.open();
-        } catch (IoTDBConnectionException ex) {
-          System.out.println("Meet error when insert csv because " + e.getMessage());
-        }
-        writeAndEmptyDataSet(device, times, typesList, valuesList, measurementsList, --retryTime);
-      }
-    } catch (StatementExecutionException e) {
       System.out.println("Meet error when insert csv because " + e.getMessage());
-    } finally {
-      times.clear();
-      typesList.clear();
-      valuesList.clear();
-      measurementsList.clear();
+      progress.fail();
+    } catch (IOException e) {
+      System.out.println("Meet error when record the progress because " + e.getMessage());
+      progress.fail();
     }
   }
 
-  private static void writeAndEmptyDataSet(
-      List<String> deviceIds,
-      List<Long> times,
-      List<List<TSDataType>> typesList,
-      List<List<Object>> valuesList,
-      List<List<String>> measurementsList,
-      int retryTime) {
+  private static Long parseTime(String time, SimpleDateFormat timeFormatter) {
+    try {
+      if (timeFormatter == null) {
+        return Long.valueOf(time);
+      }
+      return timeFormatter.parse(time).getTime();
+    } catch (NumberFormatException | ParseException e) {
+      System.out.println(
+          "Meet error when insert csv because the format of time '" + time + "' is not supported");
+      return null;
+    }
+  }
+
+  private static void writeTablets(Map<String, Tablet> tablets, int retryTime)
+      throws IoTDBConnectionException {
+    if (tablets.isEmpty()) {
+      return;
+    }
     try {
       if (!aligned) {
-        session.insertRecords(deviceIds, times, measurementsList, typesList, valuesList);
+        sessionPool.insertTablets(tablets, false);
       } else {
-        session.insertAlignedRecords(deviceIds, times, measurementsList, typesList, valuesList);
+        sessionPool.insertAlignedTablets(tablets, false);
       }
     } catch (IoTDBConnectionException e) {
-      if (retryTime > 0) {
-        try {
-          session.open();
-        } catch (IoTDBConnectionException ex) {
-          System.out.println("Meet error when insert csv because " + e.getMessage());
-        }
-        writeAndEmptyDataSet(
-            deviceIds, times, typesList, valuesList, measurementsList, --retryTime);
+      if (retryTime <= 0) {
+        throw e;
       }
+      writeTablets(tablets, --retryTime);
     } catch (StatementExecutionException e) {
       System.out.println("Meet error when insert csv because " + e.getMessage());
-    } finally {
-      deviceIds.clear();
-      times.clear();
-      typesList.clear();
-      valuesList.clear();
-      measurementsList.clear();
+    }
+  }
+
+  @FunctionalInterface
+  private interface RecordConverter {
+
+    /** @return false if some values of the record are failed to convert */
+    boolean convert(CSVRecord record, long time, TabletsBuilder tablets);
+  }
+
+  /** Groups the rows of a chunk into a tablet per device. */
+  private static class TabletsBuilder {
+
+    private final Map<String, List<Long>> deviceTimes = new HashMap<>();
+    private final Map<String, Map<String, TSDataType>> deviceTypes = new HashMap<>();
+    private final Map<String, Map<String, List<Object>>> deviceValues = new HashMap<>();
+
+    private void addRow(
+        String deviceId,
+        long time,
+        List<String> measurements,
+        List<TSDataType> types,
+        List<Object> values) {
+      List<Long> times = deviceTimes.computeIfAbsent(deviceId, k -> new ArrayList<>());
+      Map<String, TSDataType> typeMap =
+          deviceTypes.computeIfAbsent(deviceId, k -> new LinkedHashMap<>());
+      Map<String, List<Object>> valueMap =
+          deviceValues.computeIfAbsent(deviceId, k -> new HashMap<>());
+      int row = times.size();
+      times.add(time);
+      for (int i = 0; i < measurements.size(); i++) {
+        typeMap.putIfAbsent(measurements.get(i), types.get(i));
+        List<Object> column = valueMap.computeIfAbsent(measurements.get(i), k -> new ArrayList<>());
+        while (column.size() < row) {
+          column.add(null);
+        }
+        column.add(values.get(i));
+      }
+    }
+
+    private Map<String, Tablet> build() {
+      Map<String, Tablet> tablets = new HashMap<>();
+      for (Map.Entry<String, List<Long>> entry : deviceTimes.entrySet()) {
+        String deviceId = entry.getKey();
+        List<Long> times = entry.getValue();
+        List<MeasurementSchema> schemas = new ArrayList<>();
+        for (Map.Entry<String, TSDataType> type : deviceTypes.get(deviceId).entrySet()) {
+          schemas.add(new MeasurementSchema(type.getKey(), type.getValue()));
+        }
+        Tablet tablet = new Tablet(deviceId, schemas, times.size());
+        for (int row = 0; row < times.size(); row++) {
+          tablet.addTimestamp(row, times.get(row));
+          for (MeasurementSchema schema : schemas) {
+            List<Object> column = deviceValues.get(deviceId).get(schema.getMeasurementId());
+            tablet.addValue(
+                schema.getMeasurementId(), row, row < column.size() ? column.get(row) : null);
+          }
+        }
+        tablet.rowSize = times.size();
+        tablets.put(deviceId, tablet);
+      }
+      return tablets;
     }
   }
 
@@ -662,7 +770,7 @@ public class ImportCsv extends AbstractCsvTool {
   private static void parseHeaders(
       List<String> headerNames,
       @Nullable HashMap<String, List<String>> deviceAndMeasurementNames,
-      HashMap<String, TSDataType> headerTypeMap,
+      Map<String, TSDataType> headerTypeMap,
       HashMap<String, String> headerNameMap) {
     String regex = "(?<=\\()\\S+(?=\\))";
     Pattern pattern = Pattern.compile(regex);
@@ -706,8 +814,8 @@ public class ImportCsv extends AbstractCsvTool {
    * @throws IoTDBConnectionException
    * @throws StatementExecutionException
    */
-  private static boolean queryType(
-      String deviceNames, HashMap<String, TSDataType> headerTypeMap, String alignedType)
+  private static synchronized boolean queryType(
+      String deviceNames, Map<String, TSDataType> headerTypeMap, String alignedType)
       throws IoTDBConnectionException {
     String sql = "select * from " + deviceNames + " limit 1";
     SessionDataSet sessionDataSet = null;
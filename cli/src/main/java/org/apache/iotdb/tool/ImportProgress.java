@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.tool;
+
+import org.apache.iotdb.tsfile.utils.Pair;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The progress of importing a CSV file. Chunks may be written in any order, while the progress file
+ * only records the last record before the first unwritten chunk, and the failed records of the
+ * chunks are appended to the failed file in the order of the chunks.
+ */
+public class ImportProgress {
+
+  private final String progressPath;
+  private final String failedFilePath;
+  private final List<String> headerNames;
+
+  private long importedRecords = 0;
+  private int nextChunk = 0;
+  // index of a written chunk -> the number of its last record and its failed records
+  private final Map<Integer, Pair<Long, List<List<Object>>>> writtenChunks = new HashMap<>();
+  private volatile boolean failed = false;
+
+  public ImportProgress(String progressPath, String failedFilePath, List<String> headerNames)
+      throws IOException {
+    this.progressPath = progressPath;
+    this.failedFilePath = failedFilePath;
+    this.headerNames = headerNames;
+    File progressFile = new File(progressPath);
+    if (progressFile.exists()) {
+      List<String> lines = Files.readAllLines(progressFile.toPath());
+      if (!lines.isEmpty() && !lines.get(0).trim().isEmpty()) {
+        importedRecords = Long.parseLong(lines.get(0).trim());
+      }
+    }
+    if (importedRecords == 0) {
+      Files.deleteIfExists(Paths.get(failedFilePath));
+    }
+  }
+
+  public String getProgressPath() {
+    return progressPath;
+  }
+
+  /** @return the number of the last record before the first unwritten chunk */
+  public synchronized long getImportedRecords() {
+    return importedRecords;
+  }
+
+  /** Record a written chunk, the records of a chunk are numbered after the previous chunks. */
+  public synchronized void finish(
+      int chunkIndex, long lastRecordNumber, List<List<Object>> failedRecords)
+      throws IOException {
+    writtenChunks.put(chunkIndex, new Pair<>(lastRecordNumber, failedRecords));
+    if (chunkIndex != nextChunk) {
+      return;
+    }
+    Pair<Long, List<List<Object>>> chunk;
+    while ((chunk = writtenChunks.remove(nextChunk)) != null) {
+      if (!chunk.right.isEmpty()) {
+        boolean newFile = !new File(failedFilePath).exists();
+        AbstractCsvTool.writeCsvFile(
+            newFile ? headerNames : null, chunk.right, failedFilePath, true);
+      }
+      importedRecords = chunk.left;
+      nextChunk++;
+    }
+    File tempFile = new File(progressPath + ".tmp");
+    Files.write(tempFile.toPath(), String.valueOf(importedRecords).getBytes());
+    Files.move(tempFile.toPath(), Paths.get(progressPath), StandardCopyOption.REPLACE_EXISTING);
+  }
+
+  public void fail() {
+    failed = true;
+  }
+
+  public boolean isFailed() {
+    return failed;
+  }
+
+  public synchronized boolean isFinished(int chunkNum) {
+    return !failed && nextChunk == chunkNum;
+  }
+
+  public void delete() {
+    new File(progressPath).delete();
+  }
+}
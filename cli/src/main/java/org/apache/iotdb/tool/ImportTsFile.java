@@ -0,0 +1,349 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tool;
+
+import org.apache.iotdb.exception.ArgsErrorException;
+import org.apache.iotdb.rpc.IoTDBConnectionException;
+import org.apache.iotdb.rpc.StatementExecutionException;
+import org.apache.iotdb.session.Session;
+import org.apache.iotdb.tsfile.file.metadata.TimeseriesMetadata;
+import org.apache.iotdb.tsfile.read.TsFileDeviceIterator;
+import org.apache.iotdb.tsfile.read.TsFileReader;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.Field;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.common.RowRecord;
+import org.apache.iotdb.tsfile.read.expression.QueryExpression;
+import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
+import org.apache.iotdb.tsfile.utils.Pair;
+import org.apache.iotdb.tsfile.write.record.Tablet;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.CommandLineParser;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Option;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Import TsFiles, such as the ones exported by {@link ExportTsFile}. By default the files are
+ * loaded by the server as a whole, which needs the files to be accessible by the server. Otherwise
+ * the files are read by this tool and written as tablets.
+ */
+public class ImportTsFile extends AbstractCsvTool {
+
+  private static final String FILE_ARGS = "f";
+  private static final String FILE_NAME = "file or folder";
+
+  private static final String MODE_ARGS = "mode";
+  private static final String MODE_NAME = "import mode";
+
+  private static final String SG_LEVEL_ARGS = "sgLevel";
+  private static final String SG_LEVEL_NAME = "storage group level";
+
+  private static final String VERIFY_ARGS = "verify";
+  private static final String VERIFY_NAME = "verify the schema";
+
+  private static final String BATCH_SIZE_ARGS = "batch";
+  private static final String BATCH_SIZE_NAME = "batch row size";
+
+  private static final String TSFILE_SUFFIX = ".tsfile";
+
+  private static final String TSFILEDB_CLI_PREFIX = "ImportTsFile";
+
+  private static final String MODE_LOAD = "load";
+  private static final String MODE_WRITE = "write";
+
+  private static String targetPath;
+  private static String mode = MODE_LOAD;
+  private static String sgLevel;
+  private static String verify;
+  private static int batchSize = 10_000;
+
+  /**
+   * create the commandline options.
+   *
+   * @return object Options
+   */
+  private static Options createOptions() {
+    Options options = createNewOptions();
+
+    Option opFile =
+        Option.builder(FILE_ARGS)
+            .required()
+            .argName(FILE_NAME)
+            .hasArg()
+            .desc(
+                "If input a file path, import a TsFile, "
+                    + "otherwise import all TsFiles under this directory (required)")
+            .build();
+    options.addOption(opFile);
+
+    Option opMode =
+        Option.builder(MODE_ARGS)
+            .argName(MODE_NAME)
+            .hasArg()
+            .desc(
+                "load) the server loads the files, which have to be accessible by the server. "
+                    + "write) the files are read by this tool and written to the server. "
+                    + "load by default (optional)")
+            .build();
+    options.addOption(opMode);
+
+    Option opSgLevel =
+        Option.builder(SG_LEVEL_ARGS)
+            .argName(SG_LEVEL_NAME)
+            .hasArg()
+            .desc("The level of the storage groups to create in load mode (optional)")
+            .build();
+    options.addOption(opSgLevel);
+
+    Option opVerify =
+        Option.builder(VERIFY_ARGS)
+            .argName(VERIFY_NAME)
+            .hasArg()
+            .desc(
+                "Whether to check the data types of the timeseries against the server "
+                    + "in load mode (optional)")
+            .build();
+    options.addOption(opVerify);
+
+    Option opBatchSize =
+        Option.builder(BATCH_SIZE_ARGS)
+            .argName(BATCH_SIZE_NAME)
+            .hasArg()
+            .desc("The number of rows of a tablet in write mode, 10000 by default (optional)")
+            .build();
+    options.addOption(opBatchSize);
+
+    Option opHelp =
+        Option.builder(HELP_ARGS)
+            .longOpt(HELP_ARGS)
+            .hasArg(false)
+            .desc("Display help information")
+            .build();
+    options.addOption(opHelp);
+
+    return options;
+  }
+
+  private static void parseSpecialParams(CommandLine commandLine) throws ArgsErrorException {
+    targetPath = checkRequiredArg(FILE_ARGS, FILE_NAME, commandLine);
+    if (commandLine.getOptionValue(MODE_ARGS) != null) {
+      mode = commandLine.getOptionValue(MODE_ARGS);
+      if (!MODE_LOAD.equals(mode) && !MODE_WRITE.equals(mode)) {
+        throw new ArgsErrorException("The import mode should be load or write");
+      }
+    }
+    sgLevel = commandLine.getOptionValue(SG_LEVEL_ARGS);
+    verify = commandLine.getOptionValue(VERIFY_ARGS);
+    if (commandLine.getOptionValue(BATCH_SIZE_ARGS) != null) {
+      batchSize = Integer.parseInt(commandLine.getOptionValue(BATCH_SIZE_ARGS));
+    }
+  }
+
+  public static void main(String[] args) {
+    Options options = createOptions();
+    HelpFormatter hf = new HelpFormatter();
+    hf.setOptionComparator(null);
+    hf.setWidth(MAX_HELP_CONSOLE_WIDTH);
+    CommandLine commandLine = null;
+    CommandLineParser parser = new DefaultParser();
+
+    if (args == null || args.length == 0) {
+      System.out.println("Too few params input, please check the following hint.");
+      hf.printHelp(TSFILEDB_CLI_PREFIX, options, true);
+      System.exit(CODE_ERROR);
+    }
+    try {
+      commandLine = parser.parse(options, args);
+    } catch (ParseException e) {
+      System.out.println("Parse error: " + e.getMessage());
+      hf.printHelp(TSFILEDB_CLI_PREFIX, options, true);
+      System.exit(CODE_ERROR);
+    }
+    if (commandLine.hasOption(HELP_ARGS)) {
+      hf.printHelp(TSFILEDB_CLI_PREFIX, options, true);
+      System.exit(CODE_ERROR);
+    }
+
+    try {
+      parseBasicParams(commandLine);
+      parseSpecialParams(commandLine);
+    } catch (ArgsErrorException e) {
+      System.out.println("Args error: " + e.getMessage());
+      System.exit(CODE_ERROR);
+    } catch (Exception e) {
+      System.out.println("Encounter an error, because: " + e.getMessage());
+      System.exit(CODE_ERROR);
+    }
+
+    System.exit(importFromTargetPath());
+  }
+
+  private static int importFromTargetPath() {
+    int exitCode = CODE_OK;
+    try {
+      session = new Session(host, Integer.parseInt(port), username, password, false);
+      session.open(false);
+
+      File file = new File(targetPath);
+      if (file.isFile()) {
+        exitCode = importFromSingleFile(file);
+      } else if (file.isDirectory()) {
+        File[] files = file.listFiles();
+        if (files == null) {
+          return CODE_OK;
+        }
+        for (File subFile : files) {
+          if (subFile.isFile() && subFile.getName().endsWith(TSFILE_SUFFIX)) {
+            exitCode = Math.max(exitCode, importFromSingleFile(subFile));
+          }
+        }
+      } else {
+        System.out.println("File not found!");
+        return CODE_ERROR;
+      }
+    } catch (IoTDBConnectionException e) {
+      System.out.println("Encounter an error when connecting to server, because " + e.getMessage());
+      return CODE_ERROR;
+    } finally {
+      if (session != null) {
+        try {
+          session.close();
+        } catch (IoTDBConnectionException e) {
+          System.out.println(
+              "Encounter an error when closing session, error is: " + e.getMessage());
+        }
+      }
+    }
+    return exitCode;
+  }
+
+  private static int importFromSingleFile(File file) {
+    try {
+      if (MODE_LOAD.equals(mode)) {
+        loadFile(file);
+      } else {
+        writeFile(file);
+      }
+      System.out.println("Import " + file.getPath() + " completely!");
+      return CODE_OK;
+    } catch (IoTDBConnectionException | StatementExecutionException e) {
+      System.out.println("Meet error when import " + file.getPath() + " because " + e.getMessage());
+    } catch (IOException e) {
+      System.out.println("TsFile read exception because: " + e.getMessage());
+    }
+    return CODE_ERROR;
+  }
+
+  /** Let the server load the file, without decoding or encoding the data again. */
+  private static void loadFile(File file)
+      throws IoTDBConnectionException, StatementExecutionException {
+    StringBuilder sql = new StringBuilder("load '").append(file.getAbsolutePath()).append("'");
+    List<String> loadOptions = new ArrayList<>();
+    if (sgLevel != null) {
+      loadOptions.add("sglevel=" + sgLevel);
+    }
+    if (verify != null) {
+      loadOptions.add("verify=" + verify);
+    }
+    if (!loadOptions.isEmpty()) {
+      sql.append(' ').append(String.join(",", loadOptions));
+    }
+    session.executeNonQueryStatement(sql.toString());
+  }
+
+  /** Read the file device by device, and write the data as tablets of batchSize rows. */
+  private static void writeFile(File file)
+      throws IOException, IoTDBConnectionException, StatementExecutionException {
+    TsFileSequenceReader sequenceReader = new TsFileSequenceReader(file.getAbsolutePath());
+    try (TsFileReader reader = new TsFileReader(sequenceReader)) {
+      TsFileDeviceIterator devices = sequenceReader.getAllDevicesIteratorWithIsAligned();
+      while (devices.hasNext()) {
+        Pair<String, Boolean> device = devices.next();
+        List<MeasurementSchema> schemas = new ArrayList<>();
+        List<Path> paths = new ArrayList<>();
+        for (Map.Entry<String, TimeseriesMetadata> entry :
+            sequenceReader.readDeviceMetadata(device.left).entrySet()) {
+          // skip the time column of aligned devices
+          if (entry.getKey().isEmpty()) {
+            continue;
+          }
+          schemas.add(new MeasurementSchema(entry.getKey(), entry.getValue().getTSDataType()));
+          paths.add(new Path(device.left, entry.getKey()));
+        }
+        if (!paths.isEmpty()) {
+          writeDevice(reader, device.left, device.right, schemas, paths);
+        }
+      }
+    }
+  }
+
+  private static void writeDevice(
+      TsFileReader reader,
+      String device,
+      boolean aligned,
+      List<MeasurementSchema> schemas,
+      List<Path> paths)
+      throws IOException, IoTDBConnectionException, StatementExecutionException {
+    QueryDataSet dataSet = reader.query(QueryExpression.create(paths, null));
+    Tablet tablet = new Tablet(device, schemas, batchSize);
+    while (dataSet.hasNext()) {
+      RowRecord record = dataSet.next();
+      int row = tablet.rowSize++;
+      tablet.addTimestamp(row, record.getTimestamp());
+      List<Field> fields = record.getFields();
+      for (int i = 0; i < schemas.size(); i++) {
+        Field field = fields.get(i);
+        tablet.addValue(
+            schemas.get(i).getMeasurementId(),
+            row,
+            field == null || field.getDataType() == null
+                ? null
+                : field.getObjectValue(field.getDataType()));
+      }
+      if (tablet.rowSize == tablet.getMaxRowNumber()) {
+        writeTablet(tablet, aligned);
+        tablet.reset();
+      }
+    }
+    if (tablet.rowSize > 0) {
+      writeTablet(tablet, aligned);
+    }
+  }
+
+  private static void writeTablet(Tablet tablet, boolean aligned)
+      throws IoTDBConnectionException, StatementExecutionException {
+    // the rows of a device are read in time order
+    if (aligned) {
+      session.insertAlignedTablet(tablet, true);
+    } else {
+      session.insertTablet(tablet, true);
+    }
+  }
+}
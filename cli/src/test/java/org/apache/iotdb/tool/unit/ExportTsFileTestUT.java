@@ -0,0 +1,43 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tool.unit;
+
+import org.apache.iotdb.tool.ExportTsFile;
+import org.apache.iotdb.tsfile.utils.Pair;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class ExportTsFileTestUT {
+  @Test
+  public void splitLastNodeTest() {
+    Pair<String, String> split = ExportTsFile.splitLastNode("root.sg.d1.s1");
+    assertEquals("root.sg.d1", split.left);
+    assertEquals("s1", split.right);
+
+    split = ExportTsFile.splitLastNode("root.sg.`d.1`.`s.1`");
+    assertEquals("root.sg.`d.1`", split.left);
+    assertEquals("`s.1`", split.right);
+
+    split = ExportTsFile.splitLastNode("root.sg.d1.`s``.1`");
+    assertEquals("root.sg.d1", split.left);
+    assertEquals("`s``.1`", split.right);
+  }
+}
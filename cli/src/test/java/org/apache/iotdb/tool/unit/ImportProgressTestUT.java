@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.tool.unit;
+
+import org.apache.iotdb.tool.ImportProgress;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ImportProgressTestUT {
+
+  private final File progressFile = new File("./test-import.csv.progress");
+  private final File failedFile = new File("./test-import.csv.failed");
+  private final List<String> headerNames = Arrays.asList("Time", "root.sg.d1.s1");
+
+  @After
+  public void tearDown() {
+    progressFile.delete();
+    failedFile.delete();
+  }
+
+  @Test
+  public void finishOutOfOrderTest() throws IOException {
+    ImportProgress progress = newProgress();
+    // chunk 1 is written before chunk 0, the progress waits for chunk 0
+    progress.finish(1, 20, Collections.emptyList());
+    assertEquals(0, progress.getImportedRecords());
+    assertFalse(progress.isFinished(2));
+
+    progress.finish(0, 10, Collections.emptyList());
+    assertEquals(20, progress.getImportedRecords());
+    assertTrue(progress.isFinished(2));
+  }
+
+  @Test
+  public void progressFileTest() throws IOException {
+    ImportProgress progress = newProgress();
+    progress.finish(0, 10, Collections.emptyList());
+    assertEquals(Collections.singletonList("10"), Files.readAllLines(progressFile.toPath()));
+    progress.finish(2, 30, Collections.emptyList());
+    assertEquals(Collections.singletonList("10"), Files.readAllLines(progressFile.toPath()));
+    progress.finish(1, 20, Collections.emptyList());
+    assertEquals(Collections.singletonList("30"), Files.readAllLines(progressFile.toPath()));
+
+    // a rerun resumes after the imported records
+    assertEquals(30, newProgress().getImportedRecords());
+    progress.delete();
+    assertFalse(progressFile.exists());
+    assertEquals(0, newProgress().getImportedRecords());
+  }
+
+  @Test
+  public void failedRecordsInChunkOrderTest() throws IOException {
+    ImportProgress progress = newProgress();
+    progress.finish(2, 30, records("3", "c"));
+    progress.finish(1, 20, records("2", "b"));
+    assertFalse(failedFile.exists());
+    progress.finish(0, 10, records("1", "a"));
+    assertEquals(
+        Arrays.asList("Time,root.sg.d1.s1", "1,a", "2,b", "3,c"),
+        Files.readAllLines(failedFile.toPath()));
+
+    // the failed file is kept when resuming, and started over by a new import
+    progress.finish(3, 40, records("4", "d"));
+    newProgress();
+    assertEquals(5, Files.readAllLines(failedFile.toPath()).size());
+    progress.delete();
+    newProgress();
+    assertFalse(failedFile.exists());
+  }
+
+  private ImportProgress newProgress() throws IOException {
+    return new ImportProgress(progressFile.getPath(), failedFile.getPath(), headerNames);
+  }
+
+  private static List<List<Object>> records(Object... values) {
+    List<List<Object>> records = new ArrayList<>();
+    records.add(Arrays.asList(values));
+    return records;
+  }
+}
@@ -23,10 +23,14 @@ import org.apache.iotdb.tool.AbstractCsvTool;
 
 import org.junit.Test;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 public class WriteCsvFileTestUT {
@@ -43,4 +47,22 @@ public class WriteCsvFileTestUT {
     assertTrue(AbstractCsvTool.writeCsvFile(headerNames, records, "./test0.csv"));
     assertTrue(AbstractCsvTool.writeCsvFile(null, records, "./test1.csv"));
   }
+
+  @Test
+  public void appendCsvFileTest() throws IOException {
+    List<String> headerNames = new ArrayList<>(Arrays.asList("Time", "column1"));
+    List<List<Object>> records1 = new ArrayList<>();
+    records1.add(new ArrayList<>(Arrays.asList(1, "a")));
+    List<List<Object>> records2 = new ArrayList<>();
+    records2.add(new ArrayList<>(Arrays.asList(2, "b")));
+
+    File file = new File("./test2.csv");
+    try {
+      assertTrue(AbstractCsvTool.writeCsvFile(headerNames, records1, file.getPath(), false));
+      assertTrue(AbstractCsvTool.writeCsvFile(null, records2, file.getPath(), true));
+      assertEquals(Arrays.asList("Time,column1", "1,a", "2,b"), Files.readAllLines(file.toPath()));
+    } finally {
+      file.delete();
+    }
+  }
 }
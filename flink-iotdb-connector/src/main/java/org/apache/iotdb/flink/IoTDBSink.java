@@ -19,9 +19,11 @@
 package org.apache.iotdb.flink;
 
 import org.apache.iotdb.flink.options.IoTDBSinkOptions;
+import org.apache.iotdb.session.pool.BufferedTabletWriter;
 import org.apache.iotdb.session.pool.SessionPool;
 import org.apache.iotdb.tsfile.common.constant.TsFileConstant;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.write.record.Tablet;
 
 import com.google.common.base.Preconditions;
 import org.apache.flink.configuration.Configuration;
@@ -29,18 +31,15 @@ import org.apache.flink.streaming.api.functions.sink.RichSinkFunction;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
 
 /**
  * The `IoTDBSink` allows flink jobs to write events into IoTDB timeseries. By default send only one
- * event after another, but you can change to batch by invoking `withBatchSize(int)`.
+ * event after another, but you can change to batch by invoking `withBatchSize(int)`, then events
+ * are buffered into tablets by a {@link BufferedTabletWriter} and sent in the background. A failed
+ * batch fails the next invocation.
  *
  * @param <IN> the input data type
  */
@@ -53,17 +52,16 @@ public class IoTDBSink<IN> extends RichSinkFunction<IN> {
   private IoTSerializationSchema<IN> serializationSchema;
   private Map<String, IoTDBSinkOptions.TimeseriesOption> timeseriesOptionMap;
   private transient SessionPool pool;
-  private transient ScheduledExecutorService scheduledExecutor;
+  private transient BufferedTabletWriter writer;
+  private transient volatile Exception asyncException;
 
   private int batchSize = 0;
   private int flushIntervalMs = 3000;
-  private List<Event> batchList;
   private int sessionPoolSize = 2;
 
   public IoTDBSink(IoTDBSinkOptions options, IoTSerializationSchema<IN> schema) {
     this.options = options;
     this.serializationSchema = schema;
-    this.batchList = new LinkedList<>();
     this.timeseriesOptionMap = new HashMap<>();
     for (IoTDBSinkOptions.TimeseriesOption timeseriesOption : options.getTimeseriesOptionList()) {
       timeseriesOptionMap.put(timeseriesOption.getPath(), timeseriesOption);
@@ -73,7 +71,6 @@ public class IoTDBSink<IN> extends RichSinkFunction<IN> {
   @Override
   public void open(Configuration parameters) throws Exception {
     initSession();
-    initScheduler();
   }
 
   void initSession() {
@@ -86,21 +83,29 @@ public class IoTDBSink<IN> extends RichSinkFunction<IN> {
             sessionPoolSize);
   }
 
-  @SuppressWarnings("unsafeThreadSchedule")
-  void initScheduler() {
-    if (batchSize > 0) {
-      scheduledExecutor = Executors.newSingleThreadScheduledExecutor();
-      scheduledExecutor.scheduleAtFixedRate(
-          () -> {
-            try {
-              flush();
-            } catch (Exception e) {
-              LOG.error("flush error", e);
-            }
-          },
-          flushIntervalMs,
-          flushIntervalMs,
-          TimeUnit.MILLISECONDS);
+  private BufferedTabletWriter getWriter() {
+    if (writer == null) {
+      writer =
+          new BufferedTabletWriter.Builder(pool)
+              .batchRows(batchSize)
+              .lingerMs(flushIntervalMs)
+              .callback(
+                  new BufferedTabletWriter.Callback() {
+                    @Override
+                    public void onFailure(Map<String, Tablet> tablets, Exception e) {
+                      asyncException = e;
+                    }
+                  })
+              .build();
+    }
+    return writer;
+  }
+
+  private void checkAsyncException() throws Exception {
+    Exception e = asyncException;
+    if (e != null) {
+      asyncException = null;
+      throw new Exception("Failed to send buffered events to IoTDB", e);
     }
   }
 
@@ -116,17 +121,19 @@ public class IoTDBSink<IN> extends RichSinkFunction<IN> {
       return;
     }
 
+    checkAsyncException();
+    convertText(event.getDevice(), event.getMeasurements(), event.getValues());
     if (batchSize > 0) {
-      synchronized (batchList) {
-        batchList.add(event);
-        if (batchList.size() >= batchSize) {
-          flush();
-        }
-        return;
-      }
+      getWriter()
+          .insertRecord(
+              event.getDevice(),
+              event.getTimestamp(),
+              event.getMeasurements(),
+              event.getTypes(),
+              event.getValues());
+      return;
     }
 
-    convertText(event.getDevice(), event.getMeasurements(), event.getValues());
     pool.insertRecord(
         event.getDevice(),
         event.getTimestamp(),
@@ -156,16 +163,19 @@ public class IoTDBSink<IN> extends RichSinkFunction<IN> {
 
   @Override
   public void close() {
-    if (pool != null) {
+    if (writer != null) {
       try {
-        flush();
+        writer.close();
+        checkAsyncException();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        LOG.error("flush error", e);
       } catch (Exception e) {
         LOG.error("flush error", e);
       }
-      pool.close();
     }
-    if (scheduledExecutor != null) {
-      scheduledExecutor.shutdown();
+    if (pool != null) {
+      pool.close();
     }
   }
 
@@ -184,30 +194,4 @@ public class IoTDBSink<IN> extends RichSinkFunction<IN> {
       }
     }
   }
-
-  private void flush() throws Exception {
-    if (batchSize > 0) {
-      synchronized (batchList) {
-        if (batchList.size() > 0) {
-          List<String> deviceIds = new ArrayList<>();
-          List<Long> timestamps = new ArrayList<>();
-          List<List<String>> measurementsList = new ArrayList<>();
-          List<List<TSDataType>> typesList = new ArrayList<>();
-          List<List<Object>> valuesList = new ArrayList<>();
-
-          for (Event event : batchList) {
-            convertText(event.getDevice(), event.getMeasurements(), event.getValues());
-            deviceIds.add(event.getDevice());
-            timestamps.add(event.getTimestamp());
-            measurementsList.add(event.getMeasurements());
-            typesList.add(event.getTypes());
-            valuesList.add(event.getValues());
-          }
-          pool.insertRecords(deviceIds, timestamps, measurementsList, typesList, valuesList);
-          LOG.debug("send event successfully");
-          batchList.clear();
-        }
-      }
-    }
-  }
 }
@@ -26,11 +26,12 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
 
@@ -81,9 +82,7 @@ public class IoTDBSinkBatchInsertTest {
     tuple.put("values", "37.1");
     ioTDBSink.invoke(tuple, null);
 
-    verify(pool)
-        .insertRecords(
-            any(List.class), any(List.class), any(List.class), any(List.class), any(List.class));
+    verify(pool, timeout(1000)).insertTablets(any(Map.class), eq(false));
 
     tuple = new HashMap();
     tuple.put("device", "root.sg.D01");
@@ -108,9 +107,7 @@ public class IoTDBSinkBatchInsertTest {
     verifyZeroInteractions(pool);
 
     ioTDBSink.close();
-    verify(pool)
-        .insertRecords(
-            any(List.class), any(List.class), any(List.class), any(List.class), any(List.class));
+    verify(pool).insertTablets(any(Map.class), eq(false));
     verify(pool).close();
   }
 }
@@ -26,10 +26,10 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
@@ -47,7 +47,6 @@ public class IoTDBSinkBatchTimerTest {
     ioTDBSink = new IoTDBSink(options, new DefaultIoTSerializationSchema());
     ioTDBSink.withBatchSize(3);
     ioTDBSink.withFlushIntervalMs(1000);
-    ioTDBSink.initScheduler();
 
     pool = mock(SessionPool.class);
     ioTDBSink.setSessionPool(pool);
@@ -65,9 +64,7 @@ public class IoTDBSinkBatchTimerTest {
 
     Thread.sleep(2500);
 
-    verify(pool)
-        .insertRecords(
-            any(List.class), any(List.class), any(List.class), any(List.class), any(List.class));
+    verify(pool).insertTablets(any(Map.class), eq(false));
 
     Thread.sleep(1000);
 
@@ -0,0 +1,240 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.hadoop.tsfile;
+
+import org.apache.iotdb.hadoop.fileSystem.HDFSInput;
+import org.apache.iotdb.tsfile.file.metadata.IChunkMetadata;
+import org.apache.iotdb.tsfile.file.metadata.TimeseriesMetadata;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.BlockLocation;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.Path;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Generate the input splits of a TsFile aligned to chunk groups. The metadata index of the file is
+ * read once to locate the byte range of every chunk group, and consecutive chunk groups are packed
+ * into splits of about the configured size. A split never cuts a chunk group, so a reader never
+ * seeks into its neighbouring split, and the hosts of a split are the ones holding most bytes of
+ * its range. A chunk group larger than the split size can optionally be divided into several
+ * splits covering the same bytes but disjoint time ranges.
+ */
+class TSFChunkGroupSplitter {
+
+  private TSFChunkGroupSplitter() {}
+
+  static List<TSFInputSplit> generateSplits(
+      Configuration configuration, FileStatus fileStatus, BlockLocation[] blockLocations)
+      throws IOException {
+    Path path = fileStatus.getPath();
+    List<ChunkGroupRange> chunkGroups;
+    try (TsFileSequenceReader reader =
+        new TsFileSequenceReader(new HDFSInput(path, configuration))) {
+      chunkGroups = readChunkGroups(reader);
+    }
+    return packChunkGroups(
+        path,
+        chunkGroups,
+        blockLocations,
+        TSFInputFormat.getSplitSize(configuration, fileStatus.getBlockSize()),
+        TSFInputFormat.getSplitByTime(configuration));
+  }
+
+  /**
+   * Locate the chunk groups of a TsFile from its metadata. The chunks of one chunk group are
+   * adjacent and each measurement has at most one chunk in it, so a chunk starts a new chunk group
+   * if its device differs from the previous chunk's or its measurement is already in the group.
+   *
+   * @return the chunk group ranges ordered by offset, which together cover all the chunks
+   */
+  static List<ChunkGroupRange> readChunkGroups(TsFileSequenceReader reader) throws IOException {
+    // offset of chunk header -> the range of that single chunk, merged into chunk groups below
+    TreeMap<Long, ChunkGroupRange> chunks = new TreeMap<>();
+    for (Map.Entry<String, List<TimeseriesMetadata>> entry :
+        reader.getAllTimeseriesMetadata(true).entrySet()) {
+      for (TimeseriesMetadata timeseriesMetadata : entry.getValue()) {
+        for (IChunkMetadata chunkMetadata : timeseriesMetadata.getChunkMetadataList()) {
+          chunks.put(
+              chunkMetadata.getOffsetOfChunkHeader(),
+              new ChunkGroupRange(
+                  entry.getKey(),
+                  chunkMetadata.getMeasurementUid(),
+                  chunkMetadata.getOffsetOfChunkHeader(),
+                  chunkMetadata.getStartTime(),
+                  chunkMetadata.getEndTime()));
+        }
+      }
+    }
+
+    List<ChunkGroupRange> chunkGroups = new ArrayList<>();
+    ChunkGroupRange current = null;
+    for (ChunkGroupRange chunk : chunks.values()) {
+      if (current != null
+          && current.device.equals(chunk.device)
+          && current.measurements.add(chunk.measurements.iterator().next())) {
+        current.startTime = Math.min(current.startTime, chunk.startTime);
+        current.endTime = Math.max(current.endTime, chunk.endTime);
+      } else {
+        if (current != null) {
+          current.endOffset = chunk.startOffset;
+        }
+        current = chunk;
+        chunkGroups.add(current);
+      }
+    }
+    if (current != null) {
+      current.endOffset = reader.readFileMetadata().getMetaOffset();
+    }
+    return chunkGroups;
+  }
+
+  static List<TSFInputSplit> packChunkGroups(
+      Path path,
+      List<ChunkGroupRange> chunkGroups,
+      BlockLocation[] blockLocations,
+      long splitSize,
+      boolean splitByTime)
+      throws IOException {
+    List<TSFInputSplit> splits = new ArrayList<>();
+    long pendingStart = -1;
+    long pendingEnd = -1;
+    for (ChunkGroupRange chunkGroup : chunkGroups) {
+      boolean tooLarge = chunkGroup.endOffset - chunkGroup.startOffset > splitSize;
+      if (pendingStart >= 0 && (tooLarge || chunkGroup.endOffset - pendingStart > splitSize)) {
+        splits.add(newSplit(path, blockLocations, pendingStart, pendingEnd));
+        pendingStart = -1;
+      }
+      if (tooLarge && splitByTime) {
+        splits.addAll(splitByTime(path, blockLocations, chunkGroup, splitSize));
+        continue;
+      }
+      if (pendingStart < 0) {
+        pendingStart = chunkGroup.startOffset;
+      }
+      pendingEnd = chunkGroup.endOffset;
+    }
+    if (pendingStart >= 0) {
+      splits.add(newSplit(path, blockLocations, pendingStart, pendingEnd));
+    }
+    return splits;
+  }
+
+  /** Divide one chunk group evenly by time into as many splits as its size needs */
+  private static List<TSFInputSplit> splitByTime(
+      Path path, BlockLocation[] blockLocations, ChunkGroupRange chunkGroup, long splitSize)
+      throws IOException {
+    long length = chunkGroup.endOffset - chunkGroup.startOffset;
+    long splitNum = (length + splitSize - 1) / splitSize;
+    long step = (chunkGroup.endTime - chunkGroup.startTime) / splitNum + 1;
+    String[] hosts = getHosts(blockLocations, chunkGroup.startOffset, chunkGroup.endOffset);
+
+    List<TSFInputSplit> splits = new ArrayList<>();
+    for (long i = 0; i < splitNum; i++) {
+      long startTime = chunkGroup.startTime + i * step;
+      if (startTime > chunkGroup.endTime) {
+        break;
+      }
+      long endTime =
+          i == splitNum - 1
+              ? chunkGroup.endTime
+              : Math.min(chunkGroup.endTime, startTime + step - 1);
+      splits.add(
+          new TSFInputSplit(path, hosts, chunkGroup.startOffset, length, startTime, endTime));
+    }
+    return splits;
+  }
+
+  private static TSFInputSplit newSplit(
+      Path path, BlockLocation[] blockLocations, long start, long end) throws IOException {
+    return new TSFInputSplit(path, getHosts(blockLocations, start, end), start, end - start);
+  }
+
+  /**
+   * Get the hosts of the blocks overlapping [start, end), the host holding most bytes of the range
+   * first.
+   */
+  static String[] getHosts(BlockLocation[] blockLocations, long start, long end)
+      throws IOException {
+    Map<String, Long> overlaps = new HashMap<>();
+    for (BlockLocation blockLocation : blockLocations) {
+      long overlap =
+          Math.min(end, blockLocation.getOffset() + blockLocation.getLength())
+              - Math.max(start, blockLocation.getOffset());
+      if (overlap > 0) {
+        for (String host : blockLocation.getHosts()) {
+          overlaps.merge(host, overlap, Long::sum);
+        }
+      }
+    }
+    return overlaps.entrySet().stream()
+        .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+        .map(Map.Entry::getKey)
+        .toArray(String[]::new);
+  }
+
+  /** The byte range [startOffset, endOffset) and time range of one chunk group */
+  static class ChunkGroupRange {
+
+    private final String device;
+    private final Set<String> measurements = new HashSet<>();
+    private final long startOffset;
+    private long endOffset;
+    private long startTime;
+    private long endTime;
+
+    ChunkGroupRange(
+        String device, String measurement, long startOffset, long startTime, long endTime) {
+      this.device = device;
+      this.measurements.add(measurement);
+      this.startOffset = startOffset;
+      this.startTime = startTime;
+      this.endTime = endTime;
+    }
+
+    String getDevice() {
+      return device;
+    }
+
+    long getStartOffset() {
+      return startOffset;
+    }
+
+    long getEndOffset() {
+      return endOffset;
+    }
+
+    long getStartTime() {
+      return startTime;
+    }
+
+    long getEndTime() {
+      return endTime;
+    }
+  }
+}
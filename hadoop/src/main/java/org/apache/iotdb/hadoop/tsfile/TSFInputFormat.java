@@ -18,6 +18,10 @@
  */
 package org.apache.iotdb.hadoop.tsfile;
 
+import org.apache.iotdb.tsfile.read.filter.TimeFilter;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.filter.factory.FilterFactory;
+
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.BlockLocation;
 import org.apache.hadoop.fs.FileStatus;
@@ -34,11 +38,17 @@ import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import static org.apache.iotdb.tsfile.common.constant.TsFileConstant.TSFILE_SUFFIX;
@@ -59,6 +69,23 @@ public class TSFInputFormat extends FileInputFormat<NullWritable, MapWritable> {
   public static final String READ_DELTAOBJECTS = "tsfile.read.deltaobject";
   /** key to configure the reading measurementIds */
   public static final String READ_MEASUREMENTID = "tsfile.read.measurement";
+  /** key to configure the lower bound (inclusive) of the time range to read */
+  public static final String READ_TIME_START = "tsfile.read.time.start";
+  /** key to configure the upper bound (inclusive) of the time range to read */
+  public static final String READ_TIME_END = "tsfile.read.time.end";
+  /** key prefix to configure the value filter of one measurement, followed by the measurementId */
+  public static final String VALUE_FILTER_PREFIX = "tsfile.filter.value.";
+  /** key to configure how the files are split, {@link #SPLIT_BY_BLOCK} by default */
+  public static final String SPLIT_STRATEGY = "tsfile.split.strategy";
+  /** key to configure the target size in bytes of a split, the file's block size by default */
+  public static final String SPLIT_SIZE = "tsfile.split.size";
+  /** key to configure whether a chunk group larger than the split size is divided by time */
+  public static final String SPLIT_BY_TIME_ENABLE = "tsfile.split.time.enable";
+
+  /** split by the HDFS blocks of the file */
+  public static final String SPLIT_BY_BLOCK = "block";
+  /** split by the chunk groups of the file read from its metadata index */
+  public static final String SPLIT_BY_CHUNK_GROUP = "chunk_group";
 
   private static final Logger logger = LoggerFactory.getLogger(TSFInputFormat.class);
   private static final String SEPARATOR = ",";
@@ -225,6 +252,137 @@ public class TSFInputFormat extends FileInputFormat<NullWritable, MapWritable> {
     return configuration.get(FILTER_EXPRESSION);
   }
 
+  /**
+   * Set the time range to read. The range is pushed down into the TsFile reader, so that chunks
+   * and pages whose statistics fall outside of it are skipped without being decoded.
+   *
+   * @param job hadoop job
+   * @param startTime the lower bound of the range, inclusive
+   * @param endTime the upper bound of the range, inclusive
+   * @throws TSFHadoopException if startTime is larger than endTime
+   */
+  public static void setReadTimeRange(Job job, long startTime, long endTime)
+      throws TSFHadoopException {
+    if (startTime > endTime) {
+      throw new TSFHadoopException(
+          String.format("The start time %d is larger than the end time %d", startTime, endTime));
+    }
+    job.getConfiguration().setLong(READ_TIME_START, startTime);
+    job.getConfiguration().setLong(READ_TIME_END, endTime);
+  }
+
+  /**
+   * Get the time filter built from the configured time range
+   *
+   * @param configuration hadoop configuration
+   * @return the time filter, null if no time range has been set
+   */
+  public static Filter getReadTimeFilter(Configuration configuration) {
+    long startTime = configuration.getLong(READ_TIME_START, Long.MIN_VALUE);
+    long endTime = configuration.getLong(READ_TIME_END, Long.MAX_VALUE);
+    if (startTime == Long.MIN_VALUE && endTime == Long.MAX_VALUE) {
+      return null;
+    }
+    if (startTime == Long.MIN_VALUE) {
+      return TimeFilter.ltEq(endTime);
+    }
+    if (endTime == Long.MAX_VALUE) {
+      return TimeFilter.gtEq(startTime);
+    }
+    return FilterFactory.and(TimeFilter.gtEq(startTime), TimeFilter.ltEq(endTime));
+  }
+
+  /**
+   * Set the value filter of one measurement. Only the rows of a device whose value of this
+   * measurement satisfies the filter are read, and devices without this measurement are skipped.
+   * Filters of different measurements are combined with AND.
+   *
+   * @param job hadoop job
+   * @param measurementId the measurement the filter applies to
+   * @param filter a value filter, e.g. ValueFilter.gt(100)
+   * @throws TSFHadoopException if the measurementId or the filter is null or empty
+   */
+  public static void setValueFilter(Job job, String measurementId, Filter filter)
+      throws TSFHadoopException {
+    if (measurementId == null || measurementId.isEmpty() || filter == null) {
+      throw new TSFHadoopException("The measurement or the value filter is null or empty");
+    }
+    ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+    filter.serialize(new DataOutputStream(byteArrayOutputStream));
+    job.getConfiguration()
+        .set(
+            VALUE_FILTER_PREFIX + measurementId,
+            Base64.getEncoder().encodeToString(byteArrayOutputStream.toByteArray()));
+  }
+
+  /**
+   * Get the value filters which have been set
+   *
+   * @param configuration hadoop configuration
+   * @return map from measurementId to its value filter, empty if no value filter has been set
+   */
+  public static Map<String, Filter> getValueFilters(Configuration configuration) {
+    Map<String, Filter> valueFilters = new HashMap<>();
+    for (Map.Entry<String, String> entry :
+        configuration.getValByRegex("^" + VALUE_FILTER_PREFIX.replace(".", "\\.")).entrySet()) {
+      valueFilters.put(
+          entry.getKey().substring(VALUE_FILTER_PREFIX.length()),
+          FilterFactory.deserialize(ByteBuffer.wrap(Base64.getDecoder().decode(entry.getValue()))));
+    }
+    return valueFilters;
+  }
+
+  /**
+   * Set how the files are split
+   *
+   * @param job hadoop job
+   * @param value {@link #SPLIT_BY_BLOCK} or {@link #SPLIT_BY_CHUNK_GROUP}
+   * @throws TSFHadoopException if the strategy is unknown
+   */
+  public static void setSplitStrategy(Job job, String value) throws TSFHadoopException {
+    if (!SPLIT_BY_BLOCK.equals(value) && !SPLIT_BY_CHUNK_GROUP.equals(value)) {
+      throw new TSFHadoopException("Unknown split strategy " + value);
+    }
+    job.getConfiguration().set(SPLIT_STRATEGY, value);
+  }
+
+  public static String getSplitStrategy(Configuration configuration) {
+    return configuration.get(SPLIT_STRATEGY, SPLIT_BY_BLOCK);
+  }
+
+  /**
+   * Set the target size in bytes of a split, only used by {@link #SPLIT_BY_CHUNK_GROUP}
+   *
+   * @param job hadoop job
+   * @param value the split size
+   * @throws TSFHadoopException if the size is not positive
+   */
+  public static void setSplitSize(Job job, long value) throws TSFHadoopException {
+    if (value <= 0) {
+      throw new TSFHadoopException("The split size should be positive, but is " + value);
+    }
+    job.getConfiguration().setLong(SPLIT_SIZE, value);
+  }
+
+  public static long getSplitSize(Configuration configuration, long defaultValue) {
+    return configuration.getLong(SPLIT_SIZE, defaultValue);
+  }
+
+  /**
+   * Set whether a chunk group larger than the split size is divided into several splits of
+   * disjoint time ranges, only used by {@link #SPLIT_BY_CHUNK_GROUP}
+   *
+   * @param job hadoop job
+   * @param value true to divide large chunk groups by time
+   */
+  public static void setSplitByTime(Job job, boolean value) {
+    job.getConfiguration().setBoolean(SPLIT_BY_TIME_ENABLE, value);
+  }
+
+  public static boolean getSplitByTime(Configuration configuration) {
+    return configuration.getBoolean(SPLIT_BY_TIME_ENABLE, false);
+  }
+
   @Override
   public RecordReader<NullWritable, MapWritable> createRecordReader(
       InputSplit split, TaskAttemptContext context) {
@@ -243,6 +401,7 @@ public class TSFInputFormat extends FileInputFormat<NullWritable, MapWritable> {
       throws IOException {
     BlockLocation[] blockLocations;
     List<TSFInputSplit> splits = new ArrayList<>();
+    boolean splitByChunkGroup = SPLIT_BY_CHUNK_GROUP.equals(getSplitStrategy(configuration));
     // get the all file in the directory
     logger.info("The number of this job file is {}", listFileStatus.size());
     // For each file
@@ -264,7 +423,10 @@ public class TSFInputFormat extends FileInputFormat<NullWritable, MapWritable> {
         blockLocations = fileSystem.getFileBlockLocations(fileStatus, 0, length);
 
         logger.info("The block location information is {}", Arrays.toString(blockLocations));
-        splits.addAll(generateSplits(path, blockLocations));
+        splits.addAll(
+            splitByChunkGroup
+                ? TSFChunkGroupSplitter.generateSplits(configuration, fileStatus, blockLocations)
+                : generateSplits(path, blockLocations));
       } else {
         logger.warn("The file length is " + length);
       }
@@ -22,6 +22,10 @@ import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.io.Writable;
 import org.apache.hadoop.mapred.FileSplit;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
 /**
  * This is tsfile <code>InputSplit</code>.<br>
  * Each <code>InputSplit</code> will be processed by individual <code>Mapper</code> task.
@@ -29,6 +33,14 @@ import org.apache.hadoop.mapred.FileSplit;
 public class TSFInputSplit extends FileSplit
     implements Writable, org.apache.hadoop.mapred.InputSplit {
 
+  /**
+   * The time range [startTime, endTime] this split is restricted to, used when one chunk group is
+   * too large and is divided into several splits by time. Unbounded by default.
+   */
+  private long startTime = Long.MIN_VALUE;
+
+  private long endTime = Long.MAX_VALUE;
+
   public TSFInputSplit() {
     super();
   }
@@ -36,4 +48,44 @@ public class TSFInputSplit extends FileSplit
   public TSFInputSplit(Path path, String[] hosts, long start, long length) {
     super(path, start, length, hosts);
   }
+
+  public TSFInputSplit(
+      Path path, String[] hosts, long start, long length, long startTime, long endTime) {
+    super(path, start, length, hosts);
+    this.startTime = startTime;
+    this.endTime = endTime;
+  }
+
+  public long getStartTime() {
+    return startTime;
+  }
+
+  public long getEndTime() {
+    return endTime;
+  }
+
+  public boolean hasTimeRange() {
+    return startTime != Long.MIN_VALUE || endTime != Long.MAX_VALUE;
+  }
+
+  @Override
+  public void write(DataOutput out) throws IOException {
+    super.write(out);
+    out.writeLong(startTime);
+    out.writeLong(endTime);
+  }
+
+  @Override
+  public void readFields(DataInput in) throws IOException {
+    super.readFields(in);
+    startTime = in.readLong();
+    endTime = in.readLong();
+  }
+
+  @Override
+  public String toString() {
+    return hasTimeRange()
+        ? super.toString() + "[" + startTime + "," + endTime + "]"
+        : super.toString();
+  }
 }
@@ -19,13 +19,22 @@
 package org.apache.iotdb.hadoop.tsfile;
 
 import org.apache.iotdb.hadoop.fileSystem.HDFSInput;
+import org.apache.iotdb.tsfile.file.metadata.TimeseriesMetadata;
 import org.apache.iotdb.tsfile.read.TsFileReader;
 import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
 import org.apache.iotdb.tsfile.read.common.Field;
 import org.apache.iotdb.tsfile.read.common.Path;
 import org.apache.iotdb.tsfile.read.common.RowRecord;
+import org.apache.iotdb.tsfile.read.expression.IExpression;
 import org.apache.iotdb.tsfile.read.expression.QueryExpression;
+import org.apache.iotdb.tsfile.read.expression.impl.BinaryExpression;
+import org.apache.iotdb.tsfile.read.expression.impl.GlobalTimeExpression;
+import org.apache.iotdb.tsfile.read.expression.impl.SingleSeriesExpression;
+import org.apache.iotdb.tsfile.read.filter.TimeFilter;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.filter.factory.FilterFactory;
 import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
+import org.apache.iotdb.tsfile.utils.BloomFilter;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.io.BooleanWritable;
@@ -44,9 +53,9 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-
-import static java.util.stream.Collectors.toList;
+import java.util.Map;
 
 public class TSFRecordReader extends RecordReader<NullWritable, MapWritable> implements IReaderSet {
 
@@ -69,6 +78,13 @@ public class TSFRecordReader extends RecordReader<NullWritable, MapWritable> imp
   private boolean isReadTime = false;
   private TsFileSequenceReader reader;
   private List<String> measurementIds;
+  /**
+   * fieldPositions[i] is the index in the fields of the current QueryDataSet of measurementIds[i],
+   * -1 if that measurement was pruned. Null if the fields are already aligned to measurementIds.
+   */
+  private int[] fieldPositions;
+  /** The index of QueryDataSet that fieldPositions was computed for */
+  private int fieldPositionsIndex = -1;
 
   @Override
   public void initialize(InputSplit split, TaskAttemptContext context) throws IOException {
@@ -108,13 +124,27 @@ public class TSFRecordReader extends RecordReader<NullWritable, MapWritable> imp
     readerSet.setReadDeviceId(TSFInputFormat.getReadDeviceId(configuration));
     readerSet.setReadTime(TSFInputFormat.getReadTime(configuration));
 
+    Filter timeFilter = TSFInputFormat.getReadTimeFilter(configuration);
+    if (split.hasTimeRange()) {
+      Filter splitTimeFilter =
+          FilterFactory.and(
+              TimeFilter.gtEq(split.getStartTime()), TimeFilter.ltEq(split.getEndTime()));
+      timeFilter =
+          timeFilter == null ? splitTimeFilter : FilterFactory.and(timeFilter, splitTimeFilter);
+    }
+    Map<String, Filter> valueFilters = TSFInputFormat.getValueFilters(configuration);
+    BloomFilter bloomFilter = reader.readBloomFilter();
+
     try (TsFileReader queryEngine = new TsFileReader(reader)) {
       for (String deviceId : deviceIds) {
         List<Path> paths =
-            measurementIds.stream()
-                .map(measurementId -> new Path(deviceId, measurementId))
-                .collect(toList());
-        QueryExpression queryExpression = QueryExpression.create(paths, null);
+            prunePaths(reader, bloomFilter, deviceId, measurementIds, timeFilter, valueFilters);
+        if (paths.isEmpty()) {
+          logger.debug("Device {} is pruned by the file metadata", deviceId);
+          continue;
+        }
+        QueryExpression queryExpression =
+            QueryExpression.create(paths, buildExpression(deviceId, timeFilter, valueFilters));
         QueryDataSet dataSet =
             queryEngine.query(
                 queryExpression, split.getStart(), split.getStart() + split.getLength());
@@ -124,14 +154,125 @@ public class TSFRecordReader extends RecordReader<NullWritable, MapWritable> imp
     }
   }
 
+  /**
+   * Get the paths of a device that need to be queried. The file's bloom filter and the timeseries
+   * metadata of the device are consulted first, so that measurements the device doesn't have are
+   * pruned and a device whose statistics can't satisfy the time or value filters is skipped
+   * entirely, without reading any of its chunks.
+   *
+   * @return the paths to query, empty if the device can be skipped
+   */
+  private static List<Path> prunePaths(
+      TsFileSequenceReader reader,
+      BloomFilter bloomFilter,
+      String deviceId,
+      List<String> measurementIds,
+      Filter timeFilter,
+      Map<String, Filter> valueFilters)
+      throws IOException {
+    List<Path> paths = new ArrayList<>();
+    if (bloomFilter != null) {
+      boolean mayExist = false;
+      for (String measurementId : measurementIds) {
+        if (bloomFilter.contains(new Path(deviceId, measurementId).getFullPath())) {
+          mayExist = true;
+          break;
+        }
+      }
+      if (!mayExist) {
+        return paths;
+      }
+    }
+
+    Map<String, TimeseriesMetadata> deviceMetadata = reader.readDeviceMetadata(deviceId);
+    for (Map.Entry<String, Filter> entry : valueFilters.entrySet()) {
+      TimeseriesMetadata timeseriesMetadata = deviceMetadata.get(entry.getKey());
+      if (timeseriesMetadata == null
+          || !entry.getValue().satisfy(timeseriesMetadata.getStatistics())
+          || (timeFilter != null && !timeFilter.satisfy(timeseriesMetadata.getStatistics()))) {
+        return paths;
+      }
+    }
+    boolean timeSatisfied = timeFilter == null;
+    for (String measurementId : measurementIds) {
+      TimeseriesMetadata timeseriesMetadata = deviceMetadata.get(measurementId);
+      if (timeseriesMetadata != null) {
+        paths.add(new Path(deviceId, measurementId));
+        timeSatisfied = timeSatisfied || timeFilter.satisfy(timeseriesMetadata.getStatistics());
+      }
+    }
+    if (!timeSatisfied) {
+      paths.clear();
+    }
+    return paths;
+  }
+
+  /**
+   * Combine the time filter and the value filters of a device into one expression
+   *
+   * @return the expression, null if there is no filter
+   */
+  private static IExpression buildExpression(
+      String deviceId, Filter timeFilter, Map<String, Filter> valueFilters) {
+    IExpression expression = timeFilter == null ? null : new GlobalTimeExpression(timeFilter);
+    for (Map.Entry<String, Filter> entry : valueFilters.entrySet()) {
+      IExpression valueExpression =
+          new SingleSeriesExpression(new Path(deviceId, entry.getKey()), entry.getValue());
+      expression =
+          expression == null ? valueExpression : BinaryExpression.and(expression, valueExpression);
+    }
+    return expression;
+  }
+
+  /**
+   * Compute where each measurement lies in the fields of a QueryDataSet, whose selected paths may
+   * be only part of the configured measurements after pruning.
+   *
+   * @return the positions, null if the fields are already aligned to measurementIds
+   */
+  public static int[] getFieldPositions(List<Path> paths, List<String> measurementIds) {
+    int[] positions = new int[measurementIds.size()];
+    Arrays.fill(positions, -1);
+    boolean aligned = paths.size() == measurementIds.size();
+    for (int i = 0; i < paths.size(); i++) {
+      int index = measurementIds.indexOf(paths.get(i).getMeasurement());
+      if (index >= 0) {
+        positions[index] = i;
+      }
+      aligned = aligned && index == i;
+    }
+    return aligned ? null : positions;
+  }
+
+  /**
+   * Align the fields of one row to the configured measurements, pruned measurements become null.
+   *
+   * @param positions the result of {@link #getFieldPositions(List, List)}
+   */
+  public static List<Field> alignFields(List<Field> fields, int[] positions) {
+    if (positions == null) {
+      return fields;
+    }
+    List<Field> alignedFields = new ArrayList<>(positions.length);
+    for (int position : positions) {
+      alignedFields.add(position < 0 ? null : fields.get(position));
+    }
+    return alignedFields;
+  }
+
   @Override
   public boolean nextKeyValue() throws IOException {
     while (currentIndex < dataSetList.size()) {
       if (!dataSetList.get(currentIndex).hasNext()) {
         currentIndex++;
       } else {
+        if (fieldPositionsIndex != currentIndex) {
+          fieldPositions =
+              getFieldPositions(dataSetList.get(currentIndex).getPaths(), measurementIds);
+          fieldPositionsIndex = currentIndex;
+        }
         RowRecord rowRecord = dataSetList.get(currentIndex).next();
-        fields = rowRecord.getFields();
+        fields = alignFields(rowRecord.getFields(), fieldPositions);
         timestamp = rowRecord.getTimestamp();
         return true;
       }
@@ -23,12 +23,16 @@ import org.apache.iotdb.hadoop.tsfile.constant.TestConstant;
 import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
 import org.apache.iotdb.tsfile.fileSystem.FSType;
 import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.filter.ValueFilter;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 
 import org.apache.hadoop.io.BooleanWritable;
 import org.apache.hadoop.io.DoubleWritable;
 import org.apache.hadoop.io.FloatWritable;
 import org.apache.hadoop.io.IntWritable;
 import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.MapWritable;
+import org.apache.hadoop.io.NullWritable;
 import org.apache.hadoop.io.Text;
 import org.apache.hadoop.io.Writable;
 import org.apache.hadoop.mapreduce.InputSplit;
@@ -44,10 +48,13 @@ import java.io.IOException;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -137,6 +144,26 @@ public class TSFHadoopTest {
     String filterExpr = "s1>100";
     TSFInputFormat.setFilterExp(job, filterExpr);
     assertEquals(filterExpr, TSFInputFormat.getFilterExp(job.getConfiguration()));
+
+    //
+    // time range and value filter
+    //
+    assertNull(TSFInputFormat.getReadTimeFilter(job.getConfiguration()));
+    try {
+      TSFInputFormat.setReadTimeRange(job, 10, 20);
+      TSFInputFormat.setValueFilter(job, "s1", ValueFilter.gt(100L));
+    } catch (TSFHadoopException e) {
+      e.printStackTrace();
+      fail(e.getMessage());
+    }
+    Filter timeFilter = TSFInputFormat.getReadTimeFilter(job.getConfiguration());
+    assertTrue(timeFilter.satisfy(10, null));
+    assertTrue(timeFilter.satisfy(20, null));
+    assertFalse(timeFilter.satisfy(21, null));
+    Map<String, Filter> valueFilters = TSFInputFormat.getValueFilters(job.getConfiguration());
+    assertEquals(1, valueFilters.size());
+    assertTrue(valueFilters.get("s1").satisfy(0, 101L));
+    assertFalse(valueFilters.get("s1").satisfy(0, 100L));
   }
 
   @Test
@@ -226,4 +253,94 @@ public class TSFHadoopTest {
       TSFileDescriptor.getInstance().getConfig().setTSFileStorageFs(beforeFSType);
     }
   }
+
+  @Test
+  public void RecordReaderPushDownTest() {
+    TsFileTestHelper.writeTsFile(tsfilePath);
+    try {
+      Job job = Job.getInstance();
+      TSFInputFormat.setInputPaths(job, tsfilePath);
+      // device_2 doesn't exist in the file and is skipped
+      TSFInputFormat.setReadDeviceIds(job, new String[] {"device_1", "device_2"});
+      // sensor_11 doesn't exist in the file and is pruned
+      String[] sensors = {"sensor_1", "sensor_2", "sensor_11"};
+      TSFInputFormat.setReadMeasurementIds(job, sensors);
+      TSFInputFormat.setReadDeviceId(job, false);
+      TSFInputFormat.setReadTime(job, true);
+      TSFInputFormat.setReadTimeRange(job, 101, 200);
+      TSFInputFormat.setValueFilter(job, "sensor_1", ValueFilter.lt(1000150L));
+      List<InputSplit> inputSplits = inputFormat.getSplits(job);
+      beforeFSType = TSFileDescriptor.getInstance().getConfig().getTSFileStorageFs();
+      TSFileDescriptor.getInstance().getConfig().setTSFileStorageFs(FSType.HDFS);
+
+      long time = 101L;
+      for (InputSplit inputSplit : inputSplits) {
+        TSFRecordReader recordReader = new TSFRecordReader();
+        recordReader.initialize(
+            inputSplit, new TaskAttemptContextImpl(job.getConfiguration(), new TaskAttemptID()));
+        while (recordReader.nextKeyValue()) {
+          MapWritable value = recordReader.getCurrentValue();
+          assertEquals(sensors.length + 1, value.size());
+          assertEquals(String.valueOf(time), value.get(new Text("time_stamp")).toString());
+          assertEquals(
+              String.valueOf(time + 999999L), value.get(new Text("sensor_1")).toString());
+          assertEquals(
+              String.valueOf(time + 999999L), value.get(new Text("sensor_2")).toString());
+          assertEquals(NullWritable.get(), value.get(new Text("sensor_11")));
+          time++;
+        }
+        recordReader.close();
+      }
+      assertEquals(151L, time);
+    } catch (IOException | TSFHadoopException | InterruptedException e) {
+      e.printStackTrace();
+      fail(e.getMessage());
+    } finally {
+      TSFileDescriptor.getInstance().getConfig().setTSFileStorageFs(beforeFSType);
+    }
+  }
+
+  @Test
+  public void ChunkGroupSplitTest() {
+    TsFileTestHelper.writeTsFile(tsfilePath);
+    try {
+      Job job = Job.getInstance();
+      TSFInputFormat.setInputPaths(job, tsfilePath);
+      TSFInputFormat.setReadDeviceIds(job, new String[] {"device_1"});
+      TSFInputFormat.setReadMeasurementIds(job, new String[] {"sensor_1"});
+      TSFInputFormat.setReadDeviceId(job, false);
+      TSFInputFormat.setReadTime(job, true);
+      TSFInputFormat.setSplitStrategy(job, TSFInputFormat.SPLIT_BY_CHUNK_GROUP);
+      // chunk groups larger than a quarter of the file are divided into splits by time
+      TSFInputFormat.setSplitSize(job, new File(tsfilePath).length() / 4);
+      TSFInputFormat.setSplitByTime(job, true);
+      List<InputSplit> inputSplits = inputFormat.getSplits(job);
+      assertTrue(inputSplits.size() > 1);
+      beforeFSType = TSFileDescriptor.getInstance().getConfig().getTSFileStorageFs();
+      TSFileDescriptor.getInstance().getConfig().setTSFileStorageFs(FSType.HDFS);
+
+      // every row is read by exactly one split, in time order
+      long time = 1L;
+      for (InputSplit inputSplit : inputSplits) {
+        assertTrue(inputSplit.getLength() > 0);
+        TSFRecordReader recordReader = new TSFRecordReader();
+        recordReader.initialize(
+            inputSplit, new TaskAttemptContextImpl(job.getConfiguration(), new TaskAttemptID()));
+        while (recordReader.nextKeyValue()) {
+          MapWritable value = recordReader.getCurrentValue();
+          assertEquals(String.valueOf(time), value.get(new Text("time_stamp")).toString());
+          assertEquals(
+              String.valueOf(time + 999999L), value.get(new Text("sensor_1")).toString());
+          time++;
+        }
+        recordReader.close();
+      }
+      assertEquals(1000001L, time);
+    } catch (IOException | TSFHadoopException | InterruptedException e) {
+      e.printStackTrace();
+      fail(e.getMessage());
+    } finally {
+      TSFileDescriptor.getInstance().getConfig().setTSFileStorageFs(beforeFSType);
+    }
+  }
 }
@@ -27,6 +27,8 @@ import org.junit.Test;
 import java.io.IOException;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 /** Test the {@link TSFInputSplit} Assert the readFields function and write function is right */
@@ -63,6 +65,29 @@ public class TSFInputSplitTest {
       assertEquals(wInputSplit.getPath(), rInputSplit.getPath());
       assertEquals(wInputSplit.getStart(), rInputSplit.getStart());
       assertEquals(wInputSplit.getLength(), rInputSplit.getLength());
+      assertFalse(rInputSplit.hasTimeRange());
+    } catch (IOException e) {
+      e.printStackTrace();
+      fail(e.getMessage());
+    }
+  }
+
+  @Test
+  public void testInputSplitWithTimeRangeWriteAndRead() {
+    TSFInputSplit timeInputSplit =
+        new TSFInputSplit(new Path("input"), new String[] {"localhost"}, 30, 100, 10, 20);
+    try {
+      timeInputSplit.write(dataOutputBuffer);
+      dataOutputBuffer.flush();
+      dataInputBuffer.reset(dataOutputBuffer.getData(), dataOutputBuffer.getLength());
+      rInputSplit.readFields(dataInputBuffer);
+      dataInputBuffer.close();
+      dataOutputBuffer.close();
+      assertEquals(timeInputSplit.getStart(), rInputSplit.getStart());
+      assertEquals(timeInputSplit.getLength(), rInputSplit.getLength());
+      assertTrue(rInputSplit.hasTimeRange());
+      assertEquals(10, rInputSplit.getStartTime());
+      assertEquals(20, rInputSplit.getEndTime());
     } catch (IOException e) {
       e.printStackTrace();
       fail(e.getMessage());
@@ -59,6 +59,10 @@ public class TSFHiveRecordReader implements RecordReader<NullWritable, MapWritab
   private boolean isReadTime;
   private TsFileSequenceReader reader;
   private List<String> measurementIds;
+  /** Where each measurement lies in the fields of the current QueryDataSet */
+  private int[] fieldPositions;
+  /** The index of QueryDataSet that fieldPositions was computed for */
+  private int fieldPositionsIndex = -1;
 
   @Override
   public boolean next(NullWritable key, MapWritable value) throws IOException {
@@ -66,8 +70,14 @@ public class TSFHiveRecordReader implements RecordReader<NullWritable, MapWritab
       if (!dataSetList.get(currentIndex).hasNext()) {
         currentIndex++;
       } else {
+        if (fieldPositionsIndex != currentIndex) {
+          fieldPositions =
+              TSFRecordReader.getFieldPositions(
+                  dataSetList.get(currentIndex).getPaths(), measurementIds);
+          fieldPositionsIndex = currentIndex;
+        }
         RowRecord rowRecord = dataSetList.get(currentIndex).next();
-        List<Field> fields = rowRecord.getFields();
+        List<Field> fields = TSFRecordReader.alignFields(rowRecord.getFields(), fieldPositions);
         long timestamp = rowRecord.getTimestamp();
 
         try {
@@ -50,7 +50,9 @@ public enum ThreadName {
   TIME_COST_STATISTIC("TIME_COST_STATISTIC"),
   QUERY_SERVICE("Query"),
   SUB_RAW_QUERY_SERVICE("Sub_RawQuery"),
+  CHUNK_READ_AHEAD_SERVICE("Chunk-ReadAhead"),
   INSERTION_SERVICE("MultithreadingInsertionPool"),
+  MQTT_INSERT_BATCH_SERVICE("MQTT-Insert-Batch"),
   WINDOW_EVALUATION_SERVICE("WindowEvaluationTaskPoolManager"),
   TTL_CHECK_SERVICE("TTL-CHECK"),
   TIMED_FlUSH_SEQ_MEMTABLE("Timed-Flush-Seq-Memtable"),
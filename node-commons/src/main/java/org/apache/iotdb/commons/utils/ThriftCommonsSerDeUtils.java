@@ -50,6 +50,12 @@ public class ThriftCommonsSerDeUtils {
     return new TBinaryProtocol(transport);
   }
 
+  private static TBinaryProtocol generateWriteProtocol(ByteBuffer buffer)
+      throws TTransportException {
+    TTransport transport = new TByteBuffer(buffer);
+    return new TBinaryProtocol(transport);
+  }
+
   private static TBinaryProtocol generateReadProtocol(ByteBuffer buffer)
       throws TTransportException {
     TTransport transport = new TByteBuffer(buffer);
@@ -177,6 +183,15 @@ public class ThriftCommonsSerDeUtils {
     }
   }
 
+  public static void serializeTRegionReplicaSet(
+      TRegionReplicaSet regionReplicaSet, ByteBuffer buffer) {
+    try {
+      regionReplicaSet.write(generateWriteProtocol(buffer));
+    } catch (TException e) {
+      throw new ThriftSerDeException("Write TRegionReplicaSet failed: ", e);
+    }
+  }
+
   public static TRegionReplicaSet deserializeTRegionReplicaSet(ByteBuffer buffer) {
     TRegionReplicaSet regionReplicaSet = new TRegionReplicaSet();
     try {
@@ -314,6 +314,7 @@ public class AuthorityChecker {
         return PrivilegeType.READ_TIMESERIES.ordinal();
       case INSERT:
       case LOAD_DATA:
+      case LOAD_FILES:
       case CREATE_INDEX:
       case BATCH_INSERT:
       case BATCH_INSERT_ONE_DEVICE:
@@ -99,6 +99,15 @@ public class IoTDBConfig {
   /** max mqtt message size. Unit: byte */
   private int mqttMaxMessageSize = 1048576;
 
+  /** max rows of mqtt messages inserted by one statement when batching is enabled. */
+  private int mqttInsertBatchSize = 1000;
+
+  /**
+   * how long the rows of mqtt messages wait for a batch before being inserted. Batching is disabled
+   * if it is not positive. Unit: ms
+   */
+  private long mqttInsertBatchLingerMs = 0;
+
   /** Rpc binding address. */
   private String rpcAddress = "0.0.0.0";
 
@@ -238,6 +247,10 @@ public class IoTDBConfig {
   private String syncDir =
       IoTDBConstant.DEFAULT_BASE_DIR + File.separator + IoTDBConstant.SYNC_FOLDER_NAME;
 
+  /** Load directory, stores split pieces and received pieces of loading tsfiles temporarily */
+  private String loadTsFileDir =
+      IoTDBConstant.DEFAULT_BASE_DIR + File.separator + IoTDBConstant.LOAD_TSFILE_FOLDER_NAME;
+
   /** Performance tracing directory, stores performance tracing files */
   private String tracingDir =
       IoTDBConstant.DEFAULT_BASE_DIR + File.separator + IoTDBConstant.TRACING_FOLDER_NAME;
@@ -304,6 +317,18 @@ public class IoTDBConfig {
   /** Blocking queue size for read task in raw data query. */
   private int rawQueryBlockingQueueCapacity = 5;
 
+  /**
+   * How many chunks ahead a sequential scan reads in the background while decoding the current
+   * one. When <= 0, chunks are read on demand.
+   */
+  private int chunkReadAheadNum = 0;
+
+  /** Max memory of the chunks read ahead by one scan, charged to the query memory pool. */
+  private long chunkReadAheadMemoryInByte = 16 * 1024 * 1024L;
+
+  /** How many threads can concurrently read chunks ahead. When <= 0, use CPU core number. */
+  private int concurrentChunkReadAheadThread = 4;
+
   /** How many threads can concurrently evaluate windows. When <= 0, use CPU core number. */
   private int concurrentWindowEvaluationThread = Runtime.getRuntime().availableProcessors();
 
@@ -468,6 +493,12 @@ public class IoTDBConfig {
   /** Whether to enable Last cache */
   private boolean lastCacheEnable = true;
 
+  /**
+   * Ratio of read memory allocated for the last value cache of DataNode. Least read entries are
+   * evicted when it is exceeded.
+   */
+  private double lastCacheMemoryProportion = 0.1;
+
   /** Set true to enable statistics monitor service, false to disable statistics service. */
   private boolean enableStatMonitor = false;
 
@@ -815,6 +846,9 @@ public class IoTDBConfig {
   /** whether to use persistent schema mode */
   private String schemaEngineMode = "Memory";
 
+  /** whether to store MTree in compact containers with interned names in Memory mode */
+  private boolean enableCompactMTreeInMemory = false;
+
   /** the memory used for metadata cache when using persistent schema */
   private int cachedMNodeSizeInSchemaFileMode = -1;
 
@@ -824,6 +858,12 @@ public class IoTDBConfig {
   /** cache size for pages in one schema file */
   private int pageCacheSizeInSchemaFile = 1024;
 
+  /** max number of pages prefetched asynchronously when traversing a schema file, 0 to disable */
+  private int prefetchPageNumInSchemaFile = 8;
+
+  /** number of dirty pages buffered in one schema file before they are written back in batch */
+  private int dirtyPageFlushThresholdInSchemaFile = 256;
+
   /** Internal ip for data node */
   private String internalIp = "127.0.0.1";
 
@@ -1028,6 +1068,7 @@ public class IoTDBConfig {
     systemDir = addHomeDir(systemDir);
     schemaDir = addHomeDir(schemaDir);
     syncDir = addHomeDir(syncDir);
+    loadTsFileDir = addHomeDir(loadTsFileDir);
     tracingDir = addHomeDir(tracingDir);
     consensusDir = addHomeDir(consensusDir);
     dataRegionConsensusDir = addHomeDir(dataRegionConsensusDir);
@@ -1194,6 +1235,14 @@ public class IoTDBConfig {
     this.syncDir = syncDir;
   }
 
+  public String getLoadTsFileDir() {
+    return loadTsFileDir;
+  }
+
+  void setLoadTsFileDir(String loadTsFileDir) {
+    this.loadTsFileDir = loadTsFileDir;
+  }
+
   public String getTracingDir() {
     return tracingDir;
   }
@@ -1328,6 +1377,30 @@ public class IoTDBConfig {
     this.rawQueryBlockingQueueCapacity = rawQueryBlockingQueueCapacity;
   }
 
+  public int getChunkReadAheadNum() {
+    return chunkReadAheadNum;
+  }
+
+  public void setChunkReadAheadNum(int chunkReadAheadNum) {
+    this.chunkReadAheadNum = chunkReadAheadNum;
+  }
+
+  public long getChunkReadAheadMemoryInByte() {
+    return chunkReadAheadMemoryInByte;
+  }
+
+  public void setChunkReadAheadMemoryInByte(long chunkReadAheadMemoryInByte) {
+    this.chunkReadAheadMemoryInByte = chunkReadAheadMemoryInByte;
+  }
+
+  public int getConcurrentChunkReadAheadThread() {
+    return concurrentChunkReadAheadThread;
+  }
+
+  void setConcurrentChunkReadAheadThread(int concurrentChunkReadAheadThread) {
+    this.concurrentChunkReadAheadThread = concurrentChunkReadAheadThread;
+  }
+
   public int getConcurrentWindowEvaluationThread() {
     return concurrentWindowEvaluationThread;
   }
@@ -1893,6 +1966,18 @@ public class IoTDBConfig {
     this.lastCacheEnable = lastCacheEnable;
   }
 
+  public long getAllocateMemoryForLastCache() {
+    return (long) (allocateMemoryForRead * lastCacheMemoryProportion);
+  }
+
+  public double getLastCacheMemoryProportion() {
+    return lastCacheMemoryProportion;
+  }
+
+  public void setLastCacheMemoryProportion(double lastCacheMemoryProportion) {
+    this.lastCacheMemoryProportion = lastCacheMemoryProportion;
+  }
+
   public boolean isEnableWatermark() {
     return enableWatermark;
   }
@@ -2262,6 +2347,22 @@ public class IoTDBConfig {
     this.mqttMaxMessageSize = mqttMaxMessageSize;
   }
 
+  public int getMqttInsertBatchSize() {
+    return mqttInsertBatchSize;
+  }
+
+  public void setMqttInsertBatchSize(int mqttInsertBatchSize) {
+    this.mqttInsertBatchSize = mqttInsertBatchSize;
+  }
+
+  public long getMqttInsertBatchLingerMs() {
+    return mqttInsertBatchLingerMs;
+  }
+
+  public void setMqttInsertBatchLingerMs(long mqttInsertBatchLingerMs) {
+    this.mqttInsertBatchLingerMs = mqttInsertBatchLingerMs;
+  }
+
   public int getTagAttributeTotalSize() {
     return tagAttributeTotalSize;
   }
@@ -2657,6 +2758,14 @@ public class IoTDBConfig {
     this.schemaEngineMode = schemaEngineMode;
   }
 
+  public boolean isEnableCompactMTreeInMemory() {
+    return enableCompactMTreeInMemory;
+  }
+
+  public void setEnableCompactMTreeInMemory(boolean enableCompactMTreeInMemory) {
+    this.enableCompactMTreeInMemory = enableCompactMTreeInMemory;
+  }
+
   public int getCachedMNodeSizeInSchemaFileMode() {
     return cachedMNodeSizeInSchemaFileMode;
   }
@@ -2681,6 +2790,22 @@ public class IoTDBConfig {
     this.pageCacheSizeInSchemaFile = pageCacheSizeInSchemaFile;
   }
 
+  public int getPrefetchPageNumInSchemaFile() {
+    return prefetchPageNumInSchemaFile;
+  }
+
+  public void setPrefetchPageNumInSchemaFile(int prefetchPageNumInSchemaFile) {
+    this.prefetchPageNumInSchemaFile = prefetchPageNumInSchemaFile;
+  }
+
+  public int getDirtyPageFlushThresholdInSchemaFile() {
+    return dirtyPageFlushThresholdInSchemaFile;
+  }
+
+  public void setDirtyPageFlushThresholdInSchemaFile(int dirtyPageFlushThresholdInSchemaFile) {
+    this.dirtyPageFlushThresholdInSchemaFile = dirtyPageFlushThresholdInSchemaFile;
+  }
+
   public String getInternalIp() {
     return internalIp;
   }
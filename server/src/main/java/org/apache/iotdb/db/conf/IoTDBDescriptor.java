@@ -256,6 +256,8 @@ public class IoTDBDescriptor {
 
       conf.setSyncDir(properties.getProperty("sync_dir", conf.getSyncDir()));
 
+      conf.setLoadTsFileDir(properties.getProperty("load_tsfile_dir", conf.getLoadTsFileDir()));
+
       conf.setConsensusDir(properties.getProperty("consensus_dir", conf.getConsensusDir()));
 
       int mlogBufferSize =
@@ -492,6 +494,27 @@ public class IoTDBDescriptor {
                   "raw_query_blocking_queue_capacity",
                   Integer.toString(conf.getRawQueryBlockingQueueCapacity()))));
 
+      conf.setChunkReadAheadNum(
+          Integer.parseInt(
+              properties.getProperty(
+                  "chunk_read_ahead_num", Integer.toString(conf.getChunkReadAheadNum()))));
+
+      conf.setChunkReadAheadMemoryInByte(
+          Long.parseLong(
+              properties.getProperty(
+                  "chunk_read_ahead_memory_in_byte",
+                  Long.toString(conf.getChunkReadAheadMemoryInByte()))));
+
+      conf.setConcurrentChunkReadAheadThread(
+          Integer.parseInt(
+              properties.getProperty(
+                  "concurrent_chunk_read_ahead_thread",
+                  Integer.toString(conf.getConcurrentChunkReadAheadThread()))));
+
+      if (conf.getConcurrentChunkReadAheadThread() <= 0) {
+        conf.setConcurrentChunkReadAheadThread(Runtime.getRuntime().availableProcessors());
+      }
+
       conf.setSchemaRegionDeviceNodeCacheSize(
           Integer.parseInt(
               properties
@@ -747,6 +770,12 @@ public class IoTDBDescriptor {
       conf.setSchemaEngineMode(
           properties.getProperty("schema_engine_mode", String.valueOf(conf.getSchemaEngineMode())));
 
+      conf.setEnableCompactMTreeInMemory(
+          Boolean.parseBoolean(
+              properties.getProperty(
+                  "enable_compact_mtree_in_memory",
+                  String.valueOf(conf.isEnableCompactMTreeInMemory()))));
+
       conf.setEnableLastCache(
           Boolean.parseBoolean(
               properties.getProperty(
@@ -756,6 +785,12 @@ public class IoTDBDescriptor {
         conf.setEnableLastCache(false);
       }
 
+      conf.setLastCacheMemoryProportion(
+          Double.parseDouble(
+              properties.getProperty(
+                  "last_cache_memory_proportion",
+                  Double.toString(conf.getLastCacheMemoryProportion()))));
+
       conf.setCachedMNodeSizeInSchemaFileMode(
           Integer.parseInt(
               properties.getProperty(
@@ -774,6 +809,18 @@ public class IoTDBDescriptor {
                   "page_cache_in_schema_file",
                   String.valueOf(conf.getPageCacheSizeInSchemaFile()))));
 
+      conf.setPrefetchPageNumInSchemaFile(
+          Integer.parseInt(
+              properties.getProperty(
+                  "prefetch_page_num_in_schema_file",
+                  String.valueOf(conf.getPrefetchPageNumInSchemaFile()))));
+
+      conf.setDirtyPageFlushThresholdInSchemaFile(
+          Integer.parseInt(
+              properties.getProperty(
+                  "dirty_page_flush_threshold_in_schema_file",
+                  String.valueOf(conf.getDirtyPageFlushThresholdInSchemaFile()))));
+
       // mqtt
       loadMqttProps(properties);
 
@@ -1164,6 +1211,74 @@ public class IoTDBDescriptor {
             properties.getProperty(
                 "compressor",
                 TSFileDescriptor.getInstance().getConfig().getCompressor().toString()));
+    TSFileDescriptor.getInstance()
+        .getConfig()
+        .setZstdCompressionLevel(
+            Integer.parseInt(
+                properties.getProperty(
+                    "zstd_compression_level",
+                    Integer.toString(
+                        TSFileDescriptor.getInstance().getConfig().getZstdCompressionLevel()))));
+    TSFileDescriptor.getInstance()
+        .getConfig()
+        .setZstdDictionarySize(
+            Integer.parseInt(
+                properties.getProperty(
+                    "zstd_dictionary_size",
+                    Integer.toString(
+                        TSFileDescriptor.getInstance().getConfig().getZstdDictionarySize()))));
+    TSFileDescriptor.getInstance()
+        .getConfig()
+        .setZstdDictionarySampleNum(
+            Integer.parseInt(
+                properties.getProperty(
+                    "zstd_dictionary_sample_num",
+                    Integer.toString(
+                        TSFileDescriptor.getInstance().getConfig().getZstdDictionarySampleNum()))));
+    TSFileDescriptor.getInstance()
+        .getConfig()
+        .setCoalescedReadMaxGapSize(
+            Integer.parseInt(
+                properties.getProperty(
+                    "coalesced_read_max_gap_size",
+                    Integer.toString(
+                        TSFileDescriptor.getInstance().getConfig().getCoalescedReadMaxGapSize()))));
+    TSFileDescriptor.getInstance()
+        .getConfig()
+        .setEnableTimeseriesMetadataHashIndex(
+            Boolean.parseBoolean(
+                properties.getProperty(
+                    "enable_timeseries_metadata_hash_index",
+                    Boolean.toString(
+                        TSFileDescriptor.getInstance()
+                            .getConfig()
+                            .isEnableTimeseriesMetadataHashIndex()))));
+    TSFileDescriptor.getInstance()
+        .getConfig()
+        .setEnableValueBloomFilter(
+            Boolean.parseBoolean(
+                properties.getProperty(
+                    "enable_value_bloom_filter",
+                    Boolean.toString(
+                        TSFileDescriptor.getInstance().getConfig().isEnableValueBloomFilter()))));
+    TSFileDescriptor.getInstance()
+        .getConfig()
+        .setValueBloomFilterMaxDistinctCount(
+            Integer.parseInt(
+                properties.getProperty(
+                    "value_bloom_filter_max_distinct_count",
+                    Integer.toString(
+                        TSFileDescriptor.getInstance()
+                            .getConfig()
+                            .getValueBloomFilterMaxDistinctCount()))));
+    TSFileDescriptor.getInstance()
+        .getConfig()
+        .setRollupInterval(
+            Long.parseLong(
+                properties.getProperty(
+                    "rollup_interval",
+                    Long.toString(
+                        TSFileDescriptor.getInstance().getConfig().getRollupInterval()))));
     TSFileDescriptor.getInstance()
         .getConfig()
         .setMaxDegreeOfIndexNode(
@@ -1205,6 +1320,16 @@ public class IoTDBDescriptor {
       conf.setMqttMaxMessageSize(
           Integer.parseInt(properties.getProperty(IoTDBConstant.MQTT_MAX_MESSAGE_SIZE)));
     }
+
+    if (properties.getProperty(IoTDBConstant.MQTT_INSERT_BATCH_SIZE) != null) {
+      conf.setMqttInsertBatchSize(
+          Integer.parseInt(properties.getProperty(IoTDBConstant.MQTT_INSERT_BATCH_SIZE)));
+    }
+
+    if (properties.getProperty(IoTDBConstant.MQTT_INSERT_BATCH_LINGER_MS) != null) {
+      conf.setMqttInsertBatchLingerMs(
+          Long.parseLong(properties.getProperty(IoTDBConstant.MQTT_INSERT_BATCH_LINGER_MS)));
+    }
   }
 
   // timed flush memtable
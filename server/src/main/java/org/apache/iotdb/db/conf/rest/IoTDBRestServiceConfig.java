@@ -55,6 +55,9 @@ public class IoTDBRestServiceConfig {
 
   private int restQueryDefaultRowSizeLimit = 10000;
 
+  /** the max number of rows in one batch of a streamed query response */
+  private int restQueryStreamBatchSize = 1000;
+
   /** Is client authentication required */
   private boolean clientAuth = false;
 
@@ -161,4 +164,12 @@ public class IoTDBRestServiceConfig {
   public void setRestQueryDefaultRowSizeLimit(int restQueryDefaultRowSizeLimit) {
     this.restQueryDefaultRowSizeLimit = restQueryDefaultRowSizeLimit;
   }
+
+  public int getRestQueryStreamBatchSize() {
+    return restQueryStreamBatchSize;
+  }
+
+  public void setRestQueryStreamBatchSize(int restQueryStreamBatchSize) {
+    this.restQueryStreamBatchSize = restQueryStreamBatchSize;
+  }
 }
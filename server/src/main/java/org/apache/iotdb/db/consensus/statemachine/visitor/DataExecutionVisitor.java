@@ -18,13 +18,18 @@
  */
 package org.apache.iotdb.db.consensus.statemachine.visitor;
 
+import org.apache.iotdb.common.rpc.thrift.TConsensusGroupId;
 import org.apache.iotdb.common.rpc.thrift.TSStatus;
+import org.apache.iotdb.commons.exception.IllegalPathException;
 import org.apache.iotdb.commons.path.PartialPath;
 import org.apache.iotdb.commons.utils.StatusUtils;
 import org.apache.iotdb.db.engine.storagegroup.DataRegion;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
 import org.apache.iotdb.db.exception.BatchProcessException;
+import org.apache.iotdb.db.exception.LoadFileException;
 import org.apache.iotdb.db.exception.TriggerExecutionException;
 import org.apache.iotdb.db.exception.WriteProcessException;
+import org.apache.iotdb.db.metadata.cache.DataNodeLastCache;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanVisitor;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.write.DeleteDataNode;
@@ -33,13 +38,20 @@ import org.apache.iotdb.db.mpp.plan.planner.plan.node.write.InsertRowNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.write.InsertRowsNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.write.InsertRowsOfOneDeviceNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.write.InsertTabletNode;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.write.LoadTsFileNode;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.write.LoadTsFilePiece;
+import org.apache.iotdb.db.utils.LoadTsFileUtils;
 import org.apache.iotdb.rpc.RpcUtils;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 
 public class DataExecutionVisitor extends PlanVisitor<TSStatus, DataRegion> {
   private static final Logger LOGGER = LoggerFactory.getLogger(DataExecutionVisitor.class);
@@ -120,4 +132,35 @@ public class DataExecutionVisitor extends PlanVisitor<TSStatus, DataRegion> {
       return StatusUtils.EXECUTE_STATEMENT_ERROR;
     }
   }
+
+  @Override
+  public TSStatus visitLoadTsFile(LoadTsFileNode node, DataRegion dataRegion) {
+    TConsensusGroupId regionId = node.getRegionReplicaSet().getRegionId();
+    File receiveDir = LoadTsFileUtils.getReceiveDir(node.getUuid(), regionId);
+    try {
+      for (LoadTsFilePiece piece : node.getPieces()) {
+        TsFileResource resource =
+            piece.prepare(LoadTsFileUtils.getPieceDir(receiveDir, piece.getIndex()));
+        Map<String, List<String>> deviceMeasurementsMap;
+        try (TsFileSequenceReader reader = new TsFileSequenceReader(resource.getTsFilePath())) {
+          deviceMeasurementsMap = reader.getDeviceMeasurementsMap();
+        }
+        // the received files are owned by the load and are moved into the data dir
+        dataRegion.loadNewTsFile(resource, true);
+        // the loaded points may be newer than the cached last points
+        for (Map.Entry<String, List<String>> entry : deviceMeasurementsMap.entrySet()) {
+          PartialPath devicePath = new PartialPath(entry.getKey());
+          for (String measurement : entry.getValue()) {
+            DataNodeLastCache.getInstance().invalidate(devicePath.concatNode(measurement));
+          }
+        }
+      }
+      return StatusUtils.OK;
+    } catch (IOException | LoadFileException | IllegalPathException e) {
+      LOGGER.error("Error in executing plan node: {}", node, e);
+      return StatusUtils.EXECUTE_STATEMENT_ERROR;
+    } finally {
+      LoadTsFileUtils.cleanUp(node.getUuid(), regionId);
+    }
+  }
 }
@@ -33,6 +33,7 @@ import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
 import org.apache.iotdb.tsfile.read.common.Chunk;
 import org.apache.iotdb.tsfile.utils.RamUsageEstimator;
 
+import com.github.benmanes.caffeine.cache.CacheLoader;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.LoadingCache;
 import com.github.benmanes.caffeine.cache.Weigher;
@@ -40,6 +41,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
@@ -74,15 +82,32 @@ public class ChunkCache {
                                 + RamUsageEstimator.sizeOf(chunk)))
             .recordStats()
             .build(
-                chunkMetadata -> {
-                  try {
-                    TsFileSequenceReader reader =
-                        FileReaderManager.getInstance()
-                            .get(chunkMetadata.getFilePath(), chunkMetadata.isClosed());
-                    return reader.readMemChunk(chunkMetadata);
-                  } catch (IOException e) {
-                    logger.error("Something wrong happened in reading {}", chunkMetadata, e);
-                    throw e;
+                new CacheLoader<ChunkMetadata, Chunk>() {
+                  @Override
+                  public Chunk load(ChunkMetadata chunkMetadata) throws IOException {
+                    try {
+                      TsFileSequenceReader reader =
+                          FileReaderManager.getInstance()
+                              .get(chunkMetadata.getFilePath(), chunkMetadata.isClosed());
+                      return reader.readMemChunk(chunkMetadata);
+                    } catch (IOException e) {
+                      logger.error("Something wrong happened in reading {}", chunkMetadata, e);
+                      throw e;
+                    }
+                  }
+
+                  @Override
+                  public Map<ChunkMetadata, Chunk> loadAll(
+                      Iterable<? extends ChunkMetadata> chunkMetadataList) throws IOException {
+                    Map<ChunkMetadata, Chunk> chunks = new HashMap<>();
+                    for (List<ChunkMetadata> fileChunkMetadataList :
+                        groupByFile(chunkMetadataList)) {
+                      List<Chunk> fileChunks = readMemChunks(fileChunkMetadataList);
+                      for (int i = 0; i < fileChunks.size(); i++) {
+                        chunks.put(fileChunkMetadataList.get(i), fileChunks.get(i));
+                      }
+                    }
+                    return chunks;
                   }
                 });
 
@@ -134,6 +159,81 @@ public class ChunkCache {
         chunkMetaData.getStatistics());
   }
 
+  /**
+   * get the chunks of one query together, chunks that are not cached and close to each other in
+   * one file are read by one IO, e.g. the value chunks of an aligned device.
+   *
+   * @return chunks in the order of chunkMetadataList
+   */
+  public List<Chunk> getAll(List<ChunkMetadata> chunkMetadataList, boolean debug)
+      throws IOException {
+    List<Chunk> chunks = new ArrayList<>(chunkMetadataList.size());
+    if (!CACHE_ENABLE) {
+      Map<ChunkMetadata, Chunk> chunkMap = new HashMap<>();
+      for (List<ChunkMetadata> fileChunkMetadataList : groupByFile(chunkMetadataList)) {
+        List<Chunk> fileChunks = readMemChunks(fileChunkMetadataList);
+        for (int i = 0; i < fileChunks.size(); i++) {
+          chunkMap.put(fileChunkMetadataList.get(i), fileChunks.get(i));
+        }
+      }
+      for (ChunkMetadata chunkMetadata : chunkMetadataList) {
+        chunks.add(copyOf(chunkMap.get(chunkMetadata), chunkMetadata));
+      }
+      return chunks;
+    }
+
+    Map<ChunkMetadata, Chunk> chunkMap;
+    try {
+      chunkMap = lruCache.getAll(chunkMetadataList);
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw e;
+    }
+
+    if (debug) {
+      DEBUG_LOGGER.info("get chunks from cache whose meta data are: " + chunkMetadataList);
+    }
+
+    for (ChunkMetadata chunkMetadata : chunkMetadataList) {
+      chunks.add(copyOf(chunkMap.get(chunkMetadata), chunkMetadata));
+    }
+    return chunks;
+  }
+
+  private static Chunk copyOf(Chunk chunk, ChunkMetadata chunkMetadata) {
+    return new Chunk(
+        chunk.getHeader(),
+        chunk.getData().duplicate(),
+        chunkMetadata.getDeleteIntervalList(),
+        chunkMetadata.getStatistics());
+  }
+
+  private static Collection<List<ChunkMetadata>> groupByFile(
+      Iterable<? extends ChunkMetadata> chunkMetadataList) {
+    Map<String, List<ChunkMetadata>> fileToChunkMetadata = new LinkedHashMap<>();
+    for (ChunkMetadata chunkMetadata : chunkMetadataList) {
+      fileToChunkMetadata
+          .computeIfAbsent(chunkMetadata.getFilePath(), k -> new ArrayList<>())
+          .add(chunkMetadata);
+    }
+    return fileToChunkMetadata.values();
+  }
+
+  private static List<Chunk> readMemChunks(List<ChunkMetadata> fileChunkMetadataList)
+      throws IOException {
+    ChunkMetadata first = fileChunkMetadataList.get(0);
+    try {
+      TsFileSequenceReader reader =
+          FileReaderManager.getInstance().get(first.getFilePath(), first.isClosed());
+      return reader.readMemChunks(fileChunkMetadataList);
+    } catch (IOException e) {
+      logger.error("Something wrong happened in reading chunks of {}", first.getFilePath(), e);
+      throw e;
+    }
+  }
+
   public double calculateChunkHitRatio() {
     return lruCache.stats().hitRate();
   }
@@ -89,6 +89,13 @@ public class CompactionUtils {
             targetResource.getTsFilePath().replace(tmpFileSuffix, TsFileConstant.TSFILE_SUFFIX));
     if (!newFile.exists()) {
       FSFactoryProducer.getFSFactory().moveFile(targetResource.getTsFile(), newFile);
+      for (String suffix : TsFileResource.INDEX_FILE_SUFFIXES) {
+        File indexFile = new File(targetResource.getTsFilePath() + suffix);
+        if (indexFile.exists()) {
+          FSFactoryProducer.getFSFactory()
+              .moveFile(indexFile, new File(newFile.getPath() + suffix));
+        }
+      }
     }
 
     // serialize xxx.tsfile.resource
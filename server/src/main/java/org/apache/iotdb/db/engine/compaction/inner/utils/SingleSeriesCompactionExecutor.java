@@ -133,6 +133,9 @@ public class SingleSeriesCompactionExecutor {
           continue;
         }
 
+        // keep the rollup in case the chunk is written to the target file directly
+        chunkMetadata.getStatistics().setChunkRollup(reader.readChunkRollup(chunkMetadata));
+
         long chunkSize = getChunkSize(currentChunk);
         long chunkPointNum = currentChunk.getChunkStatistic().getCount();
         // we process this chunk in three different way according to the size of it
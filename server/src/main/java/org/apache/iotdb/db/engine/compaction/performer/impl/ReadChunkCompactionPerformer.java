@@ -27,6 +27,7 @@ import org.apache.iotdb.db.engine.compaction.inner.utils.SingleSeriesCompactionE
 import org.apache.iotdb.db.engine.compaction.performer.ISeqCompactionPerformer;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
 import org.apache.iotdb.db.exception.StorageEngineException;
+import org.apache.iotdb.tsfile.compress.ZstdDictionaryManager;
 import org.apache.iotdb.tsfile.file.metadata.AlignedChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
 import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
@@ -79,6 +80,11 @@ public class ReadChunkCompactionPerformer implements ISeqCompactionPerformer {
 
       for (TsFileResource tsFileResource : seqFiles) {
         targetResource.updatePlanIndexes(tsFileResource);
+        // the chunks copied from the source files may be compressed with their ZSTD dictionaries
+        for (int dictionaryId :
+            ZstdDictionaryManager.getInstance().loadDictionaries(tsFileResource.getTsFilePath())) {
+          writer.addZstdDictionary(dictionaryId);
+        }
       }
       writer.endFile();
       targetResource.close();
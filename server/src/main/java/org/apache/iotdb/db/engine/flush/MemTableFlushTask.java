@@ -32,6 +32,7 @@ import org.apache.iotdb.db.service.metrics.enums.Metric;
 import org.apache.iotdb.db.service.metrics.enums.Tag;
 import org.apache.iotdb.metrics.config.MetricConfigDescriptor;
 import org.apache.iotdb.metrics.utils.MetricLevel;
+import org.apache.iotdb.tsfile.compress.ZstdDictionaryManager;
 import org.apache.iotdb.tsfile.write.chunk.IChunkWriter;
 import org.apache.iotdb.tsfile.write.writer.RestorableTsFileIOWriter;
 
@@ -69,6 +70,9 @@ public class MemTableFlushTask {
 
   private IMemTable memTable;
 
+  // the ZSTD dictionary of the storage group, 0 if the chunks are compressed without dictionary
+  private int zstdDictionaryId;
+
   private volatile long memSerializeTime = 0L;
   private volatile long ioTime = 0L;
 
@@ -82,6 +86,7 @@ public class MemTableFlushTask {
     this.memTable = memTable;
     this.writer = writer;
     this.storageGroup = storageGroup;
+    this.zstdDictionaryId = ZstdDictionaryManager.getInstance().getDictionaryId(storageGroup);
     this.encodingTaskFuture = SUB_TASK_POOL_MANAGER.submit(encodingTask);
     this.ioTaskFuture = SUB_TASK_POOL_MANAGER.submit(ioTask);
     LOGGER.debug(
@@ -108,6 +113,18 @@ public class MemTableFlushTask {
     long start = System.currentTimeMillis();
     long sortTime = 0;
 
+    if (zstdDictionaryId != 0) {
+      try {
+        writer.addZstdDictionary(zstdDictionaryId);
+      } catch (IOException e) {
+        LOGGER.warn(
+            "Cannot write ZSTD dictionary next to {}, compress without it",
+            writer.getFile().getName(),
+            e);
+        zstdDictionaryId = 0;
+      }
+    }
+
     // for map do not use get(key) to iterate
     for (Map.Entry<IDeviceID, IWritableMemChunkGroup> memTableEntry :
         memTable.getMemTableMap().entrySet()) {
@@ -216,6 +233,9 @@ public class MemTableFlushTask {
               long starTime = System.currentTimeMillis();
               IWritableMemChunk writableMemChunk = (IWritableMemChunk) task;
               IChunkWriter seriesWriter = writableMemChunk.createIChunkWriter();
+              if (zstdDictionaryId != 0) {
+                seriesWriter.setZstdDictionary(zstdDictionaryId);
+              }
               writableMemChunk.encode(seriesWriter);
               seriesWriter.sealCurrentPage();
               seriesWriter.clearPageWriter();
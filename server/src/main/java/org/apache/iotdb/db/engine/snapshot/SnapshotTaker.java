@@ -26,6 +26,7 @@ import org.apache.iotdb.db.engine.snapshot.exception.DirectoryNotLegalException;
 import org.apache.iotdb.db.engine.storagegroup.DataRegion;
 import org.apache.iotdb.db.engine.storagegroup.TsFileManager;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.tsfile.compress.ZstdDictionaryManager;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -132,7 +133,7 @@ public class SnapshotTaker {
       if (!sourceDir.exists()) {
         continue;
       }
-      // Collect TsFile, TsFileResource, Mods, CompactionMods
+      // Collect TsFile, TsFileResource, Mods, CompactionMods, ZSTD dictionaries
       File[] files =
           sourceDir.listFiles(
               (dir, name) ->
@@ -140,6 +141,7 @@ public class SnapshotTaker {
                       || name.endsWith(TsFileResource.RESOURCE_SUFFIX)
                       || name.endsWith(ModificationFile.FILE_SUFFIX)
                       || name.endsWith(ModificationFile.COMPACTION_FILE_SUFFIX)
+                      || name.endsWith(ZstdDictionaryManager.FILE_SUFFIX)
                       || name.endsWith(CompactionLogger.INNER_COMPACTION_LOG_NAME_SUFFIX)
                       || name.endsWith(CompactionLogger.CROSS_COMPACTION_LOG_NAME_SUFFIX)
                       || name.endsWith(IoTDBConstant.INNER_COMPACTION_TMP_FILE_SUFFIX)
@@ -60,6 +60,7 @@ import org.apache.iotdb.db.exception.WriteProcessException;
 import org.apache.iotdb.db.exception.WriteProcessRejectException;
 import org.apache.iotdb.db.exception.query.OutOfTTLException;
 import org.apache.iotdb.db.exception.query.QueryProcessException;
+import org.apache.iotdb.db.metadata.cache.DataNodeLastCache;
 import org.apache.iotdb.db.metadata.cache.DataNodeSchemaCache;
 import org.apache.iotdb.db.metadata.idtable.IDTable;
 import org.apache.iotdb.db.metadata.idtable.IDTableManager;
@@ -1260,18 +1261,8 @@ public class DataRegion {
     if (!IoTDBDescriptor.getInstance().getConfig().isLastCacheEnabled()) {
       return;
     }
-    for (int i = 0; i < node.getColumns().length; i++) {
-      if (node.getColumns()[i] == null) {
-        continue;
-      }
-      // Update cached last value with high priority
-      DataNodeSchemaCache.getInstance()
-          .updateLastCache(
-              node.getDevicePath().concatNode(node.getMeasurements()[i]),
-              node.composeLastTimeValuePair(i),
-              true,
-              latestFlushedTime);
-    }
+    // Update cached last value with high priority, one update per column
+    DataNodeLastCache.getInstance().update(node, latestFlushedTime);
   }
 
   private void insertToTsFileProcessor(
@@ -1353,18 +1344,8 @@ public class DataRegion {
     if (!IoTDBDescriptor.getInstance().getConfig().isLastCacheEnabled()) {
       return;
     }
-    for (int i = 0; i < node.getValues().length; i++) {
-      if (node.getValues()[i] == null) {
-        continue;
-      }
-      // Update cached last value with high priority
-      DataNodeSchemaCache.getInstance()
-          .updateLastCache(
-              node.getDevicePath().concatNode(node.getMeasurements()[i]),
-              node.composeTimeValuePair(i),
-              true,
-              latestFlushedTime);
-    }
+    // Update cached last value with high priority
+    DataNodeLastCache.getInstance().update(node, latestFlushedTime);
   }
 
   /**
@@ -2953,6 +2934,8 @@ public class DataRegion {
     if (!targetFile.getParentFile().exists()) {
       targetFile.getParentFile().mkdirs();
     }
+    // the ZSTD dictionaries must be in place before the tsfile can be read
+    loadIndexFiles(tsFileToLoad, targetFile, deleteOriginFile);
     try {
       if (deleteOriginFile) {
         FileUtils.moveFile(tsFileToLoad, targetFile);
@@ -3035,6 +3018,40 @@ public class DataRegion {
     return true;
   }
 
+  /** Move or link the files written next to the tsfile to load, see {@link TsFileResource}. */
+  private void loadIndexFiles(File tsFileToLoad, File targetFile, boolean deleteOriginFile)
+      throws LoadFileException {
+    for (String suffix : TsFileResource.INDEX_FILE_SUFFIXES) {
+      File indexFileToLoad = fsFactory.getFile(tsFileToLoad.getAbsolutePath() + suffix);
+      if (!indexFileToLoad.exists()) {
+        continue;
+      }
+      File targetIndexFile = fsFactory.getFile(targetFile.getAbsolutePath() + suffix);
+      try {
+        Files.deleteIfExists(targetIndexFile.toPath());
+        if (deleteOriginFile) {
+          FileUtils.moveFile(indexFileToLoad, targetIndexFile);
+        } else {
+          Files.createLink(targetIndexFile.toPath(), indexFileToLoad.toPath());
+        }
+      } catch (IOException e) {
+        logger.error(
+            "File renaming failed when loading {} file. Origin: {}, Target: {}",
+            suffix,
+            indexFileToLoad.getAbsolutePath(),
+            targetIndexFile.getAbsolutePath(),
+            e);
+        throw new LoadFileException(
+            String.format(
+                "File renaming failed when loading %s file. Origin: %s, Target: %s, because %s",
+                suffix,
+                indexFileToLoad.getAbsolutePath(),
+                targetIndexFile.getAbsolutePath(),
+                e.getMessage()));
+      }
+    }
+  }
+
   /**
    * Delete tsfile if it exists.
    *
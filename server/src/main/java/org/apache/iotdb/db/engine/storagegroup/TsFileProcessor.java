@@ -65,6 +65,8 @@ import org.apache.iotdb.db.wal.node.IWALNode;
 import org.apache.iotdb.db.wal.utils.listener.WALFlushListener;
 import org.apache.iotdb.rpc.RpcUtils;
 import org.apache.iotdb.rpc.TSStatusCode;
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.compress.ZstdDictionaryManager;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.IChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
@@ -1404,6 +1406,12 @@ public class TsFileProcessor {
     long closeStartTime = System.currentTimeMillis();
     writer.endFile();
     tsFileResource.serialize();
+    ZstdDictionaryManager.getInstance()
+        .trainIfAbsent(
+            storageGroupName,
+            tsFileResource.getTsFilePath(),
+            TSFileDescriptor.getInstance().getConfig().getZstdDictionarySize(),
+            TSFileDescriptor.getInstance().getConfig().getZstdDictionarySampleNum());
     if (tsFileSyncManager.isEnableSync()) {
       tsFileSyncManager.collectRealTimeResource(tsFileResource.getTsFile());
     }
@@ -37,8 +37,12 @@ import org.apache.iotdb.db.metadata.utils.ResourceByPathUtils;
 import org.apache.iotdb.db.query.filter.TsFileFilter;
 import org.apache.iotdb.db.service.UpgradeSevice;
 import org.apache.iotdb.tsfile.common.constant.TsFileConstant;
+import org.apache.iotdb.tsfile.compress.ZstdDictionaryManager;
+import org.apache.iotdb.tsfile.file.metadata.ChunkRollupIndex;
+import org.apache.iotdb.tsfile.file.metadata.ChunkValueBloomFilterIndex;
 import org.apache.iotdb.tsfile.file.metadata.IChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.ITimeSeriesMetadata;
+import org.apache.iotdb.tsfile.file.metadata.TimeseriesMetadataHashIndex;
 import org.apache.iotdb.tsfile.fileSystem.FSFactoryProducer;
 import org.apache.iotdb.tsfile.fileSystem.fsFactory.FSFactory;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
@@ -56,6 +60,8 @@ import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -82,6 +88,18 @@ public class TsFileResource {
   public static final String RESOURCE_SUFFIX = ".resource";
   static final String TEMP_SUFFIX = ".temp";
 
+  /**
+   * suffixes of the files written next to a tsfile, which are moved and deleted with it. Only the
+   * ZSTD dictionaries are required to read the tsfile, the others are optional indexes
+   */
+  public static final List<String> INDEX_FILE_SUFFIXES =
+      Collections.unmodifiableList(
+          Arrays.asList(
+              TimeseriesMetadataHashIndex.FILE_SUFFIX,
+              ChunkValueBloomFilterIndex.FILE_SUFFIX,
+              ChunkRollupIndex.FILE_SUFFIX,
+              ZstdDictionaryManager.FILE_SUFFIX));
+
   /** version number */
   public static final byte VERSION_NUMBER = 1;
 
@@ -522,6 +540,14 @@ public class TsFileResource {
       LOGGER.error("ModificationFile {} cannot be deleted: {}", file, e.getMessage());
       return false;
     }
+    try {
+      for (String suffix : INDEX_FILE_SUFFIXES) {
+        fsFactory.deleteIfExists(fsFactory.getFile(file.getPath() + suffix));
+      }
+    } catch (IOException e) {
+      LOGGER.error("Index files of TsFile {} cannot be deleted: {}", file, e.getMessage());
+      return false;
+    }
     return true;
   }
 
@@ -547,6 +573,12 @@ public class TsFileResource {
           originModFile,
           fsFactory.getFile(targetDir, file.getName() + ModificationFile.FILE_SUFFIX));
     }
+    for (String suffix : INDEX_FILE_SUFFIXES) {
+      File originIndexFile = fsFactory.getFile(file.getPath() + suffix);
+      if (originIndexFile.exists()) {
+        fsFactory.moveFile(originIndexFile, fsFactory.getFile(targetDir, file.getName() + suffix));
+      }
+    }
   }
 
   @Override
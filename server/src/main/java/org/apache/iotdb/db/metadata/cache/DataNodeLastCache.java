@@ -0,0 +1,359 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.metadata.cache;
+
+import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.write.InsertRowNode;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.write.InsertTabletNode;
+import org.apache.iotdb.db.service.metrics.MetricsService;
+import org.apache.iotdb.db.service.metrics.enums.Metric;
+import org.apache.iotdb.db.service.metrics.enums.Tag;
+import org.apache.iotdb.metrics.config.MetricConfigDescriptor;
+import org.apache.iotdb.metrics.utils.MetricLevel;
+import org.apache.iotdb.tsfile.common.constant.TsFileConstant;
+import org.apache.iotdb.tsfile.read.TimeValuePair;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * This class takes the responsibility of last value cache management of all DataRegions on this
+ * DataNode. It is independent of {@link DataNodeSchemaCache}, so a last value stays cached even if
+ * the schema entry of its series has been evicted.
+ *
+ * <p>The cache is split into shards by the hash of the series path. Reads are lock-free, while a
+ * cached value is only replaced by a newer one inside ConcurrentHashMap.compute, which also
+ * accounts the memory of the entry, so updates, invalidation and eviction of one series never
+ * race with each other. Each shard has its own memory bound, and once it is exceeded, the thread
+ * that wins the shard's eviction lock evicts entries that have not been read since the last
+ * eviction round, in a CLOCK like manner.
+ */
+public class DataNodeLastCache {
+
+  private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+
+  /** estimated size of the entry object, the map node and the references between them */
+  private static final long ENTRY_OVERHEAD = 80;
+
+  /** estimated size of the String object except its content */
+  private static final long STRING_OVERHEAD = 40;
+
+  /** evict entries until the memory usage of the shard is below this ratio of its bound */
+  private static final double EVICTION_TARGET_RATIO = 0.8;
+
+  private final Shard[] shards;
+
+  private final int shardMask;
+
+  private final long shardMemoryBound;
+
+  private final LongAdder hitCount = new LongAdder();
+
+  private final LongAdder missCount = new LongAdder();
+
+  private DataNodeLastCache() {
+    int shardNum =
+        Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 8 - 1)
+            << 1;
+    shards = new Shard[shardNum];
+    for (int i = 0; i < shardNum; i++) {
+      shards[i] = new Shard();
+    }
+    shardMask = shardNum - 1;
+    shardMemoryBound = Math.max(1, config.getAllocateMemoryForLastCache() / shardNum);
+
+    if (MetricConfigDescriptor.getInstance().getMetricConfig().getEnableMetric()) {
+      // add metrics
+      MetricsService.getInstance()
+          .getMetricManager()
+          .getOrCreateAutoGauge(
+              Metric.CACHE_HIT.toString(),
+              MetricLevel.IMPORTANT,
+              this,
+              DataNodeLastCache::getHitRatePercentage,
+              Tag.NAME.toString(),
+              "lastCache");
+      MetricsService.getInstance()
+          .getMetricManager()
+          .getOrCreateAutoGauge(
+              Metric.MEM.toString(),
+              MetricLevel.IMPORTANT,
+              this,
+              DataNodeLastCache::getMemoryUsage,
+              Tag.NAME.toString(),
+              "lastCache");
+      MetricsService.getInstance()
+          .getMetricManager()
+          .getOrCreateAutoGauge(
+              Metric.QUANTITY.toString(),
+              MetricLevel.IMPORTANT,
+              this,
+              DataNodeLastCache::size,
+              Tag.NAME.toString(),
+              "lastCacheEntry");
+    }
+  }
+
+  public static DataNodeLastCache getInstance() {
+    return DataNodeLastCacheHolder.INSTANCE;
+  }
+
+  /** singleton pattern. */
+  private static class DataNodeLastCacheHolder {
+    private static final DataNodeLastCache INSTANCE = new DataNodeLastCache();
+  }
+
+  /**
+   * get the cached last value of the given time series
+   *
+   * @param seriesPath full path of the time series, neither MeasurementPath nor AlignedPath
+   * @return the cached last value, or null if absent
+   */
+  public TimeValuePair get(PartialPath seriesPath) {
+    if (!config.isLastCacheEnabled()) {
+      return null;
+    }
+    String key = seriesPath.getFullPath();
+    LastCacheEntry entry = getShard(key).entries.get(key);
+    if (entry == null) {
+      missCount.increment();
+      return null;
+    }
+    entry.accessed = true;
+    hitCount.increment();
+    return entry.value;
+  }
+
+  /**
+   * update the cached last value of the given time series
+   *
+   * @param seriesPath full path of the time series
+   * @param timeValuePair the latest point value
+   * @param highPriorityUpdate the last value from insertion is high priority
+   * @param latestFlushedTime latest flushed time
+   */
+  public void update(
+      PartialPath seriesPath,
+      TimeValuePair timeValuePair,
+      boolean highPriorityUpdate,
+      long latestFlushedTime) {
+    if (!config.isLastCacheEnabled()) {
+      return;
+    }
+    update(seriesPath.getFullPath(), timeValuePair, highPriorityUpdate, latestFlushedTime);
+  }
+
+  /**
+   * update the cached last values of all the columns of an InsertTabletNode, one update per column
+   * with the last non-null value of that column
+   */
+  public void update(InsertTabletNode node, long latestFlushedTime) {
+    if (!config.isLastCacheEnabled()) {
+      return;
+    }
+    String devicePrefix = node.getDevicePath().getFullPath() + TsFileConstant.PATH_SEPARATOR;
+    for (int i = 0; i < node.getColumns().length; i++) {
+      if (node.getColumns()[i] == null || node.getMeasurements()[i] == null) {
+        continue;
+      }
+      update(
+          devicePrefix + node.getMeasurements()[i],
+          node.composeLastTimeValuePair(i),
+          true,
+          latestFlushedTime);
+    }
+  }
+
+  /** update the cached last values of all the measurements of an InsertRowNode */
+  public void update(InsertRowNode node, long latestFlushedTime) {
+    if (!config.isLastCacheEnabled()) {
+      return;
+    }
+    String devicePrefix = node.getDevicePath().getFullPath() + TsFileConstant.PATH_SEPARATOR;
+    for (int i = 0; i < node.getValues().length; i++) {
+      if (node.getValues()[i] == null || node.getMeasurements()[i] == null) {
+        continue;
+      }
+      update(
+          devicePrefix + node.getMeasurements()[i],
+          node.composeTimeValuePair(i),
+          true,
+          latestFlushedTime);
+    }
+  }
+
+  private void update(
+      String key, TimeValuePair timeValuePair, boolean highPriorityUpdate, long latestFlushedTime) {
+    if (timeValuePair == null || timeValuePair.getValue() == null) {
+      return;
+    }
+
+    Shard shard = getShard(key);
+    shard.entries.compute(
+        key,
+        (k, entry) -> {
+          if (entry == null) {
+            // If no cached last, (1) a last query (2) an unseq insertion or (3) a seq insertion
+            // will update cache.
+            if (highPriorityUpdate && latestFlushedTime > timeValuePair.getTimestamp()) {
+              return null;
+            }
+            shard.memoryUsage.addAndGet(estimateSize(k, timeValuePair));
+            return new LastCacheEntry(timeValuePair);
+          }
+          TimeValuePair cached = entry.value;
+          if (timeValuePair.getTimestamp() > cached.getTimestamp()
+              || (timeValuePair.getTimestamp() == cached.getTimestamp() && highPriorityUpdate)) {
+            shard.memoryUsage.addAndGet((long) timeValuePair.getSize() - cached.getSize());
+            entry.value = timeValuePair;
+          }
+          return entry;
+        });
+    evictIfNecessary(shard);
+  }
+
+  /** remove the cached last value of the given time series */
+  public void invalidate(PartialPath seriesPath) {
+    String key = seriesPath.getFullPath();
+    removeEntry(getShard(key), key, false);
+  }
+
+  public void cleanUp() {
+    for (Shard shard : shards) {
+      shard.evictionLock.lock();
+      try {
+        for (String key : shard.entries.keySet()) {
+          removeEntry(shard, key, false);
+        }
+      } finally {
+        shard.evictionLock.unlock();
+      }
+    }
+  }
+
+  public long size() {
+    long size = 0;
+    for (Shard shard : shards) {
+      size += shard.entries.size();
+    }
+    return size;
+  }
+
+  public long getMemoryUsage() {
+    long memoryUsage = 0;
+    for (Shard shard : shards) {
+      memoryUsage += shard.memoryUsage.get();
+    }
+    return memoryUsage;
+  }
+
+  public long getHitCount() {
+    return hitCount.sum();
+  }
+
+  public long getMissCount() {
+    return missCount.sum();
+  }
+
+  private long getHitRatePercentage() {
+    long hit = hitCount.sum();
+    long total = hit + missCount.sum();
+    return total == 0 ? 0 : hit * 100 / total;
+  }
+
+  private Shard getShard(String key) {
+    int hash = key.hashCode();
+    return shards[(hash ^ (hash >>> 16)) & shardMask];
+  }
+
+  private void evictIfNecessary(Shard shard) {
+    if (shard.memoryUsage.get() <= shardMemoryBound || !shard.evictionLock.tryLock()) {
+      return;
+    }
+    try {
+      long target = (long) (shardMemoryBound * EVICTION_TARGET_RATIO);
+      // the first round clears the access marks of recently read entries and evicts the others,
+      // the second round evicts whatever is left unread if the first one was not enough
+      for (int round = 0; round < 2 && shard.memoryUsage.get() > target; round++) {
+        Iterator<Map.Entry<String, LastCacheEntry>> iterator = shard.entries.entrySet().iterator();
+        while (iterator.hasNext() && shard.memoryUsage.get() > target) {
+          Map.Entry<String, LastCacheEntry> mapEntry = iterator.next();
+          LastCacheEntry entry = mapEntry.getValue();
+          if (entry.accessed) {
+            entry.accessed = false;
+          } else {
+            removeEntry(shard, mapEntry.getKey(), true);
+          }
+        }
+      }
+    } finally {
+      shard.evictionLock.unlock();
+    }
+  }
+
+  /**
+   * Remove the entry of the key together with its memory accounting.
+   *
+   * @param onlyIfNotAccessed keep the entry if it has been read since the last eviction round
+   */
+  private static void removeEntry(Shard shard, String key, boolean onlyIfNotAccessed) {
+    shard.entries.computeIfPresent(
+        key,
+        (k, entry) -> {
+          if (onlyIfNotAccessed && entry.accessed) {
+            return entry;
+          }
+          shard.memoryUsage.addAndGet(-estimateSize(k, entry.value));
+          return null;
+        });
+  }
+
+  private static long estimateSize(String key, TimeValuePair timeValuePair) {
+    return ENTRY_OVERHEAD + STRING_OVERHEAD + key.length() + timeValuePair.getSize();
+  }
+
+  private static class Shard {
+
+    private final ConcurrentHashMap<String, LastCacheEntry> entries = new ConcurrentHashMap<>();
+
+    private final AtomicLong memoryUsage = new AtomicLong(0);
+
+    private final ReentrantLock evictionLock = new ReentrantLock();
+  }
+
+  private static class LastCacheEntry {
+
+    /** only replaced inside compute of the map, read without lock */
+    private volatile TimeValuePair value;
+
+    /** whether the entry has been read since the last eviction round of its shard */
+    private volatile boolean accessed;
+
+    private LastCacheEntry(TimeValuePair value) {
+      this.value = value;
+    }
+  }
+}
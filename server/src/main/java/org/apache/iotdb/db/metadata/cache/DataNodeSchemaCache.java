@@ -106,12 +106,7 @@ public class DataNodeSchemaCache {
   }
 
   public TimeValuePair getLastCache(PartialPath seriesPath) {
-    SchemaCacheEntry entry = cache.getIfPresent(seriesPath);
-    if (null == entry) {
-      return null;
-    }
-
-    return DataNodeLastCacheManager.getLastCache(entry);
+    return DataNodeLastCache.getInstance().get(seriesPath);
   }
 
   public void updateLastCache(
@@ -119,22 +114,12 @@ public class DataNodeSchemaCache {
       TimeValuePair timeValuePair,
       boolean highPriorityUpdate,
       Long latestFlushedTime) {
-    SchemaCacheEntry entry = cache.getIfPresent(seriesPath);
-    if (null == entry) {
-      return;
-    }
-
-    DataNodeLastCacheManager.updateLastCache(
-        entry, timeValuePair, highPriorityUpdate, latestFlushedTime);
+    DataNodeLastCache.getInstance()
+        .update(seriesPath, timeValuePair, highPriorityUpdate, latestFlushedTime);
   }
 
   public void resetLastCache(PartialPath seriesPath) {
-    SchemaCacheEntry entry = cache.getIfPresent(seriesPath);
-    if (null == entry) {
-      return;
-    }
-
-    DataNodeLastCacheManager.resetLastCache(entry);
+    DataNodeLastCache.getInstance().invalidate(seriesPath);
   }
 
   /**
@@ -155,5 +140,6 @@ public class DataNodeSchemaCache {
   public void cleanUp() {
     cache.invalidateAll();
     cache.cleanUp();
+    DataNodeLastCache.getInstance().cleanUp();
   }
 }
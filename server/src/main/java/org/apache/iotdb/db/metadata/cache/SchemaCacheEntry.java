@@ -19,8 +19,6 @@
 
 package org.apache.iotdb.db.metadata.cache;
 
-import org.apache.iotdb.db.metadata.lastCache.container.ILastCacheContainer;
-import org.apache.iotdb.db.metadata.lastCache.container.LastCacheContainer;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
 
@@ -30,8 +28,6 @@ public class SchemaCacheEntry {
 
   private final boolean isAligned;
 
-  private volatile ILastCacheContainer lastCacheContainer = null;
-
   SchemaCacheEntry(MeasurementSchema measurementSchema, boolean isAligned) {
     this.measurementSchema = measurementSchema;
     this.isAligned = isAligned;
@@ -52,19 +48,4 @@ public class SchemaCacheEntry {
   public boolean isAligned() {
     return isAligned;
   }
-
-  public ILastCacheContainer getLastCacheContainer() {
-    if (lastCacheContainer == null) {
-      synchronized (this) {
-        if (lastCacheContainer == null) {
-          lastCacheContainer = new LastCacheContainer();
-        }
-      }
-    }
-    return lastCacheContainer;
-  }
-
-  public void setLastCacheContainer(ILastCacheContainer lastCacheContainer) {
-    this.lastCacheContainer = lastCacheContainer;
-  }
 }
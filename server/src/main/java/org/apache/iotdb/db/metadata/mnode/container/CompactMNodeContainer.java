@@ -0,0 +1,291 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.metadata.mnode.container;
+
+import org.apache.iotdb.db.metadata.mnode.IMNode;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * A memory-efficient implementation of IMNodeContainer for nodes with small fanout.
+ *
+ * <p>Children are stored in one array sorted by name, as [name0, child0, name1, child1, ...], which
+ * costs two references per child instead of an entry object of ConcurrentHashMap. The array is
+ * replaced on every modification (copy-on-write), thus reads are lock-free and iterators never
+ * fail. Once the number of children exceeds {@link #MAX_ARRAY_CHILDREN_NUM}, the children are moved
+ * into a ConcurrentHashMap to keep the cost of modification constant.
+ */
+public class CompactMNodeContainer extends AbstractMap<String, IMNode> implements IMNodeContainer {
+
+  static final int MAX_ARRAY_CHILDREN_NUM = 32;
+
+  private static final Object[] EMPTY_TABLE = new Object[0];
+
+  /** sorted Object[] of name-child pairs, or a ConcurrentHashMap for large fanout */
+  @SuppressWarnings("squid:S3077")
+  private volatile Object table = EMPTY_TABLE;
+
+  @Override
+  public int size() {
+    Object current = table;
+    if (current instanceof Map) {
+      return asMap(current).size();
+    }
+    return ((Object[]) current).length >> 1;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return get(key) != null;
+  }
+
+  @Override
+  public IMNode get(Object key) {
+    if (!(key instanceof String)) {
+      return null;
+    }
+    Object current = table;
+    if (current instanceof Map) {
+      return asMap(current).get(key);
+    }
+    Object[] array = (Object[]) current;
+    int index = search(array, (String) key);
+    return index >= 0 ? (IMNode) array[(index << 1) + 1] : null;
+  }
+
+  @Override
+  public synchronized IMNode put(String key, IMNode value) {
+    return doPut(key, value, false);
+  }
+
+  @Override
+  public synchronized IMNode putIfAbsent(String key, IMNode value) {
+    return doPut(key, value, true);
+  }
+
+  @Override
+  public synchronized IMNode replace(String key, IMNode value) {
+    return containsKey(key) ? doPut(key, value, false) : null;
+  }
+
+  /** Atomic as ConcurrentHashMap.computeIfAbsent, the function is called at most once. */
+  @Override
+  public IMNode computeIfAbsent(
+      String key, Function<? super String, ? extends IMNode> mappingFunction) {
+    IMNode existing = get(key);
+    if (existing != null) {
+      return existing;
+    }
+    synchronized (this) {
+      existing = get(key);
+      if (existing != null) {
+        return existing;
+      }
+      IMNode value = mappingFunction.apply(key);
+      if (value != null) {
+        doPut(key, value, false);
+      }
+      return value;
+    }
+  }
+
+  @Override
+  public synchronized IMNode remove(Object key) {
+    if (!(key instanceof String)) {
+      return null;
+    }
+    Object current = table;
+    if (current instanceof Map) {
+      return asMap(current).remove(key);
+    }
+    Object[] array = (Object[]) current;
+    int index = search(array, (String) key);
+    if (index < 0) {
+      return null;
+    }
+    IMNode removed = (IMNode) array[(index << 1) + 1];
+    Object[] newArray = new Object[array.length - 2];
+    System.arraycopy(array, 0, newArray, 0, index << 1);
+    System.arraycopy(array, (index + 1) << 1, newArray, index << 1, newArray.length - (index << 1));
+    table = newArray;
+    return removed;
+  }
+
+  @Override
+  public synchronized void clear() {
+    table = EMPTY_TABLE;
+  }
+
+  @Override
+  public void forEach(BiConsumer<? super String, ? super IMNode> action) {
+    Object current = table;
+    if (current instanceof Map) {
+      asMap(current).forEach(action);
+      return;
+    }
+    Object[] array = (Object[]) current;
+    for (int i = 0; i < array.length; i += 2) {
+      action.accept((String) array[i], (IMNode) array[i + 1]);
+    }
+  }
+
+  @NotNull
+  @Override
+  public Set<Entry<String, IMNode>> entrySet() {
+    Object current = table;
+    if (current instanceof Map) {
+      return asMap(current).entrySet();
+    }
+    return new ArrayEntrySet((Object[]) current);
+  }
+
+  private IMNode doPut(String key, IMNode value, boolean onlyIfAbsent) {
+    Object current = table;
+    if (current instanceof Map) {
+      return onlyIfAbsent ? asMap(current).putIfAbsent(key, value) : asMap(current).put(key, value);
+    }
+    Object[] array = (Object[]) current;
+    int index = search(array, key);
+    if (index >= 0) {
+      IMNode existing = (IMNode) array[(index << 1) + 1];
+      if (!onlyIfAbsent) {
+        Object[] newArray = Arrays.copyOf(array, array.length);
+        newArray[(index << 1) + 1] = value;
+        table = newArray;
+      }
+      return existing;
+    }
+
+    int insertPos = -(index + 1);
+    if ((array.length >> 1) >= MAX_ARRAY_CHILDREN_NUM) {
+      ConcurrentHashMap<String, IMNode> map = new ConcurrentHashMap<>(array.length);
+      for (int i = 0; i < array.length; i += 2) {
+        map.put((String) array[i], (IMNode) array[i + 1]);
+      }
+      map.put(key, value);
+      table = map;
+      return null;
+    }
+    Object[] newArray = new Object[array.length + 2];
+    System.arraycopy(array, 0, newArray, 0, insertPos << 1);
+    newArray[insertPos << 1] = key;
+    newArray[(insertPos << 1) + 1] = value;
+    System.arraycopy(
+        array, insertPos << 1, newArray, (insertPos + 1) << 1, array.length - (insertPos << 1));
+    table = newArray;
+    return null;
+  }
+
+  /**
+   * Binary search the name among the pairs.
+   *
+   * @return index of the pair if found, otherwise (-(insertion point) - 1)
+   */
+  private static int search(Object[] array, String key) {
+    int low = 0;
+    int high = (array.length >> 1) - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      int cmp = ((String) array[mid << 1]).compareTo(key);
+      if (cmp < 0) {
+        low = mid + 1;
+      } else if (cmp > 0) {
+        high = mid - 1;
+      } else {
+        return mid;
+      }
+    }
+    return -(low + 1);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static ConcurrentHashMap<String, IMNode> asMap(Object table) {
+    return (ConcurrentHashMap<String, IMNode>) table;
+  }
+
+  /**
+   * A view on one snapshot of the pair array. Removal through the iterator is applied to the
+   * container, while the iteration goes on over the snapshot.
+   */
+  private class ArrayEntrySet extends AbstractSet<Entry<String, IMNode>> {
+
+    private final Object[] array;
+
+    private ArrayEntrySet(Object[] array) {
+      this.array = array;
+    }
+
+    @Override
+    public int size() {
+      return array.length >> 1;
+    }
+
+    @NotNull
+    @Override
+    public Iterator<Entry<String, IMNode>> iterator() {
+      return new Iterator<Entry<String, IMNode>>() {
+        private int cursor = 0;
+        private String lastKey = null;
+
+        @Override
+        public boolean hasNext() {
+          return cursor < array.length;
+        }
+
+        @Override
+        public Entry<String, IMNode> next() {
+          if (cursor >= array.length) {
+            throw new NoSuchElementException();
+          }
+          lastKey = (String) array[cursor];
+          Entry<String, IMNode> entry =
+              new SimpleImmutableEntry<>(lastKey, (IMNode) array[cursor + 1]);
+          cursor += 2;
+          return entry;
+        }
+
+        @Override
+        public void remove() {
+          if (lastKey == null) {
+            throw new IllegalStateException();
+          }
+          CompactMNodeContainer.this.remove(lastKey);
+          lastKey = null;
+        }
+      };
+    }
+  }
+}
@@ -52,6 +52,8 @@ public class MNodeContainers {
         .getSchemaEngineMode()
         .equals(SchemaEngineMode.Schema_File.toString())) {
       return new CachedMNodeContainer();
+    } else if (IoTDBDescriptor.getInstance().getConfig().isEnableCompactMTreeInMemory()) {
+      return new CompactMNodeContainer();
     } else {
       return new MNodeContainerMapImpl();
     }
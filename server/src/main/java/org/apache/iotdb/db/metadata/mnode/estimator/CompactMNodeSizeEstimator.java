@@ -0,0 +1,48 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.metadata.mnode.estimator;
+
+import org.apache.iotdb.db.metadata.mnode.IMNode;
+import org.apache.iotdb.db.metadata.mnode.container.CompactMNodeContainer;
+
+/** Size estimator of MNodes whose children are stored in {@link CompactMNodeContainer}. */
+public class CompactMNodeSizeEstimator extends BasicMNodSizeEstimator {
+
+  /**
+   * Memory saved by each node from the MapEntry in parent, since the child is stored as two
+   * references in an array instead of a ConcurrentHashMap.Node, 44 - 16 = 28B
+   */
+  protected static final int ENTRY_SAVED_SIZE = 28;
+
+  /**
+   * Memory saved by each internal node from the container, an array header of 16B instead of the
+   * basic occupation of ConcurrentHashMap, 80 - 16 = 64B
+   */
+  protected static final int CONTAINER_SAVED_SIZE = 64;
+
+  @Override
+  public int estimateSize(IMNode node) {
+    int size = super.estimateSize(node) - ENTRY_SAVED_SIZE;
+    if (!node.isMeasurement()) {
+      size -= CONTAINER_SAVED_SIZE;
+    }
+    return size;
+  }
+}
@@ -454,6 +454,16 @@ public class CachedMTreeStore implements IMTreeStore {
         }
         cacheManager.updateCacheStatusAfterPersist(volatileNode);
       }
+      try {
+        // dirty pages of all the nodes above are written back in one batch
+        file.sync();
+      } catch (IOException e) {
+        logger.error(
+            "Error occurred during MTree flush, current SchemaRegion is {}",
+            root.getFullPath(),
+            e);
+        return;
+      }
       executeMemoryRelease();
       hasFlushTask = false;
       flushCount++;
@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.metadata.mtree.store;
+
+import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.db.metadata.mnode.IMNode;
+import org.apache.iotdb.db.metadata.mnode.IMeasurementMNode;
+import org.apache.iotdb.db.metadata.mnode.container.CompactMNodeContainer;
+import org.apache.iotdb.db.metadata.mnode.estimator.CompactMNodeSizeEstimator;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
+/**
+ * A memory-based implementation of IMTreeStore optimized for footprint of large schema.
+ *
+ * <p>Children of nodes are stored in {@link CompactMNodeContainer}, and node names are interned in
+ * a dictionary shared by all schema regions, thus measurements with the same name under millions of
+ * devices, e.g. "s1" or "temperature", share one String instance.
+ */
+public class CompactMemMTreeStore extends MemMTreeStore {
+
+  private static final Interner<String> NAME_INTERNER = Interners.newWeakInterner();
+
+  public CompactMemMTreeStore(PartialPath rootPath, boolean isStorageGroup) {
+    super(rootPath, isStorageGroup, new CompactMNodeSizeEstimator());
+  }
+
+  @Override
+  public IMNode addChild(IMNode parent, String childName, IMNode child) {
+    String name = NAME_INTERNER.intern(childName);
+    child.setName(name);
+    if (child.isMeasurement()) {
+      IMeasurementMNode measurementMNode = child.getAsMeasurementMNode();
+      if (measurementMNode.getSchema() instanceof MeasurementSchema) {
+        ((MeasurementSchema) measurementMNode.getSchema()).setMeasurementId(name);
+      }
+      if (measurementMNode.getAlias() != null) {
+        measurementMNode.setAlias(NAME_INTERNER.intern(measurementMNode.getAlias()));
+      }
+    }
+    return super.addChild(parent, name, child);
+  }
+}
@@ -39,12 +39,18 @@ import java.util.concurrent.atomic.AtomicLong;
 public class MemMTreeStore implements IMTreeStore {
 
   private MemoryStatistics memoryStatistics = MemoryStatistics.getInstance();
-  private IMNodeSizeEstimator estimator = new BasicMNodSizeEstimator();
+  private IMNodeSizeEstimator estimator;
   private AtomicLong localMemoryUsage = new AtomicLong(0);
 
   private IMNode root;
 
   public MemMTreeStore(PartialPath rootPath, boolean isStorageGroup) {
+    this(rootPath, isStorageGroup, new BasicMNodSizeEstimator());
+  }
+
+  protected MemMTreeStore(
+      PartialPath rootPath, boolean isStorageGroup, IMNodeSizeEstimator estimator) {
+    this.estimator = estimator;
     if (isStorageGroup) {
       this.root =
           new StorageGroupMNode(
@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.metadata.mtree.store.disk;
+
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class MTreePrefetchTaskManager {
+
+  private static final Logger logger = LoggerFactory.getLogger(MTreePrefetchTaskManager.class);
+  private static final String MTREE_PREFETCH_THREAD_POOL_NAME = "MTree-prefetch-task";
+  private static final long SHUTDOWN_TIMEOUT_IN_SECONDS = 30;
+
+  private volatile ExecutorService prefetchTaskExecutor;
+
+  private MTreePrefetchTaskManager() {}
+
+  private static class MTreePrefetchTaskManagerHolder {
+    private static final MTreePrefetchTaskManager INSTANCE = new MTreePrefetchTaskManager();
+
+    private MTreePrefetchTaskManagerHolder() {}
+  }
+
+  public static MTreePrefetchTaskManager getInstance() {
+    return MTreePrefetchTaskManager.MTreePrefetchTaskManagerHolder.INSTANCE;
+  }
+
+  public void init() {
+    prefetchTaskExecutor =
+        IoTDBThreadPoolFactory.newFixedThreadPool(
+            Math.max(1, Runtime.getRuntime().availableProcessors() / 4),
+            MTREE_PREFETCH_THREAD_POOL_NAME);
+  }
+
+  public void clear() {
+    if (prefetchTaskExecutor != null) {
+      // pending prefetch tasks are only hints and need not be finished
+      prefetchTaskExecutor.shutdownNow();
+      try {
+        if (!prefetchTaskExecutor.awaitTermination(SHUTDOWN_TIMEOUT_IN_SECONDS, TimeUnit.SECONDS)) {
+          logger.warn(
+              "MTree prefetch tasks are not terminated in {}s", SHUTDOWN_TIMEOUT_IN_SECONDS);
+        }
+      } catch (InterruptedException e) {
+        logger.warn("Interrupted while waiting for MTree prefetch tasks to terminate");
+        Thread.currentThread().interrupt();
+      }
+      prefetchTaskExecutor = null;
+    }
+  }
+
+  /**
+   * Submit a prefetch task. Prefetch is only a hint, thus the task will be silently dropped if the
+   * manager has not been initialized.
+   *
+   * @return true if the task has been accepted
+   */
+  public boolean submit(Runnable task) {
+    ExecutorService executor = prefetchTaskExecutor;
+    if (executor == null || executor.isShutdown()) {
+      return false;
+    }
+    executor.submit(
+        () -> {
+          try {
+            task.run();
+          } catch (Throwable throwable) {
+            logger.error("Something wrong happened during MTree prefetch.", throwable);
+            throw throwable;
+          }
+        });
+    return true;
+  }
+}
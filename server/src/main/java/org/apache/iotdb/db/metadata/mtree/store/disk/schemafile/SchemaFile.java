@@ -32,6 +32,8 @@ import org.apache.iotdb.db.metadata.mnode.IStorageGroupMNode;
 import org.apache.iotdb.db.metadata.mnode.StorageGroupEntityMNode;
 import org.apache.iotdb.db.metadata.mnode.StorageGroupMNode;
 import org.apache.iotdb.db.metadata.mtree.store.disk.ICachedMNodeContainer;
+import org.apache.iotdb.db.metadata.mtree.store.disk.MTreePrefetchTaskManager;
+import org.apache.iotdb.db.metadata.rescon.SchemaFileStatistics;
 import org.apache.iotdb.db.metadata.template.TemplateManager;
 import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
 
@@ -48,12 +50,15 @@ import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -78,6 +83,14 @@ public class SchemaFile implements ISchemaFile {
       IoTDBDescriptor.getInstance()
           .getConfig()
           .getPageCacheSizeInSchemaFile(); // size of page cache
+  public static int PREFETCH_PAGE_NUM =
+      IoTDBDescriptor.getInstance()
+          .getConfig()
+          .getPrefetchPageNumInSchemaFile(); // max pages prefetched per traversal step
+  public static int DIRTY_PAGE_FLUSH_THRESHOLD =
+      IoTDBDescriptor.getInstance()
+          .getConfig()
+          .getDirtyPageFlushThresholdInSchemaFile(); // dirty pages buffered before write-back
   public static int ROOT_INDEX = 0; // index of header page
   // 32 bit for page pointer, maximum .pmt file as 2^(32+14) bytes, 64 TiB
   public static int INDEX_LENGTH = 4;
@@ -113,7 +126,11 @@ public class SchemaFile implements ISchemaFile {
   private final PageLocks pageLocks;
   private ISchemaPage rootPage;
 
+  // work as a write-back buffer, written into file in batch by flushAllDirtyPages
   private final Map<Integer, ISchemaPage> dirtyPages;
+  // pages being loaded by prefetch tasks, to avoid submitting duplicated tasks
+  private final Set<Integer> prefetchingPages;
+  private final SchemaFileStatistics statistics = SchemaFileStatistics.getInstance();
 
   // attributes for file
   private File pmtFile;
@@ -156,6 +173,7 @@ public class SchemaFile implements ISchemaFile {
     headerContent = ByteBuffer.allocate(SchemaFile.FILE_HEADER_SIZE);
     pageInstCache = Collections.synchronizedMap(new LinkedHashMap<>(PAGE_CACHE_SIZE, 1, true));
     dirtyPages = new ConcurrentHashMap<>();
+    prefetchingPages = ConcurrentHashMap.newKeySet();
     evictLock = new ReentrantLock();
     pageLocks = new PageLocks();
     // will be overwritten if to init
@@ -171,6 +189,7 @@ public class SchemaFile implements ISchemaFile {
     headerContent = ByteBuffer.allocate(SchemaFile.FILE_HEADER_SIZE);
     pageInstCache = Collections.synchronizedMap(new LinkedHashMap<>(PAGE_CACHE_SIZE, 1, true));
     dirtyPages = new ConcurrentHashMap<>();
+    prefetchingPages = ConcurrentHashMap.newKeySet();
     evictLock = new ReentrantLock();
     pageLocks = new PageLocks();
 
@@ -412,7 +431,7 @@ public class SchemaFile implements ISchemaFile {
       }
     }
 
-    flushAllDirtyPages();
+    flushDirtyPagesIfNecessary();
   }
 
   @Override
@@ -430,7 +449,7 @@ public class SchemaFile implements ISchemaFile {
       tarPage.deleteSegment(getSegIndex(delSegAddr));
     }
 
-    flushAllDirtyPages();
+    flushDirtyPagesIfNecessary();
   }
 
   @Override
@@ -448,8 +467,13 @@ public class SchemaFile implements ISchemaFile {
       return null;
     }
     try {
-      return getPageInstance(getPageIndex(actualSegAddr))
-          .read(getSegIndex(actualSegAddr), childName);
+      IMNode child =
+          getPageInstance(getPageIndex(actualSegAddr)).read(getSegIndex(actualSegAddr), childName);
+      if (child != null && !child.isMeasurement()) {
+        // the caller is likely to descend into this child, e.g., to insert into a device
+        prefetchPages(Collections.singletonList(getNodeAddress(child)));
+      }
+      return child;
     } catch (BufferUnderflowException | BufferOverflowException e) {
       int pIdx = getPageIndex(actualSegAddr);
       short sIdx = getSegIndex(actualSegAddr);
@@ -473,68 +497,75 @@ public class SchemaFile implements ISchemaFile {
     short segId = getSegIndex(getNodeAddress(parent));
     ISchemaPage page = getPageInstance(pageIdx);
 
-    return new Iterator<IMNode>() {
-      long nextSeg = page.getNextSegAddress(segId);
-      long prevSeg = page.getPrevSegAddress(segId);
-      final Queue<IMNode> children = page.getChildren(segId);
-
-      @Override
-      public boolean hasNext() {
-        if (children.size() == 0) {
-          // actually, 0 can never be nextSeg forever
-          if (nextSeg < 0 && prevSeg < 0) {
-            return false;
+    return new ChildrenIterator(page, segId);
+  }
+
+  /** Iterate children through linked segments, prefetching pages to be read next. */
+  private class ChildrenIterator implements Iterator<IMNode> {
+    private long nextSeg;
+    private long prevSeg;
+    private final Queue<IMNode> children;
+
+    private ChildrenIterator(ISchemaPage page, short segId) throws MetadataException {
+      nextSeg = page.getNextSegAddress(segId);
+      prevSeg = page.getPrevSegAddress(segId);
+      children = page.getChildren(segId);
+      prefetchForTraverse(nextSeg, prevSeg, children);
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (children.size() == 0) {
+        // actually, 0 can never be nextSeg forever
+        if (nextSeg < 0 && prevSeg < 0) {
+          return false;
+        }
+        try {
+          if (nextSeg >= 0) {
+            ISchemaPage newPage = getPageInstance(getPageIndex(nextSeg));
+            children.addAll(newPage.getChildren(getSegIndex(nextSeg)));
+            nextSeg = newPage.getNextSegAddress(getSegIndex(nextSeg));
+            prefetchForTraverse(nextSeg, prevSeg, children);
+            return true;
           }
-          try {
-            if (nextSeg >= 0) {
-              ISchemaPage newPage = getPageInstance(getPageIndex(nextSeg));
-              children.addAll(newPage.getChildren(getSegIndex(nextSeg)));
-              nextSeg = newPage.getNextSegAddress(getSegIndex(nextSeg));
-              return true;
-            }
-            if (prevSeg >= 0) {
-              ISchemaPage newPage = getPageInstance(getPageIndex(prevSeg));
-              children.addAll(newPage.getChildren(getSegIndex(prevSeg)));
-              prevSeg = newPage.getPrevSegAddress(getSegIndex(prevSeg));
-              return true;
-            }
-          } catch (IOException | MetadataException e) {
-            return false;
+          if (prevSeg >= 0) {
+            ISchemaPage newPage = getPageInstance(getPageIndex(prevSeg));
+            children.addAll(newPage.getChildren(getSegIndex(prevSeg)));
+            prevSeg = newPage.getPrevSegAddress(getSegIndex(prevSeg));
+            prefetchForTraverse(nextSeg, prevSeg, children);
+            return true;
           }
+        } catch (IOException | MetadataException e) {
+          return false;
         }
-        return true;
       }
+      return true;
+    }
 
-      @Override
-      public IMNode next() {
-        return children.poll();
-      }
-    };
+    @Override
+    public IMNode next() {
+      return children.poll();
+    }
   }
 
   @Override
   public void close() throws IOException {
-    updateHeader();
-    flushPageToFile(rootPage);
-    for (Map.Entry<Integer, ISchemaPage> entry : dirtyPages.entrySet()) {
-      flushPageToFile(entry.getValue());
-    }
+    sync();
     channel.close();
   }
 
+  /** Write back all buffered dirty pages in one batch, along with the root page and header. */
   @Override
-  public void sync() throws IOException {
-    updateHeader();
+  public synchronized void sync() throws IOException {
     flushPageToFile(rootPage);
-    for (Map.Entry<Integer, ISchemaPage> entry : dirtyPages.entrySet()) {
-      flushPageToFile(entry.getValue());
-    }
+    flushAllDirtyPages();
   }
 
   @Override
   public void clear() throws IOException, MetadataException {
     pageInstCache.clear();
     dirtyPages.clear();
+    prefetchingPages.clear();
     channel.close();
     rootPage = null;
     if (pmtFile.exists()) {
@@ -604,7 +635,7 @@ public class SchemaFile implements ISchemaFile {
       lastSGAddr = 0L;
       initRootPage();
     } else {
-      channel.read(headerContent);
+      channel.read(headerContent, 0);
       headerContent.clear();
       lastPageIndex = ReadWriteIOUtils.readInt(headerContent);
       dataTTL = ReadWriteIOUtils.readLong(headerContent);
@@ -755,10 +786,13 @@ public class SchemaFile implements ISchemaFile {
       }
     }
 
-    for (Map.Entry<Integer, ISchemaPage> entry : pageInstCache.entrySet()) {
-      if (entry.getValue().isCapableForSize(size)) {
-        dirtyPages.putIfAbsent(entry.getKey(), entry.getValue());
-        return pageInstCache.get(entry.getKey());
+    // prefetch tasks may modify the cache concurrently
+    synchronized (pageInstCache) {
+      for (Map.Entry<Integer, ISchemaPage> entry : pageInstCache.entrySet()) {
+        if (entry.getValue().isCapableForSize(size)) {
+          dirtyPages.putIfAbsent(entry.getKey(), entry.getValue());
+          return entry.getValue();
+        }
       }
     }
     return allocateNewPage();
@@ -781,22 +815,38 @@ public class SchemaFile implements ISchemaFile {
       return rootPage;
     }
 
+    ISchemaPage page = getPageInMemory(pageIdx);
+    if (page != null) {
+      statistics.recordPageCacheHit();
+      return page;
+    }
+    statistics.recordPageCacheMiss();
+    return loadPageFromFile(pageIdx);
+  }
+
+  private ISchemaPage getPageInMemory(int pageIdx) {
     pageLocks.readLock(pageIdx);
     try {
-      if (dirtyPages.containsKey(pageIdx)) {
-        return dirtyPages.get(pageIdx);
-      }
-
-      if (pageInstCache.containsKey(pageIdx)) {
-        return pageInstCache.get(pageIdx);
-      }
+      ISchemaPage page = dirtyPages.get(pageIdx);
+      return page != null ? page : pageInstCache.get(pageIdx);
     } finally {
       pageLocks.readUnlock(pageIdx);
     }
+  }
 
+  private ISchemaPage loadPageFromFile(int pageIdx) throws IOException {
     try {
       pageLocks.writeLock(pageIdx);
 
+      // the page may have been loaded by another thread, e.g., a prefetch task, while waiting
+      ISchemaPage page = dirtyPages.get(pageIdx);
+      if (page == null) {
+        page = pageInstCache.get(pageIdx);
+      }
+      if (page != null) {
+        return page;
+      }
+
       ByteBuffer newBuf = ByteBuffer.allocate(PAGE_LENGTH);
 
       loadFromFile(newBuf, pageIdx);
@@ -807,8 +857,83 @@ public class SchemaFile implements ISchemaFile {
   }
 
   private int loadFromFile(ByteBuffer dst, int pageIndex) throws IOException {
+    long startTime = System.nanoTime();
     dst.clear();
-    return channel.read(dst, getPageAddress(pageIndex));
+    try {
+      return channel.read(dst, getPageAddress(pageIndex));
+    } finally {
+      statistics.recordIOWait("read", System.nanoTime() - startTime);
+    }
+  }
+
+  /**
+   * Prefetch pages for a traversal over children of a node: the following linked segments of the
+   * node are read first since they will be iterated right after, and then the segments of internal
+   * children which are likely to be traversed next.
+   */
+  private void prefetchForTraverse(long nextSeg, long prevSeg, Collection<IMNode> children) {
+    if (PREFETCH_PAGE_NUM <= 0) {
+      return;
+    }
+    List<Long> segAddrs = new ArrayList<>();
+    segAddrs.add(nextSeg);
+    segAddrs.add(prevSeg);
+    for (IMNode child : children) {
+      if (segAddrs.size() >= PREFETCH_PAGE_NUM + 2) {
+        break;
+      }
+      if (!child.isMeasurement()) {
+        segAddrs.add(getNodeAddress(child));
+      }
+    }
+    prefetchPages(segAddrs);
+  }
+
+  /**
+   * Load pages containing the given segments into page cache asynchronously. Pages already in
+   * memory or being loaded are skipped, and at most {@link #PREFETCH_PAGE_NUM} tasks are submitted.
+   *
+   * @param segAddrs global addresses of segments, negative ones are ignored
+   */
+  private void prefetchPages(List<Long> segAddrs) {
+    int submitted = 0;
+    for (long segAddr : segAddrs) {
+      if (submitted >= PREFETCH_PAGE_NUM) {
+        return;
+      }
+      if (segAddr < 0) {
+        continue;
+      }
+      int pageIdx = getPageIndex(segAddr);
+      if (pageIdx == ROOT_INDEX
+          || pageIdx > lastPageIndex
+          || getPageInMemory(pageIdx) != null
+          || !prefetchingPages.add(pageIdx)) {
+        continue;
+      }
+
+      boolean accepted =
+          MTreePrefetchTaskManager.getInstance()
+              .submit(
+                  () -> {
+                    try {
+                      if (getPageInMemory(pageIdx) == null) {
+                        loadPageFromFile(pageIdx);
+                        statistics.recordPrefetchedPage();
+                      }
+                    } catch (IOException e) {
+                      // prefetch is only a hint, the page will be loaded again if really needed
+                      logger.debug("Failed to prefetch page {} of {}", pageIdx, filePath, e);
+                    } finally {
+                      prefetchingPages.remove(pageIdx);
+                    }
+                  });
+      if (!accepted) {
+        prefetchingPages.remove(pageIdx);
+        return;
+      }
+      submitted++;
+    }
   }
 
   private synchronized ISchemaPage allocateNewPage() throws IOException {
@@ -826,7 +951,10 @@ public class SchemaFile implements ISchemaFile {
         if (pageInstCache.size() > PAGE_CACHE_SIZE) {
           int removeCnt =
               (int) (0.2 * pageInstCache.size()) > 0 ? (int) (0.2 * pageInstCache.size()) : 1;
-          List<Integer> rmvIds = new ArrayList<>(pageInstCache.keySet()).subList(0, removeCnt);
+          List<Integer> rmvIds;
+          synchronized (pageInstCache) {
+            rmvIds = new ArrayList<>(pageInstCache.keySet()).subList(0, removeCnt);
+          }
 
           for (Integer id : rmvIds) {
             // dirty pages only flushed from dirtyPages
@@ -951,19 +1079,63 @@ public class SchemaFile implements ISchemaFile {
     if (src == null) {
       return;
     }
+    channel.write(getPageBufferToFlush(src), getPageAddress(src.getPageIndex()));
+  }
+
+  private ByteBuffer getPageBufferToFlush(ISchemaPage src) {
     src.syncPageBuffer();
     ByteBuffer srcBuf = ByteBuffer.allocate(SchemaFile.PAGE_LENGTH);
     src.getPageBuffer(srcBuf);
     srcBuf.clear();
-    channel.write(srcBuf, getPageAddress(src.getPageIndex()));
+    return srcBuf;
+  }
+
+  /**
+   * Write pages with consecutive indexes by one positional write, which leaves the position of the
+   * channel untouched for concurrent readers.
+   *
+   * @param pages pages sorted by index, without any gap between indexes
+   */
+  private void flushConsecutivePagesToFile(List<ISchemaPage> pages) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(pages.size() * PAGE_LENGTH);
+    for (ISchemaPage page : pages) {
+      buffer.put(getPageBufferToFlush(page));
+    }
+    buffer.flip();
+    long position = getPageAddress(pages.get(0).getPageIndex());
+    while (buffer.hasRemaining()) {
+      position += channel.write(buffer, position);
+    }
+  }
+
+  private void flushDirtyPagesIfNecessary() throws IOException {
+    if (dirtyPages.size() >= DIRTY_PAGE_FLUSH_THRESHOLD) {
+      flushAllDirtyPages();
+    }
   }
 
+  /**
+   * Write back all dirty pages in ascending order of page index, thus pages adjacent in file will
+   * be written sequentially in one batch.
+   */
   private synchronized void flushAllDirtyPages() throws IOException {
-    for (ISchemaPage page : dirtyPages.values()) {
-      flushPageToFile(page);
+    long startTime = System.nanoTime();
+    List<ISchemaPage> pages = new ArrayList<>(dirtyPages.values());
+    pages.sort(Comparator.comparingInt(ISchemaPage::getPageIndex));
+
+    int runStart = 0;
+    for (int i = 1; i <= pages.size(); i++) {
+      if (i == pages.size()
+          || pages.get(i).getPageIndex() != pages.get(i - 1).getPageIndex() + 1) {
+        flushConsecutivePagesToFile(pages.subList(runStart, i));
+        runStart = i;
+      }
     }
     updateHeader();
-    dirtyPages.clear();
+    for (ISchemaPage page : pages) {
+      dirtyPages.remove(page.getPageIndex(), page);
+    }
+    statistics.recordIOWait("flush", System.nanoTime() - startTime);
   }
 
   @TestOnly
@@ -971,6 +1143,11 @@ public class SchemaFile implements ISchemaFile {
     return (SchemaPage) getPageInstance(index);
   }
 
+  @TestOnly
+  public int getDirtyPageNumOnTest() {
+    return dirtyPages.size();
+  }
+
   @TestOnly
   public long getTargetSegmentOnTest(long srcSegAddr, String key)
       throws IOException, MetadataException {
@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.metadata.rescon;
+
+import org.apache.iotdb.db.service.metrics.MetricsService;
+import org.apache.iotdb.db.service.metrics.enums.Metric;
+import org.apache.iotdb.db.service.metrics.enums.Tag;
+import org.apache.iotdb.metrics.config.MetricConfigDescriptor;
+import org.apache.iotdb.metrics.utils.MetricLevel;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/** Page cache and I/O statistics shared by all schema files of this node. */
+public class SchemaFileStatistics {
+
+  private static final boolean ENABLE_METRIC =
+      MetricConfigDescriptor.getInstance().getMetricConfig().getEnableMetric();
+
+  private final AtomicLong pageCacheHitNum = new AtomicLong();
+  private final AtomicLong pageCacheMissNum = new AtomicLong();
+  private final AtomicLong prefetchedPageNum = new AtomicLong();
+
+  private static class SchemaFileStatisticsHolder {
+
+    private SchemaFileStatisticsHolder() {
+      // allowed to do nothing
+    }
+
+    private static final SchemaFileStatistics INSTANCE = new SchemaFileStatistics();
+  }
+
+  public static SchemaFileStatistics getInstance() {
+    return SchemaFileStatisticsHolder.INSTANCE;
+  }
+
+  public void init() {
+    if (ENABLE_METRIC) {
+      MetricsService.getInstance()
+          .getMetricManager()
+          .getOrCreateAutoGauge(
+              Metric.CACHE_HIT.toString(),
+              MetricLevel.IMPORTANT,
+              this,
+              SchemaFileStatistics::getPageCacheHitPercentage,
+              Tag.NAME.toString(),
+              "schemaFilePage");
+      MetricsService.getInstance()
+          .getMetricManager()
+          .getOrCreateAutoGauge(
+              Metric.QUANTITY.toString(),
+              MetricLevel.IMPORTANT,
+              prefetchedPageNum,
+              AtomicLong::get,
+              Tag.NAME.toString(),
+              "schemaFilePrefetchedPage");
+    }
+  }
+
+  public void recordPageCacheHit() {
+    pageCacheHitNum.incrementAndGet();
+  }
+
+  public void recordPageCacheMiss() {
+    pageCacheMissNum.incrementAndGet();
+  }
+
+  public void recordPrefetchedPage() {
+    prefetchedPageNum.incrementAndGet();
+  }
+
+  /**
+   * Record the time a thread waited on the schema file channel.
+   *
+   * @param type "read" for page loading, "flush" for dirty page write-back
+   * @param costInNanos elapsed time of the I/O
+   */
+  public void recordIOWait(String type, long costInNanos) {
+    if (ENABLE_METRIC) {
+      MetricsService.getInstance()
+          .getMetricManager()
+          .timer(
+              costInNanos,
+              TimeUnit.NANOSECONDS,
+              Metric.COST_TASK.toString(),
+              MetricLevel.IMPORTANT,
+              Tag.NAME.toString(),
+              "schema_file_" + type);
+    }
+  }
+
+  public long getPageCacheHitPercentage() {
+    long hit = pageCacheHitNum.get();
+    long total = hit + pageCacheMissNum.get();
+    return total == 0 ? 0 : hit * 100 / total;
+  }
+
+  public long getPrefetchedPageNum() {
+    return prefetchedPageNum.get();
+  }
+
+  public void clear() {
+    pageCacheHitNum.set(0);
+    pageCacheMissNum.set(0);
+    prefetchedPageNum.set(0);
+  }
+}
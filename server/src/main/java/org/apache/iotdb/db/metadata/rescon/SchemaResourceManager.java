@@ -21,6 +21,7 @@ package org.apache.iotdb.db.metadata.rescon;
 
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.metadata.mtree.store.disk.MTreeFlushTaskManager;
+import org.apache.iotdb.db.metadata.mtree.store.disk.MTreePrefetchTaskManager;
 import org.apache.iotdb.db.metadata.mtree.store.disk.MTreeReleaseTaskManager;
 import org.apache.iotdb.db.metadata.mtree.store.disk.memcontrol.MemManagerHolder;
 import org.apache.iotdb.db.metadata.schemaregion.SchemaEngineMode;
@@ -56,6 +57,8 @@ public class SchemaResourceManager {
     MemManagerHolder.getMemManagerInstance().init();
     MTreeFlushTaskManager.getInstance().init();
     MTreeReleaseTaskManager.getInstance().init();
+    MTreePrefetchTaskManager.getInstance().init();
+    SchemaFileStatistics.getInstance().init();
   }
 
   private static void clearSchemaFileModeResource() {
@@ -63,5 +66,7 @@ public class SchemaResourceManager {
     // the release task may submit flush task, thus must be shut down and clear first
     MTreeReleaseTaskManager.getInstance().clear();
     MTreeFlushTaskManager.getInstance().clear();
+    MTreePrefetchTaskManager.getInstance().clear();
+    SchemaFileStatistics.getInstance().clear();
   }
 }
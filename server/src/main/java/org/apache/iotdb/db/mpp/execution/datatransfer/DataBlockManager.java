@@ -305,6 +305,10 @@ public class DataBlockManager implements IDataBlockManager {
     sinkHandles = new ConcurrentHashMap<>();
   }
 
+  public LocalMemoryManager getLocalMemoryManager() {
+    return localMemoryManager;
+  }
+
   public DataBlockServiceImpl getOrCreateDataBlockServiceImpl() {
     if (dataBlockService == null) {
       dataBlockService = new DataBlockServiceImpl();
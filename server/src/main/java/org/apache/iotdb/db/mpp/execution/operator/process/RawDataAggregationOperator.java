@@ -29,6 +29,7 @@ import org.apache.iotdb.tsfile.read.common.TimeRange;
 import org.apache.iotdb.tsfile.read.common.block.TsBlock;
 import org.apache.iotdb.tsfile.read.common.block.TsBlock.TsBlockSingleColumnIterator;
 import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.TimeColumn;
 
 import com.google.common.util.concurrent.ListenableFuture;
 
@@ -180,6 +181,48 @@ public class RawDataAggregationOperator implements ProcessOperator {
     return tsBlock.subTsBlock(tsBlockIterator.getRowIndex());
   }
 
+  /**
+   * Binary search the time column of the tsBlock, which is sorted in scan order.
+   *
+   * @return index of the first point in or after the time range in scan order
+   */
+  public static int searchTimeRangeStart(
+      TsBlock tsBlock, TimeRange curTimeRange, boolean ascending) {
+    return ascending
+        ? searchTime(tsBlock.getTimeColumn(), 0, curTimeRange.getMin(), true, true)
+        : searchTime(tsBlock.getTimeColumn(), 0, curTimeRange.getMax(), true, false);
+  }
+
+  /**
+   * Binary search the time column of the tsBlock from fromIndex, the column is sorted in scan
+   * order.
+   *
+   * @return index of the first point after the time range in scan order
+   */
+  public static int searchTimeRangeEnd(
+      TsBlock tsBlock, int fromIndex, TimeRange curTimeRange, boolean ascending) {
+    return ascending
+        ? searchTime(tsBlock.getTimeColumn(), fromIndex, curTimeRange.getMax(), false, true)
+        : searchTime(tsBlock.getTimeColumn(), fromIndex, curTimeRange.getMin(), false, false);
+  }
+
+  /** @return the first index whose time is after the given time in scan order, or equal to it */
+  private static int searchTime(
+      TimeColumn timeColumn, int fromIndex, long time, boolean inclusive, boolean ascending) {
+    int low = fromIndex;
+    int high = timeColumn.getPositionCount();
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      long midTime = timeColumn.getLong(mid);
+      if (midTime == time ? inclusive : (ascending == midTime > time)) {
+        high = mid;
+      } else {
+        low = mid + 1;
+      }
+    }
+    return low;
+  }
+
   public static boolean satisfied(TsBlock tsBlock, TimeRange timeRange, boolean ascending) {
     TsBlockSingleColumnIterator tsBlockIterator = tsBlock.getTsBlockSingleColumnIterator();
     if (tsBlockIterator == null || !tsBlockIterator.hasNext()) {
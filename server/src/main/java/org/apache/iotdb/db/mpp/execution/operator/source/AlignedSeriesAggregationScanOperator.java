@@ -42,7 +42,8 @@ import java.util.HashSet;
 import java.util.List;
 
 import static org.apache.iotdb.db.mpp.execution.operator.process.RawDataAggregationOperator.isEndCalc;
-import static org.apache.iotdb.db.mpp.execution.operator.process.RawDataAggregationOperator.skipOutOfTimeRangePoints;
+import static org.apache.iotdb.db.mpp.execution.operator.process.RawDataAggregationOperator.searchTimeRangeEnd;
+import static org.apache.iotdb.db.mpp.execution.operator.process.RawDataAggregationOperator.searchTimeRangeStart;
 import static org.apache.iotdb.db.mpp.execution.operator.source.SeriesAggregationScanOperator.initTimeRangeIterator;
 
 /** This operator is responsible to do the aggregation calculation especially for aligned series. */
@@ -225,22 +226,24 @@ public class AlignedSeriesAggregationScanOperator implements DataSourceOperator
       return;
     }
 
-    // skip points that cannot be calculated
-    tsBlock = skipOutOfTimeRangePoints(tsBlock, curTimeRange, ascending);
+    // binary search the points in current interval, so that neither skipping the points before it
+    // nor the aggregators have to compare the time of each point
+    int fromIndex = searchTimeRangeStart(tsBlock, curTimeRange, ascending);
+    int toIndex = searchTimeRangeEnd(tsBlock, fromIndex, curTimeRange, ascending);
+    if (fromIndex < toIndex) {
+      TsBlock tsBlockInTimeRange = tsBlock.getRegion(fromIndex, toIndex - fromIndex);
+      for (Aggregator aggregator : aggregators) {
+        // current agg method has been calculated
+        if (aggregator.hasFinalResult()) {
+          continue;
+        }
 
-    for (Aggregator aggregator : aggregators) {
-      // current agg method has been calculated
-      if (aggregator.hasFinalResult()) {
-        continue;
+        aggregator.processTsBlock(tsBlockInTimeRange);
       }
-
-      aggregator.processTsBlock(tsBlock);
     }
 
-    // can calc for next interval
-    if (tsBlock.getTsBlockSingleColumnIterator().hasNext()) {
-      preCachedData = tsBlock;
-    }
+    // keep the decoded points after current interval for next intervals
+    preCachedData = toIndex < tsBlock.getPositionCount() ? tsBlock.subTsBlock(toIndex) : null;
   }
 
   private boolean satisfied(TsBlock tsBlock, TimeRange timeRange, boolean ascending) {
@@ -0,0 +1,260 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.mpp.execution.operator.source;
+
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.concurrent.ThreadName;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.cache.ChunkCache;
+import org.apache.iotdb.db.mpp.execution.memory.MemoryPool;
+import org.apache.iotdb.db.mpp.execution.operator.Operator;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.file.metadata.IChunkMetadata;
+import org.apache.iotdb.tsfile.read.common.Chunk;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Reads the next chunks of a sequential scan in the background, so that disk reads overlap with
+ * decoding the current chunk. The chunks read ahead are charged to the query in the {@link
+ * MemoryPool} until they are taken by the scan, and no more chunks are read ahead if either the
+ * pool or the budget of the scan is exhausted.
+ *
+ * <p>The chunks are read by a fixed pool shared by all queries, so the scan never waits for a read
+ * in {@link #take}. A chunk whose read has not started is cancelled and read by the scan itself,
+ * and the operator reports the chunk being read next by {@link #isBlocked}.
+ */
+public class ChunkReadAhead {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ChunkReadAhead.class);
+
+  private final MemoryPool memoryPool;
+  private final String queryId;
+  private final int readAheadNum;
+  private final long memoryBudget;
+
+  // the chunks to be scanned in scan order, the first readAheadNum ones are being read ahead
+  private final LinkedList<ReadAheadChunk> chunks = new LinkedList<>();
+  private long reservedBytes = 0;
+  private boolean closed = false;
+
+  public ChunkReadAhead(
+      MemoryPool memoryPool, String queryId, int readAheadNum, long memoryBudget) {
+    this.memoryPool = memoryPool;
+    this.queryId = queryId;
+    this.readAheadNum = readAheadNum;
+    this.memoryBudget = memoryBudget;
+  }
+
+  /** Append a chunk the scan will read after all appended ones. */
+  public synchronized void append(ChunkMetadata chunkMetadata) {
+    if (!closed) {
+      chunks.add(new ReadAheadChunk(chunkMetadata));
+    }
+  }
+
+  /**
+   * Take the chunk of the given metadata if it has been read ahead. Chunks appended before it are
+   * skipped by the scan and dropped, and the following ones are read ahead. A chunk not read yet is
+   * dropped as well, the read of it is either cancelled or left to finish in the background.
+   *
+   * @return the chunk, or null if it has not been read ahead and should be read by the caller
+   */
+  public synchronized Chunk take(IChunkMetadata chunkMetadata) {
+    ReadAheadChunk target = null;
+    Iterator<ReadAheadChunk> iterator = chunks.iterator();
+    while (iterator.hasNext()) {
+      if (iterator.next().chunkMetadata == chunkMetadata) {
+        target = chunks.peek();
+        while (target.chunkMetadata != chunkMetadata) {
+          discard(chunks.poll());
+          target = chunks.peek();
+        }
+        chunks.poll();
+        break;
+      }
+    }
+    readAhead();
+    if (target == null) {
+      return null;
+    }
+
+    if (!target.done) {
+      discard(target);
+      return null;
+    }
+    // the chunk is held by the scan from now on
+    release(target);
+    return target.chunk;
+  }
+
+  /**
+   * The scan usually takes the first chunk next, so the operator is blocked while it is being read.
+   *
+   * @return the future of the first chunk if it is being read, or {@link Operator#NOT_BLOCKED}
+   */
+  public synchronized ListenableFuture<Void> isBlocked() {
+    ReadAheadChunk first = chunks.peek();
+    if (first == null || !first.started || first.done) {
+      return Operator.NOT_BLOCKED;
+    }
+    return first.future;
+  }
+
+  /** Drop all chunks and free the memory they hold, the chunks being read are freed when done. */
+  public synchronized void close() {
+    closed = true;
+    chunks.forEach(this::discard);
+    chunks.clear();
+  }
+
+  private void readAhead() {
+    int readingNum = 0;
+    for (ReadAheadChunk readAheadChunk : chunks) {
+      if (readingNum >= readAheadNum) {
+        return;
+      }
+      if (readAheadChunk.future == null) {
+        long estimatedBytes = estimateSize(readAheadChunk.chunkMetadata);
+        if (reservedBytes + estimatedBytes > memoryBudget
+            || !memoryPool.tryReserve(queryId, estimatedBytes)) {
+          return;
+        }
+        reservedBytes += estimatedBytes;
+        readAheadChunk.reservedBytes = estimatedBytes;
+        readAheadChunk.future = SettableFuture.create();
+        ReadAheadExecutorHolder.EXECUTOR.execute(() -> read(readAheadChunk));
+      }
+      readingNum++;
+    }
+  }
+
+  private void read(ReadAheadChunk readAheadChunk) {
+    synchronized (this) {
+      if (readAheadChunk.discarded) {
+        // cancelled before started, the reservation has been released
+        return;
+      }
+      readAheadChunk.started = true;
+    }
+    Chunk chunk;
+    try {
+      chunk = ChunkCache.getInstance().get(readAheadChunk.chunkMetadata);
+    } catch (Exception e) {
+      // leave it to the scan, which reads the chunk again and reports the error
+      LOGGER.debug("Failed to read ahead chunk {}", readAheadChunk.chunkMetadata, e);
+      chunk = null;
+    }
+    synchronized (this) {
+      if (chunk != null && !readAheadChunk.discarded && !reserve(readAheadChunk, chunk)) {
+        chunk = null;
+      }
+      if (chunk == null || readAheadChunk.discarded) {
+        release(readAheadChunk);
+      }
+      readAheadChunk.chunk = chunk;
+      readAheadChunk.done = true;
+    }
+    // complete out of the lock, the listeners may run on this thread
+    readAheadChunk.future.set(null);
+  }
+
+  /** Correct the estimated reservation of a chunk to its actual size. */
+  private boolean reserve(ReadAheadChunk readAheadChunk, Chunk chunk) {
+    long bytes = Math.max(1, chunk.getData().remaining());
+    long delta = bytes - readAheadChunk.reservedBytes;
+    if (delta > 0) {
+      if (reservedBytes + delta > memoryBudget || !memoryPool.tryReserve(queryId, delta)) {
+        return false;
+      }
+    } else if (delta < 0) {
+      memoryPool.free(queryId, -delta);
+    }
+    reservedBytes += delta;
+    readAheadChunk.reservedBytes = bytes;
+    return true;
+  }
+
+  private void discard(ReadAheadChunk readAheadChunk) {
+    readAheadChunk.discarded = true;
+    if (readAheadChunk.future == null) {
+      release(readAheadChunk);
+    } else if (!readAheadChunk.started) {
+      // cancel the read, which returns once it is run by the pool
+      release(readAheadChunk);
+      readAheadChunk.future.set(null);
+    } else if (readAheadChunk.done) {
+      readAheadChunk.chunk = null;
+      release(readAheadChunk);
+    }
+  }
+
+  private void release(ReadAheadChunk readAheadChunk) {
+    if (readAheadChunk.reservedBytes > 0) {
+      memoryPool.free(queryId, readAheadChunk.reservedBytes);
+      reservedBytes -= readAheadChunk.reservedBytes;
+      readAheadChunk.reservedBytes = 0;
+    }
+  }
+
+  /**
+   * The uncompressed size of the points, which is larger than most encoded chunks. It is corrected
+   * once the chunk is read.
+   */
+  private static long estimateSize(ChunkMetadata chunkMetadata) {
+    return Math.max(
+        1,
+        chunkMetadata.getStatistics().getCount()
+            * (Long.BYTES + chunkMetadata.getDataType().getDataTypeSize()));
+  }
+
+  private static class ReadAheadChunk {
+
+    private final ChunkMetadata chunkMetadata;
+    // null if not read ahead, set once the chunk is read or the read is cancelled
+    private SettableFuture<Void> future;
+    private Chunk chunk;
+    private long reservedBytes;
+    private boolean started;
+    private boolean done;
+    private boolean discarded;
+
+    private ReadAheadChunk(ChunkMetadata chunkMetadata) {
+      this.chunkMetadata = chunkMetadata;
+    }
+  }
+
+  private static class ReadAheadExecutorHolder {
+
+    private static final ExecutorService EXECUTOR =
+        IoTDBThreadPoolFactory.newFixedThreadPoolWithDaemonThread(
+            IoTDBDescriptor.getInstance().getConfig().getConcurrentChunkReadAheadThread(),
+            ThreadName.CHUNK_READ_AHEAD_SERVICE.getName());
+
+    private ReadAheadExecutorHolder() {}
+  }
+}
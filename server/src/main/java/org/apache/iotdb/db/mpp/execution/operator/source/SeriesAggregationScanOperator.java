@@ -29,6 +29,7 @@ import org.apache.iotdb.db.mpp.execution.operator.process.AggregationOperator;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanNodeId;
 import org.apache.iotdb.db.mpp.plan.planner.plan.parameter.GroupByTimeParameter;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.statistics.ChunkRollup;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.read.common.TimeRange;
 import org.apache.iotdb.tsfile.read.common.block.TsBlock;
@@ -36,14 +37,19 @@ import org.apache.iotdb.tsfile.read.common.block.TsBlock.TsBlockSingleColumnIter
 import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 
+import com.google.common.util.concurrent.ListenableFuture;
+
 import java.io.IOException;
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 
 import static org.apache.iotdb.db.mpp.execution.operator.process.RawDataAggregationOperator.isEndCalc;
-import static org.apache.iotdb.db.mpp.execution.operator.process.RawDataAggregationOperator.skipOutOfTimeRangePoints;
+import static org.apache.iotdb.db.mpp.execution.operator.process.RawDataAggregationOperator.searchTimeRangeEnd;
+import static org.apache.iotdb.db.mpp.execution.operator.process.RawDataAggregationOperator.searchTimeRangeStart;
 
 /**
  * This operator is responsible to do the aggregation calculation for one series based on global
@@ -69,6 +75,12 @@ public class SeriesAggregationScanOperator implements DataSourceOperator {
 
   private TsBlock preCachedData;
 
+  // the current chunk is partly calculated from its rollup, the rest belongs to the next windows
+  private boolean hasPendingRollupChunk = false;
+  // rollup of the chunk with the statistics, read once while the chunk spans several windows
+  private ChunkRollup cachedChunkRollup;
+  private Statistics cachedChunkRollupStatistics;
+
   private TsBlockBuilder tsBlockBuilder;
   private TsBlock resultTsBlock;
   private boolean hasCachedTsBlock = false;
@@ -166,6 +178,15 @@ public class SeriesAggregationScanOperator implements DataSourceOperator {
         return true;
       }
 
+      // continue with the chunk partly calculated from its rollup, before it is unpacked to pages
+      if (hasPendingRollupChunk) {
+        hasPendingRollupChunk = false;
+        if (readAndCalcFromChunk(curTimeRange)) {
+          updateResultTsBlockFromAggregators();
+          return true;
+        }
+      }
+
       // read page data firstly
       if (readAndCalcFromPage(curTimeRange)) {
         updateResultTsBlockFromAggregators();
@@ -234,6 +255,16 @@ public class SeriesAggregationScanOperator implements DataSourceOperator {
     seriesScanUtil.initQueryDataSource(dataSource);
   }
 
+  @Override
+  public ListenableFuture<Void> isBlocked() {
+    return seriesScanUtil.isBlocked();
+  }
+
+  @Override
+  public void close() throws Exception {
+    seriesScanUtil.close();
+  }
+
   /** @return if already get the result */
   private boolean calcFromCacheData(TimeRange curTimeRange) throws IOException {
     calcFromBatch(preCachedData, curTimeRange);
@@ -252,22 +283,24 @@ public class SeriesAggregationScanOperator implements DataSourceOperator {
       return;
     }
 
-    // skip points that cannot be calculated
-    tsBlock = skipOutOfTimeRangePoints(tsBlock, curTimeRange, ascending);
+    // binary search the points in current interval, so that neither skipping the points before it
+    // nor the aggregators have to compare the time of each point
+    int fromIndex = searchTimeRangeStart(tsBlock, curTimeRange, ascending);
+    int toIndex = searchTimeRangeEnd(tsBlock, fromIndex, curTimeRange, ascending);
+    if (fromIndex < toIndex) {
+      TsBlock tsBlockInTimeRange = tsBlock.getRegion(fromIndex, toIndex - fromIndex);
+      for (Aggregator aggregator : aggregators) {
+        // current agg method has been calculated
+        if (aggregator.hasFinalResult()) {
+          continue;
+        }
 
-    for (Aggregator aggregator : aggregators) {
-      // current agg method has been calculated
-      if (aggregator.hasFinalResult()) {
-        continue;
+        aggregator.processTsBlock(tsBlockInTimeRange);
       }
-
-      aggregator.processTsBlock(tsBlock);
     }
 
-    // can calc for next interval
-    if (tsBlock.getTsBlockSingleColumnIterator().hasNext()) {
-      preCachedData = tsBlock;
-    }
+    // keep the decoded points after current interval for next intervals
+    preCachedData = toIndex < tsBlock.getPositionCount() ? tsBlock.subTsBlock(toIndex) : null;
   }
 
   private boolean satisfied(TsBlock tsBlock, TimeRange timeRange, boolean ascending) {
@@ -366,6 +399,17 @@ public class SeriesAggregationScanOperator implements DataSourceOperator {
         seriesScanUtil.skipCurrentChunk();
         continue;
       }
+      // calc from the rollup of the chunk if the window does not cut any bucket of it
+      if (canUseCurrentChunkStatistics() && calcFromChunkRollup(curTimeRange)) {
+        if (ascending
+            ? chunkStatistics.getEndTime() > curTimeRange.getMax()
+            : chunkStatistics.getStartTime() < curTimeRange.getMin()) {
+          hasPendingRollupChunk = true;
+          return true;
+        }
+        seriesScanUtil.skipCurrentChunk();
+        continue;
+      }
       // read page
       if (readAndCalcFromPage(curTimeRange)) {
         return true;
@@ -374,6 +418,41 @@ public class SeriesAggregationScanOperator implements DataSourceOperator {
     return false;
   }
 
+  /**
+   * Calculate the buckets of the current chunk's rollup inside the window.
+   *
+   * @return false if the chunk has no rollup or the window cuts one of its buckets, nothing is
+   *     calculated then
+   */
+  private boolean calcFromChunkRollup(TimeRange curTimeRange) throws IOException {
+    Statistics chunkStatistics = seriesScanUtil.currentChunkStatistics();
+    if (chunkStatistics != cachedChunkRollupStatistics) {
+      cachedChunkRollup = seriesScanUtil.currentChunkRollup();
+      cachedChunkRollupStatistics = chunkStatistics;
+    }
+    if (cachedChunkRollup == null) {
+      return false;
+    }
+    List<Statistics<? extends Serializable>> bucketsInTimeRange = new ArrayList<>();
+    for (Statistics<? extends Serializable> bucket : cachedChunkRollup.getBuckets()) {
+      if (bucket.getEndTime() < curTimeRange.getMin()
+          || bucket.getStartTime() > curTimeRange.getMax()) {
+        continue;
+      }
+      if (!curTimeRange.contains(bucket.getStartTime(), bucket.getEndTime())) {
+        return false;
+      }
+      bucketsInTimeRange.add(bucket);
+    }
+    if (!ascending) {
+      Collections.reverse(bucketsInTimeRange);
+    }
+    for (Statistics<? extends Serializable> bucket : bucketsInTimeRange) {
+      calcFromStatistics(bucket);
+    }
+    return true;
+  }
+
   private void calcFromStatistics(Statistics statistics) {
     for (int i = 0; i < aggregators.size(); i++) {
       Aggregator aggregator = aggregators.get(i);
@@ -26,6 +26,8 @@ import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.block.TsBlock;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 
+import com.google.common.util.concurrent.ListenableFuture;
+
 import java.io.IOException;
 import java.util.Set;
 
@@ -150,4 +152,14 @@ public class SeriesScanOperator implements DataSourceOperator {
   public void initQueryDataSource(QueryDataSource dataSource) {
     seriesScanUtil.initQueryDataSource(dataSource);
   }
+
+  @Override
+  public ListenableFuture<Void> isBlocked() {
+    return seriesScanUtil.isBlocked();
+  }
+
+  @Override
+  public void close() throws Exception {
+    seriesScanUtil.close();
+  }
 }
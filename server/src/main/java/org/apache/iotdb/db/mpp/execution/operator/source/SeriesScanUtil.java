@@ -19,11 +19,18 @@
 package org.apache.iotdb.db.mpp.execution.operator.source;
 
 import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.cache.ChunkCache;
 import org.apache.iotdb.db.engine.querycontext.QueryDataSource;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
 import org.apache.iotdb.db.metadata.idtable.IDTable;
+import org.apache.iotdb.db.mpp.execution.datatransfer.DataBlockService;
 import org.apache.iotdb.db.mpp.execution.fragment.FragmentInstanceContext;
+import org.apache.iotdb.db.mpp.execution.operator.Operator;
 import org.apache.iotdb.db.query.context.QueryContext;
+import org.apache.iotdb.db.query.control.FileReaderManager;
+import org.apache.iotdb.db.query.reader.chunk.DiskChunkLoader;
 import org.apache.iotdb.db.query.reader.universal.DescPriorityMergeReader;
 import org.apache.iotdb.db.query.reader.universal.PriorityMergeReader;
 import org.apache.iotdb.db.utils.FileLoaderUtils;
@@ -31,11 +38,14 @@ import org.apache.iotdb.db.utils.QueryUtils;
 import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
 import org.apache.iotdb.tsfile.file.metadata.AlignedChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.AlignedTimeSeriesMetadata;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.IChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.ITimeSeriesMetadata;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.statistics.ChunkRollup;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.read.TimeValuePair;
+import org.apache.iotdb.tsfile.read.common.Chunk;
 import org.apache.iotdb.tsfile.read.common.block.TsBlock;
 import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
 import org.apache.iotdb.tsfile.read.common.block.column.TimeColumnBuilder;
@@ -44,10 +54,14 @@ import org.apache.iotdb.tsfile.read.filter.basic.UnaryFilter;
 import org.apache.iotdb.tsfile.read.reader.IAlignedPageReader;
 import org.apache.iotdb.tsfile.read.reader.IPageReader;
 import org.apache.iotdb.tsfile.read.reader.IPointReader;
+import org.apache.iotdb.tsfile.read.reader.chunk.ChunkReader;
 import org.apache.iotdb.tsfile.utils.TsPrimitiveType;
 
+import com.google.common.util.concurrent.ListenableFuture;
+
 import java.io.IOException;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.LinkedList;
@@ -102,6 +116,11 @@ public class SeriesScanUtil {
   protected IChunkMetadata firstChunkMetadata;
   protected final PriorityQueue<IChunkMetadata> cachedChunkMetadata;
 
+  /*
+   * chunks of sequence files read in the background, null if read ahead is disabled
+   */
+  private final ChunkReadAhead chunkReadAhead;
+
   /*
    * page cache
    */
@@ -155,6 +174,21 @@ public class SeriesScanUtil {
         new PriorityQueue<>(
             orderUtils.comparingLong(
                 versionPageReader -> orderUtils.getOrderTime(versionPageReader.getStatistics())));
+
+    IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+    if (config.getChunkReadAheadNum() > 0 && context != null) {
+      chunkReadAhead =
+          new ChunkReadAhead(
+              DataBlockService.getInstance()
+                  .getDataBlockManager()
+                  .getLocalMemoryManager()
+                  .getQueryPool(),
+              context.getId().getQueryId().getId(),
+              config.getChunkReadAheadNum(),
+              config.getChunkReadAheadMemoryInByte());
+    } else {
+      chunkReadAhead = null;
+    }
   }
 
   public void initQueryDataSource(QueryDataSource dataSource) {
@@ -346,6 +380,18 @@ public class SeriesScanUtil {
     chunkMetadataList.forEach(chunkMetadata -> chunkMetadata.setSeq(timeSeriesMetadata.isSeq()));
 
     cachedChunkMetadata.addAll(chunkMetadataList);
+
+    // chunks of sequence files are scanned one after another, so they can be read ahead
+    if (chunkReadAhead != null && timeSeriesMetadata.isSeq()) {
+      for (int i = 0; i < chunkMetadataList.size(); i++) {
+        IChunkMetadata chunkMetadata =
+            chunkMetadataList.get(
+                orderUtils.getAscending() ? i : chunkMetadataList.size() - 1 - i);
+        if (chunkMetadata.getChunkLoader() instanceof DiskChunkLoader) {
+          chunkReadAhead.append((ChunkMetadata) chunkMetadata);
+        }
+      }
+    }
   }
 
   boolean isChunkOverlapped() throws IOException {
@@ -376,6 +422,20 @@ public class SeriesScanUtil {
     return ((AlignedChunkMetadata) firstChunkMetadata).getTimeStatistics();
   }
 
+  /** @return the rollup of the current chunk, or null if it has none */
+  ChunkRollup currentChunkRollup() throws IOException {
+    if (!(firstChunkMetadata instanceof ChunkMetadata)) {
+      return null;
+    }
+    ChunkMetadata chunkMetadata = (ChunkMetadata) firstChunkMetadata;
+    if (!chunkMetadata.isClosed() || chunkMetadata.getFilePath() == null) {
+      return null;
+    }
+    return FileReaderManager.getInstance()
+        .get(chunkMetadata.getFilePath(), true)
+        .readChunkRollup(chunkMetadata);
+  }
+
   boolean currentChunkModified() throws IOException {
     if (firstChunkMetadata == null) {
       throw new IOException("no first chunk");
@@ -487,9 +547,10 @@ public class SeriesScanUtil {
 
   private void unpackAllOverlappedChunkMetadataToPageReaders(long endpointTime, boolean init)
       throws IOException {
+    List<IChunkMetadata> chunkMetadataToUnpack = new ArrayList<>();
     if (firstChunkMetadata != null
         && orderUtils.isOverlapped(endpointTime, firstChunkMetadata.getStatistics())) {
-      unpackOneChunkMetaData(firstChunkMetadata);
+      chunkMetadataToUnpack.add(firstChunkMetadata);
       firstChunkMetadata = null;
     }
     // In case unpacking too many sequence chunks
@@ -501,7 +562,11 @@ public class SeriesScanUtil {
       } else if (cachedChunkMetadata.peek().isSeq()) {
         hasMeetSeq = true;
       }
-      unpackOneChunkMetaData(cachedChunkMetadata.poll());
+      chunkMetadataToUnpack.add(cachedChunkMetadata.poll());
+    }
+    List<Chunk> chunks = loadChunks(chunkMetadataToUnpack);
+    for (int i = 0; i < chunkMetadataToUnpack.size(); i++) {
+      unpackOneChunkMetaData(chunkMetadataToUnpack.get(i), chunks.get(i));
     }
     if (init
         && firstPageReader == null
@@ -510,9 +575,40 @@ public class SeriesScanUtil {
     }
   }
 
-  private void unpackOneChunkMetaData(IChunkMetadata chunkMetaData) throws IOException {
-    List<IPageReader> pageReaderList =
-        FileLoaderUtils.loadPageReaderList(chunkMetaData, timeFilter);
+  /**
+   * Load the chunks to be unpacked together. The non-aligned chunks on disk which are not read
+   * ahead are loaded by one {@link ChunkCache#getAll} call, so that the chunks close to each other
+   * in one file, e.g. the overlapped unsequence chunks, are read by one IO.
+   *
+   * @return the chunk of each metadata, null if it should be loaded by its own chunk loader
+   */
+  private List<Chunk> loadChunks(List<IChunkMetadata> chunkMetadataList) throws IOException {
+    List<Chunk> chunks = new ArrayList<>(chunkMetadataList.size());
+    List<ChunkMetadata> diskChunkMetadataList = new ArrayList<>();
+    List<Integer> diskChunkIndexes = new ArrayList<>();
+    for (IChunkMetadata chunkMetadata : chunkMetadataList) {
+      Chunk chunk = chunkReadAhead == null ? null : chunkReadAhead.take(chunkMetadata);
+      if (chunk == null && chunkMetadata.getChunkLoader() instanceof DiskChunkLoader) {
+        diskChunkMetadataList.add((ChunkMetadata) chunkMetadata);
+        diskChunkIndexes.add(chunks.size());
+      }
+      chunks.add(chunk);
+    }
+    // a single chunk gains nothing from being read together
+    if (diskChunkMetadataList.size() > 1) {
+      List<Chunk> diskChunks =
+          ChunkCache.getInstance()
+              .getAll(diskChunkMetadataList, context != null && context.isDebug());
+      for (int i = 0; i < diskChunks.size(); i++) {
+        chunks.set(diskChunkIndexes.get(i), diskChunks.get(i));
+      }
+    }
+    return chunks;
+  }
+
+  private void unpackOneChunkMetaData(IChunkMetadata chunkMetaData, Chunk chunk)
+      throws IOException {
+    List<IPageReader> pageReaderList = loadPageReaderList(chunkMetaData, chunk);
 
     // init TsBlockBuilder for each page reader
     pageReaderList.forEach(p -> p.initTsBlockBuilder(getTsDataTypeList()));
@@ -549,6 +645,27 @@ public class SeriesScanUtil {
     }
   }
 
+  private List<IPageReader> loadPageReaderList(IChunkMetadata chunkMetaData, Chunk chunk)
+      throws IOException {
+    if (chunk == null) {
+      return FileLoaderUtils.loadPageReaderList(chunkMetaData, timeFilter);
+    }
+    chunk.setFromOldFile(chunkMetaData.isFromOldTsFile());
+    return new ChunkReader(chunk, timeFilter).loadPageReaderList();
+  }
+
+  /** @return the future of the chunk the scan is waiting to be read ahead */
+  public ListenableFuture<Void> isBlocked() {
+    return chunkReadAhead == null ? Operator.NOT_BLOCKED : chunkReadAhead.isBlocked();
+  }
+
+  /** Release the chunks read ahead but not scanned. */
+  public void close() {
+    if (chunkReadAhead != null) {
+      chunkReadAhead.close();
+    }
+  }
+
   /**
    * This method should be called after calling hasNextPage.
    *
@@ -21,12 +21,18 @@ package org.apache.iotdb.db.mpp.plan.analyze;
 
 import org.apache.iotdb.common.rpc.thrift.TRegionReplicaSet;
 import org.apache.iotdb.common.rpc.thrift.TSeriesPartitionSlot;
+import org.apache.iotdb.common.rpc.thrift.TTimePartitionSlot;
 import org.apache.iotdb.commons.conf.IoTDBConstant;
+import org.apache.iotdb.commons.exception.IllegalPathException;
 import org.apache.iotdb.commons.partition.DataPartition;
 import org.apache.iotdb.commons.partition.DataPartitionQueryParam;
 import org.apache.iotdb.commons.partition.SchemaNodeManagementPartition;
 import org.apache.iotdb.commons.partition.SchemaPartition;
 import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.StorageEngineV2;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResourceStatus;
 import org.apache.iotdb.db.exception.sql.MeasurementNotExistException;
 import org.apache.iotdb.db.exception.sql.SemanticException;
 import org.apache.iotdb.db.exception.sql.StatementAnalyzeException;
@@ -57,7 +63,9 @@ import org.apache.iotdb.db.mpp.plan.statement.crud.InsertRowsOfOneDeviceStatemen
 import org.apache.iotdb.db.mpp.plan.statement.crud.InsertRowsStatement;
 import org.apache.iotdb.db.mpp.plan.statement.crud.InsertStatement;
 import org.apache.iotdb.db.mpp.plan.statement.crud.InsertTabletStatement;
+import org.apache.iotdb.db.mpp.plan.statement.crud.LoadTsFileStatement;
 import org.apache.iotdb.db.mpp.plan.statement.crud.QueryStatement;
+import org.apache.iotdb.db.mpp.plan.statement.internal.InternalCreateMultiTimeSeriesStatement;
 import org.apache.iotdb.db.mpp.plan.statement.internal.InternalCreateTimeSeriesStatement;
 import org.apache.iotdb.db.mpp.plan.statement.internal.LastPointFetchStatement;
 import org.apache.iotdb.db.mpp.plan.statement.internal.SchemaFetchStatement;
@@ -79,16 +87,26 @@ import org.apache.iotdb.db.mpp.plan.statement.metadata.ShowStorageGroupStatement
 import org.apache.iotdb.db.mpp.plan.statement.metadata.ShowTTLStatement;
 import org.apache.iotdb.db.mpp.plan.statement.metadata.ShowTimeSeriesStatement;
 import org.apache.iotdb.db.mpp.plan.statement.sys.ExplainStatement;
+import org.apache.iotdb.db.tools.TsFilePartitionSplitTool;
+import org.apache.iotdb.db.utils.FileLoaderUtils;
+import org.apache.iotdb.db.utils.UpgradeUtils;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.TsFileCheckStatus;
+import org.apache.iotdb.tsfile.read.TsFileDeviceIterator;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.Path;
 import org.apache.iotdb.tsfile.read.filter.GroupByFilter;
 import org.apache.iotdb.tsfile.read.filter.GroupByMonthFilter;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 import org.apache.iotdb.tsfile.read.filter.factory.FilterFactory;
 import org.apache.iotdb.tsfile.utils.Pair;
+import org.apache.iotdb.tsfile.write.schema.IMeasurementSchema;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -101,6 +119,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.TimeZone;
+import java.util.function.BiFunction;
 import java.util.stream.Collectors;
 
 /** Analyze the statement and generate Analysis. */
@@ -996,6 +1015,26 @@ public class Analyzer {
       return analysis;
     }
 
+    @Override
+    public Analysis visitInternalCreateMultiTimeseries(
+        InternalCreateMultiTimeSeriesStatement internalCreateMultiTimeSeriesStatement,
+        MPPQueryContext context) {
+      context.setQueryType(QueryType.WRITE);
+
+      Analysis analysis = new Analysis();
+      analysis.setStatement(internalCreateMultiTimeSeriesStatement);
+
+      PathPatternTree pathPatternTree = new PathPatternTree();
+      for (PartialPath path : internalCreateMultiTimeSeriesStatement.getPaths()) {
+        pathPatternTree.appendFullPath(path);
+      }
+
+      SchemaPartition schemaPartitionInfo;
+      schemaPartitionInfo = partitionFetcher.getOrCreateSchemaPartition(pathPatternTree);
+      analysis.setSchemaPartitionInfo(schemaPartitionInfo);
+      return analysis;
+    }
+
     @Override
     public Analysis visitCreateMultiTimeseries(
         CreateMultiTimeSeriesStatement createMultiTimeSeriesStatement, MPPQueryContext context) {
@@ -1394,6 +1433,255 @@ public class Analyzer {
 
       return analysis;
     }
+
+    @Override
+    public Analysis visitLoadTsFile(
+        LoadTsFileStatement loadTsFileStatement, MPPQueryContext context) {
+      context.setQueryType(QueryType.WRITE);
+      Analysis analysis = new Analysis();
+      analysis.setStatement(loadTsFileStatement);
+
+      if (loadTsFileStatement.getTsFiles().isEmpty()) {
+        throw new SemanticException(
+            String.format("No tsfile is found in %s", loadTsFileStatement.getFile()));
+      }
+
+      // device -> measurement -> data type, and device -> isAligned of all the files
+      Map<String, Map<String, TSDataType>> deviceSchemaMap = new LinkedHashMap<>();
+      Map<String, Boolean> deviceAlignedMap = new HashMap<>();
+      List<TsFileResource> resources = new ArrayList<>();
+      for (File tsFile : loadTsFileStatement.getTsFiles()) {
+        resources.add(checkAndLoadTsFile(tsFile, deviceSchemaMap, deviceAlignedMap));
+      }
+
+      if (loadTsFileStatement.isAutoCreateSchema() || loadTsFileStatement.isVerifySchema()) {
+        validateLoadingSchema(loadTsFileStatement, deviceSchemaMap, deviceAlignedMap);
+      }
+
+      Map<String, Set<TTimePartitionSlot>> deviceSlotsMap = new LinkedHashMap<>();
+      for (TsFileResource resource : resources) {
+        for (String device : resource.getDevices()) {
+          List<TTimePartitionSlot> timePartitionSlots =
+              getTimePartitionSlots(resource.getStartTime(device), resource.getEndTime(device));
+          deviceSlotsMap
+              .computeIfAbsent(device, o -> new LinkedHashSet<>())
+              .addAll(timePartitionSlots);
+        }
+      }
+      List<DataPartitionQueryParam> dataPartitionQueryParams = new ArrayList<>();
+      for (Map.Entry<String, Set<TTimePartitionSlot>> entry : deviceSlotsMap.entrySet()) {
+        DataPartitionQueryParam dataPartitionQueryParam = new DataPartitionQueryParam();
+        dataPartitionQueryParam.setDevicePath(entry.getKey());
+        dataPartitionQueryParam.setTimePartitionSlotList(new ArrayList<>(entry.getValue()));
+        dataPartitionQueryParams.add(dataPartitionQueryParam);
+      }
+      DataPartition dataPartition =
+          partitionFetcher.getOrCreateDataPartition(dataPartitionQueryParams);
+      analysis.setDataPartitionInfo(dataPartition);
+
+      try {
+        splitTsFiles(loadTsFileStatement, resources, dataPartition, context);
+      } catch (IOException | RuntimeException e) {
+        loadTsFileStatement.cleanUpSplitDir();
+        logger.warn("Failed to split tsfiles of {}", loadTsFileStatement, e);
+        throw new SemanticException(
+            String.format("Failed to split tsfiles to be loaded, because %s", e.getMessage()));
+      }
+      return analysis;
+    }
+
+    /** Check the integrity of the file, collect its schema and load or generate its resource. */
+    private TsFileResource checkAndLoadTsFile(
+        File tsFile,
+        Map<String, Map<String, TSDataType>> deviceSchemaMap,
+        Map<String, Boolean> deviceAlignedMap) {
+      try (TsFileSequenceReader reader =
+          new TsFileSequenceReader(tsFile.getAbsolutePath(), false)) {
+        Map<Path, IMeasurementSchema> schemaMap = new HashMap<>();
+        if (reader.selfCheck(schemaMap, new ArrayList<>(), false)
+            != TsFileCheckStatus.COMPLETE_FILE) {
+          throw new SemanticException(
+              String.format("Cannot load file %s because the file has crashed.", tsFile));
+        }
+        TsFileDeviceIterator deviceIterator = reader.getAllDevicesIteratorWithIsAligned();
+        while (deviceIterator.hasNext()) {
+          Pair<String, Boolean> deviceAndIsAligned = deviceIterator.next();
+          Boolean isAligned =
+              deviceAlignedMap.putIfAbsent(deviceAndIsAligned.left, deviceAndIsAligned.right);
+          if (isAligned != null && !isAligned.equals(deviceAndIsAligned.right)) {
+            throw new SemanticException(
+                String.format(
+                    "Device %s is aligned in some files but not aligned in others",
+                    deviceAndIsAligned.left));
+          }
+        }
+        for (Map.Entry<Path, IMeasurementSchema> entry : schemaMap.entrySet()) {
+          String measurement = entry.getKey().getMeasurement();
+          if (measurement.isEmpty()) {
+            // the time column of aligned devices
+            continue;
+          }
+          TSDataType dataType =
+              deviceSchemaMap
+                  .computeIfAbsent(entry.getKey().getDevice(), o -> new LinkedHashMap<>())
+                  .putIfAbsent(measurement, entry.getValue().getType());
+          if (dataType != null && dataType != entry.getValue().getType()) {
+            throw new SemanticException(
+                String.format(
+                    "Timeseries %s is of different data types in the files to be loaded",
+                    entry.getKey().getFullPath()));
+          }
+        }
+      } catch (IOException e) {
+        throw new SemanticException(
+            String.format("Cannot load file %s because %s", tsFile, e.getMessage()));
+      }
+
+      TsFileResource resource = new TsFileResource(tsFile);
+      try {
+        FileLoaderUtils.loadOrGenerateResource(resource);
+      } catch (IOException e) {
+        throw new SemanticException(
+            String.format(
+                "Cannot load file %s because its resource cannot be generated: %s",
+                tsFile, e.getMessage()));
+      }
+      if (UpgradeUtils.isNeedUpgrade(resource)) {
+        throw new SemanticException(
+            String.format(
+                "Cannot load file %s because the file's version is old which needs to be upgraded.",
+                tsFile));
+      }
+      resource.setStatus(TsFileResourceStatus.CLOSED);
+      return resource;
+    }
+
+    /** Create the missing timeseries if required and check the data types of all timeseries. */
+    private void validateLoadingSchema(
+        LoadTsFileStatement loadTsFileStatement,
+        Map<String, Map<String, TSDataType>> deviceSchemaMap,
+        Map<String, Boolean> deviceAlignedMap) {
+      List<PartialPath> devicePaths = new ArrayList<>();
+      List<String[]> measurementsList = new ArrayList<>();
+      List<TSDataType[]> dataTypesList = new ArrayList<>();
+      List<Boolean> isAlignedList = new ArrayList<>();
+      PathPatternTree patternTree = new PathPatternTree();
+      try {
+        for (Map.Entry<String, Map<String, TSDataType>> entry : deviceSchemaMap.entrySet()) {
+          PartialPath devicePath = new PartialPath(entry.getKey());
+          devicePaths.add(devicePath);
+          measurementsList.add(entry.getValue().keySet().toArray(new String[0]));
+          dataTypesList.add(entry.getValue().values().toArray(new TSDataType[0]));
+          isAlignedList.add(deviceAlignedMap.getOrDefault(entry.getKey(), false));
+          for (String measurement : entry.getValue().keySet()) {
+            patternTree.appendFullPath(devicePath, measurement);
+          }
+        }
+      } catch (IllegalPathException e) {
+        throw new SemanticException(e.getMessage());
+      }
+
+      SchemaTree schemaTree =
+          loadTsFileStatement.isAutoCreateSchema()
+              ? schemaFetcher.fetchSchemaListWithAutoCreate(
+                  devicePaths, measurementsList, dataTypesList, isAlignedList)
+              : schemaFetcher.fetchSchema(patternTree);
+      if (!loadTsFileStatement.isVerifySchema()) {
+        return;
+      }
+
+      for (int i = 0; i < devicePaths.size(); i++) {
+        for (int j = 0; j < measurementsList.get(i).length; j++) {
+          PartialPath seriesPath = devicePaths.get(i).concatNode(measurementsList.get(i)[j]);
+          List<MeasurementPath> measurementPaths =
+              schemaTree.searchMeasurementPaths(seriesPath).left;
+          if (measurementPaths.isEmpty()) {
+            throw new SemanticException(
+                String.format("Timeseries %s does not exist", seriesPath.getFullPath()));
+          }
+          if (measurementPaths.get(0).getSeriesType() != dataTypesList.get(i)[j]) {
+            throw new SemanticException(
+                String.format(
+                    "Data type of timeseries %s is %s, but %s in the files to be loaded",
+                    seriesPath.getFullPath(),
+                    measurementPaths.get(0).getSeriesType(),
+                    dataTypesList.get(i)[j]));
+          }
+        }
+      }
+    }
+
+    /**
+     * Turn each file into pieces which belong to exactly one data region and one time partition. A
+     * file that already does is loaded as it is with its mods file, otherwise it is split into the
+     * load dir with its deletions applied.
+     */
+    private void splitTsFiles(
+        LoadTsFileStatement loadTsFileStatement,
+        List<TsFileResource> resources,
+        DataPartition dataPartition,
+        MPPQueryContext context)
+        throws IOException {
+      BiFunction<String, TTimePartitionSlot, Pair<TRegionReplicaSet, TTimePartitionSlot>>
+          keyFunction =
+              (device, slot) ->
+                  new Pair<>(dataPartition.getDataRegionReplicaSetForWriting(device, slot), slot);
+      for (int i = 0; i < resources.size(); i++) {
+        TsFileResource resource = resources.get(i);
+        if (resource.getDevices().isEmpty()) {
+          continue;
+        }
+        Pair<TRegionReplicaSet, TTimePartitionSlot> fileKey = null;
+        boolean needSplit = false;
+        for (String device : resource.getDevices()) {
+          TTimePartitionSlot startSlot =
+              StorageEngineV2.getTimePartitionSlot(resource.getStartTime(device));
+          Pair<TRegionReplicaSet, TTimePartitionSlot> deviceKey =
+              keyFunction.apply(device, startSlot);
+          if (!startSlot.equals(StorageEngineV2.getTimePartitionSlot(resource.getEndTime(device)))
+              || (fileKey != null && !fileKey.equals(deviceKey))) {
+            needSplit = true;
+            break;
+          }
+          fileKey = deviceKey;
+        }
+        if (!needSplit) {
+          loadTsFileStatement.addPiece(resource);
+          continue;
+        }
+
+        if (loadTsFileStatement.getSplitDir() == null) {
+          loadTsFileStatement.setSplitDir(
+              new File(
+                  IoTDBDescriptor.getInstance().getConfig().getLoadTsFileDir(),
+                  context.getQueryId().getId()));
+        }
+        File targetDir = new File(loadTsFileStatement.getSplitDir(), String.valueOf(i));
+        if (!targetDir.exists() && !targetDir.mkdirs()) {
+          throw new IOException(String.format("Failed to create directory %s", targetDir));
+        }
+        try (TsFilePartitionSplitTool<Pair<TRegionReplicaSet, TTimePartitionSlot>> splitTool =
+            new TsFilePartitionSplitTool<>(resource.getTsFile(), targetDir, keyFunction)) {
+          for (TsFileResource piece : splitTool.split().values()) {
+            loadTsFileStatement.addPiece(piece);
+          }
+        }
+      }
+    }
+  }
+
+  private static List<TTimePartitionSlot> getTimePartitionSlots(long startTime, long endTime) {
+    List<TTimePartitionSlot> timePartitionSlots = new ArrayList<>();
+    TTimePartitionSlot timePartitionSlot = StorageEngineV2.getTimePartitionSlot(startTime);
+    TTimePartitionSlot endTimePartitionSlot = StorageEngineV2.getTimePartitionSlot(endTime);
+    timePartitionSlots.add(timePartitionSlot);
+    while (!timePartitionSlot.equals(endTimePartitionSlot)) {
+      timePartitionSlot =
+          StorageEngineV2.getTimePartitionSlot(
+              timePartitionSlot.getStartTime() + StorageEngineV2.getTimePartitionInterval());
+      timePartitionSlots.add(timePartitionSlot);
+    }
+    return timePartitionSlots;
   }
 
   private GroupByFilter initGroupByFilter(GroupByTimeComponent groupByTimeComponent) {
@@ -33,6 +33,9 @@ import org.apache.iotdb.db.mpp.common.schematree.PathPatternTree;
 import org.apache.iotdb.db.mpp.common.schematree.SchemaTree;
 import org.apache.iotdb.db.mpp.plan.Coordinator;
 import org.apache.iotdb.db.mpp.plan.execution.ExecutionResult;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.metedata.write.MeasurementGroup;
+import org.apache.iotdb.db.mpp.plan.statement.Statement;
+import org.apache.iotdb.db.mpp.plan.statement.internal.InternalCreateMultiTimeSeriesStatement;
 import org.apache.iotdb.db.mpp.plan.statement.internal.InternalCreateTimeSeriesStatement;
 import org.apache.iotdb.db.mpp.plan.statement.internal.SchemaFetchStatement;
 import org.apache.iotdb.db.query.control.SessionManager;
@@ -53,6 +56,7 @@ import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -223,18 +227,41 @@ public class ClusterSchemaFetcher implements ISchemaFetcher {
     schemaTree.mergeSchemaTree(remoteSchemaTree);
     schemaCache.put(remoteSchemaTree);
 
-    SchemaTree missingSchemaTree;
+    // collect the missing measurements of all devices and create them with one statement, which
+    // will be split and executed once per schema region rather than once per device
+    Map<PartialPath, Pair<Boolean, MeasurementGroup>> missingDeviceMap = new LinkedHashMap<>();
     for (int i = 0; i < devicePathList.size(); i++) {
-      missingSchemaTree =
-          checkAndAutoCreateMissingMeasurements(
-              schemaTree,
-              devicePathList.get(i),
-              measurementsList.get(i),
-              tsDataTypesList.get(i),
-              isAlignedList.get(i));
-      schemaTree.mergeSchemaTree(missingSchemaTree);
-      schemaCache.put(missingSchemaTree);
+      Pair<List<String>, List<TSDataType>> checkResult =
+          checkMissingMeasurements(
+              schemaTree, devicePathList.get(i), measurementsList.get(i), tsDataTypesList.get(i));
+      if (checkResult.left.isEmpty()) {
+        continue;
+      }
+      Pair<Boolean, MeasurementGroup> deviceEntry = missingDeviceMap.get(devicePathList.get(i));
+      if (deviceEntry == null) {
+        deviceEntry = new Pair<>(isAlignedList.get(i), new MeasurementGroup());
+        missingDeviceMap.put(devicePathList.get(i), deviceEntry);
+      }
+      MeasurementGroup measurementGroup = deviceEntry.right;
+      for (int j = 0; j < checkResult.left.size(); j++) {
+        if (measurementGroup.getMeasurements().contains(checkResult.left.get(j))) {
+          continue;
+        }
+        measurementGroup.addMeasurement(
+            checkResult.left.get(j),
+            checkResult.right.get(j),
+            getDefaultEncoding(checkResult.right.get(j)),
+            TSFileDescriptor.getInstance().getConfig().getCompressor());
+      }
+    }
+
+    if (missingDeviceMap.isEmpty()) {
+      return schemaTree;
     }
+
+    SchemaTree missingSchemaTree = internalCreateMultiTimeseries(missingDeviceMap);
+    schemaTree.mergeSchemaTree(missingSchemaTree);
+    schemaCache.put(missingSchemaTree);
     return schemaTree;
   }
 
@@ -325,8 +352,44 @@ public class ClusterSchemaFetcher implements ISchemaFetcher {
     return schemaTree;
   }
 
-  private List<MeasurementPath> executeInternalCreateTimeseriesStatement(
-      InternalCreateTimeSeriesStatement statement) {
+  private SchemaTree internalCreateMultiTimeseries(
+      Map<PartialPath, Pair<Boolean, MeasurementGroup>> deviceMap) {
+    List<MeasurementPath> measurementPathList =
+        executeInternalCreateTimeseriesStatement(
+            new InternalCreateMultiTimeSeriesStatement(deviceMap));
+
+    Set<String> alreadyExistingPathSet =
+        measurementPathList.stream().map(PartialPath::getFullPath).collect(Collectors.toSet());
+
+    SchemaTree schemaTree = new SchemaTree();
+    schemaTree.appendMeasurementPaths(measurementPathList);
+
+    for (Map.Entry<PartialPath, Pair<Boolean, MeasurementGroup>> entry : deviceMap.entrySet()) {
+      PartialPath devicePath = entry.getKey();
+      MeasurementGroup measurementGroup = entry.getValue().right;
+      for (int i = 0, size = measurementGroup.getMeasurements().size(); i < size; i++) {
+        PartialPath measurementPath =
+            devicePath.concatNode(measurementGroup.getMeasurements().get(i));
+        if (alreadyExistingPathSet.contains(measurementPath.getFullPath())) {
+          continue;
+        }
+
+        schemaTree.appendSingleMeasurement(
+            measurementPath,
+            new MeasurementSchema(
+                measurementGroup.getMeasurements().get(i),
+                measurementGroup.getDataTypes().get(i),
+                measurementGroup.getEncodings().get(i),
+                measurementGroup.getCompressors().get(i)),
+            null,
+            entry.getValue().left);
+      }
+    }
+
+    return schemaTree;
+  }
+
+  private List<MeasurementPath> executeInternalCreateTimeseriesStatement(Statement statement) {
     long queryId = SessionManager.getInstance().requestQueryId(false);
     ExecutionResult executionResult =
         coordinator.execute(statement, queryId, null, "", partitionFetcher, this);
@@ -134,6 +134,7 @@ public enum StatementType {
 
   FETCH_SCHEMA,
   INTERNAL_CREATE_TIMESERIES,
+  INTERNAL_CREATE_MULTI_TIMESERIES,
 
   COUNT
 }
@@ -54,6 +54,7 @@ import org.apache.iotdb.db.mpp.plan.statement.Statement;
 import org.apache.iotdb.db.mpp.plan.statement.crud.InsertBaseStatement;
 import org.apache.iotdb.db.mpp.plan.statement.crud.InsertMultiTabletsStatement;
 import org.apache.iotdb.db.mpp.plan.statement.crud.InsertRowsStatement;
+import org.apache.iotdb.db.mpp.plan.statement.crud.LoadTsFileStatement;
 import org.apache.iotdb.rpc.RpcUtils;
 import org.apache.iotdb.rpc.TSStatusCode;
 import org.apache.iotdb.tsfile.read.common.block.TsBlock;
@@ -142,6 +143,7 @@ public class QueryExecution implements IQueryExecution {
               return;
             }
             this.stop();
+            cleanUpSplitDir();
             // TODO: (xingtanzjr) If the query is in abnormal state, the releaseResource() should be
             // invoked
             if (state == QueryState.FAILED
@@ -161,12 +163,18 @@ public class QueryExecution implements IQueryExecution {
       stateMachine.transitionToRunning();
       return;
     }
-    doLogicalPlan();
-    doDistributedPlan();
-    if (context.getQueryType() == QueryType.READ) {
-      initResultHandle();
+    try {
+      doLogicalPlan();
+      doDistributedPlan();
+      if (context.getQueryType() == QueryType.READ) {
+        initResultHandle();
+      }
+      schedule();
+    } catch (RuntimeException e) {
+      // the state machine may never reach a done state
+      cleanUpSplitDir();
+      throw e;
     }
-    schedule();
   }
 
   private boolean skipExecute() {
@@ -255,9 +263,20 @@ public class QueryExecution implements IQueryExecution {
   // Stop the query and clean up all the resources this query occupied
   public void stopAndCleanup() {
     stop();
+    cleanUpSplitDir();
     releaseResource();
   }
 
+  /**
+   * Remove the pieces split from the files of a LOAD statement. They have been transferred to the
+   * data regions once the query is done, and are useless if it fails or is cancelled.
+   */
+  private void cleanUpSplitDir() {
+    if (analysis.getStatement() instanceof LoadTsFileStatement) {
+      ((LoadTsFileStatement) analysis.getStatement()).cleanUpSplitDir();
+    }
+  }
+
   /** Release the resources that current QueryExecution hold. */
   private void releaseResource() {
     // close ResultHandle to unblock client's getResult request
@@ -70,6 +70,7 @@ import org.apache.iotdb.db.mpp.plan.statement.component.SelectComponent;
 import org.apache.iotdb.db.mpp.plan.statement.component.WhereCondition;
 import org.apache.iotdb.db.mpp.plan.statement.crud.DeleteDataStatement;
 import org.apache.iotdb.db.mpp.plan.statement.crud.InsertStatement;
+import org.apache.iotdb.db.mpp.plan.statement.crud.LoadTsFileStatement;
 import org.apache.iotdb.db.mpp.plan.statement.crud.QueryStatement;
 import org.apache.iotdb.db.mpp.plan.statement.literal.BooleanLiteral;
 import org.apache.iotdb.db.mpp.plan.statement.literal.DoubleLiteral;
@@ -1828,6 +1829,37 @@ public class ASTVisitor extends IoTDBSqlParserBaseVisitor<Statement> {
     return statement;
   }
 
+  // Load TsFile ========================================================================
+
+  @Override
+  public Statement visitLoadFile(IoTDBSqlParser.LoadFileContext ctx) {
+    LoadTsFileStatement statement =
+        new LoadTsFileStatement(parseStringLiteral(ctx.fileName.getText()));
+    if (ctx.loadFilesClause() != null) {
+      parseLoadFiles(statement, ctx.loadFilesClause());
+    }
+    return statement;
+  }
+
+  private void parseLoadFiles(
+      LoadTsFileStatement statement, IoTDBSqlParser.LoadFilesClauseContext ctx) {
+    if (ctx.AUTOREGISTER() != null) {
+      statement.setAutoCreateSchema(Boolean.parseBoolean(ctx.BOOLEAN_LITERAL().getText()));
+    } else if (ctx.SGLEVEL() != null) {
+      // storage groups are created by the config node according to its own configuration
+      throw new SQLParserException("load tsfile: SGLEVEL is not supported in cluster mode.");
+    } else if (ctx.VERIFY() != null) {
+      statement.setVerifySchema(Boolean.parseBoolean(ctx.BOOLEAN_LITERAL().getText()));
+    } else {
+      throw new SQLParserException(
+          String.format(
+              "load tsfile format %s error, please input AUTOREGISTER | VERIFY.", ctx.getText()));
+    }
+    if (ctx.loadFilesClause() != null) {
+      parseLoadFiles(statement, ctx.loadFilesClause());
+    }
+  }
+
   private TimeRange parseDeleteTimeRange(Expression predicate) {
     if (predicate instanceof LogicAndExpression) {
       TimeRange leftTimeRange =
@@ -0,0 +1,189 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.mpp.plan.planner.plan.node.write;
+
+import org.apache.iotdb.common.rpc.thrift.TRegionReplicaSet;
+import org.apache.iotdb.commons.partition.DataPartition;
+import org.apache.iotdb.commons.utils.ThriftCommonsSerDeUtils;
+import org.apache.iotdb.db.mpp.plan.analyze.Analysis;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanNode;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanNodeId;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanNodeType;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanVisitor;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.WritePlanNode;
+import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Load TsFiles into data regions. Each {@link LoadTsFilePiece} belongs to exactly one data region
+ * and one time partition. The node only refers to the files of the pieces, which are transferred to
+ * the receive dir of every data node of the region, identified by the uuid, before the node is
+ * dispatched.
+ */
+public class LoadTsFileNode extends WritePlanNode {
+
+  /** identifies the LOAD statement, different statements never share the received files */
+  private final String uuid;
+
+  private final List<LoadTsFilePiece> pieces;
+
+  private TRegionReplicaSet regionReplicaSet;
+
+  public LoadTsFileNode(PlanNodeId id, String uuid, List<LoadTsFilePiece> pieces) {
+    super(id);
+    this.uuid = uuid;
+    this.pieces = pieces;
+  }
+
+  public LoadTsFileNode(
+      PlanNodeId id,
+      String uuid,
+      List<LoadTsFilePiece> pieces,
+      TRegionReplicaSet regionReplicaSet) {
+    super(id);
+    this.uuid = uuid;
+    this.pieces = pieces;
+    this.regionReplicaSet = regionReplicaSet;
+  }
+
+  public String getUuid() {
+    return uuid;
+  }
+
+  public List<LoadTsFilePiece> getPieces() {
+    return pieces;
+  }
+
+  @Override
+  public List<PlanNode> getChildren() {
+    return new ArrayList<>();
+  }
+
+  @Override
+  public void addChild(PlanNode child) {}
+
+  @Override
+  public PlanNode clone() {
+    return new LoadTsFileNode(getPlanNodeId(), uuid, pieces, regionReplicaSet);
+  }
+
+  @Override
+  public int allowedChildCount() {
+    return NO_CHILD_ALLOWED;
+  }
+
+  @Override
+  public List<String> getOutputColumnNames() {
+    return null;
+  }
+
+  @Override
+  protected void serializeAttributes(ByteBuffer byteBuffer) {
+    PlanNodeType.LOAD_TSFILE.serialize(byteBuffer);
+    ReadWriteIOUtils.write(uuid, byteBuffer);
+    ReadWriteIOUtils.write(pieces.size(), byteBuffer);
+    for (LoadTsFilePiece piece : pieces) {
+      piece.serialize(byteBuffer);
+    }
+    ReadWriteIOUtils.write(regionReplicaSet != null, byteBuffer);
+    if (regionReplicaSet != null) {
+      ThriftCommonsSerDeUtils.serializeTRegionReplicaSet(regionReplicaSet, byteBuffer);
+    }
+  }
+
+  @Override
+  protected void serializeAttributes(DataOutputStream stream) throws IOException {
+    PlanNodeType.LOAD_TSFILE.serialize(stream);
+    ReadWriteIOUtils.write(uuid, stream);
+    ReadWriteIOUtils.write(pieces.size(), stream);
+    for (LoadTsFilePiece piece : pieces) {
+      piece.serialize(stream);
+    }
+    ReadWriteIOUtils.write(regionReplicaSet != null, stream);
+    if (regionReplicaSet != null) {
+      ThriftCommonsSerDeUtils.serializeTRegionReplicaSet(regionReplicaSet, stream);
+    }
+  }
+
+  public static LoadTsFileNode deserialize(ByteBuffer byteBuffer) {
+    String uuid = ReadWriteIOUtils.readString(byteBuffer);
+    int size = ReadWriteIOUtils.readInt(byteBuffer);
+    List<LoadTsFilePiece> pieces = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      pieces.add(LoadTsFilePiece.deserialize(byteBuffer));
+    }
+    TRegionReplicaSet regionReplicaSet =
+        ReadWriteIOUtils.readBool(byteBuffer)
+            ? ThriftCommonsSerDeUtils.deserializeTRegionReplicaSet(byteBuffer)
+            : null;
+    PlanNodeId planNodeId = PlanNodeId.deserialize(byteBuffer);
+    return new LoadTsFileNode(planNodeId, uuid, pieces, regionReplicaSet);
+  }
+
+  @Override
+  public <R, C> R accept(PlanVisitor<R, C> visitor, C context) {
+    return visitor.visitLoadTsFile(this, context);
+  }
+
+  @Override
+  public TRegionReplicaSet getRegionReplicaSet() {
+    return regionReplicaSet;
+  }
+
+  public void setRegionReplicaSet(TRegionReplicaSet regionReplicaSet) {
+    this.regionReplicaSet = regionReplicaSet;
+  }
+
+  @Override
+  public List<WritePlanNode> splitByPartition(Analysis analysis) {
+    DataPartition dataPartition = analysis.getDataPartitionInfo();
+    Map<TRegionReplicaSet, List<LoadTsFilePiece>> regionToPiecesMap = new LinkedHashMap<>();
+    for (LoadTsFilePiece piece : pieces) {
+      // all the devices of a piece are in the same data region and time partition
+      TRegionReplicaSet regionReplicaSet =
+          dataPartition.getDataRegionReplicaSetForWriting(
+              piece.getDevice(), piece.getTimePartitionSlot());
+      regionToPiecesMap.computeIfAbsent(regionReplicaSet, o -> new ArrayList<>()).add(piece);
+    }
+
+    List<WritePlanNode> result = new ArrayList<>(regionToPiecesMap.size());
+    for (Map.Entry<TRegionReplicaSet, List<LoadTsFilePiece>> entry :
+        regionToPiecesMap.entrySet()) {
+      result.add(new LoadTsFileNode(getPlanNodeId(), uuid, entry.getValue(), entry.getKey()));
+    }
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "LoadTsFileNode-%s[ Pieces: %s, Region: %s ]",
+        getPlanNodeId(),
+        pieces,
+        regionReplicaSet == null ? "Not Assigned" : regionReplicaSet.getRegionId());
+  }
+}
@@ -0,0 +1,246 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.mpp.plan.planner.plan.node.write;
+
+import org.apache.iotdb.common.rpc.thrift.TTimePartitionSlot;
+import org.apache.iotdb.db.engine.StorageEngineV2;
+import org.apache.iotdb.db.engine.modification.ModificationFile;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResourceStatus;
+import org.apache.iotdb.tsfile.compress.ZstdDictionaryManager;
+import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A TsFile which belongs to exactly one data region and one time partition. Only the name and the
+ * sizes of its files are carried by the plan node, the files themselves are transferred to the
+ * receive dir of each data node before the node is executed.
+ */
+public class LoadTsFilePiece {
+
+  /** the index of the piece in the LOAD statement, which names its sub dir in the receive dir */
+  private final int index;
+
+  private final String fileName;
+  private final long tsFileSize;
+  private final long resourceFileSize;
+  /** -1 if there is no mods file */
+  private final long modsFileSize;
+  /** -1 if there is no ZSTD dictionary file */
+  private final long dictionaryFileSize;
+
+  /** a device of the piece and its start time, which decide the data region and time partition */
+  private final String device;
+
+  private final long startTime;
+
+  /** the local tsfile, null if the piece is deserialized on another node */
+  private final File localTsFile;
+
+  public LoadTsFilePiece(int index, TsFileResource resource) {
+    this.index = index;
+    this.localTsFile = resource.getTsFile();
+    this.fileName = localTsFile.getName();
+    this.tsFileSize = localTsFile.length();
+    this.resourceFileSize =
+        new File(resource.getTsFilePath() + TsFileResource.RESOURCE_SUFFIX).length();
+    File modsFile = new File(resource.getTsFilePath() + ModificationFile.FILE_SUFFIX);
+    this.modsFileSize = modsFile.exists() ? modsFile.length() : -1;
+    File dictionaryFile = new File(resource.getTsFilePath() + ZstdDictionaryManager.FILE_SUFFIX);
+    this.dictionaryFileSize = dictionaryFile.exists() ? dictionaryFile.length() : -1;
+    this.device = resource.getDevices().iterator().next();
+    this.startTime = resource.getStartTime(device);
+  }
+
+  private LoadTsFilePiece(
+      int index,
+      String fileName,
+      long tsFileSize,
+      long resourceFileSize,
+      long modsFileSize,
+      long dictionaryFileSize,
+      String device,
+      long startTime) {
+    this.index = index;
+    this.fileName = fileName;
+    this.tsFileSize = tsFileSize;
+    this.resourceFileSize = resourceFileSize;
+    this.modsFileSize = modsFileSize;
+    this.dictionaryFileSize = dictionaryFileSize;
+    this.device = device;
+    this.startTime = startTime;
+    this.localTsFile = null;
+  }
+
+  public int getIndex() {
+    return index;
+  }
+
+  public String getFileName() {
+    return fileName;
+  }
+
+  public String getDevice() {
+    return device;
+  }
+
+  public TTimePartitionSlot getTimePartitionSlot() {
+    return StorageEngineV2.getTimePartitionSlot(startTime);
+  }
+
+  /**
+   * @return the tsfile, resource file, and the mods file and ZSTD dictionary file if they exist,
+   *     on the analyzing node
+   */
+  public List<File> getLocalFiles() {
+    if (localTsFile == null) {
+      throw new IllegalStateException(
+          String.format("Piece %s is not a local file of this node", fileName));
+    }
+    List<File> files = new ArrayList<>(4);
+    files.add(localTsFile);
+    files.add(new File(localTsFile.getPath() + TsFileResource.RESOURCE_SUFFIX));
+    if (modsFileSize >= 0) {
+      files.add(new File(localTsFile.getPath() + ModificationFile.FILE_SUFFIX));
+    }
+    if (dictionaryFileSize >= 0) {
+      files.add(new File(localTsFile.getPath() + ZstdDictionaryManager.FILE_SUFFIX));
+    }
+    return files;
+  }
+
+  /**
+   * Check the received files of the piece in the given dir and get the resource to be loaded.
+   *
+   * @throws IOException if a file is missing or incomplete
+   */
+  public TsFileResource prepare(File pieceDir) throws IOException {
+    File tsFile = new File(pieceDir, fileName);
+    checkReceivedFile(tsFile, tsFileSize);
+    checkReceivedFile(
+        new File(pieceDir, fileName + TsFileResource.RESOURCE_SUFFIX), resourceFileSize);
+    if (modsFileSize >= 0) {
+      checkReceivedFile(new File(pieceDir, fileName + ModificationFile.FILE_SUFFIX), modsFileSize);
+    }
+    if (dictionaryFileSize >= 0) {
+      checkReceivedFile(
+          new File(pieceDir, fileName + ZstdDictionaryManager.FILE_SUFFIX), dictionaryFileSize);
+    }
+    TsFileResource resource = new TsFileResource(tsFile);
+    resource.deserialize();
+    resource.setStatus(TsFileResourceStatus.CLOSED);
+    return resource;
+  }
+
+  private static void checkReceivedFile(File file, long expectedSize) throws IOException {
+    if (!file.exists() || file.length() != expectedSize) {
+      throw new IOException(
+          String.format(
+              "Received file %s is incomplete, expected %d bytes but got %d bytes",
+              file, expectedSize, file.length()));
+    }
+  }
+
+  public void serialize(ByteBuffer byteBuffer) {
+    ReadWriteIOUtils.write(index, byteBuffer);
+    ReadWriteIOUtils.write(fileName, byteBuffer);
+    ReadWriteIOUtils.write(tsFileSize, byteBuffer);
+    ReadWriteIOUtils.write(resourceFileSize, byteBuffer);
+    ReadWriteIOUtils.write(modsFileSize, byteBuffer);
+    ReadWriteIOUtils.write(dictionaryFileSize, byteBuffer);
+    ReadWriteIOUtils.write(device, byteBuffer);
+    ReadWriteIOUtils.write(startTime, byteBuffer);
+  }
+
+  public void serialize(DataOutputStream stream) throws IOException {
+    ReadWriteIOUtils.write(index, stream);
+    ReadWriteIOUtils.write(fileName, stream);
+    ReadWriteIOUtils.write(tsFileSize, stream);
+    ReadWriteIOUtils.write(resourceFileSize, stream);
+    ReadWriteIOUtils.write(modsFileSize, stream);
+    ReadWriteIOUtils.write(dictionaryFileSize, stream);
+    ReadWriteIOUtils.write(device, stream);
+    ReadWriteIOUtils.write(startTime, stream);
+  }
+
+  public static LoadTsFilePiece deserialize(ByteBuffer byteBuffer) {
+    int index = ReadWriteIOUtils.readInt(byteBuffer);
+    String fileName = ReadWriteIOUtils.readString(byteBuffer);
+    long tsFileSize = ReadWriteIOUtils.readLong(byteBuffer);
+    long resourceFileSize = ReadWriteIOUtils.readLong(byteBuffer);
+    long modsFileSize = ReadWriteIOUtils.readLong(byteBuffer);
+    long dictionaryFileSize = ReadWriteIOUtils.readLong(byteBuffer);
+    String device = ReadWriteIOUtils.readString(byteBuffer);
+    long startTime = ReadWriteIOUtils.readLong(byteBuffer);
+    return new LoadTsFilePiece(
+        index,
+        fileName,
+        tsFileSize,
+        resourceFileSize,
+        modsFileSize,
+        dictionaryFileSize,
+        device,
+        startTime);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    LoadTsFilePiece that = (LoadTsFilePiece) o;
+    return index == that.index
+        && tsFileSize == that.tsFileSize
+        && resourceFileSize == that.resourceFileSize
+        && modsFileSize == that.modsFileSize
+        && dictionaryFileSize == that.dictionaryFileSize
+        && startTime == that.startTime
+        && fileName.equals(that.fileName)
+        && device.equals(that.device);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(
+        index,
+        fileName,
+        tsFileSize,
+        resourceFileSize,
+        modsFileSize,
+        dictionaryFileSize,
+        device,
+        startTime);
+  }
+
+  @Override
+  public String toString() {
+    return index + "-" + fileName;
+  }
+}
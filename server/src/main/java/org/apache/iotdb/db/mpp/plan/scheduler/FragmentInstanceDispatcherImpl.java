@@ -19,7 +19,10 @@
 
 package org.apache.iotdb.db.mpp.plan.scheduler;
 
+import org.apache.iotdb.common.rpc.thrift.TConsensusGroupId;
+import org.apache.iotdb.common.rpc.thrift.TDataNodeLocation;
 import org.apache.iotdb.common.rpc.thrift.TEndPoint;
+import org.apache.iotdb.common.rpc.thrift.TSStatus;
 import org.apache.iotdb.commons.client.IClientManager;
 import org.apache.iotdb.commons.client.sync.SyncDataNodeInternalServiceClient;
 import org.apache.iotdb.commons.consensus.ConsensusGroupId;
@@ -37,7 +40,12 @@ import org.apache.iotdb.db.mpp.plan.analyze.SchemaValidator;
 import org.apache.iotdb.db.mpp.plan.planner.plan.FragmentInstance;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.write.InsertNode;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.write.LoadTsFileNode;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.write.LoadTsFilePiece;
+import org.apache.iotdb.db.utils.LoadTsFileUtils;
 import org.apache.iotdb.mpp.rpc.thrift.TFragmentInstance;
+import org.apache.iotdb.mpp.rpc.thrift.TLoadCleanupReq;
+import org.apache.iotdb.mpp.rpc.thrift.TLoadTsFilePieceReq;
 import org.apache.iotdb.mpp.rpc.thrift.TPlanNode;
 import org.apache.iotdb.mpp.rpc.thrift.TSendFragmentInstanceReq;
 import org.apache.iotdb.mpp.rpc.thrift.TSendFragmentInstanceResp;
@@ -51,7 +59,11 @@ import org.apache.thrift.TException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
@@ -62,6 +74,10 @@ public class FragmentInstanceDispatcherImpl implements IFragInstanceDispatcher {
 
   private static final Logger logger =
       LoggerFactory.getLogger(FragmentInstanceDispatcherImpl.class);
+
+  /** the size of each part of the files of the load pieces sent to other nodes */
+  private static final int LOAD_TSFILE_TRANSFER_BUFFER_SIZE_IN_BYTES = 1024 * 1024;
+
   private final ExecutorService executor;
   private final ExecutorService writeOperationExecutor;
   private final QueryType type;
@@ -137,11 +153,124 @@ public class FragmentInstanceDispatcherImpl implements IFragInstanceDispatcher {
   private boolean dispatchOneInstance(FragmentInstance instance)
       throws FragmentInstanceDispatchException {
     try (SetThreadName fragmentInstanceName = new SetThreadName(instance.getId().getFullId())) {
-      TEndPoint endPoint = instance.getHostDataNode().getInternalEndPoint();
+      PlanNode root = instance.getFragment().getRoot();
+      if (root instanceof LoadTsFileNode) {
+        return dispatchLoadTsFile(instance, (LoadTsFileNode) root);
+      }
+      return dispatchToHost(instance);
+    }
+  }
+
+  private boolean dispatchToHost(FragmentInstance instance)
+      throws FragmentInstanceDispatchException {
+    TEndPoint endPoint = instance.getHostDataNode().getInternalEndPoint();
+    if (isDispatchedToLocal(endPoint)) {
+      return dispatchLocally(instance);
+    } else {
+      return dispatchRemote(instance, endPoint);
+    }
+  }
+
+  /**
+   * The files of the pieces are transferred to every data node of the region before the node is
+   * dispatched, the node itself only refers to them. The received files are removed by the
+   * receivers after executing the node, or by the request here if the node is not accepted.
+   */
+  private boolean dispatchLoadTsFile(FragmentInstance instance, LoadTsFileNode node)
+      throws FragmentInstanceDispatchException {
+    boolean accepted = false;
+    try {
+      for (TDataNodeLocation dataNodeLocation : node.getRegionReplicaSet().getDataNodeLocations()) {
+        transferLoadTsFilePieces(node, dataNodeLocation.getInternalEndPoint());
+      }
+      accepted = dispatchToHost(instance);
+      return accepted;
+    } finally {
+      if (!accepted) {
+        cleanUpLoadTsFilePieces(node);
+      }
+    }
+  }
+
+  private void transferLoadTsFilePieces(LoadTsFileNode node, TEndPoint endPoint)
+      throws FragmentInstanceDispatchException {
+    try {
       if (isDispatchedToLocal(endPoint)) {
-        return dispatchLocally(instance);
-      } else {
-        return dispatchRemote(instance, endPoint);
+        LoadTsFileUtils.receiveLocalPieces(node);
+        return;
+      }
+      try (SyncDataNodeInternalServiceClient client =
+          internalServiceClientManager.borrowClient(endPoint)) {
+        byte[] buffer = new byte[LOAD_TSFILE_TRANSFER_BUFFER_SIZE_IN_BYTES];
+        for (LoadTsFilePiece piece : node.getPieces()) {
+          for (File file : piece.getLocalFiles()) {
+            transferFile(client, node, piece, file, buffer);
+          }
+        }
+      }
+    } catch (IOException | TException e) {
+      logger.error("can't transfer the pieces of {} to node {}", node, endPoint, e);
+      throw new FragmentInstanceDispatchException(e);
+    }
+  }
+
+  private void transferFile(
+      SyncDataNodeInternalServiceClient client,
+      LoadTsFileNode node,
+      LoadTsFilePiece piece,
+      File file,
+      byte[] buffer)
+      throws IOException, TException {
+    try (InputStream inputStream = Files.newInputStream(file.toPath())) {
+      long position = 0;
+      int length;
+      while ((length = inputStream.read(buffer)) > 0) {
+        transferFilePart(client, node, piece, file, position, ByteBuffer.wrap(buffer, 0, length));
+        position += length;
+      }
+      if (position == 0) {
+        // an empty file, e.g. an empty mods file, is still created on the receiver
+        transferFilePart(client, node, piece, file, 0, ByteBuffer.allocate(0));
+      }
+    }
+  }
+
+  private void transferFilePart(
+      SyncDataNodeInternalServiceClient client,
+      LoadTsFileNode node,
+      LoadTsFilePiece piece,
+      File file,
+      long position,
+      ByteBuffer body)
+      throws IOException, TException {
+    TSStatus status =
+        client.sendLoadTsFilePiece(
+            new TLoadTsFilePieceReq(
+                node.getUuid(),
+                node.getRegionReplicaSet().getRegionId(),
+                piece.getIndex(),
+                file.getName(),
+                position,
+                body));
+    if (status.getCode() != TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
+      throw new IOException(
+          String.format("Failed to transfer %s because %s", file, status.getMessage()));
+    }
+  }
+
+  private void cleanUpLoadTsFilePieces(LoadTsFileNode node) {
+    TConsensusGroupId regionId = node.getRegionReplicaSet().getRegionId();
+    for (TDataNodeLocation dataNodeLocation : node.getRegionReplicaSet().getDataNodeLocations()) {
+      TEndPoint endPoint = dataNodeLocation.getInternalEndPoint();
+      if (isDispatchedToLocal(endPoint)) {
+        LoadTsFileUtils.cleanUp(node.getUuid(), regionId);
+        continue;
+      }
+      try (SyncDataNodeInternalServiceClient client =
+          internalServiceClientManager.borrowClient(endPoint)) {
+        client.cleanupLoadTsFile(new TLoadCleanupReq(node.getUuid(), regionId));
+      } catch (IOException | TException e) {
+        logger.warn("can't clean up the pieces of {} on node {}", node, endPoint, e);
       }
     }
   }
@@ -41,11 +41,14 @@ import org.apache.iotdb.db.mpp.plan.analyze.SchemaValidator;
 import org.apache.iotdb.db.mpp.plan.planner.plan.FragmentInstance;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.write.InsertNode;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.write.LoadTsFileNode;
+import org.apache.iotdb.db.utils.LoadTsFileUtils;
 
 import io.airlift.units.Duration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
@@ -152,6 +155,10 @@ public class StandaloneScheduler implements IScheduler {
                     insertNode.getFailedMessages());
               }
             }
+            if (planNode instanceof LoadTsFileNode) {
+              // the node only refers to the files, which are placed in the receive dir first
+              receiveLocalPieces((LoadTsFileNode) planNode);
+            }
             if (groupId instanceof DataRegionId) {
               STORAGE_ENGINE.write((DataRegionId) groupId, planNode);
             } else {
@@ -176,6 +183,15 @@ public class StandaloneScheduler implements IScheduler {
     }
   }
 
+  private void receiveLocalPieces(LoadTsFileNode node) throws IOException {
+    try {
+      LoadTsFileUtils.receiveLocalPieces(node);
+    } catch (IOException e) {
+      LoadTsFileUtils.cleanUp(node.getUuid(), node.getRegionReplicaSet().getRegionId());
+      throw e;
+    }
+  }
+
   @Override
   public void stop() {
     // TODO: It seems that it is unnecessary to check whether they are null or not. Is it a best
@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.mpp.plan.statement.crud;
+
+import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.mpp.plan.constant.StatementType;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.write.LoadTsFilePiece;
+import org.apache.iotdb.db.mpp.plan.statement.Statement;
+import org.apache.iotdb.db.mpp.plan.statement.StatementVisitor;
+import org.apache.iotdb.tsfile.common.constant.TsFileConstant;
+
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * LOAD "file or directory" statement. The tsfiles are validated and, if necessary, split into
+ * pieces which each belong to exactly one data region and time partition during analysis.
+ */
+public class LoadTsFileStatement extends Statement {
+
+  private static final Logger logger = LoggerFactory.getLogger(LoadTsFileStatement.class);
+
+  private final File file;
+  private boolean autoCreateSchema = true;
+  private boolean verifySchema = true;
+
+  private final List<File> tsFiles;
+
+  /** pieces to be loaded, each belongs to one data region and time partition, filled by analysis */
+  private final List<LoadTsFilePiece> pieces = new ArrayList<>();
+
+  /** directory holding the pieces generated by splitting, null if no file is split */
+  private File splitDir;
+
+  public LoadTsFileStatement(String filePath) {
+    this.file = new File(filePath);
+    this.tsFiles = new ArrayList<>();
+    this.statementType = StatementType.LOAD_FILES;
+    collectTsFiles(file, tsFiles);
+    Collections.sort(tsFiles);
+  }
+
+  private static void collectTsFiles(File file, List<File> tsFiles) {
+    if (file.isFile()) {
+      if (file.getName().endsWith(TsFileConstant.TSFILE_SUFFIX)) {
+        tsFiles.add(file);
+      }
+      return;
+    }
+    File[] children = file.listFiles();
+    if (children != null) {
+      Arrays.stream(children).forEach(child -> collectTsFiles(child, tsFiles));
+    }
+  }
+
+  public File getFile() {
+    return file;
+  }
+
+  public List<File> getTsFiles() {
+    return tsFiles;
+  }
+
+  public boolean isAutoCreateSchema() {
+    return autoCreateSchema;
+  }
+
+  public void setAutoCreateSchema(boolean autoCreateSchema) {
+    this.autoCreateSchema = autoCreateSchema;
+  }
+
+  public boolean isVerifySchema() {
+    return verifySchema;
+  }
+
+  public void setVerifySchema(boolean verifySchema) {
+    this.verifySchema = verifySchema;
+  }
+
+  public List<LoadTsFilePiece> getPieces() {
+    return pieces;
+  }
+
+  /** Add a file that belongs to exactly one data region and time partition as a piece. */
+  public void addPiece(TsFileResource resource) {
+    pieces.add(new LoadTsFilePiece(pieces.size(), resource));
+  }
+
+  public File getSplitDir() {
+    return splitDir;
+  }
+
+  public void setSplitDir(File splitDir) {
+    this.splitDir = splitDir;
+  }
+
+  /** Delete the pieces generated by splitting, the original files are never touched. */
+  public synchronized void cleanUpSplitDir() {
+    if (splitDir == null) {
+      return;
+    }
+    try {
+      FileUtils.deleteDirectory(splitDir);
+    } catch (IOException e) {
+      logger.warn("Failed to delete split directory {} of loading tsfiles", splitDir, e);
+    }
+    splitDir = null;
+  }
+
+  @Override
+  public List<? extends PartialPath> getPaths() {
+    return Collections.emptyList();
+  }
+
+  @Override
+  public <R, C> R accept(StatementVisitor<R, C> visitor, C context) {
+    return visitor.visitLoadTsFile(this, context);
+  }
+
+  @Override
+  public String toString() {
+    return "LoadTsFileStatement{"
+        + "file="
+        + file
+        + ", autoCreateSchema="
+        + autoCreateSchema
+        + ", verifySchema="
+        + verifySchema
+        + '}';
+  }
+}
@@ -0,0 +1,575 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.protocol.influxdb.input;
+
+import org.apache.iotdb.commons.exception.IllegalPathException;
+import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.db.qp.physical.crud.InsertTabletPlan;
+import org.apache.iotdb.db.utils.ParameterUtils;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.utils.BitMap;
+
+import org.influxdb.InfluxDBException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+/**
+ * A hand-written parser of InfluxDB line protocol, which scans the input once and groups the points
+ * by series (measurement and tag set) into columnar {@link SeriesBatch}es that are inserted as
+ * tablets. It does not build a {@link org.influxdb.dto.Point} per line, and the tags of a series
+ * are parsed and mapped to a path only once per input.
+ *
+ * <p>Integers (suffixed by i or u) are INT64, other numbers are DOUBLE, and strings and booleans
+ * are TEXT. Timestamps are converted to ms.
+ */
+public class InfluxLineBatchParser {
+
+  private static final int INITIAL_CAPACITY = 16;
+
+  private final TimeUnit precision;
+  // (measurement, tags) -> path of the series
+  private final BiFunction<String, Map<String, String>, String> pathGenerator;
+  // series key as it is written in the input -> the batch that the points of the series go to
+  private final Map<String, SeriesBatch> seriesBatches = new HashMap<>();
+  private final List<SeriesBatch> batches = new ArrayList<>();
+
+  public InfluxLineBatchParser(
+      TimeUnit precision, BiFunction<String, Map<String, String>, String> pathGenerator) {
+    this.precision = precision == null ? TimeUnit.NANOSECONDS : precision;
+    this.pathGenerator = pathGenerator;
+  }
+
+  /** @return the batches of all points parsed by this parser so far */
+  public List<SeriesBatch> parse(String input) {
+    int length = input.length();
+    int lineStart = 0;
+    while (lineStart < length) {
+      int lineEnd = input.indexOf('\n', lineStart);
+      if (lineEnd < 0) {
+        lineEnd = length;
+      }
+      int end = lineEnd;
+      if (end > lineStart && input.charAt(end - 1) == '\r') {
+        end--;
+      }
+      int start = skipSpaces(input, lineStart, end);
+      if (start < end && input.charAt(start) != '#') {
+        parseLine(input, start, end);
+      }
+      lineStart = lineEnd + 1;
+    }
+    return batches;
+  }
+
+  private void parseLine(String input, int start, int end) {
+    int seriesKeyEnd = findUnescaped(input, start, end, ' ');
+    if (seriesKeyEnd >= end) {
+      throw unableToParse(input, start, end);
+    }
+    String seriesKey = input.substring(start, seriesKeyEnd);
+    SeriesBatch batch = seriesBatches.get(seriesKey);
+    if (batch == null) {
+      batch = newBatch(seriesKey, generatePath(input, start, seriesKeyEnd));
+    }
+
+    int fieldStart = skipSpaces(input, seriesKeyEnd, end);
+    int row = batch.rowCount;
+    int columnNum = batch.columns.size();
+    batch.ensureCapacity(row + 1);
+    int fieldEnd = parseFields(input, fieldStart, end, batch, row);
+    if (fieldEnd < 0) {
+      // a field changes its type, the point goes to a new batch of the series
+      batch.abortRow(row, columnNum);
+      batch = newBatch(seriesKey, batch.deviceId);
+      row = 0;
+      batch.ensureCapacity(1);
+      fieldEnd = parseFields(input, fieldStart, end, batch, row);
+      if (fieldEnd < 0) {
+        throw unableToParse(input, start, end);
+      }
+    }
+    batch.setTime(row, parseTime(input, skipSpaces(input, fieldEnd, end), end, start));
+  }
+
+  private SeriesBatch newBatch(String seriesKey, String deviceId) {
+    SeriesBatch batch = new SeriesBatch(deviceId);
+    seriesBatches.put(seriesKey, batch);
+    batches.add(batch);
+    return batch;
+  }
+
+  private String generatePath(String input, int start, int end) {
+    int measurementEnd = findUnescaped(input, start, end, ',');
+    String measurement = unescapeIdentifier(input, start, measurementEnd);
+    ParameterUtils.checkNonEmptyString(measurement, "measurement name");
+    Map<String, String> tags = new HashMap<>();
+    int pairEnd = measurementEnd;
+    while (pairEnd < end) {
+      int pairStart = pairEnd + 1;
+      pairEnd = findUnescaped(input, pairStart, end, ',');
+      int equal = findUnescaped(input, pairStart, pairEnd, '=');
+      if (equal == pairStart || equal >= pairEnd - 1) {
+        throw unableToParse(input, start, end);
+      }
+      tags.put(
+          unescapeIdentifier(input, pairStart, equal),
+          unescapeIdentifier(input, equal + 1, pairEnd));
+    }
+    return pathGenerator.apply(measurement, tags);
+  }
+
+  /** @return the end of the field set, or -1 if the type of a field differs from the batch */
+  private int parseFields(String input, int start, int end, SeriesBatch batch, int row) {
+    int pos = start;
+    while (true) {
+      int keyEnd = findUnescaped(input, pos, end, '=');
+      if (keyEnd == pos || keyEnd >= end - 1) {
+        throw unableToParse(input, start, end);
+      }
+      String key = unescapeIdentifier(input, pos, keyEnd);
+      int valueStart = keyEnd + 1;
+      int valueEnd;
+      boolean typeMatched;
+      if (input.charAt(valueStart) == '"') {
+        int quoteEnd = findUnescaped(input, valueStart + 1, end, '"');
+        if (quoteEnd >= end) {
+          throw unableToParse(input, start, end);
+        }
+        typeMatched = batch.setText(key, row, unescapeString(input, valueStart + 1, quoteEnd));
+        valueEnd = quoteEnd + 1;
+      } else {
+        valueEnd = valueStart;
+        while (valueEnd < end && input.charAt(valueEnd) != ',' && input.charAt(valueEnd) != ' ') {
+          valueEnd++;
+        }
+        typeMatched = setValue(input, valueStart, valueEnd, batch, key, row);
+      }
+      if (!typeMatched) {
+        return -1;
+      }
+      if (valueEnd >= end || input.charAt(valueEnd) == ' ') {
+        return valueEnd;
+      }
+      if (input.charAt(valueEnd) != ',') {
+        throw unableToParse(input, start, end);
+      }
+      pos = valueEnd + 1;
+    }
+  }
+
+  private boolean setValue(
+      String input, int start, int end, SeriesBatch batch, String key, int row) {
+    if (start == end) {
+      throw unableToParse(input, start, end);
+    }
+    char last = input.charAt(end - 1);
+    if (last == 'i' || last == 'u') {
+      return batch.setLong(key, row, parseLong(input, start, end - 1));
+    }
+    switch (end - start) {
+      case 1:
+      case 4:
+      case 5:
+        Boolean bool = parseBoolean(input, start, end);
+        if (bool != null) {
+          // booleans are kept as text
+          return batch.setText(key, row, bool ? "true" : "false");
+        }
+        break;
+      default:
+        break;
+    }
+    return batch.setDouble(key, row, parseDouble(input, start, end));
+  }
+
+  private static Boolean parseBoolean(String input, int start, int end) {
+    int length = end - start;
+    char first = input.charAt(start);
+    if (length == 1) {
+      if (first == 't' || first == 'T') {
+        return true;
+      } else if (first == 'f' || first == 'F') {
+        return false;
+      }
+      return null;
+    }
+    for (String literal : new String[] {"true", "True", "TRUE"}) {
+      if (length == literal.length() && input.regionMatches(start, literal, 0, length)) {
+        return true;
+      }
+    }
+    for (String literal : new String[] {"false", "False", "FALSE"}) {
+      if (length == literal.length() && input.regionMatches(start, literal, 0, length)) {
+        return false;
+      }
+    }
+    return null;
+  }
+
+  private long parseTime(String input, int start, int end, int lineStart) {
+    while (end > start && input.charAt(end - 1) == ' ') {
+      end--;
+    }
+    if (start >= end) {
+      return System.currentTimeMillis();
+    }
+    // Influx timestamps come in nanoseconds; treat anything less than 1 ms as 0
+    if (end - start < 7) {
+      return 0;
+    }
+    for (int i = start; i < end; i++) {
+      if (input.charAt(i) == ' ') {
+        throw unableToParse(input, lineStart, end);
+      }
+    }
+    return TimeUnit.MILLISECONDS.convert(parseLong(input, start, end), precision);
+  }
+
+  private static long parseLong(String input, int start, int end) {
+    int pos = start;
+    boolean negative = false;
+    if (pos < end && (input.charAt(pos) == '-' || input.charAt(pos) == '+')) {
+      negative = input.charAt(pos) == '-';
+      pos++;
+    }
+    // longer numbers may overflow, leave them to Long.parseLong
+    if (pos == end || end - pos > 18) {
+      try {
+        return Long.parseLong(input.substring(start, end));
+      } catch (NumberFormatException e) {
+        throw unableToParse(input, start, end);
+      }
+    }
+    long value = 0;
+    for (; pos < end; pos++) {
+      int digit = input.charAt(pos) - '0';
+      if (digit < 0 || digit > 9) {
+        throw unableToParse(input, start, end);
+      }
+      value = value * 10 + digit;
+    }
+    return negative ? -value : value;
+  }
+
+  private static double parseDouble(String input, int start, int end) {
+    // most values are plain integers, which are exact as doubles within 15 digits
+    boolean plainInteger = end - start <= 15;
+    for (int i = start; plainInteger && i < end; i++) {
+      char c = input.charAt(i);
+      plainInteger = (c >= '0' && c <= '9') || (i == start && c == '-' && end - start > 1);
+    }
+    if (plainInteger) {
+      return parseLong(input, start, end);
+    }
+    try {
+      return Double.parseDouble(input.substring(start, end));
+    } catch (NumberFormatException e) {
+      throw unableToParse(input, start, end);
+    }
+  }
+
+  private static int skipSpaces(String input, int start, int end) {
+    while (start < end && input.charAt(start) == ' ') {
+      start++;
+    }
+    return start;
+  }
+
+  /** @return the index of the first c that is not escaped by a backslash, or end if not found */
+  private static int findUnescaped(String input, int start, int end, char c) {
+    for (int i = start; i < end; i++) {
+      char current = input.charAt(i);
+      if (current == '\\') {
+        i++;
+      } else if (current == c) {
+        return i;
+      }
+    }
+    return end;
+  }
+
+  /** unescape comma, equal sign and space in measurement names, tags and field keys */
+  private static String unescapeIdentifier(String input, int start, int end) {
+    int backslash = input.indexOf('\\', start);
+    if (backslash < 0 || backslash >= end) {
+      return input.substring(start, end);
+    }
+    StringBuilder builder = new StringBuilder(end - start);
+    for (int i = start; i < end; i++) {
+      char current = input.charAt(i);
+      if (current == '\\' && i + 1 < end) {
+        char next = input.charAt(i + 1);
+        if (next == ',' || next == '=' || next == ' ') {
+          builder.append(next);
+          i++;
+          continue;
+        }
+      }
+      builder.append(current);
+    }
+    return builder.toString();
+  }
+
+  /** unescape double quote and backslash in string field values */
+  private static String unescapeString(String input, int start, int end) {
+    int backslash = input.indexOf('\\', start);
+    if (backslash < 0 || backslash >= end) {
+      return input.substring(start, end);
+    }
+    StringBuilder builder = new StringBuilder(end - start);
+    for (int i = start; i < end; i++) {
+      char current = input.charAt(i);
+      if (current == '\\' && i + 1 < end) {
+        char next = input.charAt(i + 1);
+        if (next == '"' || next == '\\') {
+          builder.append(next);
+          i++;
+          continue;
+        }
+      }
+      builder.append(current);
+    }
+    return builder.toString();
+  }
+
+  private static InfluxDBException unableToParse(String input, int start, int end) {
+    return new InfluxDBException("Unable to parse line: " + input.substring(start, end));
+  }
+
+  /** The points of a series, stored by columns. */
+  public static class SeriesBatch {
+
+    private final String deviceId;
+    private long[] times = new long[INITIAL_CAPACITY];
+    private int rowCount = 0;
+    private boolean sorted = true;
+    private final Map<String, Column> columns = new LinkedHashMap<>();
+
+    private SeriesBatch(String deviceId) {
+      this.deviceId = deviceId;
+    }
+
+    public String getDeviceId() {
+      return deviceId;
+    }
+
+    public int getRowCount() {
+      return rowCount;
+    }
+
+    private void ensureCapacity(int capacity) {
+      if (capacity <= times.length) {
+        return;
+      }
+      int newCapacity = Math.max(times.length * 2, capacity);
+      times = Arrays.copyOf(times, newCapacity);
+      for (Column column : columns.values()) {
+        column.resize(newCapacity);
+      }
+    }
+
+    private boolean setDouble(String key, int row, double value) {
+      Column column = getColumn(key, TSDataType.DOUBLE);
+      if (column == null) {
+        return false;
+      }
+      ((double[]) column.values)[row] = value;
+      column.present[row] = true;
+      return true;
+    }
+
+    private boolean setLong(String key, int row, long value) {
+      Column column = getColumn(key, TSDataType.INT64);
+      if (column == null) {
+        return false;
+      }
+      ((long[]) column.values)[row] = value;
+      column.present[row] = true;
+      return true;
+    }
+
+    private boolean setText(String key, int row, String value) {
+      Column column = getColumn(key, TSDataType.TEXT);
+      if (column == null) {
+        return false;
+      }
+      ((Binary[]) column.values)[row] = new Binary(value);
+      column.present[row] = true;
+      return true;
+    }
+
+    /** @return null if the column exists with another type */
+    private Column getColumn(String key, TSDataType dataType) {
+      Column column = columns.get(key);
+      if (column == null) {
+        column = new Column(dataType, times.length);
+        columns.put(key, column);
+        return column;
+      }
+      return column.dataType == dataType ? column : null;
+    }
+
+    /** Clear the fields of the row, and drop the columns after the first columnNum ones. */
+    private void abortRow(int row, int columnNum) {
+      Iterator<Column> iterator = columns.values().iterator();
+      for (int index = 0; iterator.hasNext(); index++) {
+        Column column = iterator.next();
+        if (index < columnNum) {
+          column.present[row] = false;
+        } else {
+          // created by the row, so no other row has the field
+          iterator.remove();
+        }
+      }
+    }
+
+    private void setTime(int row, long time) {
+      times[row] = time;
+      if (row > 0 && time < times[row - 1]) {
+        sorted = false;
+      }
+      rowCount = row + 1;
+    }
+
+    public InsertTabletPlan toInsertTabletPlan() throws IllegalPathException {
+      int[] order = sorted ? null : sortedOrder();
+      String[] measurements = new String[columns.size()];
+      TSDataType[] dataTypes = new TSDataType[columns.size()];
+      Object[] values = new Object[columns.size()];
+      BitMap[] bitMaps = new BitMap[columns.size()];
+      int index = 0;
+      for (Map.Entry<String, Column> entry : columns.entrySet()) {
+        Column column = entry.getValue().reorder(order, rowCount);
+        measurements[index] = entry.getKey();
+        dataTypes[index] = column.dataType;
+        values[index] = column.values;
+        for (int row = 0; row < rowCount; row++) {
+          if (!column.present[row]) {
+            if (bitMaps[index] == null) {
+              bitMaps[index] = new BitMap(rowCount);
+            }
+            bitMaps[index].mark(row);
+            if (column.dataType == TSDataType.TEXT) {
+              ((Binary[]) column.values)[row] = Binary.EMPTY_VALUE;
+            }
+          }
+        }
+        index++;
+      }
+
+      long[] planTimes = new long[rowCount];
+      for (int row = 0; row < rowCount; row++) {
+        planTimes[row] = times[order == null ? row : order[row]];
+      }
+      InsertTabletPlan plan = new InsertTabletPlan(new PartialPath(deviceId), measurements);
+      plan.setDataTypes(dataTypes);
+      plan.setTimes(planTimes);
+      plan.setColumns(values);
+      plan.setBitMaps(bitMaps);
+      plan.setRowCount(rowCount);
+      return plan;
+    }
+
+    /** @return the row indexes ordered by time, rows of the same time keep their order */
+    private int[] sortedOrder() {
+      Integer[] boxedOrder = new Integer[rowCount];
+      for (int row = 0; row < rowCount; row++) {
+        boxedOrder[row] = row;
+      }
+      Arrays.sort(boxedOrder, Comparator.comparingLong(row -> times[row]));
+      int[] order = new int[rowCount];
+      for (int row = 0; row < rowCount; row++) {
+        order[row] = boxedOrder[row];
+      }
+      return order;
+    }
+  }
+
+  private static class Column {
+
+    private final TSDataType dataType;
+    // double[], long[] or Binary[]
+    private Object values;
+    // false if the row does not have the field
+    private boolean[] present;
+
+    private Column(TSDataType dataType, int capacity) {
+      this.dataType = dataType;
+      this.present = new boolean[capacity];
+      switch (dataType) {
+        case DOUBLE:
+          values = new double[capacity];
+          break;
+        case INT64:
+          values = new long[capacity];
+          break;
+        default:
+          values = new Binary[capacity];
+          break;
+      }
+    }
+
+    private void resize(int capacity) {
+      present = Arrays.copyOf(present, capacity);
+      switch (dataType) {
+        case DOUBLE:
+          values = Arrays.copyOf((double[]) values, capacity);
+          break;
+        case INT64:
+          values = Arrays.copyOf((long[]) values, capacity);
+          break;
+        default:
+          values = Arrays.copyOf((Binary[]) values, capacity);
+          break;
+      }
+    }
+
+    /** @return a column of exactly rowCount rows in the order, or in the original order if null */
+    private Column reorder(int[] order, int rowCount) {
+      Column column = new Column(dataType, rowCount);
+      for (int row = 0; row < rowCount; row++) {
+        int from = order == null ? row : order[row];
+        column.present[row] = present[from];
+        switch (dataType) {
+          case DOUBLE:
+            ((double[]) column.values)[row] = ((double[]) values)[from];
+            break;
+          case INT64:
+            ((long[]) column.values)[row] = ((long[]) values)[from];
+            break;
+          default:
+            ((Binary[]) column.values)[row] = ((Binary[]) values)[from];
+            break;
+        }
+      }
+      return column;
+    }
+  }
+}
@@ -0,0 +1,229 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.iotdb.db.protocol.mqtt;
+
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.concurrent.ThreadName;
+import org.apache.iotdb.db.mpp.plan.statement.crud.InsertRowStatement;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * InsertBatcher accumulates the rows of MQTT messages and hands them over in batches to a consumer
+ * running in its own threads, so that the broker threads do not wait for the insertion. The rows
+ * are batched per session, whose user and zone the batch is inserted with. A batch is handed over
+ * when it reaches batchSize rows, or every lingerMs.
+ *
+ * <p>At most {@link #MAX_PENDING_BATCHES} batches wait for insertion. Beyond that, the broker
+ * threads are blocked until one of them finishes, so that a slow insertion can not exhaust memory.
+ */
+public class InsertBatcher {
+
+  private static final Logger LOG = LoggerFactory.getLogger(InsertBatcher.class);
+
+  private static final int MAX_PENDING_BATCHES = 64;
+  private static final long CLOSE_TIMEOUT_IN_SECONDS = 60;
+
+  private final int batchSize;
+  private final BiConsumer<Long, List<InsertRowStatement>> consumer;
+  private final ScheduledExecutorService executor;
+  private final Semaphore pendingBatches = new Semaphore(MAX_PENDING_BATCHES);
+
+  // the following fields are guarded by this
+  private final Map<Long, SessionRows> sessions = new HashMap<>();
+  private boolean closed = false;
+
+  public InsertBatcher(
+      int batchSize,
+      long lingerMs,
+      int threadNum,
+      BiConsumer<Long, List<InsertRowStatement>> consumer) {
+    this.batchSize = batchSize;
+    this.consumer = consumer;
+    executor =
+        IoTDBThreadPoolFactory.newScheduledThreadPool(
+            threadNum, ThreadName.MQTT_INSERT_BATCH_SERVICE.getName());
+    executor.scheduleWithFixedDelay(
+        this::submitLingering, lingerMs, lingerMs, TimeUnit.MILLISECONDS);
+  }
+
+  public void add(long sessionId, InsertRowStatement row) {
+    List<InsertRowStatement> batch;
+    synchronized (this) {
+      SessionRows sessionRows = sessions.computeIfAbsent(sessionId, id -> new SessionRows());
+      if (closed || sessionRows.onFlushed != null) {
+        LOG.warn("Session {} is closed, drop the row of {}", sessionId, row.getDevicePath());
+        return;
+      }
+      sessionRows.rows.add(row);
+      if (sessionRows.rows.size() < batchSize) {
+        return;
+      }
+      batch = sessionRows.takeRows();
+    }
+    pendingBatches.acquireUninterruptibly();
+    execute(sessionId, batch);
+  }
+
+  /**
+   * Hand over the buffered rows of a session, and run onFlushed once all rows of the session are
+   * inserted. Rows added to the session afterwards are dropped.
+   */
+  public void release(long sessionId, Runnable onFlushed) {
+    List<InsertRowStatement> batch;
+    synchronized (this) {
+      SessionRows sessionRows = sessions.get(sessionId);
+      if (sessionRows == null || sessionRows.isFlushed()) {
+        sessions.remove(sessionId);
+        batch = null;
+      } else {
+        sessionRows.onFlushed = onFlushed;
+        batch = sessionRows.rows.isEmpty() ? null : sessionRows.takeRows();
+        if (batch == null) {
+          // the batches in flight run onFlushed
+          return;
+        }
+      }
+    }
+    if (batch == null) {
+      onFlushed.run();
+    } else {
+      pendingBatches.acquireUninterruptibly();
+      execute(sessionId, batch);
+    }
+  }
+
+  /** Hand over the rows that wait longer than lingerMs, it runs in the insertion threads. */
+  private void submitLingering() {
+    // waiting for a permit here may block the threads that release permits
+    while (pendingBatches.tryAcquire()) {
+      long sessionId = 0;
+      List<InsertRowStatement> batch = null;
+      synchronized (this) {
+        for (Map.Entry<Long, SessionRows> entry : sessions.entrySet()) {
+          if (!entry.getValue().rows.isEmpty()) {
+            sessionId = entry.getKey();
+            batch = entry.getValue().takeRows();
+            break;
+          }
+        }
+      }
+      if (batch == null) {
+        pendingBatches.release();
+        return;
+      }
+      execute(sessionId, batch);
+    }
+  }
+
+  private void execute(long sessionId, List<InsertRowStatement> batch) {
+    Runnable task =
+        () -> {
+          try {
+            consumer.accept(sessionId, batch);
+          } catch (Exception e) {
+            LOG.warn("Meet error when inserting {} rows of mqtt messages", batch.size(), e);
+          } finally {
+            pendingBatches.release();
+            finish(sessionId);
+          }
+        };
+    try {
+      executor.execute(task);
+    } catch (RejectedExecutionException e) {
+      // the batcher is being closed
+      task.run();
+    }
+  }
+
+  /** Count a batch of the session as inserted, and run onFlushed if it is the last one. */
+  private void finish(long sessionId) {
+    Runnable onFlushed = null;
+    synchronized (this) {
+      SessionRows sessionRows = sessions.get(sessionId);
+      sessionRows.inFlight--;
+      if (sessionRows.onFlushed != null && sessionRows.isFlushed()) {
+        sessions.remove(sessionId);
+        onFlushed = sessionRows.onFlushed;
+      }
+    }
+    if (onFlushed != null) {
+      onFlushed.run();
+    }
+  }
+
+  /** Insert the buffered rows and wait for all batches to finish. */
+  public void close() {
+    Map<Long, List<InsertRowStatement>> batches = new HashMap<>();
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      for (Map.Entry<Long, SessionRows> entry : sessions.entrySet()) {
+        if (!entry.getValue().rows.isEmpty()) {
+          batches.put(entry.getKey(), entry.getValue().takeRows());
+        }
+      }
+    }
+    for (Map.Entry<Long, List<InsertRowStatement>> entry : batches.entrySet()) {
+      pendingBatches.acquireUninterruptibly();
+      execute(entry.getKey(), entry.getValue());
+    }
+    executor.shutdown();
+    try {
+      if (!executor.awaitTermination(CLOSE_TIMEOUT_IN_SECONDS, TimeUnit.SECONDS)) {
+        LOG.warn("Inserting the rows of mqtt messages does not finish in time");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /** The rows of a session, guarded by the batcher. */
+  private class SessionRows {
+
+    private List<InsertRowStatement> rows = new ArrayList<>(batchSize);
+    // the batches handed over but not inserted yet
+    private int inFlight = 0;
+    // set once the session is released
+    private Runnable onFlushed;
+
+    private List<InsertRowStatement> takeRows() {
+      List<InsertRowStatement> batch = rows;
+      rows = new ArrayList<>(batchSize);
+      inFlight++;
+      return batch;
+    }
+
+    private boolean isFlushed() {
+      return rows.isEmpty() && inFlight == 0;
+    }
+  }
+}
@@ -18,6 +18,7 @@
 package org.apache.iotdb.db.protocol.mqtt;
 
 import org.apache.iotdb.common.rpc.thrift.TSStatus;
+import org.apache.iotdb.commons.exception.IllegalPathException;
 import org.apache.iotdb.commons.path.PartialPath;
 import org.apache.iotdb.db.auth.AuthorityChecker;
 import org.apache.iotdb.db.conf.IoTDBConfig;
@@ -29,7 +30,9 @@ import org.apache.iotdb.db.mpp.plan.analyze.ISchemaFetcher;
 import org.apache.iotdb.db.mpp.plan.analyze.StandalonePartitionFetcher;
 import org.apache.iotdb.db.mpp.plan.analyze.StandaloneSchemaFetcher;
 import org.apache.iotdb.db.mpp.plan.execution.ExecutionResult;
+import org.apache.iotdb.db.mpp.plan.statement.crud.InsertBaseStatement;
 import org.apache.iotdb.db.mpp.plan.statement.crud.InsertRowStatement;
+import org.apache.iotdb.db.mpp.plan.statement.crud.InsertRowsStatement;
 import org.apache.iotdb.db.query.control.SessionManager;
 import org.apache.iotdb.db.service.basic.BasicOpenSessionResp;
 import org.apache.iotdb.rpc.TSStatusCode;
@@ -48,6 +51,8 @@ import org.slf4j.LoggerFactory;
 
 import java.time.ZoneId;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /** PublishHandler handle the messages from MQTT clients. */
 public class MPPPublishHandler extends AbstractInterceptHandler {
@@ -55,10 +60,13 @@ public class MPPPublishHandler extends AbstractInterceptHandler {
   private static final Logger LOG = LoggerFactory.getLogger(MPPPublishHandler.class);
 
   private final SessionManager SESSION_MANAGER = SessionManager.getInstance();
-  private long sessionId;
+  // the session of each connected client, by client id
+  private final Map<String, Long> clientSessions = new ConcurrentHashMap<>();
   private final PayloadFormatter payloadFormat;
   private final IPartitionFetcher partitionFetcher;
   private final ISchemaFetcher schemaFetcher;
+  // null if the messages are inserted one by one
+  private final InsertBatcher insertBatcher;
 
   public MPPPublishHandler(IoTDBConfig config) {
     this.payloadFormat = PayloadFormatManager.getPayloadFormat(config.getMqttPayloadFormatter());
@@ -69,11 +77,21 @@ public class MPPPublishHandler extends AbstractInterceptHandler {
       partitionFetcher = StandalonePartitionFetcher.getInstance();
       schemaFetcher = StandaloneSchemaFetcher.getInstance();
     }
+    if (config.getMqttInsertBatchLingerMs() > 0) {
+      insertBatcher =
+          new InsertBatcher(
+              config.getMqttInsertBatchSize(),
+              config.getMqttInsertBatchLingerMs(),
+              config.getMqttHandlerPoolSize(),
+              this::insertRows);
+    } else {
+      insertBatcher = null;
+    }
   }
 
   @Override
   public String getID() {
-    return "iotdb-mqtt-broker-listener-" + sessionId;
+    return "iotdb-mqtt-broker-listener";
   }
 
   @Override
@@ -85,7 +103,12 @@ public class MPPPublishHandler extends AbstractInterceptHandler {
               new String(msg.getPassword()),
               ZoneId.systemDefault().toString(),
               TSProtocolVersion.IOTDB_SERVICE_PROTOCOL_V3);
-      sessionId = basicOpenSessionResp.getSessionId();
+      Long previousSessionId =
+          clientSessions.put(msg.getClientID(), basicOpenSessionResp.getSessionId());
+      if (previousSessionId != null) {
+        // the client reconnects without disconnecting first
+        closeSession(previousSessionId);
+      }
     } catch (TException e) {
       throw new RuntimeException(e);
     }
@@ -93,7 +116,19 @@ public class MPPPublishHandler extends AbstractInterceptHandler {
 
   @Override
   public void onDisconnect(InterceptDisconnectMessage msg) {
-    SESSION_MANAGER.closeSession(sessionId);
+    Long sessionId = clientSessions.remove(msg.getClientID());
+    if (sessionId != null) {
+      closeSession(sessionId);
+    }
+  }
+
+  /** Close the session once the rows it published are inserted. */
+  private void closeSession(long sessionId) {
+    if (insertBatcher != null) {
+      insertBatcher.release(sessionId, () -> SESSION_MANAGER.closeSession(sessionId));
+    } else {
+      SESSION_MANAGER.closeSession(sessionId);
+    }
   }
 
   @Override
@@ -112,6 +147,12 @@ public class MPPPublishHandler extends AbstractInterceptHandler {
         topic,
         payload);
 
+    Long sessionId = clientSessions.get(clientId);
+    if (sessionId == null) {
+      LOG.warn("Client {} is not connected, drop the message of topic {}", clientId, topic);
+      return;
+    }
+
     List<Message> events = payloadFormat.format(payload);
     if (events == null) {
       return;
@@ -124,31 +165,12 @@ public class MPPPublishHandler extends AbstractInterceptHandler {
 
       TSStatus tsStatus = null;
       try {
-        InsertRowStatement statement = new InsertRowStatement();
-        statement.setDevicePath(new PartialPath(event.getDevice()));
-        statement.setTime(event.getTimestamp());
-        statement.setMeasurements(event.getMeasurements().toArray(new String[0]));
-        statement.setDataTypes(new TSDataType[event.getMeasurements().size()]);
-        statement.setValues(event.getValues().toArray(new Object[0]));
-        statement.setNeedInferType(true);
-        statement.setAligned(false);
-
-        tsStatus = AuthorityChecker.checkAuthority(statement, sessionId);
-        if (tsStatus.getCode() != TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
-          LOG.warn(tsStatus.message);
-        } else {
-          long queryId = SESSION_MANAGER.requestQueryId(false);
-          ExecutionResult result =
-              Coordinator.getInstance()
-                  .execute(
-                      statement,
-                      queryId,
-                      SESSION_MANAGER.getSessionInfo(sessionId),
-                      "",
-                      partitionFetcher,
-                      schemaFetcher);
-          tsStatus = result.status;
+        InsertRowStatement statement = createStatement(event);
+        if (insertBatcher != null) {
+          insertBatcher.add(sessionId, statement);
+          continue;
         }
+        tsStatus = execute(sessionId, statement);
       } catch (Exception e) {
         LOG.warn(
             "meet error when inserting device {}, measurements {}, at time {}, because ",
@@ -160,4 +182,53 @@ public class MPPPublishHandler extends AbstractInterceptHandler {
       LOG.debug("event process result: {}", tsStatus);
     }
   }
+
+  private InsertRowStatement createStatement(Message event) throws IllegalPathException {
+    InsertRowStatement statement = new InsertRowStatement();
+    statement.setDevicePath(new PartialPath(event.getDevice()));
+    statement.setTime(event.getTimestamp());
+    statement.setMeasurements(event.getMeasurements().toArray(new String[0]));
+    statement.setDataTypes(new TSDataType[event.getMeasurements().size()]);
+    statement.setValues(event.getValues().toArray(new Object[0]));
+    statement.setNeedInferType(true);
+    statement.setAligned(false);
+    return statement;
+  }
+
+  /** Insert the rows of a batch by one statement, whose authority is checked once. */
+  private void insertRows(long sessionId, List<InsertRowStatement> rows) {
+    InsertRowsStatement statement = new InsertRowsStatement();
+    statement.setInsertRowStatementList(rows);
+    TSStatus tsStatus = execute(sessionId, statement);
+    if (tsStatus.getCode() != TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
+      LOG.warn("meet error when inserting {} rows, because {}", rows.size(), tsStatus);
+    }
+    LOG.debug("batch process result: {}", tsStatus);
+  }
+
+  private TSStatus execute(long sessionId, InsertBaseStatement statement) {
+    TSStatus tsStatus = AuthorityChecker.checkAuthority(statement, sessionId);
+    if (tsStatus.getCode() != TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
+      LOG.warn(tsStatus.message);
+      return tsStatus;
+    }
+    long queryId = SESSION_MANAGER.requestQueryId(false);
+    ExecutionResult result =
+        Coordinator.getInstance()
+            .execute(
+                statement,
+                queryId,
+                SESSION_MANAGER.getSessionInfo(sessionId),
+                "",
+                partitionFetcher,
+                schemaFetcher);
+    return result.status;
+  }
+
+  /** Insert the messages waiting in batches. */
+  public void stop() {
+    if (insertBatcher != null) {
+      insertBatcher.close();
+    }
+  }
 }
@@ -37,6 +37,7 @@ import org.apache.iotdb.tsfile.read.common.Path;
 import org.apache.iotdb.tsfile.read.common.RowRecord;
 import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
 
+import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
 import java.io.IOException;
@@ -92,17 +93,8 @@ public class QueryDataSetHandler {
       throws IOException {
     org.apache.iotdb.db.protocol.rest.model.QueryDataSet targetDataSet =
         new org.apache.iotdb.db.protocol.rest.model.QueryDataSet();
-
-    List<ResultColumn> resultColumns = queryPlan.getResultColumns();
-    int[] targetDataSetIndexToSourceDataSetIndex = new int[resultColumns.size()];
-    Map<String, Integer> sourcePathToQueryDataSetIndex = queryPlan.getPathToIndex();
-    for (int i = 0; i < resultColumns.size(); i++) {
-      ResultColumn resultColumn = resultColumns.get(i);
-      targetDataSet.addExpressionsItem(resultColumn.getResultColumnName());
-      targetDataSet.addValuesItem(new ArrayList<>());
-      targetDataSetIndexToSourceDataSetIndex[i] =
-          sourcePathToQueryDataSetIndex.get(resultColumn.getResultColumnName());
-    }
+    int[] targetDataSetIndexToSourceDataSetIndex =
+        initTargetDatasetByResultColumns(queryPlan, targetDataSet);
 
     return fillQueryDataSetWithTimestamps(
         sourceDataSet,
@@ -148,11 +140,107 @@ public class QueryDataSetHandler {
   private static Response fillAggregationPlanDataSet(
       QueryDataSet dataSet, AggregationPlan aggregationPlan, final int actualRowSizeLimit)
       throws IOException {
-    Map<String, AggregateResult> groupPathsResultMap = aggregationPlan.getGroupPathsResultMap();
-    int[] targetDataSetIndexToSourceDataSetIndex = new int[groupPathsResultMap.size()];
+    org.apache.iotdb.db.protocol.rest.model.QueryDataSet targetDataSet =
+        new org.apache.iotdb.db.protocol.rest.model.QueryDataSet();
+    int[] targetDataSetIndexToSourceDataSetIndex =
+        initTargetDatasetByGroupPaths(aggregationPlan, targetDataSet);
+
+    return fillQueryDataSetWithoutTimestamps(
+        dataSet, actualRowSizeLimit, targetDataSetIndexToSourceDataSetIndex, targetDataSet);
+  }
 
+  /**
+   * Stream the query result as JSON while it is being read from the source data set, instead of
+   * building the whole result in memory first. The rows are written in batches of at most
+   * batchSize rows, each holding one array per column. The status of the query is written last,
+   * as the response has already been committed when an error occurs in the middle.
+   *
+   * @param actualRowSizeLimit max number of rows to return. no limit when actualRowSizeLimit <= 0.
+   * @param onFinish called once the result has been written or can't be streamed, to release the
+   *     resources of the query
+   */
+  public static Response streamQueryDataSet(
+      QueryDataSet sourceDataSet,
+      PhysicalPlan physicalPlan,
+      int actualRowSizeLimit,
+      int batchSize,
+      Runnable onFinish) {
     org.apache.iotdb.db.protocol.rest.model.QueryDataSet targetDataSet =
         new org.apache.iotdb.db.protocol.rest.model.QueryDataSet();
+    int[] targetDataSetIndexToSourceDataSetIndex;
+    boolean withTimestamps;
+    if (sourceDataSet instanceof ShowDevicesDataSet
+        || (sourceDataSet instanceof ListDataSet && !(physicalPlan instanceof LastQueryPlan))
+        || sourceDataSet instanceof ShowTimeseriesDataSet
+        || (sourceDataSet instanceof SingleDataSet && !(physicalPlan instanceof AggregationPlan))) {
+      targetDataSetIndexToSourceDataSetIndex = new int[sourceDataSet.getPaths().size()];
+      initTargetDatasetOrderByOrderWithSourceDataSet(
+          sourceDataSet, targetDataSetIndexToSourceDataSetIndex, targetDataSet);
+      withTimestamps = false;
+    } else if (sourceDataSet instanceof ListDataSet) {
+      targetDataSetIndexToSourceDataSetIndex = new int[sourceDataSet.getPaths().size()];
+      initTargetDatasetOrderByOrderWithSourceDataSet(
+          sourceDataSet, targetDataSetIndexToSourceDataSetIndex, targetDataSet);
+      withTimestamps = true;
+    } else if (sourceDataSet instanceof SingleDataSet
+        && ((AggregationPlan) physicalPlan).getLevels() != null) {
+      targetDataSetIndexToSourceDataSetIndex =
+          initTargetDatasetByGroupPaths((AggregationPlan) physicalPlan, targetDataSet);
+      withTimestamps = false;
+    } else if (sourceDataSet instanceof GroupByLevelDataSet) {
+      targetDataSetIndexToSourceDataSetIndex = new int[sourceDataSet.getPaths().size()];
+      initTargetDatasetExpByOrderWithSourceDataSet(
+          sourceDataSet, targetDataSetIndexToSourceDataSetIndex, targetDataSet);
+      withTimestamps = true;
+    } else if (physicalPlan instanceof QueryPlan) {
+      targetDataSetIndexToSourceDataSetIndex =
+          initTargetDatasetByResultColumns((QueryPlan) physicalPlan, targetDataSet);
+      withTimestamps = true;
+    } else {
+      onFinish.run();
+      return Response.ok()
+          .entity(
+              new ExecutionStatus()
+                  .code(TSStatusCode.QUERY_PROCESS_ERROR.getStatusCode())
+                  .message(
+                      String.format(
+                          "unsupported query data type: %s", sourceDataSet.getClass().getName())))
+          .build();
+    }
+
+    return Response.ok(
+            new QueryDataSetStreamingOutput(
+                sourceDataSet,
+                targetDataSet,
+                targetDataSetIndexToSourceDataSetIndex,
+                withTimestamps,
+                actualRowSizeLimit,
+                batchSize,
+                onFinish),
+            MediaType.APPLICATION_JSON)
+        .build();
+  }
+
+  private static int[] initTargetDatasetByResultColumns(
+      QueryPlan queryPlan, org.apache.iotdb.db.protocol.rest.model.QueryDataSet targetDataSet) {
+    List<ResultColumn> resultColumns = queryPlan.getResultColumns();
+    int[] targetDataSetIndexToSourceDataSetIndex = new int[resultColumns.size()];
+    Map<String, Integer> sourcePathToQueryDataSetIndex = queryPlan.getPathToIndex();
+    for (int i = 0; i < resultColumns.size(); i++) {
+      ResultColumn resultColumn = resultColumns.get(i);
+      targetDataSet.addExpressionsItem(resultColumn.getResultColumnName());
+      targetDataSet.addValuesItem(new ArrayList<>());
+      targetDataSetIndexToSourceDataSetIndex[i] =
+          sourcePathToQueryDataSetIndex.get(resultColumn.getResultColumnName());
+    }
+    return targetDataSetIndexToSourceDataSetIndex;
+  }
+
+  private static int[] initTargetDatasetByGroupPaths(
+      AggregationPlan aggregationPlan,
+      org.apache.iotdb.db.protocol.rest.model.QueryDataSet targetDataSet) {
+    Map<String, AggregateResult> groupPathsResultMap = aggregationPlan.getGroupPathsResultMap();
+    int[] targetDataSetIndexToSourceDataSetIndex = new int[groupPathsResultMap.size()];
 
     Map<String, Integer> sourcePathToSourceQueryDataSetIndex = aggregationPlan.getPathToIndex();
     Iterator<Entry<String, AggregateResult>> iterator = groupPathsResultMap.entrySet().iterator();
@@ -163,9 +251,7 @@ public class QueryDataSetHandler {
       targetDataSetIndexToSourceDataSetIndex[i] =
           sourcePathToSourceQueryDataSetIndex.get(next.getKey());
     }
-
-    return fillQueryDataSetWithoutTimestamps(
-        dataSet, actualRowSizeLimit, targetDataSetIndexToSourceDataSetIndex, targetDataSet);
+    return targetDataSetIndexToSourceDataSetIndex;
   }
 
   private static Response fillShowPlanDataSet(
@@ -0,0 +1,217 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.iotdb.db.protocol.rest.handler;
+
+import org.apache.iotdb.db.protocol.rest.model.ExecutionStatus;
+import org.apache.iotdb.rpc.TSStatusCode;
+import org.apache.iotdb.tsfile.read.common.Field;
+import org.apache.iotdb.tsfile.read.common.RowRecord;
+import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import javax.ws.rs.core.StreamingOutput;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Write a query result as JSON while reading it from the source data set. Only one batch of rows
+ * is held in memory at a time, and each batch is flushed to the client once it is full. The
+ * response looks like:
+ *
+ * <pre>
+ * {
+ *   "expressions": ["root.sg.d1.s1", "root.sg.d1.s2"],
+ *   "batches": [
+ *     {"timestamps": [1, 2], "values": [[1.0, 2.0], ["a", null]]},
+ *     {"timestamps": [3], "values": [[3.0], ["c"]]}
+ *   ],
+ *   "code": 200,
+ *   "message": "SUCCESS_STATUS"
+ * }
+ * </pre>
+ *
+ * "columnNames" replaces "expressions" and "timestamps" is left out for the same kinds of query as
+ * in the non-streaming response.
+ */
+public class QueryDataSetStreamingOutput implements StreamingOutput {
+
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+  private final QueryDataSet sourceDataSet;
+  private final org.apache.iotdb.db.protocol.rest.model.QueryDataSet targetDataSet;
+  private final int[] targetDataSetIndexToSourceDataSetIndex;
+  private final boolean withTimestamps;
+  private final int actualRowSizeLimit;
+  private final int batchSize;
+  private final Runnable onFinish;
+
+  /**
+   * @param targetDataSet the target data set with only its expressions or column names filled
+   * @param actualRowSizeLimit max number of rows to return. no limit when actualRowSizeLimit <= 0.
+   * @param onFinish called once the result has been written, whether successfully or not
+   */
+  public QueryDataSetStreamingOutput(
+      QueryDataSet sourceDataSet,
+      org.apache.iotdb.db.protocol.rest.model.QueryDataSet targetDataSet,
+      int[] targetDataSetIndexToSourceDataSetIndex,
+      boolean withTimestamps,
+      int actualRowSizeLimit,
+      int batchSize,
+      Runnable onFinish) {
+    this.sourceDataSet = sourceDataSet;
+    this.targetDataSet = targetDataSet;
+    this.targetDataSetIndexToSourceDataSetIndex = targetDataSetIndexToSourceDataSetIndex;
+    this.withTimestamps = withTimestamps;
+    this.actualRowSizeLimit = actualRowSizeLimit;
+    this.batchSize = Math.max(1, batchSize);
+    this.onFinish = onFinish;
+  }
+
+  @Override
+  public void write(OutputStream output) throws IOException {
+    try (JsonGenerator generator = JSON_FACTORY.createGenerator(output, JsonEncoding.UTF8)) {
+      generator.writeStartObject();
+      writeNames(generator, "expressions", targetDataSet.getExpressions());
+      writeNames(generator, "columnNames", targetDataSet.getColumnNames());
+
+      generator.writeArrayFieldStart("batches");
+      ExecutionStatus status;
+      try {
+        status = writeBatches(generator);
+      } catch (Exception e) {
+        status = ExceptionHandler.tryCatchException(e);
+      }
+      generator.writeEndArray();
+
+      generator.writeNumberField("code", status.getCode());
+      generator.writeStringField("message", status.getMessage());
+      generator.writeEndObject();
+    } finally {
+      onFinish.run();
+    }
+  }
+
+  private void writeNames(JsonGenerator generator, String fieldName, List<String> names)
+      throws IOException {
+    if (names == null) {
+      return;
+    }
+    generator.writeArrayFieldStart(fieldName);
+    for (String name : names) {
+      generator.writeString(name);
+    }
+    generator.writeEndArray();
+  }
+
+  private ExecutionStatus writeBatches(JsonGenerator generator) throws IOException {
+    int columnSize = targetDataSetIndexToSourceDataSetIndex.length;
+    long[] timestamps = new long[batchSize];
+    Field[][] columns = new Field[columnSize][batchSize];
+
+    int fetched = 0;
+    int rowCount = 0;
+    while (sourceDataSet.hasNext()) {
+      if (0 < actualRowSizeLimit && actualRowSizeLimit <= fetched) {
+        writeBatch(generator, timestamps, columns, rowCount);
+        return new ExecutionStatus()
+            .code(TSStatusCode.QUERY_PROCESS_ERROR.getStatusCode())
+            .message(
+                String.format(
+                    "Dataset row size exceeded the given max row size (%d)", actualRowSizeLimit));
+      }
+
+      RowRecord rowRecord = sourceDataSet.next();
+      timestamps[rowCount] = rowRecord.getTimestamp();
+      List<Field> fields = rowRecord.getFields();
+      for (int i = 0; i < columnSize; i++) {
+        columns[i][rowCount] = fields.get(targetDataSetIndexToSourceDataSetIndex[i]);
+      }
+      fetched++;
+
+      if (++rowCount == batchSize) {
+        writeBatch(generator, timestamps, columns, rowCount);
+        rowCount = 0;
+      }
+    }
+    writeBatch(generator, timestamps, columns, rowCount);
+
+    return new ExecutionStatus()
+        .code(TSStatusCode.SUCCESS_STATUS.getStatusCode())
+        .message(TSStatusCode.SUCCESS_STATUS.name());
+  }
+
+  private void writeBatch(
+      JsonGenerator generator, long[] timestamps, Field[][] columns, int rowCount)
+      throws IOException {
+    if (rowCount == 0) {
+      return;
+    }
+    generator.writeStartObject();
+    if (withTimestamps) {
+      generator.writeArrayFieldStart("timestamps");
+      for (int row = 0; row < rowCount; row++) {
+        generator.writeNumber(timestamps[row]);
+      }
+      generator.writeEndArray();
+    }
+    generator.writeArrayFieldStart("values");
+    for (Field[] column : columns) {
+      generator.writeStartArray();
+      for (int row = 0; row < rowCount; row++) {
+        writeField(generator, column[row]);
+        column[row] = null;
+      }
+      generator.writeEndArray();
+    }
+    generator.writeEndArray();
+    generator.writeEndObject();
+    generator.flush();
+  }
+
+  private void writeField(JsonGenerator generator, Field field) throws IOException {
+    if (field == null || field.getDataType() == null) {
+      generator.writeNull();
+      return;
+    }
+    switch (field.getDataType()) {
+      case BOOLEAN:
+        generator.writeBoolean(field.getBoolV());
+        break;
+      case INT32:
+        generator.writeNumber(field.getIntV());
+        break;
+      case INT64:
+        generator.writeNumber(field.getLongV());
+        break;
+      case FLOAT:
+        generator.writeNumber(field.getFloatV());
+        break;
+      case DOUBLE:
+        generator.writeNumber(field.getDoubleV());
+        break;
+      default:
+        generator.writeString(field.getStringValue());
+        break;
+    }
+  }
+}
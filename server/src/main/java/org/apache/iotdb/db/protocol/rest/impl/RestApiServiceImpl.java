@@ -54,6 +54,7 @@ public class RestApiServiceImpl extends RestApiService {
   private final AuthorizationHandler authorizationHandler;
 
   private final Integer defaultQueryRowLimit;
+  private final int streamQueryBatchSize;
 
   public RestApiServiceImpl() throws QueryProcessException {
     planner = serviceProvider.getPlanner();
@@ -61,6 +62,8 @@ public class RestApiServiceImpl extends RestApiService {
 
     defaultQueryRowLimit =
         IoTDBRestServiceDescriptor.getInstance().getConfig().getRestQueryDefaultRowSizeLimit();
+    streamQueryBatchSize =
+        IoTDBRestServiceDescriptor.getInstance().getConfig().getRestQueryStreamBatchSize();
   }
 
   @Override
@@ -114,6 +117,8 @@ public class RestApiServiceImpl extends RestApiService {
       }
 
       final long queryId = ServiceProvider.SESSION_MANAGER.requestQueryId(true);
+      // a streamed result is written after returning, and releases the query once written
+      boolean releaseOnFinish = false;
       try {
         QueryContext queryContext =
             serviceProvider.genQueryContext(
@@ -125,13 +130,31 @@ public class RestApiServiceImpl extends RestApiService {
         QueryDataSet queryDataSet =
             serviceProvider.createQueryDataSet(
                 queryContext, physicalPlan, IoTDBConstant.DEFAULT_FETCH_SIZE);
+        if (Boolean.TRUE.equals(sql.getStream())) {
+          // only one batch is held in memory, so there is no default row limit
+          releaseOnFinish = true;
+          try {
+            return QueryDataSetHandler.streamQueryDataSet(
+                queryDataSet,
+                physicalPlan,
+                sql.getRowLimit() == null ? 0 : sql.getRowLimit(),
+                streamQueryBatchSize,
+                () -> ServiceProvider.SESSION_MANAGER.releaseQueryResourceNoExceptions(queryId));
+          } catch (RuntimeException e) {
+            // no output is built to release the query
+            ServiceProvider.SESSION_MANAGER.releaseQueryResourceNoExceptions(queryId);
+            throw e;
+          }
+        }
         // set max row limit to avoid OOM
         return QueryDataSetHandler.fillQueryDataSet(
             queryDataSet,
             physicalPlan,
             sql.getRowLimit() == null ? defaultQueryRowLimit : sql.getRowLimit());
       } finally {
-        ServiceProvider.SESSION_MANAGER.releaseQueryResourceNoExceptions(queryId);
+        if (!releaseOnFinish) {
+          ServiceProvider.SESSION_MANAGER.releaseQueryResourceNoExceptions(queryId);
+        }
       }
     } catch (Exception e) {
       return Response.ok().entity(ExceptionHandler.tryCatchException(e)).build();
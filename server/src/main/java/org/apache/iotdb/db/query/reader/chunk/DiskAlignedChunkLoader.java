@@ -52,16 +52,21 @@ public class DiskAlignedChunkLoader implements IChunkLoader {
   public IChunkReader getChunkReader(IChunkMetadata chunkMetaData, Filter timeFilter)
       throws IOException {
     AlignedChunkMetadata alignedChunkMetadata = (AlignedChunkMetadata) chunkMetaData;
-    Chunk timeChunk =
-        ChunkCache.getInstance()
-            .get((ChunkMetadata) alignedChunkMetadata.getTimeChunkMetadata(), debug);
+    // the time chunk and value chunks are in one chunk group, so load them together
+    List<ChunkMetadata> chunkMetadataList = new ArrayList<>();
+    chunkMetadataList.add((ChunkMetadata) alignedChunkMetadata.getTimeChunkMetadata());
+    for (IChunkMetadata valueChunkMetadata : alignedChunkMetadata.getValueChunkMetadataList()) {
+      if (valueChunkMetadata != null) {
+        chunkMetadataList.add((ChunkMetadata) valueChunkMetadata);
+      }
+    }
+    List<Chunk> chunks = ChunkCache.getInstance().getAll(chunkMetadataList, debug);
+
+    int chunkIndex = 1;
     List<Chunk> valueChunkList = new ArrayList<>();
     for (IChunkMetadata valueChunkMetadata : alignedChunkMetadata.getValueChunkMetadataList()) {
-      valueChunkList.add(
-          valueChunkMetadata == null
-              ? null
-              : ChunkCache.getInstance().get((ChunkMetadata) valueChunkMetadata, debug));
+      valueChunkList.add(valueChunkMetadata == null ? null : chunks.get(chunkIndex++));
     }
-    return new AlignedChunkReader(timeChunk, valueChunkList, timeFilter);
+    return new AlignedChunkReader(chunks.get(0), valueChunkList, timeFilter);
   }
 }
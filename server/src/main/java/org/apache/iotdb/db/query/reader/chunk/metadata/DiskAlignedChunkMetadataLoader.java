@@ -22,8 +22,10 @@ import org.apache.iotdb.db.engine.modification.Modification;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
 import org.apache.iotdb.db.metadata.path.AlignedPath;
 import org.apache.iotdb.db.query.context.QueryContext;
+import org.apache.iotdb.db.query.control.FileReaderManager;
 import org.apache.iotdb.db.query.reader.chunk.DiskAlignedChunkLoader;
 import org.apache.iotdb.db.utils.QueryUtils;
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
 import org.apache.iotdb.tsfile.file.metadata.AlignedChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.AlignedTimeSeriesMetadata;
 import org.apache.iotdb.tsfile.file.metadata.IChunkMetadata;
@@ -34,6 +36,7 @@ import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -47,6 +50,9 @@ public class DiskAlignedChunkMetadataLoader implements IChunkMetadataLoader {
 
   private static final Logger DEBUG_LOGGER = LoggerFactory.getLogger("QUERY_DEBUG");
 
+  private static final boolean VALUE_BLOOM_FILTER_ENABLE =
+      TSFileDescriptor.getInstance().getConfig().isEnableValueBloomFilter();
+
   public DiskAlignedChunkMetadataLoader(
       TsFileResource resource, AlignedPath seriesPath, QueryContext context, Filter filter) {
     this.resource = resource;
@@ -56,7 +62,8 @@ public class DiskAlignedChunkMetadataLoader implements IChunkMetadataLoader {
   }
 
   @Override
-  public List<IChunkMetadata> loadChunkMetadataList(ITimeSeriesMetadata timeSeriesMetadata) {
+  public List<IChunkMetadata> loadChunkMetadataList(ITimeSeriesMetadata timeSeriesMetadata)
+      throws IOException {
     List<AlignedChunkMetadata> alignedChunkMetadataList =
         ((AlignedTimeSeriesMetadata) timeSeriesMetadata).getChunkMetadataList();
 
@@ -88,6 +95,13 @@ public class DiskAlignedChunkMetadataLoader implements IChunkMetadataLoader {
                         alignedChunkMetaData.getStartTime(), alignedChunkMetaData.getEndTime()))
                 || alignedChunkMetaData.getStartTime() > alignedChunkMetaData.getEndTime());
 
+    // value filters may skip chunks by their value bloom filters
+    if (filter != null && VALUE_BLOOM_FILTER_ENABLE && resource.isClosed()) {
+      FileReaderManager.getInstance()
+          .get(resource.getTsFilePath(), true)
+          .attachValueBloomFilters(alignedChunkMetadataList);
+    }
+
     // it is ok, even if it is not thread safe, because the cost of creating a DiskChunkLoader is
     // very cheap.
     alignedChunkMetadataList.forEach(
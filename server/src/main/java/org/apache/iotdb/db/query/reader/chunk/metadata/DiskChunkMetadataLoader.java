@@ -22,8 +22,10 @@ import org.apache.iotdb.commons.path.PartialPath;
 import org.apache.iotdb.db.engine.modification.Modification;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
 import org.apache.iotdb.db.query.context.QueryContext;
+import org.apache.iotdb.db.query.control.FileReaderManager;
 import org.apache.iotdb.db.query.reader.chunk.DiskChunkLoader;
 import org.apache.iotdb.db.utils.QueryUtils;
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
 import org.apache.iotdb.tsfile.file.metadata.IChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.ITimeSeriesMetadata;
 import org.apache.iotdb.tsfile.file.metadata.TimeseriesMetadata;
@@ -33,6 +35,7 @@ import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.util.List;
 
 public class DiskChunkMetadataLoader implements IChunkMetadataLoader {
@@ -45,6 +48,9 @@ public class DiskChunkMetadataLoader implements IChunkMetadataLoader {
 
   private static final Logger DEBUG_LOGGER = LoggerFactory.getLogger("QUERY_DEBUG");
 
+  private static final boolean VALUE_BLOOM_FILTER_ENABLE =
+      TSFileDescriptor.getInstance().getConfig().isEnableValueBloomFilter();
+
   public DiskChunkMetadataLoader(
       TsFileResource resource, PartialPath seriesPath, QueryContext context, Filter filter) {
     this.resource = resource;
@@ -54,7 +60,8 @@ public class DiskChunkMetadataLoader implements IChunkMetadataLoader {
   }
 
   @Override
-  public List<IChunkMetadata> loadChunkMetadataList(ITimeSeriesMetadata timeSeriesMetadata) {
+  public List<IChunkMetadata> loadChunkMetadataList(ITimeSeriesMetadata timeSeriesMetadata)
+      throws IOException {
 
     List<IChunkMetadata> chunkMetadataList =
         ((TimeseriesMetadata) timeSeriesMetadata).getChunkMetadataList();
@@ -100,6 +107,13 @@ public class DiskChunkMetadataLoader implements IChunkMetadataLoader {
                         chunkMetaData.getStartTime(), chunkMetaData.getEndTime()))
                 || chunkMetaData.getStartTime() > chunkMetaData.getEndTime());
 
+    // value filters may skip chunks by their value bloom filters
+    if (filter != null && VALUE_BLOOM_FILTER_ENABLE && resource.isClosed()) {
+      FileReaderManager.getInstance()
+          .get(resource.getTsFilePath(), true)
+          .attachValueBloomFilters(chunkMetadataList);
+    }
+
     // For chunkMetadata from old TsFile, do not set version
     for (IChunkMetadata metadata : chunkMetadataList) {
       if (!metadata.isFromOldTsFile()) {
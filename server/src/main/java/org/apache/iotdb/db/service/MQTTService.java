@@ -43,6 +43,7 @@ import java.util.Properties;
 public class MQTTService implements IService {
   private static final Logger LOG = LoggerFactory.getLogger(MQTTService.class);
   private final Server server = new Server();
+  private MPPPublishHandler mppPublishHandler;
 
   private MQTTService() {}
 
@@ -61,7 +62,8 @@ public class MQTTService implements IService {
     IConfig config = createBrokerConfig(iotDBConfig);
     List<InterceptHandler> handlers = new ArrayList<>(1);
     if (iotDBConfig.isMppMode()) {
-      handlers.add(new MPPPublishHandler(iotDBConfig));
+      mppPublishHandler = new MPPPublishHandler(iotDBConfig);
+      handlers.add(mppPublishHandler);
     } else {
       handlers.add(new PublishHandler(iotDBConfig));
     }
@@ -103,6 +105,9 @@ public class MQTTService implements IService {
 
   public void shutdown() {
     server.stopServer();
+    if (mppPublishHandler != null) {
+      mppPublishHandler.stop();
+    }
   }
 
   @Override
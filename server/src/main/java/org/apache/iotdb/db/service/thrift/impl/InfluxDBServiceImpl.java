@@ -24,21 +24,23 @@ import org.apache.iotdb.commons.path.PartialPath;
 import org.apache.iotdb.db.exception.StorageEngineException;
 import org.apache.iotdb.db.exception.metadata.StorageGroupNotSetException;
 import org.apache.iotdb.db.exception.query.QueryProcessException;
-import org.apache.iotdb.db.protocol.influxdb.dto.IoTDBPoint;
 import org.apache.iotdb.db.protocol.influxdb.handler.QueryHandler;
-import org.apache.iotdb.db.protocol.influxdb.input.InfluxLineParser;
+import org.apache.iotdb.db.protocol.influxdb.input.InfluxLineBatchParser;
+import org.apache.iotdb.db.protocol.influxdb.input.InfluxLineBatchParser.SeriesBatch;
 import org.apache.iotdb.db.protocol.influxdb.meta.InfluxDBMetaManager;
 import org.apache.iotdb.db.protocol.influxdb.operator.InfluxQueryOperator;
 import org.apache.iotdb.db.protocol.influxdb.sql.InfluxDBLogicalGenerator;
 import org.apache.iotdb.db.qp.logical.Operator;
 import org.apache.iotdb.db.qp.physical.PhysicalPlan;
-import org.apache.iotdb.db.qp.physical.crud.InsertRowPlan;
+import org.apache.iotdb.db.qp.physical.crud.InsertTabletPlan;
 import org.apache.iotdb.db.qp.physical.sys.SetStorageGroupPlan;
+import org.apache.iotdb.db.qp.utils.DatetimeUtils;
 import org.apache.iotdb.db.query.control.SessionManager;
 import org.apache.iotdb.db.service.IoTDB;
 import org.apache.iotdb.db.service.basic.BasicOpenSessionResp;
 import org.apache.iotdb.db.service.basic.ServiceProvider;
 import org.apache.iotdb.db.utils.DataTypeUtils;
+import org.apache.iotdb.db.utils.ParameterUtils;
 import org.apache.iotdb.protocol.influxdb.rpc.thrift.InfluxCloseSessionReq;
 import org.apache.iotdb.protocol.influxdb.rpc.thrift.InfluxCreateDatabaseReq;
 import org.apache.iotdb.protocol.influxdb.rpc.thrift.InfluxDBService;
@@ -48,14 +50,12 @@ import org.apache.iotdb.protocol.influxdb.rpc.thrift.InfluxQueryReq;
 import org.apache.iotdb.protocol.influxdb.rpc.thrift.InfluxQueryResultRsp;
 import org.apache.iotdb.protocol.influxdb.rpc.thrift.InfluxTSStatus;
 import org.apache.iotdb.protocol.influxdb.rpc.thrift.InfluxWritePointsReq;
-import org.apache.iotdb.rpc.IoTDBConnectionException;
 import org.apache.iotdb.rpc.RpcUtils;
 import org.apache.iotdb.rpc.TSStatusCode;
 import org.apache.iotdb.service.rpc.thrift.TSProtocolVersion;
 
 import org.apache.thrift.TException;
 import org.influxdb.InfluxDBException;
-import org.influxdb.dto.Point;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -98,11 +98,14 @@ public class InfluxDBServiceImpl implements InfluxDBService.Iface {
 
     List<InfluxTSStatus> tsStatusList = new ArrayList<>();
     int executeCode = TSStatusCode.SUCCESS_STATUS.getStatusCode();
-    for (Point point :
-        InfluxLineParser.parserRecordsToPointsWithPrecision(req.lineProtocol, req.precision)) {
-      IoTDBPoint iotdbPoint = new IoTDBPoint(req.database, point, metaManager);
+    ParameterUtils.checkNonEmptyString(req.database, "database");
+    InfluxLineBatchParser parser =
+        new InfluxLineBatchParser(
+            DatetimeUtils.toTimeUnit(req.precision),
+            (measurement, tags) -> metaManager.generatePath(req.database, measurement, tags));
+    for (SeriesBatch batch : parser.parse(req.lineProtocol)) {
       try {
-        InsertRowPlan plan = iotdbPoint.convertToInsertRowPlan();
+        InsertTabletPlan plan = batch.toInsertTabletPlan();
         InfluxTSStatus tsStatus = executeNonQueryPlan(plan, req.sessionId);
         if (executeCode == TSStatusCode.SUCCESS_STATUS.getStatusCode()
             && tsStatus.getCode() == TSStatusCode.EXECUTE_STATEMENT_ERROR.getStatusCode()) {
@@ -112,7 +115,6 @@ public class InfluxDBServiceImpl implements InfluxDBService.Iface {
       } catch (StorageGroupNotSetException
           | StorageEngineException
           | IllegalPathException
-          | IoTDBConnectionException
           | QueryProcessException e) {
         throw new InfluxDBException(e.getMessage());
       }
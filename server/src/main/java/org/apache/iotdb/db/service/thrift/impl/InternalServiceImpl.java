@@ -61,6 +61,7 @@ import org.apache.iotdb.db.mpp.plan.planner.plan.node.write.InsertNode;
 import org.apache.iotdb.db.service.metrics.MetricsService;
 import org.apache.iotdb.db.service.metrics.enums.Metric;
 import org.apache.iotdb.db.service.metrics.enums.Tag;
+import org.apache.iotdb.db.utils.LoadTsFileUtils;
 import org.apache.iotdb.metrics.config.MetricConfigDescriptor;
 import org.apache.iotdb.metrics.type.Gauge;
 import org.apache.iotdb.metrics.utils.MetricLevel;
@@ -77,6 +78,8 @@ import org.apache.iotdb.mpp.rpc.thrift.TFetchFragmentInstanceStateReq;
 import org.apache.iotdb.mpp.rpc.thrift.TFragmentInstanceStateResp;
 import org.apache.iotdb.mpp.rpc.thrift.TInvalidateCacheReq;
 import org.apache.iotdb.mpp.rpc.thrift.TInvalidatePermissionCacheReq;
+import org.apache.iotdb.mpp.rpc.thrift.TLoadCleanupReq;
+import org.apache.iotdb.mpp.rpc.thrift.TLoadTsFilePieceReq;
 import org.apache.iotdb.mpp.rpc.thrift.TMigrateRegionReq;
 import org.apache.iotdb.mpp.rpc.thrift.TMigrateRegionResp;
 import org.apache.iotdb.mpp.rpc.thrift.TSchemaFetchRequest;
@@ -93,6 +96,7 @@ import org.apache.thrift.TException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -185,6 +189,33 @@ public class InternalServiceImpl implements InternalService.Iface {
     return response;
   }
 
+  @Override
+  public TSStatus sendLoadTsFilePiece(TLoadTsFilePieceReq req) {
+    try {
+      LoadTsFileUtils.receiveFilePart(
+          req.getUuid(),
+          req.getConsensusGroupId(),
+          req.getPieceIndex(),
+          req.getFileName(),
+          req.getStartIndex(),
+          req.bufferForBody());
+    } catch (IOException | IllegalArgumentException e) {
+      LOGGER.error("Failed to receive file {} of loading tsfiles", req.getFileName(), e);
+      return RpcUtils.getStatus(TSStatusCode.LOAD_FILE_ERROR, e.getMessage());
+    }
+    return RpcUtils.getStatus(TSStatusCode.SUCCESS_STATUS);
+  }
+
+  @Override
+  public TSStatus cleanupLoadTsFile(TLoadCleanupReq req) {
+    try {
+      LoadTsFileUtils.cleanUp(req.getUuid(), req.getConsensusGroupId());
+    } catch (IllegalArgumentException e) {
+      return RpcUtils.getStatus(TSStatusCode.LOAD_FILE_ERROR, e.getMessage());
+    }
+    return RpcUtils.getStatus(TSStatusCode.SUCCESS_STATUS);
+  }
+
   @Override
   public TFragmentInstanceStateResp fetchFragmentInstanceState(TFetchFragmentInstanceStateReq req) {
     FragmentInstanceInfo info =
@@ -0,0 +1,417 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.tools;
+
+import org.apache.iotdb.common.rpc.thrift.TTimePartitionSlot;
+import org.apache.iotdb.commons.exception.IllegalPathException;
+import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.db.engine.StorageEngineV2;
+import org.apache.iotdb.db.engine.modification.Modification;
+import org.apache.iotdb.db.engine.modification.ModificationFile;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResourceStatus;
+import org.apache.iotdb.db.utils.QueryUtils;
+import org.apache.iotdb.tsfile.common.constant.TsFileConstant;
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.file.MetaMarker;
+import org.apache.iotdb.tsfile.file.header.ChunkHeader;
+import org.apache.iotdb.tsfile.file.metadata.AlignedChunkMetadata;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.file.metadata.IChunkMetadata;
+import org.apache.iotdb.tsfile.file.metadata.TimeseriesMetadata;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+import org.apache.iotdb.tsfile.read.TsFileDeviceIterator;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.common.Chunk;
+import org.apache.iotdb.tsfile.read.reader.IChunkReader;
+import org.apache.iotdb.tsfile.read.reader.chunk.AlignedChunkReader;
+import org.apache.iotdb.tsfile.read.reader.chunk.ChunkReader;
+import org.apache.iotdb.tsfile.utils.Pair;
+import org.apache.iotdb.tsfile.utils.TsPrimitiveType;
+import org.apache.iotdb.tsfile.write.chunk.AlignedChunkWriterImpl;
+import org.apache.iotdb.tsfile.write.chunk.ChunkWriterImpl;
+import org.apache.iotdb.tsfile.write.chunk.IChunkWriter;
+import org.apache.iotdb.tsfile.write.schema.IMeasurementSchema;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+import org.apache.iotdb.tsfile.write.writer.TsFileIOWriter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+/**
+ * Split a closed TsFile into several TsFiles according to a key computed from the device and the
+ * time partition of each point, e.g. the data region the point belongs to. Chunks that lie in a
+ * single time partition are copied as they are, only chunks crossing time partitions are decoded
+ * and rewritten. The deletions in the mods file of the original file are applied: fully deleted
+ * chunks are skipped and partly deleted chunks are rewritten, so the generated files need no mods
+ * file.
+ *
+ * @param <K> the key of the split pieces, different time partitions must lead to different keys
+ */
+public class TsFilePartitionSplitTool<K> implements AutoCloseable {
+
+  private static final Logger logger = LoggerFactory.getLogger(TsFilePartitionSplitTool.class);
+
+  private final TsFileSequenceReader reader;
+  private final File targetDir;
+  private final String targetFilePrefix;
+  private final BiFunction<String, TTimePartitionSlot, K> keyFunction;
+  private final List<Modification> modifications;
+
+  private final Map<K, TsFileIOWriter> writers = new LinkedHashMap<>();
+  /** keys of the writers which have started the chunk group of the current device */
+  private final Set<K> writersInChunkGroup = new HashSet<>();
+
+  public TsFilePartitionSplitTool(
+      File tsFile, File targetDir, BiFunction<String, TTimePartitionSlot, K> keyFunction)
+      throws IOException {
+    try (ModificationFile modificationFile =
+        new ModificationFile(tsFile.getPath() + ModificationFile.FILE_SUFFIX)) {
+      this.modifications = new ArrayList<>(modificationFile.getModifications());
+    }
+    this.reader = new TsFileSequenceReader(tsFile.getAbsolutePath());
+    this.targetDir = targetDir;
+    String fileName = tsFile.getName();
+    this.targetFilePrefix =
+        fileName.substring(0, fileName.length() - TsFileConstant.TSFILE_SUFFIX.length());
+    this.keyFunction = keyFunction;
+  }
+
+  /**
+   * Split the file, the generated files and their resources are placed in the target dir.
+   *
+   * @return the resource of the generated file of each key
+   */
+  public Map<K, TsFileResource> split() throws IOException {
+    try {
+      TsFileDeviceIterator deviceIterator = reader.getAllDevicesIteratorWithIsAligned();
+      while (deviceIterator.hasNext()) {
+        Pair<String, Boolean> deviceAndIsAligned = deviceIterator.next();
+        if (Boolean.TRUE.equals(deviceAndIsAligned.right)) {
+          splitAlignedDevice(deviceAndIsAligned.left);
+        } else {
+          splitNonAlignedDevice(deviceAndIsAligned.left);
+        }
+        endChunkGroups();
+      }
+
+      Map<K, TsFileResource> resources = new LinkedHashMap<>();
+      for (Map.Entry<K, TsFileIOWriter> entry : writers.entrySet()) {
+        resources.put(entry.getKey(), endFileAndGenerateResource(entry.getValue()));
+      }
+      return resources;
+    } catch (IOException | RuntimeException e) {
+      abort();
+      throw e;
+    }
+  }
+
+  private void splitNonAlignedDevice(String device) throws IOException {
+    Map<String, List<ChunkMetadata>> measurementChunkMetadataMap =
+        reader.readChunkMetadataInDevice(device);
+    for (Map.Entry<String, List<ChunkMetadata>> entry : measurementChunkMetadataMap.entrySet()) {
+      List<ChunkMetadata> chunkMetadataList = entry.getValue();
+      // fully deleted chunks are removed, partly deleted ones are marked as modified
+      QueryUtils.modifyChunkMetaData(chunkMetadataList, getModifications(device, entry.getKey()));
+      for (ChunkMetadata chunkMetadata : chunkMetadataList) {
+        // the deletions of a chunk are passed to the chunk reader by the chunk
+        Chunk chunk = reader.readMemChunk(chunkMetadata);
+        TTimePartitionSlot startSlot =
+            StorageEngineV2.getTimePartitionSlot(chunkMetadata.getStartTime());
+        if (!chunkMetadata.isModified()
+            && startSlot.equals(StorageEngineV2.getTimePartitionSlot(chunkMetadata.getEndTime()))) {
+          copyChunk(
+              getChunkGroupWriter(device, keyFunction.apply(device, startSlot)),
+              chunk,
+              chunkMetadata.getStatistics());
+        } else {
+          ChunkHeader header = chunk.getHeader();
+          IMeasurementSchema schema =
+              new MeasurementSchema(
+                  header.getMeasurementID(),
+                  header.getDataType(),
+                  header.getEncodingType(),
+                  header.getCompressionType());
+          rewriteChunk(
+              device,
+              new ChunkReader(chunk, null),
+              () -> new ChunkWriterImpl(schema),
+              (writer, batchData) -> writePoint((ChunkWriterImpl) writer, batchData));
+        }
+      }
+    }
+  }
+
+  private void splitAlignedDevice(String device) throws IOException {
+    List<AlignedChunkMetadata> alignedChunkMetadataList = reader.getAlignedChunkMetadata(device);
+    applyAlignedModifications(device, alignedChunkMetadataList);
+    for (AlignedChunkMetadata alignedChunkMetadata : alignedChunkMetadataList) {
+      IChunkMetadata timeChunkMetadata = alignedChunkMetadata.getTimeChunkMetadata();
+      Chunk timeChunk = reader.readMemChunk((ChunkMetadata) timeChunkMetadata);
+      List<IChunkMetadata> valueChunkMetadataList = new ArrayList<>();
+      List<Chunk> valueChunks = new ArrayList<>();
+      for (IChunkMetadata valueChunkMetadata : alignedChunkMetadata.getValueChunkMetadataList()) {
+        // columns without any value in this chunk group are skipped
+        if (valueChunkMetadata != null) {
+          valueChunkMetadataList.add(valueChunkMetadata);
+          valueChunks.add(reader.readMemChunk((ChunkMetadata) valueChunkMetadata));
+        }
+      }
+
+      TTimePartitionSlot startSlot =
+          StorageEngineV2.getTimePartitionSlot(timeChunkMetadata.getStartTime());
+      if (!alignedChunkMetadata.isModified()
+          && startSlot.equals(
+              StorageEngineV2.getTimePartitionSlot(timeChunkMetadata.getEndTime()))) {
+        TsFileIOWriter writer = getChunkGroupWriter(device, keyFunction.apply(device, startSlot));
+        copyChunk(writer, timeChunk, timeChunkMetadata.getStatistics());
+        for (int i = 0; i < valueChunks.size(); i++) {
+          copyChunk(writer, valueChunks.get(i), valueChunkMetadataList.get(i).getStatistics());
+        }
+      } else {
+        List<IMeasurementSchema> schemaList = new ArrayList<>(valueChunks.size());
+        for (Chunk valueChunk : valueChunks) {
+          ChunkHeader header = valueChunk.getHeader();
+          schemaList.add(
+              new MeasurementSchema(
+                  header.getMeasurementID(),
+                  header.getDataType(),
+                  header.getEncodingType(),
+                  header.getCompressionType()));
+        }
+        rewriteChunk(
+            device,
+            new AlignedChunkReader(timeChunk, valueChunks, null),
+            () -> new AlignedChunkWriterImpl(schemaList),
+            (writer, batchData) ->
+                ((AlignedChunkWriterImpl) writer)
+                    .write(batchData.currentTime(), (TsPrimitiveType[]) batchData.currentValue()));
+      }
+    }
+  }
+
+  /** @return the modifications of the original file that may affect the given series */
+  private List<Modification> getModifications(String device, String measurement)
+      throws IOException {
+    if (modifications.isEmpty()) {
+      return Collections.emptyList();
+    }
+    PartialPath seriesPath;
+    try {
+      seriesPath = new PartialPath(device, measurement);
+    } catch (IllegalPathException e) {
+      throw new IOException(e);
+    }
+    List<Modification> result = new ArrayList<>();
+    for (Modification modification : modifications) {
+      if (modification.getPath().matchFullPath(seriesPath)) {
+        result.add(modification);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Apply the modifications to each value column. The value chunk metadata of a fully deleted
+   * column is set to null, and fully deleted aligned chunks are removed from the list.
+   */
+  private void applyAlignedModifications(
+      String device, List<AlignedChunkMetadata> alignedChunkMetadataList) throws IOException {
+    if (modifications.isEmpty() || alignedChunkMetadataList.isEmpty()) {
+      return;
+    }
+    // the value chunk metadata of a column is null in the chunks which have no value of it
+    int columnNum = alignedChunkMetadataList.get(0).getValueChunkMetadataList().size();
+    List<List<Modification>> valueModifications = new ArrayList<>(columnNum);
+    for (int i = 0; i < columnNum; i++) {
+      String measurement = null;
+      for (AlignedChunkMetadata alignedChunkMetadata : alignedChunkMetadataList) {
+        IChunkMetadata valueChunkMetadata = alignedChunkMetadata.getValueChunkMetadataList().get(i);
+        if (valueChunkMetadata != null) {
+          measurement = valueChunkMetadata.getMeasurementUid();
+          break;
+        }
+      }
+      valueModifications.add(
+          measurement == null ? Collections.emptyList() : getModifications(device, measurement));
+    }
+    QueryUtils.modifyAlignedChunkMetaData(alignedChunkMetadataList, valueModifications);
+  }
+
+  /** Copy the chunk to the writer without decoding. */
+  @SuppressWarnings("unchecked")
+  private void copyChunk(TsFileIOWriter writer, Chunk chunk, Statistics<?> statistics)
+      throws IOException {
+    ChunkHeader header = chunk.getHeader();
+    int mask =
+        header.getChunkType()
+            & (TsFileConstant.TIME_COLUMN_MASK | TsFileConstant.VALUE_COLUMN_MASK);
+    // the number of pages only decides which chunk header marker is written
+    int numOfPages =
+        (header.getChunkType() & ~mask) == MetaMarker.ONLY_ONE_PAGE_CHUNK_HEADER ? 1 : 2;
+    writer.startFlushChunk(
+        header.getMeasurementID(),
+        header.getCompressionType(),
+        header.getDataType(),
+        header.getEncodingType(),
+        (Statistics<? extends Serializable>) statistics,
+        header.getDataSize(),
+        numOfPages,
+        mask);
+    writer.getIOWriterOut().write(chunk.getData());
+    writer.endCurrentChunk();
+  }
+
+  /** Decode the chunk and write each point to the chunk writer of its key. */
+  private void rewriteChunk(
+      String device,
+      IChunkReader chunkReader,
+      ChunkWriterFactory chunkWriterFactory,
+      PointWriter pointWriter)
+      throws IOException {
+    Map<K, IChunkWriter> chunkWriters = new LinkedHashMap<>();
+    TTimePartitionSlot currentSlot = null;
+    IChunkWriter currentChunkWriter = null;
+    while (chunkReader.hasNextSatisfiedPage()) {
+      BatchData batchData = chunkReader.nextPageData();
+      while (batchData.hasCurrent()) {
+        TTimePartitionSlot slot = StorageEngineV2.getTimePartitionSlot(batchData.currentTime());
+        if (!slot.equals(currentSlot)) {
+          currentSlot = slot;
+          currentChunkWriter =
+              chunkWriters.computeIfAbsent(
+                  keyFunction.apply(device, slot), k -> chunkWriterFactory.create());
+        }
+        pointWriter.write(currentChunkWriter, batchData);
+        batchData.next();
+      }
+    }
+    for (Map.Entry<K, IChunkWriter> entry : chunkWriters.entrySet()) {
+      entry.getValue().writeToFileWriter(getChunkGroupWriter(device, entry.getKey()));
+    }
+  }
+
+  private void writePoint(ChunkWriterImpl chunkWriter, BatchData batchData) {
+    long time = batchData.currentTime();
+    switch (batchData.getDataType()) {
+      case INT32:
+        chunkWriter.write(time, batchData.getInt());
+        break;
+      case INT64:
+        chunkWriter.write(time, batchData.getLong());
+        break;
+      case FLOAT:
+        chunkWriter.write(time, batchData.getFloat());
+        break;
+      case DOUBLE:
+        chunkWriter.write(time, batchData.getDouble());
+        break;
+      case BOOLEAN:
+        chunkWriter.write(time, batchData.getBoolean());
+        break;
+      case TEXT:
+        chunkWriter.write(time, batchData.getBinary());
+        break;
+      default:
+        throw new UnSupportedDataTypeException(
+            String.format("Data type %s is not supported.", batchData.getDataType()));
+    }
+  }
+
+  private TsFileIOWriter getChunkGroupWriter(String device, K key) throws IOException {
+    TsFileIOWriter writer = writers.get(key);
+    if (writer == null) {
+      String fileName = targetFilePrefix + "-" + writers.size() + TsFileConstant.TSFILE_SUFFIX;
+      writer = new TsFileIOWriter(new File(targetDir, fileName));
+      writers.put(key, writer);
+    }
+    if (writersInChunkGroup.add(key)) {
+      writer.startChunkGroup(device);
+    }
+    return writer;
+  }
+
+  private void endChunkGroups() throws IOException {
+    for (K key : writersInChunkGroup) {
+      writers.get(key).endChunkGroup();
+    }
+    writersInChunkGroup.clear();
+  }
+
+  private TsFileResource endFileAndGenerateResource(TsFileIOWriter writer) throws IOException {
+    writer.endFile();
+    TsFileResource resource = new TsFileResource(writer.getFile());
+    for (Map.Entry<String, List<TimeseriesMetadata>> entry :
+        writer.getDeviceTimeseriesMetadataMap().entrySet()) {
+      String device = entry.getKey();
+      for (TimeseriesMetadata timeseriesMetadata : entry.getValue()) {
+        resource.updateStartTime(device, timeseriesMetadata.getStatistics().getStartTime());
+        resource.updateEndTime(device, timeseriesMetadata.getStatistics().getEndTime());
+      }
+    }
+    resource.setStatus(TsFileResourceStatus.CLOSED);
+    resource.serialize();
+    return resource;
+  }
+
+  /** Close and remove all the generated files after a failure. */
+  private void abort() {
+    for (TsFileIOWriter writer : writers.values()) {
+      try {
+        writer.close();
+      } catch (IOException e) {
+        logger.warn("Failed to close split file {}", writer.getFile(), e);
+      }
+      File resourceFile = new File(writer.getFile().getPath() + TsFileResource.RESOURCE_SUFFIX);
+      if (!writer.getFile().delete() || (resourceFile.exists() && !resourceFile.delete())) {
+        logger.warn("Failed to delete split file {}", writer.getFile());
+      }
+    }
+    writers.clear();
+  }
+
+  @Override
+  public void close() throws IOException {
+    reader.close();
+  }
+
+  @FunctionalInterface
+  private interface ChunkWriterFactory {
+    IChunkWriter create();
+  }
+
+  @FunctionalInterface
+  private interface PointWriter {
+    void write(IChunkWriter chunkWriter, BatchData batchData);
+  }
+}
@@ -29,6 +29,7 @@ import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResourceStatus;
 import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
 import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.compress.ZstdDictionaryManager;
 import org.apache.iotdb.tsfile.encoding.decoder.Decoder;
 import org.apache.iotdb.tsfile.exception.write.PageException;
 import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
@@ -361,6 +362,11 @@ public class TsFileRewriteTool implements AutoCloseable {
               logger.error("Create new TsFile {} failed because it exists", newFile);
             }
             TsFileIOWriter writer = new TsFileIOWriter(newFile);
+            // pages may be copied along with the ZSTD dictionaries they are compressed with
+            for (int dictionaryId :
+                ZstdDictionaryManager.getInstance().loadDictionaries(oldTsFile.getPath())) {
+              writer.addZstdDictionary(dictionaryId);
+            }
             return writer;
           } catch (IOException e) {
             logger.error("Create new TsFile {} failed ", newFile, e);
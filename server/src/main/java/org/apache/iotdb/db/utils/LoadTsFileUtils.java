@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.utils;
+
+import org.apache.iotdb.common.rpc.thrift.TConsensusGroupId;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.write.LoadTsFileNode;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.write.LoadTsFilePiece;
+import org.apache.iotdb.tsfile.common.constant.TsFileConstant;
+
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * The files of the pieces of a LOAD statement are placed in a receive dir on each data node of the
+ * data region before the LoadTsFileNode is executed. The dir is identified by the load uuid and the
+ * data region, and contains one sub dir for each piece.
+ */
+public class LoadTsFileUtils {
+
+  private static final Logger logger = LoggerFactory.getLogger(LoadTsFileUtils.class);
+
+  private static final String RECEIVE_DIR_PREFIX = "receive-";
+
+  private LoadTsFileUtils() {
+    // util class
+  }
+
+  public static File getReceiveDir(String uuid, TConsensusGroupId regionId) {
+    checkFileName(uuid);
+    return new File(
+        IoTDBDescriptor.getInstance().getConfig().getLoadTsFileDir(),
+        RECEIVE_DIR_PREFIX + uuid + "-" + regionId.getId());
+  }
+
+  public static File getPieceDir(File receiveDir, int pieceIndex) {
+    return new File(receiveDir, String.valueOf(pieceIndex));
+  }
+
+  /** Write a part of a file of a piece sent by another node at the given position. */
+  public static void receiveFilePart(
+      String uuid,
+      TConsensusGroupId regionId,
+      int pieceIndex,
+      String fileName,
+      long startIndex,
+      ByteBuffer body)
+      throws IOException {
+    checkFileName(fileName);
+    File pieceDir = getPieceDir(getReceiveDir(uuid, regionId), pieceIndex);
+    mkdirs(pieceDir);
+    try (RandomAccessFile file = new RandomAccessFile(new File(pieceDir, fileName), "rw")) {
+      FileChannel channel = file.getChannel();
+      long position = startIndex;
+      while (body.hasRemaining()) {
+        position += channel.write(body, position);
+      }
+    }
+  }
+
+  /**
+   * Place the local files of the pieces into the receive dir of this node. The tsfile is hard
+   * linked if possible, the resource and mods files are copied because they may be rewritten or
+   * appended after loading.
+   */
+  public static void receiveLocalPieces(LoadTsFileNode node) throws IOException {
+    File receiveDir = getReceiveDir(node.getUuid(), node.getRegionReplicaSet().getRegionId());
+    for (LoadTsFilePiece piece : node.getPieces()) {
+      File pieceDir = getPieceDir(receiveDir, piece.getIndex());
+      mkdirs(pieceDir);
+      for (File file : piece.getLocalFiles()) {
+        File target = new File(pieceDir, file.getName());
+        if (file.getName().endsWith(TsFileConstant.TSFILE_SUFFIX)) {
+          try {
+            Files.createLink(target.toPath(), file.toPath());
+            continue;
+          } catch (UnsupportedOperationException | IOException e) {
+            logger.debug("Failed to link {} to {}, copy it instead", file, target, e);
+          }
+        }
+        Files.copy(file.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+      }
+    }
+  }
+
+  /** Remove the receive dir, the files in it are either loaded or abandoned. */
+  public static void cleanUp(String uuid, TConsensusGroupId regionId) {
+    File receiveDir = getReceiveDir(uuid, regionId);
+    if (!receiveDir.exists()) {
+      return;
+    }
+    try {
+      FileUtils.deleteDirectory(receiveDir);
+    } catch (IOException e) {
+      logger.warn("Failed to delete directory {} of loading tsfiles", receiveDir, e);
+    }
+  }
+
+  private static void mkdirs(File dir) throws IOException {
+    if (!dir.exists() && !dir.mkdirs() && !dir.exists()) {
+      throw new IOException(String.format("Failed to create directory %s", dir));
+    }
+  }
+
+  /** The names come from other nodes, so they must not point out of the load dir. */
+  private static void checkFileName(String name) {
+    if (name.isEmpty()
+        || ".".equals(name)
+        || "..".equals(name)
+        || !new File(name).getName().equals(name)) {
+      throw new IllegalArgumentException(String.format("Illegal file name %s", name));
+    }
+  }
+}
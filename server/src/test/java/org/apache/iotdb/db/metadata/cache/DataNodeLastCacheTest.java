@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.metadata.cache;
+
+import org.apache.iotdb.commons.exception.IllegalPathException;
+import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanNodeId;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.write.InsertTabletNode;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.TimeValuePair;
+import org.apache.iotdb.tsfile.utils.BitMap;
+import org.apache.iotdb.tsfile.utils.TsPrimitiveType;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class DataNodeLastCacheTest {
+  DataNodeLastCache lastCache;
+
+  @Before
+  public void setUp() throws Exception {
+    lastCache = DataNodeLastCache.getInstance();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    lastCache.cleanUp();
+  }
+
+  @Test
+  public void testUpdateOnlyByNewerValue() throws IllegalPathException {
+    PartialPath seriesPath = new PartialPath("root.sg1.d1.s1");
+    Assert.assertNull(lastCache.get(seriesPath));
+
+    // a seq insertion older than the latest flushed time is not cached
+    lastCache.update(seriesPath, new TimeValuePair(99, new TsPrimitiveType.TsInt(1)), true, 100L);
+    Assert.assertNull(lastCache.get(seriesPath));
+
+    lastCache.update(seriesPath, new TimeValuePair(100, new TsPrimitiveType.TsInt(2)), false, 100L);
+    Assert.assertEquals(2, lastCache.get(seriesPath).getValue().getInt());
+
+    // older value never wins
+    lastCache.update(
+        seriesPath, new TimeValuePair(99, new TsPrimitiveType.TsInt(3)), true, Long.MIN_VALUE);
+    Assert.assertEquals(100, lastCache.get(seriesPath).getTimestamp());
+    Assert.assertEquals(2, lastCache.get(seriesPath).getValue().getInt());
+
+    // same time only wins with high priority
+    lastCache.update(
+        seriesPath, new TimeValuePair(100, new TsPrimitiveType.TsInt(4)), false, Long.MIN_VALUE);
+    Assert.assertEquals(2, lastCache.get(seriesPath).getValue().getInt());
+    lastCache.update(
+        seriesPath, new TimeValuePair(100, new TsPrimitiveType.TsInt(5)), true, Long.MIN_VALUE);
+    Assert.assertEquals(5, lastCache.get(seriesPath).getValue().getInt());
+
+    lastCache.invalidate(seriesPath);
+    Assert.assertNull(lastCache.get(seriesPath));
+    Assert.assertEquals(0, lastCache.getMemoryUsage());
+  }
+
+  @Test
+  public void testConcurrentUpdate() throws Exception {
+    PartialPath seriesPath = new PartialPath("root.sg1.d1.s1");
+    int threadNum = 4;
+    int pointNum = 10000;
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < threadNum; i++) {
+      int offset = i;
+      Thread thread =
+          new Thread(
+              () -> {
+                for (int time = offset; time < pointNum; time += threadNum) {
+                  lastCache.update(
+                      seriesPath,
+                      new TimeValuePair(time, new TsPrimitiveType.TsLong(time)),
+                      false,
+                      Long.MIN_VALUE);
+                }
+              });
+      threads.add(thread);
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    TimeValuePair cached = lastCache.get(seriesPath);
+    Assert.assertEquals(pointNum - 1, cached.getTimestamp());
+    Assert.assertEquals(pointNum - 1, cached.getValue().getLong());
+  }
+
+  @Test
+  public void testMemoryUsageWithConcurrentInvalidate() throws Exception {
+    PartialPath seriesPath = new PartialPath("root.sg1.d1.s1");
+    int pointNum = 10000;
+    Thread updater =
+        new Thread(
+            () -> {
+              for (int time = 0; time < pointNum; time++) {
+                lastCache.update(
+                    seriesPath,
+                    new TimeValuePair(time, new TsPrimitiveType.TsLong(time)),
+                    false,
+                    Long.MIN_VALUE);
+              }
+            });
+    Thread invalidator =
+        new Thread(
+            () -> {
+              for (int i = 0; i < pointNum; i++) {
+                lastCache.invalidate(seriesPath);
+              }
+            });
+    updater.start();
+    invalidator.start();
+    updater.join();
+    invalidator.join();
+
+    // the memory of an entry is accounted together with its update or removal, thus never drifts
+    lastCache.invalidate(seriesPath);
+    Assert.assertNull(lastCache.get(seriesPath));
+    Assert.assertEquals(0, lastCache.getMemoryUsage());
+  }
+
+  @Test
+  public void testUpdateByInsertTabletNode() throws IllegalPathException {
+    BitMap bitMap = new BitMap(3);
+    bitMap.mark(2);
+    InsertTabletNode node =
+        new InsertTabletNode(
+            new PlanNodeId("test"),
+            new PartialPath("root.sg1.d1"),
+            false,
+            new String[] {"s1", "s2"},
+            new TSDataType[] {TSDataType.INT32, TSDataType.DOUBLE},
+            new long[] {1, 2, 3},
+            new BitMap[] {null, bitMap},
+            new Object[] {new int[] {10, 20, 30}, new double[] {1.0, 2.0, 3.0}},
+            3);
+    lastCache.update(node, Long.MIN_VALUE);
+
+    TimeValuePair s1 = lastCache.get(new PartialPath("root.sg1.d1.s1"));
+    Assert.assertEquals(3, s1.getTimestamp());
+    Assert.assertEquals(30, s1.getValue().getInt());
+
+    // the last row of s2 is null
+    TimeValuePair s2 = lastCache.get(new PartialPath("root.sg1.d1.s2"));
+    Assert.assertEquals(2, s2.getTimestamp());
+    Assert.assertEquals(2.0, s2.getValue().getDouble(), 0);
+  }
+}
@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.metadata.mnode;
+
+import org.apache.iotdb.db.metadata.mnode.container.CompactMNodeContainer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class CompactMNodeContainerTest {
+
+  @Test
+  public void testSmallFanout() {
+    CompactMNodeContainer container = new CompactMNodeContainer();
+    InternalMNode parent = new InternalMNode(null, "root");
+    IMNode b = new InternalMNode(parent, "b");
+    IMNode a = new InternalMNode(parent, "a");
+    IMNode c = new InternalMNode(parent, "c");
+
+    Assert.assertNull(container.putIfAbsent("b", b));
+    Assert.assertNull(container.putIfAbsent("a", a));
+    Assert.assertNull(container.putIfAbsent("c", c));
+    Assert.assertSame(b, container.putIfAbsent("b", new InternalMNode(parent, "b")));
+    Assert.assertEquals(3, container.size());
+    Assert.assertSame(a, container.get("a"));
+    Assert.assertFalse(container.containsKey("d"));
+
+    // children are iterated in order of name
+    List<String> names = new ArrayList<>();
+    for (Map.Entry<String, IMNode> entry : container.entrySet()) {
+      names.add(entry.getKey());
+    }
+    Assert.assertEquals("[a, b, c]", names.toString());
+
+    IMNode newB = new InternalMNode(parent, "b");
+    Assert.assertSame(b, container.replace("b", newB));
+    Assert.assertSame(newB, container.get("b"));
+    Assert.assertNull(container.replace("d", newB));
+
+    Assert.assertSame(a, container.remove("a"));
+    Assert.assertNull(container.remove("a"));
+    Assert.assertEquals(2, container.size());
+    Assert.assertTrue(container.values().contains(c));
+
+    container.clear();
+    Assert.assertTrue(container.isEmpty());
+  }
+
+  @Test
+  public void testLargeFanout() {
+    CompactMNodeContainer container = new CompactMNodeContainer();
+    InternalMNode parent = new InternalMNode(null, "root");
+    int num = 1000;
+    for (int i = 0; i < num; i++) {
+      container.put("s" + i, new InternalMNode(parent, "s" + i));
+    }
+    Assert.assertEquals(num, container.size());
+    for (int i = 0; i < num; i++) {
+      Assert.assertEquals("s" + i, container.get("s" + i).getName());
+    }
+    for (int i = 0; i < num; i += 2) {
+      Assert.assertNotNull(container.remove("s" + i));
+    }
+    Assert.assertEquals(num / 2, container.size());
+    Assert.assertEquals(num / 2, container.keySet().size());
+  }
+
+  @Test
+  public void testRemoveThroughIterator() {
+    CompactMNodeContainer container = new CompactMNodeContainer();
+    InternalMNode parent = new InternalMNode(null, "root");
+    for (String name : new String[] {"a", "b", "c"}) {
+      container.put(name, new InternalMNode(parent, name));
+    }
+
+    Iterator<Map.Entry<String, IMNode>> iterator = container.entrySet().iterator();
+    List<String> names = new ArrayList<>();
+    while (iterator.hasNext()) {
+      String name = iterator.next().getKey();
+      names.add(name);
+      if (!name.equals("b")) {
+        iterator.remove();
+      }
+    }
+    Assert.assertEquals("[a, b, c]", names.toString());
+    Assert.assertEquals(1, container.size());
+    Assert.assertTrue(container.containsKey("b"));
+
+    container.keySet().removeIf("b"::equals);
+    Assert.assertTrue(container.isEmpty());
+  }
+
+  @Test
+  public void testConcurrentComputeIfAbsent() throws InterruptedException {
+    CompactMNodeContainer container = new CompactMNodeContainer();
+    InternalMNode parent = new InternalMNode(null, "root");
+    AtomicInteger createdNum = new AtomicInteger();
+    int threadNum = 8;
+    CountDownLatch start = new CountDownLatch(1);
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < threadNum; t++) {
+      Thread thread =
+          new Thread(
+              () -> {
+                try {
+                  start.await();
+                } catch (InterruptedException e) {
+                  Thread.currentThread().interrupt();
+                  return;
+                }
+                for (int i = 0; i < 100; i++) {
+                  container.computeIfAbsent(
+                      "s" + i,
+                      name -> {
+                        createdNum.incrementAndGet();
+                        return new InternalMNode(parent, name);
+                      });
+                }
+              });
+      thread.start();
+      threads.add(thread);
+    }
+    start.countDown();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    // each child is created exactly once, across the switch from array to map
+    Assert.assertEquals(100, createdNum.get());
+    Assert.assertEquals(100, container.size());
+  }
+}
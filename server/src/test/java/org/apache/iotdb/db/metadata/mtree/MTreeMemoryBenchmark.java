@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.metadata.mtree;
+
+import org.apache.iotdb.commons.exception.IllegalPathException;
+import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.metadata.mnode.EntityMNode;
+import org.apache.iotdb.db.metadata.mnode.IMNode;
+import org.apache.iotdb.db.metadata.mnode.MeasurementMNode;
+import org.apache.iotdb.db.metadata.mtree.store.CompactMemMTreeStore;
+import org.apache.iotdb.db.metadata.mtree.store.MemMTreeStore;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+/**
+ * MTree memory benchmark. Build the same schema with MemMTreeStore and CompactMemMTreeStore and
+ * compare the heap occupied per timeseries. Run with a fixed heap, e.g. -Xms4g -Xmx4g.
+ */
+public class MTreeMemoryBenchmark {
+
+  private static int numOfDevice = 100000;
+  private static int numOfMeasurement = 10;
+
+  public static void main(String[] args) throws IllegalPathException {
+    if (args.length == 2) {
+      numOfDevice = Integer.parseInt(args[0]);
+      numOfMeasurement = Integer.parseInt(args[1]);
+    }
+    long totalSeries = (long) numOfDevice * numOfMeasurement;
+
+    long basicSize = measure(false);
+    long compactSize = measure(true);
+
+    System.out.println(
+        String.format(
+            "Num of time series: %d, "
+                + "MemMTreeStore: %.1f bytes per series, "
+                + "CompactMemMTreeStore: %.1f bytes per series.",
+            totalSeries, (double) basicSize / totalSeries, (double) compactSize / totalSeries));
+  }
+
+  private static long measure(boolean compact) throws IllegalPathException {
+    IoTDBDescriptor.getInstance().getConfig().setEnableCompactMTreeInMemory(compact);
+    long before = usedMemory();
+
+    PartialPath storageGroup = new PartialPath("root.sg");
+    MemMTreeStore store =
+        compact
+            ? new CompactMemMTreeStore(storageGroup, true)
+            : new MemMTreeStore(storageGroup, true);
+    IMNode root = store.getRoot();
+    for (int i = 0; i < numOfDevice; i++) {
+      String deviceName = "d" + i;
+      IMNode device = store.addChild(root, deviceName, new EntityMNode(root, deviceName));
+      for (int j = 0; j < numOfMeasurement; j++) {
+        // names are built for every series as they would be parsed from separate requests
+        String measurementName = "s" + j;
+        store.addChild(
+            device,
+            measurementName,
+            MeasurementMNode.getMeasurementMNode(
+                device.getAsEntityMNode(),
+                measurementName,
+                new MeasurementSchema(measurementName, TSDataType.DOUBLE, TSEncoding.GORILLA),
+                null));
+      }
+    }
+
+    long size = usedMemory() - before;
+    // keep the store reachable until measured
+    System.out.println(
+        String.format(
+            "%s built, root has %d children",
+            store.getClass().getSimpleName(), store.getRoot().getChildren().size()));
+    store.clear();
+    return size;
+  }
+
+  private static long usedMemory() {
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+    }
+    Runtime runtime = Runtime.getRuntime();
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+}
@@ -35,6 +35,7 @@ import org.apache.iotdb.db.metadata.mtree.store.disk.schemafile.RecordUtils;
 import org.apache.iotdb.db.metadata.mtree.store.disk.schemafile.SchemaFile;
 import org.apache.iotdb.db.metadata.mtree.store.disk.schemafile.SchemaPage;
 import org.apache.iotdb.db.metadata.mtree.store.disk.schemafile.Segment;
+import org.apache.iotdb.db.metadata.rescon.SchemaFileStatistics;
 import org.apache.iotdb.db.metadata.schemaregion.SchemaEngineMode;
 import org.apache.iotdb.db.utils.EnvironmentUtils;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
@@ -562,6 +563,123 @@ public class SchemaFileTest {
     sf.close();
   }
 
+  @Test
+  public void testDirtyPageWriteBackInBatch() throws MetadataException, IOException {
+    int threshold = SchemaFile.DIRTY_PAGE_FLUSH_THRESHOLD;
+    SchemaFile.DIRTY_PAGE_FLUSH_THRESHOLD = Integer.MAX_VALUE;
+    try {
+      ISchemaFile sf = SchemaFile.initSchemaFile("root.test.vRoot1", TEST_SCHEMA_REGION_ID);
+      writeTree(sf, getFlatTree(5000, "aa"));
+
+      // nothing is written back before the threshold is reached
+      Assert.assertTrue(((SchemaFile) sf).getDirtyPageNumOnTest() > 1);
+      sf.sync();
+      Assert.assertEquals(0, ((SchemaFile) sf).getDirtyPageNumOnTest());
+      sf.close();
+
+      ISchemaFile nsf = SchemaFile.loadSchemaFile("root.test.vRoot1", TEST_SCHEMA_REGION_ID);
+      assertFlatTreeChildren(nsf, 5000, "aa");
+      nsf.close();
+    } finally {
+      SchemaFile.DIRTY_PAGE_FLUSH_THRESHOLD = threshold;
+    }
+  }
+
+  @Test
+  public void testDirtyPageWriteBackOnThreshold() throws MetadataException, IOException {
+    int threshold = SchemaFile.DIRTY_PAGE_FLUSH_THRESHOLD;
+    SchemaFile.DIRTY_PAGE_FLUSH_THRESHOLD = 1;
+    try {
+      ISchemaFile sf = SchemaFile.initSchemaFile("root.test.vRoot1", TEST_SCHEMA_REGION_ID);
+      writeTree(sf, getFlatTree(5000, "aa"));
+      Assert.assertEquals(0, ((SchemaFile) sf).getDirtyPageNumOnTest());
+      sf.close();
+
+      ISchemaFile nsf = SchemaFile.loadSchemaFile("root.test.vRoot1", TEST_SCHEMA_REGION_ID);
+      assertFlatTreeChildren(nsf, 5000, "aa");
+      nsf.close();
+    } finally {
+      SchemaFile.DIRTY_PAGE_FLUSH_THRESHOLD = threshold;
+    }
+  }
+
+  @Test
+  public void testDirtyPageFlushedOnClose() throws MetadataException, IOException {
+    int threshold = SchemaFile.DIRTY_PAGE_FLUSH_THRESHOLD;
+    SchemaFile.DIRTY_PAGE_FLUSH_THRESHOLD = Integer.MAX_VALUE;
+    try {
+      ISchemaFile sf = SchemaFile.initSchemaFile("root.test.vRoot1", TEST_SCHEMA_REGION_ID);
+      writeTree(sf, getFlatTree(5000, "aa"));
+      Assert.assertTrue(((SchemaFile) sf).getDirtyPageNumOnTest() > 0);
+      sf.close();
+
+      ISchemaFile nsf = SchemaFile.loadSchemaFile("root.test.vRoot1", TEST_SCHEMA_REGION_ID);
+      assertFlatTreeChildren(nsf, 5000, "aa");
+      nsf.close();
+    } finally {
+      SchemaFile.DIRTY_PAGE_FLUSH_THRESHOLD = threshold;
+    }
+  }
+
+  @Test
+  public void testDirtyPageEvictedFromPageCache() throws MetadataException, IOException {
+    int threshold = SchemaFile.DIRTY_PAGE_FLUSH_THRESHOLD;
+    int cacheSize = SchemaFile.PAGE_CACHE_SIZE;
+    SchemaFile.DIRTY_PAGE_FLUSH_THRESHOLD = Integer.MAX_VALUE;
+    SchemaFile.PAGE_CACHE_SIZE = 2;
+    try {
+      ISchemaFile sf = SchemaFile.initSchemaFile("root.test.vRoot1", TEST_SCHEMA_REGION_ID);
+      writeTree(sf, getFlatTree(5000, "aa"));
+
+      // pages evicted from page cache are still served from the write-back buffer
+      assertFlatTreeChildren(sf, 5000, "aa");
+      sf.close();
+
+      ISchemaFile nsf = SchemaFile.loadSchemaFile("root.test.vRoot1", TEST_SCHEMA_REGION_ID);
+      assertFlatTreeChildren(nsf, 5000, "aa");
+      nsf.close();
+    } finally {
+      SchemaFile.DIRTY_PAGE_FLUSH_THRESHOLD = threshold;
+      SchemaFile.PAGE_CACHE_SIZE = cacheSize;
+    }
+  }
+
+  @Test
+  public void testPrefetchOnGetChildren() throws MetadataException, IOException {
+    int prefetchNum = SchemaFile.PREFETCH_PAGE_NUM;
+    SchemaFile.PREFETCH_PAGE_NUM = 4;
+    try {
+      ISchemaFile sf = SchemaFile.initSchemaFile("root.test.vRoot1", TEST_SCHEMA_REGION_ID);
+      writeTree(sf, getFlatTree(5000, "aa"));
+      sf.close();
+
+      SchemaFileStatistics.getInstance().clear();
+      ISchemaFile nsf = SchemaFile.loadSchemaFile("root.test.vRoot1", TEST_SCHEMA_REGION_ID);
+      IMNode node = new InternalMNode(null, "a");
+      ICachedMNodeContainer.getCachedMNodeContainer(node).setSegmentAddress(0L);
+
+      // the next linked segment is prefetched as soon as the traversal starts
+      Iterator<IMNode> children = nsf.getChildren(node);
+      long deadline = System.currentTimeMillis() + 10_000L;
+      while (SchemaFileStatistics.getInstance().getPrefetchedPageNum() == 0
+          && System.currentTimeMillis() < deadline) {
+        Thread.yield();
+      }
+      Assert.assertTrue(SchemaFileStatistics.getInstance().getPrefetchedPageNum() > 0);
+
+      int cnt = 0;
+      while (children.hasNext()) {
+        children.next();
+        cnt++;
+      }
+      Assert.assertEquals(5000, cnt);
+      Assert.assertTrue(SchemaFileStatistics.getInstance().getPageCacheHitPercentage() > 0);
+      nsf.close();
+    } finally {
+      SchemaFile.PREFETCH_PAGE_NUM = prefetchNum;
+    }
+  }
+
   @Test
   public void bitwiseTest() {
     long initGlbAdr = 1099780063232L;
@@ -676,6 +794,26 @@ public class SchemaFileTest {
     ICachedMNodeContainer.getCachedMNodeContainer(par).updateMNode(childName);
   }
 
+  private void writeTree(ISchemaFile sf, IMNode root) throws MetadataException, IOException {
+    Iterator<IMNode> ite = getTreeBFT(root);
+    while (ite.hasNext()) {
+      IMNode cur = ite.next();
+      if (!cur.isMeasurement()) {
+        sf.writeMNode(cur);
+      }
+    }
+  }
+
+  private void assertFlatTreeChildren(ISchemaFile sf, int flatSize, String id)
+      throws MetadataException, IOException {
+    IMNode node = new InternalMNode(null, "a");
+    ICachedMNodeContainer.getCachedMNodeContainer(node).setSegmentAddress(0L);
+    for (int idx = 0; idx < flatSize; idx++) {
+      IMNode target = sf.getChildNode(node, id + idx);
+      Assert.assertEquals(id + idx + "als", target.getAsMeasurementMNode().getAlias());
+    }
+  }
+
   private static long getSegAddrInContainer(IMNode par) {
     return ICachedMNodeContainer.getCachedMNodeContainer(par).getSegmentAddress();
   }
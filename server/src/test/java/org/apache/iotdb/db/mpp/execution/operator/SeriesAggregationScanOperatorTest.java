@@ -37,7 +37,9 @@ import org.apache.iotdb.db.mpp.plan.planner.plan.parameter.AggregationStep;
 import org.apache.iotdb.db.mpp.plan.planner.plan.parameter.GroupByTimeParameter;
 import org.apache.iotdb.db.query.aggregation.AggregationType;
 import org.apache.iotdb.db.query.reader.series.SeriesReaderTestUtil;
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
 import org.apache.iotdb.tsfile.exception.write.WriteProcessException;
+import org.apache.iotdb.tsfile.file.metadata.ChunkRollupIndex;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.block.TsBlock;
 import org.apache.iotdb.tsfile.read.filter.TimeFilter;
@@ -50,6 +52,7 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -59,6 +62,7 @@ import java.util.concurrent.ExecutorService;
 
 import static org.apache.iotdb.db.mpp.execution.fragment.FragmentInstanceContext.createFragmentInstanceContext;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 public class SeriesAggregationScanOperatorTest {
 
@@ -460,6 +464,87 @@ public class SeriesAggregationScanOperatorTest {
     assertEquals(timeColumn.length, count);
   }
 
+  @Test
+  public void testGroupByWithSmallInterval() throws IllegalPathException {
+    for (boolean ascending : new boolean[] {true, false}) {
+      List<AggregationType> aggregationTypes = new ArrayList<>();
+      aggregationTypes.add(AggregationType.COUNT);
+      aggregationTypes.add(AggregationType.FIRST_VALUE);
+      aggregationTypes.add(AggregationType.LAST_VALUE);
+      // many windows fall into one page
+      GroupByTimeParameter groupByTimeParameter = new GroupByTimeParameter(0, 30, 3, 3, true);
+      List<Aggregator> aggregators = new ArrayList<>();
+      AccumulatorFactory.createAccumulators(aggregationTypes, TSDataType.INT32, ascending)
+          .forEach(o -> aggregators.add(new Aggregator(o, AggregationStep.SINGLE)));
+      SeriesAggregationScanOperator seriesAggregationScanOperator =
+          initSeriesAggregationScanOperator(aggregators, null, ascending, groupByTimeParameter);
+      int count = 0;
+      while (seriesAggregationScanOperator.hasNext()) {
+        TsBlock resultTsBlock = seriesAggregationScanOperator.next();
+        long startTime = resultTsBlock.getTimeColumn().getLong(0);
+        assertEquals(ascending ? 3 * count : 27 - 3 * count, startTime);
+        assertEquals(3, resultTsBlock.getColumn(0).getLong(0));
+        assertEquals(20000 + startTime, resultTsBlock.getColumn(1).getInt(0));
+        assertEquals(20002 + startTime, resultTsBlock.getColumn(2).getInt(0));
+        count++;
+      }
+      assertEquals(10, count);
+    }
+  }
+
+  @Test
+  public void testGroupByWithRollup() throws Exception {
+    long rollupInterval = TSFileDescriptor.getInstance().getConfig().getRollupInterval();
+    TSFileDescriptor.getInstance().getConfig().setRollupInterval(5);
+    try {
+      // rewrite the files with rollups
+      tearDown();
+      measurementSchemas.clear();
+      deviceIds.clear();
+      setUp();
+      assertTrue(
+          new File(seqResources.get(2).getTsFilePath() + ChunkRollupIndex.FILE_SUFFIX).exists());
+
+      // chunks [260, 279] and [280, 299] are not overlapped, each spans 4 windows
+      checkGroupByWithRollup(true);
+      checkGroupByWithRollup(false);
+    } finally {
+      TSFileDescriptor.getInstance().getConfig().setRollupInterval(rollupInterval);
+    }
+  }
+
+  private void checkGroupByWithRollup(boolean ascending) throws IllegalPathException {
+    List<AggregationType> aggregationTypes = new ArrayList<>();
+    aggregationTypes.add(AggregationType.COUNT);
+    aggregationTypes.add(AggregationType.SUM);
+    aggregationTypes.add(AggregationType.FIRST_VALUE);
+    aggregationTypes.add(AggregationType.LAST_VALUE);
+    aggregationTypes.add(AggregationType.MAX_VALUE);
+    aggregationTypes.add(AggregationType.MIN_VALUE);
+    GroupByTimeParameter groupByTimeParameter = new GroupByTimeParameter(200, 300, 5, 5, true);
+    List<Aggregator> aggregators = new ArrayList<>();
+    AccumulatorFactory.createAccumulators(aggregationTypes, TSDataType.INT32, ascending)
+        .forEach(o -> aggregators.add(new Aggregator(o, AggregationStep.SINGLE)));
+    SeriesAggregationScanOperator seriesAggregationScanOperator =
+        initSeriesAggregationScanOperator(aggregators, null, ascending, groupByTimeParameter);
+    int count = 0;
+    while (seriesAggregationScanOperator.hasNext()) {
+      TsBlock resultTsBlock = seriesAggregationScanOperator.next();
+      long startTime = resultTsBlock.getTimeColumn().getLong(0);
+      assertEquals(ascending ? 200 + 5 * count : 295 - 5 * count, startTime);
+      // points before 260 are overwritten by the unseq file with values of time + 10000
+      int firstValue = (int) startTime + (startTime < 260 ? 10000 : 0);
+      assertEquals(5, resultTsBlock.getColumn(0).getLong(0));
+      assertEquals(5 * firstValue + 10, resultTsBlock.getColumn(1).getDouble(0), 0);
+      assertEquals(firstValue, resultTsBlock.getColumn(2).getInt(0));
+      assertEquals(firstValue + 4, resultTsBlock.getColumn(3).getInt(0));
+      assertEquals(firstValue + 4, resultTsBlock.getColumn(4).getInt(0));
+      assertEquals(firstValue, resultTsBlock.getColumn(5).getInt(0));
+      count++;
+    }
+    assertEquals(20, count);
+  }
+
   public SeriesAggregationScanOperator initSeriesAggregationScanOperator(
       List<Aggregator> aggregators,
       Filter timeFilter,
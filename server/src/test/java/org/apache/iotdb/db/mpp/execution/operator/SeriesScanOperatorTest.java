@@ -21,12 +21,15 @@ package org.apache.iotdb.db.mpp.execution.operator;
 import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
 import org.apache.iotdb.commons.exception.IllegalPathException;
 import org.apache.iotdb.commons.exception.MetadataException;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.engine.querycontext.QueryDataSource;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
 import org.apache.iotdb.db.metadata.path.MeasurementPath;
 import org.apache.iotdb.db.mpp.common.FragmentInstanceId;
 import org.apache.iotdb.db.mpp.common.PlanFragmentId;
 import org.apache.iotdb.db.mpp.common.QueryId;
+import org.apache.iotdb.db.mpp.execution.datatransfer.DataBlockService;
 import org.apache.iotdb.db.mpp.execution.fragment.FragmentInstanceContext;
 import org.apache.iotdb.db.mpp.execution.fragment.FragmentInstanceStateMachine;
 import org.apache.iotdb.db.mpp.execution.operator.source.SeriesScanOperator;
@@ -49,7 +52,9 @@ import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
 
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.apache.iotdb.db.mpp.execution.fragment.FragmentInstanceContext.createFragmentInstanceContext;
+import static org.awaitility.Awaitility.await;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
@@ -74,7 +79,34 @@ public class SeriesScanOperatorTest {
   }
 
   @Test
-  public void batchTest() {
+  public void batchTest() throws Exception {
+    checkBatch();
+  }
+
+  @Test
+  public void batchTestWithChunkReadAhead() throws Exception {
+    IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+    int prevChunkReadAheadNum = config.getChunkReadAheadNum();
+    config.setChunkReadAheadNum(2);
+    try {
+      checkBatch();
+      // the chunks read ahead are either taken by the scan or freed once their reads finish
+      await()
+          .atMost(30, SECONDS)
+          .until(
+              () ->
+                  DataBlockService.getInstance()
+                          .getDataBlockManager()
+                          .getLocalMemoryManager()
+                          .getQueryPool()
+                          .getQueryMemoryReservedBytes("stub_query")
+                      == 0);
+    } finally {
+      config.setChunkReadAheadNum(prevChunkReadAheadNum);
+    }
+  }
+
+  private void checkBatch() throws Exception {
     ExecutorService instanceNotificationExecutor =
         IoTDBThreadPoolFactory.newFixedThreadPool(1, "test-instance-notification");
     try {
@@ -105,6 +137,8 @@ public class SeriesScanOperatorTest {
       seriesScanOperator.initQueryDataSource(new QueryDataSource(seqResources, unSeqResources));
       int count = 0;
       while (seriesScanOperator.hasNext()) {
+        // wait for the chunk being read ahead like the driver does
+        seriesScanOperator.isBlocked().get();
         TsBlock tsBlock = seriesScanOperator.next();
         assertEquals(1, tsBlock.getValueColumnCount());
         assertTrue(tsBlock.getColumn(0) instanceof IntColumn);
@@ -125,6 +159,7 @@ public class SeriesScanOperatorTest {
         count++;
       }
       assertEquals(25, count);
+      seriesScanOperator.close();
     } catch (IllegalPathException e) {
       e.printStackTrace();
       fail();
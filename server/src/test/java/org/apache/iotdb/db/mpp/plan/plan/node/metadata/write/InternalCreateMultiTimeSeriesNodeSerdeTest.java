@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.mpp.plan.plan.node.metadata.write;
+
+import org.apache.iotdb.commons.exception.IllegalPathException;
+import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanNode;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanNodeId;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanNodeType;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.metedata.write.InternalCreateMultiTimeSeriesNode;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.metedata.write.MeasurementGroup;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.utils.Pair;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class InternalCreateMultiTimeSeriesNodeSerdeTest {
+
+  @Test
+  public void testSerializeAndDeserialize() throws IllegalPathException {
+    PlanNodeId planNodeId = new PlanNodeId("InternalCreateMultiTimeSeriesNode");
+    Map<PartialPath, Pair<Boolean, MeasurementGroup>> deviceMap = new LinkedHashMap<>();
+
+    MeasurementGroup measurementGroup = new MeasurementGroup();
+    measurementGroup.addMeasurement("s1", TSDataType.INT64, TSEncoding.RLE, CompressionType.SNAPPY);
+    measurementGroup.addMeasurement(
+        "s2", TSDataType.DOUBLE, TSEncoding.GORILLA, CompressionType.SNAPPY);
+    deviceMap.put(new PartialPath("root.sg.d1"), new Pair<>(false, measurementGroup));
+
+    measurementGroup = new MeasurementGroup();
+    measurementGroup.addMeasurement(
+        "s1", TSDataType.TEXT, TSEncoding.PLAIN, CompressionType.UNCOMPRESSED);
+    deviceMap.put(new PartialPath("root.sg.d2"), new Pair<>(true, measurementGroup));
+
+    InternalCreateMultiTimeSeriesNode node =
+        new InternalCreateMultiTimeSeriesNode(planNodeId, deviceMap);
+
+    ByteBuffer byteBuffer = ByteBuffer.allocate(1024);
+    node.serialize(byteBuffer);
+    byteBuffer.flip();
+
+    PlanNode deserializedNode = PlanNodeType.deserialize(byteBuffer);
+    Assert.assertTrue(deserializedNode instanceof InternalCreateMultiTimeSeriesNode);
+    Assert.assertEquals(planNodeId, deserializedNode.getPlanNodeId());
+
+    Map<PartialPath, Pair<Boolean, MeasurementGroup>> deserializedDeviceMap =
+        ((InternalCreateMultiTimeSeriesNode) deserializedNode).getDeviceMap();
+    Assert.assertEquals(deviceMap.size(), deserializedDeviceMap.size());
+    for (Map.Entry<PartialPath, Pair<Boolean, MeasurementGroup>> entry : deviceMap.entrySet()) {
+      Pair<Boolean, MeasurementGroup> deserializedEntry = deserializedDeviceMap.get(entry.getKey());
+      Assert.assertNotNull(deserializedEntry);
+      Assert.assertEquals(entry.getValue().left, deserializedEntry.left);
+      Assert.assertEquals(entry.getValue().right, deserializedEntry.right);
+    }
+  }
+}
@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.mpp.plan.plan.node.write;
+
+import org.apache.iotdb.common.rpc.thrift.TConsensusGroupId;
+import org.apache.iotdb.common.rpc.thrift.TConsensusGroupType;
+import org.apache.iotdb.common.rpc.thrift.TDataNodeLocation;
+import org.apache.iotdb.common.rpc.thrift.TEndPoint;
+import org.apache.iotdb.common.rpc.thrift.TRegionReplicaSet;
+import org.apache.iotdb.db.engine.StorageEngineV2;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanNode;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanNodeId;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanNodeType;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.write.LoadTsFileNode;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.write.LoadTsFilePiece;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Collections;
+
+public class LoadTsFileNodeSerdeTest {
+
+  private final File baseDir = new File("target" + File.separator + "LoadTsFileNodeSerdeTest");
+
+  @After
+  public void tearDown() throws Exception {
+    FileUtils.deleteDirectory(baseDir);
+  }
+
+  @Test
+  public void testSerializeAndDeserialize() throws Exception {
+    Assert.assertTrue(baseDir.mkdirs());
+    File tsFile = new File(baseDir, "1-1-0-0.tsfile");
+    Files.write(tsFile.toPath(), new byte[] {1, 2, 3});
+    TsFileResource resource = new TsFileResource(tsFile);
+    resource.updateStartTime("root.sg.d1", 10);
+    resource.updateEndTime("root.sg.d1", 20);
+    resource.serialize();
+
+    PlanNodeId planNodeId = new PlanNodeId("LoadTsFileNode");
+    TRegionReplicaSet regionReplicaSet =
+        new TRegionReplicaSet(
+            new TConsensusGroupId(TConsensusGroupType.DataRegion, 1),
+            Collections.singletonList(
+                new TDataNodeLocation(
+                    1,
+                    new TEndPoint("127.0.0.1", 6667),
+                    new TEndPoint("127.0.0.1", 9003),
+                    new TEndPoint("127.0.0.1", 8777),
+                    new TEndPoint("127.0.0.1", 40010),
+                    new TEndPoint("127.0.0.1", 50010))));
+    LoadTsFilePiece piece = new LoadTsFilePiece(0, resource);
+    LoadTsFileNode loadTsFileNode =
+        new LoadTsFileNode(
+            planNodeId, "load-uuid", Collections.singletonList(piece), regionReplicaSet);
+
+    ByteBuffer byteBuffer = loadTsFileNode.serializeToByteBuffer();
+    PlanNode deserializedNode = PlanNodeType.deserialize(byteBuffer);
+    Assert.assertTrue(deserializedNode instanceof LoadTsFileNode);
+    Assert.assertEquals(planNodeId, deserializedNode.getPlanNodeId());
+    LoadTsFileNode deserializedLoadNode = (LoadTsFileNode) deserializedNode;
+    Assert.assertEquals("load-uuid", deserializedLoadNode.getUuid());
+    Assert.assertEquals(regionReplicaSet, deserializedLoadNode.getRegionReplicaSet());
+
+    // only the references of the files are carried by the node
+    LoadTsFilePiece deserializedPiece = deserializedLoadNode.getPieces().get(0);
+    Assert.assertEquals(piece, deserializedPiece);
+    Assert.assertEquals("root.sg.d1", deserializedPiece.getDevice());
+    Assert.assertEquals(
+        StorageEngineV2.getTimePartitionSlot(10), deserializedPiece.getTimePartitionSlot());
+    try {
+      deserializedPiece.getLocalFiles();
+      Assert.fail();
+    } catch (IllegalStateException e) {
+      // expected, the files are only local on the analyzing node
+    }
+
+    // the received files are checked against the sizes in the node
+    File pieceDir = new File(baseDir, "received");
+    Assert.assertTrue(pieceDir.mkdirs());
+    Files.write(new File(pieceDir, tsFile.getName()).toPath(), new byte[] {1, 2});
+    Files.copy(
+        new File(tsFile.getPath() + TsFileResource.RESOURCE_SUFFIX).toPath(),
+        new File(pieceDir, tsFile.getName() + TsFileResource.RESOURCE_SUFFIX).toPath());
+    try {
+      deserializedPiece.prepare(pieceDir);
+      Assert.fail();
+    } catch (IOException e) {
+      // expected, the tsfile is incomplete
+    }
+    Files.write(new File(pieceDir, tsFile.getName()).toPath(), new byte[] {1, 2, 3});
+    TsFileResource receivedResource = deserializedPiece.prepare(pieceDir);
+    Assert.assertEquals(20, receivedResource.getEndTime("root.sg.d1"));
+  }
+}
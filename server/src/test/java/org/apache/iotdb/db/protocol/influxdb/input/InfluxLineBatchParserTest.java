@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.protocol.influxdb.input;
+
+import org.apache.iotdb.commons.exception.IllegalPathException;
+import org.apache.iotdb.db.protocol.influxdb.input.InfluxLineBatchParser.SeriesBatch;
+import org.apache.iotdb.db.qp.physical.crud.InsertTabletPlan;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.utils.Binary;
+
+import org.influxdb.InfluxDBException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+public class InfluxLineBatchParserTest {
+
+  private final List<String> generatedPaths = new ArrayList<>();
+
+  private InfluxLineBatchParser newParser() {
+    return new InfluxLineBatchParser(
+        TimeUnit.NANOSECONDS,
+        (measurement, tags) -> {
+          StringBuilder path = new StringBuilder("root.db.").append(measurement);
+          for (Map.Entry<String, String> tag : new TreeMap<>(tags).entrySet()) {
+            path.append('.').append(tag.getValue());
+          }
+          generatedPaths.add(path.toString());
+          return path.toString();
+        });
+  }
+
+  @Test
+  public void groupBySeriesTest() throws IllegalPathException {
+    String records =
+        "student,name=xie,sex=m country=\"china\",score=87.0 1635177018815000000\n"
+            + "cpu,name=xie score=100.0 1635187018815000000\n"
+            + "student,name=xie,sex=m country=\"china\",score=89.5 1635187018815000000\n";
+    List<SeriesBatch> batches = newParser().parse(records);
+    Assert.assertEquals(2, batches.size());
+    Assert.assertEquals(2, generatedPaths.size());
+
+    InsertTabletPlan plan = batches.get(0).toInsertTabletPlan();
+    Assert.assertEquals("root.db.student.xie.m", plan.getDevicePath().getFullPath());
+    Assert.assertEquals(2, plan.getRowCount());
+    Assert.assertArrayEquals(new long[] {1635177018815L, 1635187018815L}, plan.getTimes());
+    Assert.assertArrayEquals(new String[] {"country", "score"}, plan.getMeasurements());
+    Assert.assertArrayEquals(
+        new TSDataType[] {TSDataType.TEXT, TSDataType.DOUBLE}, plan.getDataTypes());
+    Assert.assertArrayEquals(new double[] {87.0, 89.5}, (double[]) plan.getColumns()[1], 0);
+
+    plan = batches.get(1).toInsertTabletPlan();
+    Assert.assertEquals("root.db.cpu.xie", plan.getDevicePath().getFullPath());
+    Assert.assertEquals(1, plan.getRowCount());
+  }
+
+  @Test
+  public void parseRecordTest() throws IllegalPathException {
+    String record =
+        "student,name=xie,sex=m country=\"china\",score=87.0,tel=\"110\" 1635177018815000000";
+    InsertTabletPlan plan = newParser().parse(record).get(0).toInsertTabletPlan();
+    Assert.assertEquals("root.db.student.xie.m", plan.getDevicePath().getFullPath());
+    Assert.assertArrayEquals(new long[] {1635177018815L}, plan.getTimes());
+    Assert.assertArrayEquals(new String[] {"country", "score", "tel"}, plan.getMeasurements());
+    Assert.assertArrayEquals(
+        new TSDataType[] {TSDataType.TEXT, TSDataType.DOUBLE, TSDataType.TEXT},
+        plan.getDataTypes());
+    Assert.assertEquals(new Binary("china"), ((Binary[]) plan.getColumns()[0])[0]);
+    Assert.assertArrayEquals(new double[] {87.0}, (double[]) plan.getColumns()[1], 0);
+    Assert.assertEquals(new Binary("110"), ((Binary[]) plan.getColumns()[2])[0]);
+  }
+
+  @Test
+  public void parseRecordsTest() throws IllegalPathException {
+    String[] records = {
+      "student,name=xie,sex=m country=\"china\",score=87.0,tel=\"110\" 1635177018815000000",
+      "student,name=xie,sex=m country=\"china\",score=87i,tel=990i 1635187018815000000",
+      "cpu,name=xie country=\"china\",score=100.0 1635187018815000000"
+    };
+    List<SeriesBatch> batches = newParser().parse(String.join("\n", records));
+    // the types of score and tel change in the second record
+    Assert.assertEquals(3, batches.size());
+    Assert.assertEquals(2, generatedPaths.size());
+
+    InsertTabletPlan plan = batches.get(1).toInsertTabletPlan();
+    Assert.assertEquals("root.db.student.xie.m", plan.getDevicePath().getFullPath());
+    Assert.assertArrayEquals(new long[] {1635187018815L}, plan.getTimes());
+    Assert.assertArrayEquals(
+        new TSDataType[] {TSDataType.TEXT, TSDataType.INT64, TSDataType.INT64},
+        plan.getDataTypes());
+    Assert.assertArrayEquals(new long[] {87}, (long[]) plan.getColumns()[1]);
+    Assert.assertArrayEquals(new long[] {990}, (long[]) plan.getColumns()[2]);
+
+    plan = batches.get(2).toInsertTabletPlan();
+    Assert.assertEquals("root.db.cpu.xie", plan.getDevicePath().getFullPath());
+    Assert.assertArrayEquals(new String[] {"country", "score"}, plan.getMeasurements());
+    Assert.assertArrayEquals(new double[] {100.0}, (double[]) plan.getColumns()[1], 0);
+  }
+
+  @Test
+  public void missingFieldsTest() throws IllegalPathException {
+    String records =
+        "cpu,host=a usage=1i,state=\"up\" 1000000000\n"
+            + "cpu,host=a usage=2i 2000000000\n"
+            + "cpu,host=a state=\"down\" 3000000000";
+    InsertTabletPlan plan = newParser().parse(records).get(0).toInsertTabletPlan();
+    Assert.assertEquals(3, plan.getRowCount());
+    Assert.assertArrayEquals(new long[] {1000, 2000, 0}, (long[]) plan.getColumns()[0]);
+    Assert.assertFalse(plan.getBitMaps()[0].isMarked(0));
+    Assert.assertTrue(plan.getBitMaps()[0].isMarked(2));
+    Assert.assertTrue(plan.getBitMaps()[1].isMarked(1));
+    Assert.assertEquals(Binary.EMPTY_VALUE, ((Binary[]) plan.getColumns()[1])[1]);
+    Assert.assertEquals(new Binary("down"), ((Binary[]) plan.getColumns()[1])[2]);
+  }
+
+  @Test
+  public void typeConflictTest() throws IllegalPathException {
+    String records = "cpu usage=1i 1000000000\ncpu usage=2.5 2000000000\ncpu usage=3.5 3000000000";
+    List<SeriesBatch> batches = newParser().parse(records);
+    Assert.assertEquals(2, batches.size());
+    Assert.assertEquals(1, generatedPaths.size());
+    Assert.assertEquals(TSDataType.INT64, batches.get(0).toInsertTabletPlan().getDataTypes()[0]);
+    InsertTabletPlan plan = batches.get(1).toInsertTabletPlan();
+    Assert.assertEquals(TSDataType.DOUBLE, plan.getDataTypes()[0]);
+    Assert.assertArrayEquals(new double[] {2.5, 3.5}, (double[]) plan.getColumns()[0], 0);
+  }
+
+  @Test
+  public void typeConflictWithNewFieldTest() throws IllegalPathException {
+    String records = "cpu usage=1i 1000000000\ncpu load=0.5,usage=2.5 2000000000";
+    List<SeriesBatch> batches = newParser().parse(records);
+    Assert.assertEquals(2, batches.size());
+    // the field created by the point moved to the new batch is not left in the old one
+    InsertTabletPlan plan = batches.get(0).toInsertTabletPlan();
+    Assert.assertArrayEquals(new String[] {"usage"}, plan.getMeasurements());
+    Assert.assertArrayEquals(new long[] {1}, (long[]) plan.getColumns()[0]);
+    plan = batches.get(1).toInsertTabletPlan();
+    Assert.assertArrayEquals(new String[] {"load", "usage"}, plan.getMeasurements());
+    Assert.assertArrayEquals(new double[] {0.5}, (double[]) plan.getColumns()[0], 0);
+  }
+
+  @Test
+  public void unsortedTimeTest() throws IllegalPathException {
+    String records = "cpu usage=3i 3000000000\ncpu usage=1i 1000000000\ncpu usage=2i 2000000000";
+    InsertTabletPlan plan = newParser().parse(records).get(0).toInsertTabletPlan();
+    Assert.assertArrayEquals(new long[] {1000, 2000, 3000}, plan.getTimes());
+    Assert.assertArrayEquals(new long[] {1, 2, 3}, (long[]) plan.getColumns()[0]);
+  }
+
+  @Test
+  public void escapeAndBooleanTest() throws IllegalPathException {
+    String records =
+        "my\\ cpu,host\\=name=a\\,b up=true,down=F,msg=\"say \\\"hi\\\"\" 1000000000\r\n"
+            + "# comment\n"
+            + "\n";
+    List<SeriesBatch> batches = newParser().parse(records);
+    Assert.assertEquals(1, batches.size());
+    Assert.assertEquals("root.db.my cpu.a,b", generatedPaths.get(0));
+    InsertTabletPlan plan = batches.get(0).toInsertTabletPlan();
+    Binary[] up = (Binary[]) plan.getColumns()[0];
+    Binary[] down = (Binary[]) plan.getColumns()[1];
+    Binary[] msg = (Binary[]) plan.getColumns()[2];
+    Assert.assertEquals("true", up[0].getStringValue());
+    Assert.assertEquals("false", down[0].getStringValue());
+    Assert.assertEquals("say \"hi\"", msg[0].getStringValue());
+  }
+
+  @Test
+  public void precisionTest() throws IllegalPathException {
+    InfluxLineBatchParser parser = new InfluxLineBatchParser(TimeUnit.SECONDS, (m, t) -> "root.db");
+    InsertTabletPlan plan = parser.parse("cpu usage=1 1635177018").get(0).toInsertTabletPlan();
+    Assert.assertArrayEquals(new long[] {1635177018000L}, plan.getTimes());
+  }
+
+  @Test(expected = InfluxDBException.class)
+  public void illegalLineTest() {
+    newParser().parse("cpu usage=1 1000000000\ncpu 1000000000");
+  }
+}
@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.iotdb.db.protocol.mqtt;
+
+import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.db.mpp.plan.statement.crud.InsertRowStatement;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class InsertBatcherTest {
+
+  private final List<List<InsertRowStatement>> batches =
+      Collections.synchronizedList(new ArrayList<>());
+  private final List<Long> sessionIds = Collections.synchronizedList(new ArrayList<>());
+
+  @Test
+  public void testBatchSize() throws Exception {
+    // the linger is long enough to never be reached
+    InsertBatcher batcher = new InsertBatcher(3, 600_000, 1, this::insert);
+    for (int i = 0; i < 7; i++) {
+      batcher.add(1, createRow(i));
+    }
+    batcher.close();
+
+    assertEquals(3, batches.size());
+    assertEquals(3, batches.get(0).size());
+    assertEquals(3, batches.get(1).size());
+    assertEquals(1, batches.get(2).size());
+    assertEquals(6, batches.get(2).get(0).getTime());
+
+    // rows are dropped after close
+    batcher.add(1, createRow(7));
+    assertEquals(3, batches.size());
+  }
+
+  @Test
+  public void testBatchPerSession() throws Exception {
+    InsertBatcher batcher = new InsertBatcher(2, 600_000, 1, this::insert);
+    batcher.add(1, createRow(0));
+    batcher.add(2, createRow(1));
+    batcher.add(1, createRow(2));
+    batcher.close();
+
+    assertEquals(2, batches.size());
+    for (int i = 0; i < batches.size(); i++) {
+      for (InsertRowStatement row : batches.get(i)) {
+        assertEquals(sessionIds.get(i) == 1, row.getTime() != 1);
+      }
+    }
+  }
+
+  @Test
+  public void testRelease() throws Exception {
+    InsertBatcher batcher = new InsertBatcher(1000, 600_000, 1, this::insert);
+    batcher.add(1, createRow(0));
+    batcher.add(2, createRow(1));
+
+    CountDownLatch released = new CountDownLatch(1);
+    batcher.release(1, released::countDown);
+    assertTrue(released.await(10, TimeUnit.SECONDS));
+    // the rows of the session are inserted before it is released
+    assertEquals(1, batches.size());
+    assertEquals(Long.valueOf(1), sessionIds.get(0));
+    assertEquals(0, batches.get(0).get(0).getTime());
+
+    // rows are dropped after the session is released
+    batcher.add(1, createRow(2));
+    batcher.close();
+    assertEquals(2, batches.size());
+    assertEquals(Long.valueOf(2), sessionIds.get(1));
+
+    // a session without rows is released at once
+    CountDownLatch releasedAtOnce = new CountDownLatch(1);
+    batcher.release(3, releasedAtOnce::countDown);
+    assertEquals(0, releasedAtOnce.getCount());
+  }
+
+  @Test
+  public void testLinger() throws Exception {
+    InsertBatcher batcher = new InsertBatcher(1000, 10, 1, this::insert);
+    batcher.add(1, createRow(0));
+    batcher.add(1, createRow(1));
+
+    long start = System.currentTimeMillis();
+    while (batches.isEmpty() && System.currentTimeMillis() - start < 10_000) {
+      Thread.sleep(10);
+    }
+    assertEquals(1, batches.size());
+    assertEquals(2, batches.get(0).size());
+    batcher.close();
+  }
+
+  private synchronized void insert(long sessionId, List<InsertRowStatement> rows) {
+    sessionIds.add(sessionId);
+    batches.add(rows);
+  }
+
+  private static InsertRowStatement createRow(long time) throws Exception {
+    InsertRowStatement statement = new InsertRowStatement();
+    statement.setDevicePath(new PartialPath("root.sg.d1"));
+    statement.setTime(time);
+    statement.setMeasurements(new String[] {"s1"});
+    statement.setValues(new Object[] {String.valueOf(time)});
+    statement.setNeedInferType(true);
+    return statement;
+  }
+}
@@ -182,6 +182,7 @@ public class IoTDBRestServiceIT {
     query(httpClient);
     queryGroupByLevel(httpClient);
     queryRowLimit(httpClient);
+    queryStream(httpClient);
     queryShowChildPaths(httpClient);
     queryShowNodes(httpClient);
     showAllTTL(httpClient);
@@ -429,6 +430,59 @@ public class IoTDBRestServiceIT {
     }
   }
 
+  public void queryStream(CloseableHttpClient httpClient) {
+    CloseableHttpResponse response = null;
+    try {
+      HttpPost httpPost = getHttpPost("http://127.0.0.1:18080/rest/v1/query");
+      String sql = "{\"sql\":\"select s4,s8 from root.sg25\",\"stream\":true}";
+      httpPost.setEntity(new StringEntity(sql, Charset.defaultCharset()));
+      response = httpClient.execute(httpPost);
+      HttpEntity responseEntity = response.getEntity();
+      String message = EntityUtils.toString(responseEntity, "utf-8");
+      ObjectMapper mapper = new ObjectMapper();
+      Map map = mapper.readValue(message, Map.class);
+      assertEquals(200, map.get("code"));
+      List<String> expressions = (List<String>) map.get("expressions");
+      assertEquals(2, expressions.size());
+      assertEquals("root.sg25.s4", expressions.get(0));
+      assertEquals("root.sg25.s8", expressions.get(1));
+      List<Map> batches = (List<Map>) map.get("batches");
+      assertEquals(1, batches.size());
+      List<Long> timestamps = (List<Long>) batches.get(0).get("timestamps");
+      assertEquals(1635232143960L, timestamps.get(0));
+      assertEquals(1635232153960L, timestamps.get(1));
+      List<List<Object>> values = (List<List<Object>>) batches.get(0).get("values");
+      assertEquals(11, values.get(0).get(0));
+      assertEquals(2, values.get(0).get(1));
+      assertEquals(null, values.get(1).get(0));
+      assertEquals(3.5555, values.get(1).get(1));
+
+      // the row limit is reported after the rows within it
+      httpPost = getHttpPost("http://127.0.0.1:18080/rest/v1/query");
+      sql = "{\"sql\":\"select s4 from root.sg25\",\"stream\":true,\"rowLimit\":1}";
+      httpPost.setEntity(new StringEntity(sql, Charset.defaultCharset()));
+      response.close();
+      response = httpClient.execute(httpPost);
+      message = EntityUtils.toString(response.getEntity(), "utf-8");
+      map = mapper.readValue(message, Map.class);
+      assertEquals(411, map.get("code"));
+      batches = (List<Map>) map.get("batches");
+      assertEquals(1, ((List<Long>) batches.get(0).get("timestamps")).size());
+    } catch (IOException e) {
+      e.printStackTrace();
+      fail(e.getMessage());
+    } finally {
+      try {
+        if (response != null) {
+          response.close();
+        }
+      } catch (IOException e) {
+        e.printStackTrace();
+        fail(e.getMessage());
+      }
+    }
+  }
+
   public Map queryMetaData(CloseableHttpClient httpClient, String sql) {
     CloseableHttpResponse response = null;
     try {
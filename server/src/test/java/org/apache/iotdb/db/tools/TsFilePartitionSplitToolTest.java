@@ -0,0 +1,192 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.tools;
+
+import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.db.engine.StorageEngineV2;
+import org.apache.iotdb.db.engine.modification.Deletion;
+import org.apache.iotdb.db.engine.modification.ModificationFile;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.tsfile.file.metadata.AlignedChunkMetadata;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.write.TsFileWriter;
+import org.apache.iotdb.tsfile.write.record.TSRecord;
+import org.apache.iotdb.tsfile.write.record.datapoint.LongDataPoint;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+public class TsFilePartitionSplitToolTest {
+
+  private static final String NON_ALIGNED_DEVICE = "root.sg.d1";
+  private static final String ALIGNED_DEVICE = "root.sg.d2";
+  private static final String SMALL_DEVICE = "root.sg.d3";
+
+  private final File baseDir = new File("target" + File.separator + "TsFilePartitionSplitToolTest");
+  private final File tsFile = new File(baseDir, "1-1-0-0.tsfile");
+  private final File targetDir = new File(baseDir, "split");
+
+  private boolean prevEnablePartition;
+  private long prevPartitionInterval;
+
+  @Before
+  public void setUp() throws Exception {
+    prevEnablePartition = StorageEngineV2.isEnablePartition();
+    prevPartitionInterval = StorageEngineV2.getTimePartitionInterval();
+    StorageEngineV2.setEnablePartition(true);
+    StorageEngineV2.setTimePartitionInterval(100);
+    Assert.assertTrue(targetDir.mkdirs());
+
+    try (TsFileWriter writer = new TsFileWriter(tsFile)) {
+      writer.registerTimeseries(
+          new Path(NON_ALIGNED_DEVICE), new MeasurementSchema("s1", TSDataType.INT64));
+      writer.registerAlignedTimeseries(
+          new Path(ALIGNED_DEVICE),
+          Arrays.asList(
+              new MeasurementSchema("s1", TSDataType.INT64, TSEncoding.RLE),
+              new MeasurementSchema("s2", TSDataType.INT64, TSEncoding.RLE)));
+      writer.registerTimeseries(
+          new Path(SMALL_DEVICE), new MeasurementSchema("s1", TSDataType.INT64));
+      for (long time = 0; time < 250; time++) {
+        writer.write(
+            new TSRecord(time, NON_ALIGNED_DEVICE).addTuple(new LongDataPoint("s1", time)));
+        writer.writeAligned(
+            new TSRecord(time, ALIGNED_DEVICE)
+                .addTuple(new LongDataPoint("s1", time))
+                .addTuple(new LongDataPoint("s2", -time)));
+        if (time >= 50 && time <= 60) {
+          writer.write(new TSRecord(time, SMALL_DEVICE).addTuple(new LongDataPoint("s1", time)));
+        }
+      }
+    }
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    StorageEngineV2.setEnablePartition(prevEnablePartition);
+    StorageEngineV2.setTimePartitionInterval(prevPartitionInterval);
+    FileUtils.deleteDirectory(baseDir);
+  }
+
+  @Test
+  public void testSplitByTimePartition() throws Exception {
+    Map<Long, TsFileResource> resources;
+    try (TsFilePartitionSplitTool<Long> splitTool =
+        new TsFilePartitionSplitTool<>(tsFile, targetDir, (device, slot) -> slot.getStartTime())) {
+      resources = splitTool.split();
+    }
+
+    Assert.assertEquals(3, resources.size());
+    for (long partitionStart = 0; partitionStart < 300; partitionStart += 100) {
+      TsFileResource resource = resources.get(partitionStart);
+      Assert.assertNotNull(resource);
+      Assert.assertTrue(
+          new File(resource.getTsFilePath() + TsFileResource.RESOURCE_SUFFIX).exists());
+      long partitionEnd = Math.min(partitionStart + 99, 249);
+      Assert.assertEquals(partitionStart, resource.getStartTime(NON_ALIGNED_DEVICE));
+      Assert.assertEquals(partitionEnd, resource.getEndTime(NON_ALIGNED_DEVICE));
+      Assert.assertEquals(partitionStart, resource.getStartTime(ALIGNED_DEVICE));
+      Assert.assertEquals(partitionEnd, resource.getEndTime(ALIGNED_DEVICE));
+
+      try (TsFileSequenceReader reader = new TsFileSequenceReader(resource.getTsFilePath())) {
+        long pointCount = 0;
+        for (ChunkMetadata chunkMetadata :
+            reader.readChunkMetadataInDevice(NON_ALIGNED_DEVICE).get("s1")) {
+          pointCount += chunkMetadata.getNumOfPoints();
+        }
+        Assert.assertEquals(partitionEnd - partitionStart + 1, pointCount);
+
+        List<AlignedChunkMetadata> alignedChunkMetadataList =
+            reader.getAlignedChunkMetadata(ALIGNED_DEVICE);
+        pointCount = 0;
+        for (AlignedChunkMetadata alignedChunkMetadata : alignedChunkMetadataList) {
+          Assert.assertEquals(2, alignedChunkMetadata.getValueChunkMetadataList().size());
+          pointCount += alignedChunkMetadata.getTimeChunkMetadata().getStatistics().getCount();
+        }
+        Assert.assertEquals(partitionEnd - partitionStart + 1, pointCount);
+      }
+    }
+
+    // the chunk of the small device lies in one partition and is copied as it is
+    TsFileResource firstPartition = resources.get(0L);
+    Assert.assertEquals(50, firstPartition.getStartTime(SMALL_DEVICE));
+    Assert.assertEquals(60, firstPartition.getEndTime(SMALL_DEVICE));
+    Assert.assertFalse(resources.get(100L).getDevices().contains(SMALL_DEVICE));
+  }
+
+  @Test
+  public void testSplitWithDeletions() throws Exception {
+    try (ModificationFile modificationFile =
+        new ModificationFile(tsFile.getPath() + ModificationFile.FILE_SUFFIX)) {
+      // partly deletes the non-aligned series, fully deletes the small device and one column
+      modificationFile.write(
+          new Deletion(new PartialPath(NON_ALIGNED_DEVICE, "s1"), Long.MAX_VALUE, 120, 149));
+      modificationFile.write(
+          new Deletion(new PartialPath(SMALL_DEVICE, "s1"), Long.MAX_VALUE, 0, 100));
+      modificationFile.write(
+          new Deletion(new PartialPath(ALIGNED_DEVICE, "s2"), Long.MAX_VALUE, 0, 300));
+    }
+
+    Map<Long, TsFileResource> resources;
+    try (TsFilePartitionSplitTool<Long> splitTool =
+        new TsFilePartitionSplitTool<>(tsFile, targetDir, (device, slot) -> slot.getStartTime())) {
+      resources = splitTool.split();
+    }
+
+    Assert.assertEquals(3, resources.size());
+    Assert.assertFalse(resources.get(0L).getDevices().contains(SMALL_DEVICE));
+    for (long partitionStart = 0; partitionStart < 300; partitionStart += 100) {
+      TsFileResource resource = resources.get(partitionStart);
+      // the deletions are applied, so no mods file is generated
+      Assert.assertFalse(
+          new File(resource.getTsFilePath() + ModificationFile.FILE_SUFFIX).exists());
+      try (TsFileSequenceReader reader = new TsFileSequenceReader(resource.getTsFilePath())) {
+        long pointCount = 0;
+        for (ChunkMetadata chunkMetadata :
+            reader.readChunkMetadataInDevice(NON_ALIGNED_DEVICE).get("s1")) {
+          pointCount += chunkMetadata.getNumOfPoints();
+        }
+        long partitionEnd = Math.min(partitionStart + 99, 249);
+        long deletedCount = partitionStart == 100 ? 30 : 0;
+        Assert.assertEquals(partitionEnd - partitionStart + 1 - deletedCount, pointCount);
+
+        for (AlignedChunkMetadata alignedChunkMetadata :
+            reader.getAlignedChunkMetadata(ALIGNED_DEVICE)) {
+          Assert.assertEquals(1, alignedChunkMetadata.getValueChunkMetadataList().size());
+          Assert.assertEquals(
+              "s1", alignedChunkMetadata.getValueChunkMetadataList().get(0).getMeasurementUid());
+        }
+      }
+    }
+  }
+}
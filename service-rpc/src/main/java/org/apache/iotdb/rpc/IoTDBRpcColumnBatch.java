@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.rpc;
+
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.utils.Binary;
+
+import java.util.List;
+
+/**
+ * The rows of one fetched {@link org.apache.iotdb.service.rpc.thrift.TSQueryDataSet} decoded into
+ * primitive arrays, one array per column. Null values are marked in the null flags and hold 0,
+ * false or null in the value arrays.
+ *
+ * <p>Columns are numbered from 0 in the order of the column names of the data set, the time column
+ * excluded. Duplicated columns share the same arrays.
+ */
+public class IoTDBRpcColumnBatch {
+
+  private final int rowCount;
+  private final long[] times;
+  private final List<String> columnNames;
+  // index of the deduplicated column of each column
+  private final int[] valueIndexes;
+  private final TSDataType[] dataTypes;
+  private final Object[] values;
+  private final boolean[][] nulls;
+
+  IoTDBRpcColumnBatch(
+      int rowCount,
+      long[] times,
+      List<String> columnNames,
+      int[] valueIndexes,
+      TSDataType[] dataTypes,
+      Object[] values,
+      boolean[][] nulls) {
+    this.rowCount = rowCount;
+    this.times = times;
+    this.columnNames = columnNames;
+    this.valueIndexes = valueIndexes;
+    this.dataTypes = dataTypes;
+    this.values = values;
+    this.nulls = nulls;
+  }
+
+  public int getRowCount() {
+    return rowCount;
+  }
+
+  public long[] getTimes() {
+    return times;
+  }
+
+  public int getColumnCount() {
+    return valueIndexes.length;
+  }
+
+  public String getColumnName(int column) {
+    return columnNames.get(column);
+  }
+
+  public TSDataType getDataType(int column) {
+    return dataTypes[valueIndexes[column]];
+  }
+
+  /** @return null flags of the column, true means the value of the row is null */
+  public boolean[] getNulls(int column) {
+    return nulls[valueIndexes[column]];
+  }
+
+  public boolean isNull(int column, int row) {
+    return nulls[valueIndexes[column]][row];
+  }
+
+  public boolean[] getBooleans(int column) {
+    return (boolean[]) getValues(column, TSDataType.BOOLEAN);
+  }
+
+  public int[] getInts(int column) {
+    return (int[]) getValues(column, TSDataType.INT32);
+  }
+
+  public long[] getLongs(int column) {
+    return (long[]) getValues(column, TSDataType.INT64);
+  }
+
+  public float[] getFloats(int column) {
+    return (float[]) getValues(column, TSDataType.FLOAT);
+  }
+
+  public double[] getDoubles(int column) {
+    return (double[]) getValues(column, TSDataType.DOUBLE);
+  }
+
+  public Binary[] getBinaries(int column) {
+    return (Binary[]) getValues(column, TSDataType.TEXT);
+  }
+
+  /** @return the value of the row as an object, null if it is null */
+  public Object getObject(int column, int row) {
+    int index = valueIndexes[column];
+    if (nulls[index][row]) {
+      return null;
+    }
+    switch (dataTypes[index]) {
+      case BOOLEAN:
+        return ((boolean[]) values[index])[row];
+      case INT32:
+        return ((int[]) values[index])[row];
+      case INT64:
+        return ((long[]) values[index])[row];
+      case FLOAT:
+        return ((float[]) values[index])[row];
+      case DOUBLE:
+        return ((double[]) values[index])[row];
+      case TEXT:
+        return ((Binary[]) values[index])[row];
+      default:
+        return null;
+    }
+  }
+
+  private Object getValues(int column, TSDataType expectedType) {
+    TSDataType dataType = getDataType(column);
+    if (dataType != expectedType) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Column %s is of type %s rather than %s",
+              columnNames.get(column), dataType, expectedType));
+    }
+    return values[valueIndexes[column]];
+  }
+}
@@ -27,6 +27,7 @@ import org.apache.iotdb.service.rpc.thrift.TSIService;
 import org.apache.iotdb.service.rpc.thrift.TSQueryDataSet;
 import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.utils.BytesUtils;
 import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
 
@@ -40,6 +41,10 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class IoTDBRpcDataSet {
 
@@ -77,6 +82,18 @@ public class IoTDBRpcDataSet {
   public static final int FLAG =
       0x80; // used to do `and` operation with bitmap to judge whether the value is null
 
+  private static final ExecutorService PREFETCH_EXECUTOR =
+      Executors.newCachedThreadPool(
+          r -> {
+            Thread thread = new Thread(r, "DataSetPrefetch");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  private boolean prefetch = false;
+  // the next fetch batch requested in the background, null if it is not requested
+  private Future<TSFetchResultsResp> prefetchedResp = null;
+
   @SuppressWarnings("squid:S3776") // Suppress high Cognitive Complexity warning
   public IoTDBRpcDataSet(
       String sql,
@@ -183,6 +200,14 @@ public class IoTDBRpcDataSet {
     if (isClosed) {
       return;
     }
+    if (prefetchedResp != null) {
+      // the client can not be shared with the prefetch thread
+      try {
+        takePrefetchedResp();
+      } catch (IoTDBConnectionException | TException e) {
+        // the operation is closed anyway
+      }
+    }
     if (client != null) {
       try {
         TSCloseOperationReq closeReq = new TSCloseOperationReq(sessionId);
@@ -232,10 +257,9 @@ public class IoTDBRpcDataSet {
 
   public boolean fetchResults() throws StatementExecutionException, IoTDBConnectionException {
     rowsIndex = 0;
-    TSFetchResultsReq req = new TSFetchResultsReq(sessionId, sql, fetchSize, queryId, true);
-    req.setTimeout(timeout);
     try {
-      TSFetchResultsResp resp = client.fetchResults(req);
+      TSFetchResultsResp resp =
+          prefetchedResp != null ? takePrefetchedResp() : client.fetchResults(createFetchReq());
 
       RpcUtils.verifySuccess(resp.getStatus());
       if (!resp.hasResultSet) {
@@ -243,6 +267,9 @@ public class IoTDBRpcDataSet {
         close();
       } else {
         tsQueryDataSet = resp.getQueryDataSet();
+        if (prefetch) {
+          prefetchNext();
+        }
       }
       return resp.hasResultSet;
     } catch (TException e) {
@@ -251,6 +278,161 @@ public class IoTDBRpcDataSet {
     }
   }
 
+  private TSFetchResultsReq createFetchReq() {
+    TSFetchResultsReq req = new TSFetchResultsReq(sessionId, sql, fetchSize, queryId, true);
+    req.setTimeout(timeout);
+    return req;
+  }
+
+  /**
+   * Request the next fetch batch in the background while the current one is consumed. The client
+   * is used by the background thread, so no other request should be sent through it until the data
+   * set is exhausted or closed.
+   */
+  public void enablePrefetch() {
+    if (prefetch) {
+      return;
+    }
+    prefetch = true;
+    if (!emptyResultSet && !isClosed && client != null) {
+      prefetchNext();
+    }
+  }
+
+  private void prefetchNext() {
+    TSFetchResultsReq req = createFetchReq();
+    TSIService.Iface fetchClient = client;
+    prefetchedResp = PREFETCH_EXECUTOR.submit(() -> fetchClient.fetchResults(req));
+  }
+
+  private TSFetchResultsResp takePrefetchedResp() throws TException, IoTDBConnectionException {
+    Future<TSFetchResultsResp> future = prefetchedResp;
+    prefetchedResp = null;
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IoTDBConnectionException("Interrupted while fetching result from server", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof TException) {
+        throw (TException) e.getCause();
+      }
+      throw new IoTDBConnectionException(e.getCause());
+    }
+  }
+
+  /**
+   * Decode the remaining rows of the current fetch batch into arrays, the next batch is fetched if
+   * they are exhausted. The row constructed by {@link #next()} is not included.
+   *
+   * @return null if there are no more rows
+   */
+  public IoTDBRpcColumnBatch nextBatch()
+      throws StatementExecutionException, IoTDBConnectionException {
+    hasCachedRecord = false;
+    if (hasCachedResults() || (!emptyResultSet && fetchResults() && hasCachedResults())) {
+      return constructBatch();
+    }
+    try {
+      close();
+      return null;
+    } catch (TException e) {
+      throw new IoTDBConnectionException(
+          "Cannot close dataset, because of network connection: {} ", e);
+    }
+  }
+
+  private IoTDBRpcColumnBatch constructBatch() {
+    int rowCount = tsQueryDataSet.time.remaining() / Long.BYTES;
+    long[] times = new long[rowCount];
+    for (int row = 0; row < rowCount; row++) {
+      times[row] = tsQueryDataSet.time.getLong();
+    }
+
+    int valueColumnCount = columnTypeDeduplicatedList.size();
+    TSDataType[] dataTypes = new TSDataType[valueColumnCount];
+    Object[] columnValues = new Object[valueColumnCount];
+    boolean[][] nulls = new boolean[valueColumnCount][];
+    for (int i = 0; i < tsQueryDataSet.bitmapList.size(); i++) {
+      TSDataType dataType = columnTypeDeduplicatedList.get(i);
+      dataTypes[i] = dataType;
+      nulls[i] = decodeNulls(i, tsQueryDataSet.bitmapList.get(i), rowCount);
+      columnValues[i] =
+          decodeValues(dataType, tsQueryDataSet.valueList.get(i), nulls[i], rowCount);
+    }
+    rowsIndex += rowCount;
+
+    List<String> valueColumnNames =
+        columnNameList.subList(ignoreTimeStamp ? 0 : 1, columnNameList.size());
+    int[] valueIndexes = new int[valueColumnNames.size()];
+    for (int i = 0; i < valueIndexes.length; i++) {
+      valueIndexes[i] = columnOrdinalMap.get(valueColumnNames.get(i)) - START_INDEX;
+    }
+    return new IoTDBRpcColumnBatch(
+        rowCount, times, valueColumnNames, valueIndexes, dataTypes, columnValues, nulls);
+  }
+
+  private boolean[] decodeNulls(int index, ByteBuffer bitmapBuffer, int rowCount) {
+    boolean[] nulls = new boolean[rowCount];
+    for (int row = 0; row < rowCount; row++) {
+      int rowNum = rowsIndex + row;
+      // another new 8 row, should move the bitmap buffer position to next byte
+      if (rowNum % 8 == 0) {
+        currentBitmap[index] = bitmapBuffer.get();
+      }
+      nulls[row] = isNull(index, rowNum);
+    }
+    return nulls;
+  }
+
+  private static Object decodeValues(
+      TSDataType dataType, ByteBuffer valueBuffer, boolean[] nulls, int rowCount) {
+    switch (dataType) {
+      case BOOLEAN:
+        boolean[] booleans = new boolean[rowCount];
+        for (int row = 0; row < rowCount; row++) {
+          booleans[row] = !nulls[row] && valueBuffer.get() != 0;
+        }
+        return booleans;
+      case INT32:
+        int[] ints = new int[rowCount];
+        for (int row = 0; row < rowCount; row++) {
+          ints[row] = nulls[row] ? 0 : valueBuffer.getInt();
+        }
+        return ints;
+      case INT64:
+        long[] longs = new long[rowCount];
+        for (int row = 0; row < rowCount; row++) {
+          longs[row] = nulls[row] ? 0 : valueBuffer.getLong();
+        }
+        return longs;
+      case FLOAT:
+        float[] floats = new float[rowCount];
+        for (int row = 0; row < rowCount; row++) {
+          floats[row] = nulls[row] ? 0 : valueBuffer.getFloat();
+        }
+        return floats;
+      case DOUBLE:
+        double[] doubles = new double[rowCount];
+        for (int row = 0; row < rowCount; row++) {
+          doubles[row] = nulls[row] ? 0 : valueBuffer.getDouble();
+        }
+        return doubles;
+      case TEXT:
+        Binary[] binaries = new Binary[rowCount];
+        for (int row = 0; row < rowCount; row++) {
+          if (!nulls[row]) {
+            int length = valueBuffer.getInt();
+            binaries[row] = new Binary(ReadWriteIOUtils.readBytes(valueBuffer, length));
+          }
+        }
+        return binaries;
+      default:
+        throw new UnSupportedDataTypeException(
+            String.format("Data type %s is not supported.", dataType));
+    }
+  }
+
   public boolean hasCachedResults() {
     return (tsQueryDataSet != null && tsQueryDataSet.time.hasRemaining());
   }
@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.rpc;
+
+import org.apache.iotdb.service.rpc.thrift.TSFetchResultsResp;
+import org.apache.iotdb.service.rpc.thrift.TSIService;
+import org.apache.iotdb.service.rpc.thrift.TSQueryDataSet;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.utils.Binary;
+
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class IoTDBRpcDataSetTest {
+
+  private final AtomicInteger fetchCount = new AtomicInteger();
+  private final AtomicInteger closeCount = new AtomicInteger();
+
+  @Test
+  public void testNextBatch() throws Exception {
+    IoTDBRpcDataSet dataSet = createDataSet(createQueryDataSet(0, 10), createQueryDataSet(10, 3));
+
+    // the row consumed by next() is not included in the batch
+    assertTrue(dataSet.next());
+    assertEquals(0, dataSet.getLong(IoTDBRpcDataSet.TIMESTAMP_STR));
+
+    IoTDBRpcColumnBatch batch = dataSet.nextBatch();
+    assertEquals(9, batch.getRowCount());
+    assertEquals(2, batch.getColumnCount());
+    assertEquals("root.sg.d1.s1", batch.getColumnName(0));
+    assertEquals(TSDataType.INT32, batch.getDataType(0));
+    checkBatch(batch, 1);
+
+    // the next fetch batch can also be read row by row
+    assertTrue(dataSet.next());
+    assertEquals(10, dataSet.getLong(IoTDBRpcDataSet.TIMESTAMP_STR));
+    assertEquals(10, dataSet.getInt("root.sg.d1.s1"));
+    batch = dataSet.nextBatch();
+    assertEquals(2, batch.getRowCount());
+    checkBatch(batch, 11);
+
+    assertNull(dataSet.nextBatch());
+    assertEquals(2, fetchCount.get());
+    assertEquals(1, closeCount.get());
+  }
+
+  @Test
+  public void testPrefetch() throws Exception {
+    IoTDBRpcDataSet dataSet =
+        createDataSet(
+            createQueryDataSet(0, 10), createQueryDataSet(10, 10), createQueryDataSet(20, 5));
+    dataSet.enablePrefetch();
+
+    int rowCount = 0;
+    IoTDBRpcColumnBatch batch;
+    while ((batch = dataSet.nextBatch()) != null) {
+      checkBatch(batch, rowCount);
+      rowCount += batch.getRowCount();
+    }
+    assertEquals(25, rowCount);
+    assertEquals(3, fetchCount.get());
+    assertEquals(1, closeCount.get());
+    assertFalse(dataSet.next());
+  }
+
+  private void checkBatch(IoTDBRpcColumnBatch batch, long startTime) {
+    int[] ints = batch.getInts(0);
+    Binary[] binaries = batch.getBinaries(1);
+    for (int row = 0; row < batch.getRowCount(); row++) {
+      long time = startTime + row;
+      assertEquals(time, batch.getTimes()[row]);
+      // s1 is null on odd rows
+      assertEquals(time % 2 == 1, batch.isNull(0, row));
+      assertEquals(time % 2 == 1 ? 0 : (int) time, ints[row]);
+      assertFalse(batch.isNull(1, row));
+      assertArrayEquals(("v" + time).getBytes(StandardCharsets.UTF_8), binaries[row].getValues());
+    }
+  }
+
+  /** s1 INT32 is null on odd rows, s2 TEXT is never null */
+  private static TSQueryDataSet createQueryDataSet(long startTime, int rowCount) {
+    ByteBuffer time = ByteBuffer.allocate(rowCount * Long.BYTES);
+    ByteBuffer s1 = ByteBuffer.allocate(rowCount * Integer.BYTES);
+    ByteBuffer s2 = ByteBuffer.allocate(rowCount * 16);
+    ByteBuffer s1Bitmap = ByteBuffer.allocate(rowCount / 8 + 1);
+    ByteBuffer s2Bitmap = ByteBuffer.allocate(rowCount / 8 + 1);
+    byte s1Bits = 0;
+    byte s2Bits = 0;
+    for (int row = 0; row < rowCount; row++) {
+      long t = startTime + row;
+      time.putLong(t);
+      if (t % 2 == 0) {
+        s1.putInt((int) t);
+        s1Bits |= (byte) (IoTDBRpcDataSet.FLAG >>> (row % 8));
+      }
+      byte[] text = ("v" + t).getBytes(StandardCharsets.UTF_8);
+      s2.putInt(text.length);
+      s2.put(text);
+      s2Bits |= (byte) (IoTDBRpcDataSet.FLAG >>> (row % 8));
+      if (row % 8 == 7 || row == rowCount - 1) {
+        s1Bitmap.put(s1Bits);
+        s2Bitmap.put(s2Bits);
+        s1Bits = 0;
+        s2Bits = 0;
+      }
+    }
+    time.flip();
+    s1.flip();
+    s2.flip();
+    s1Bitmap.flip();
+    s2Bitmap.flip();
+    return new TSQueryDataSet(time, Arrays.asList(s1, s2), Arrays.asList(s1Bitmap, s2Bitmap));
+  }
+
+  private IoTDBRpcDataSet createDataSet(
+      TSQueryDataSet firstDataSet, TSQueryDataSet... fetchedDataSets) {
+    Deque<TSQueryDataSet> remaining = new ArrayDeque<>(Arrays.asList(fetchedDataSets));
+    TSIService.Iface client =
+        (TSIService.Iface)
+            Proxy.newProxyInstance(
+                TSIService.Iface.class.getClassLoader(),
+                new Class[] {TSIService.Iface.class},
+                (proxy, method, args) -> {
+                  switch (method.getName()) {
+                    case "fetchResults":
+                      fetchCount.incrementAndGet();
+                      TSQueryDataSet next = remaining.poll();
+                      TSFetchResultsResp resp =
+                          new TSFetchResultsResp(
+                              RpcUtils.getStatus(TSStatusCode.SUCCESS_STATUS), next != null, true);
+                      if (next != null) {
+                        resp.setQueryDataSet(next);
+                      }
+                      return resp;
+                    case "closeOperation":
+                      closeCount.incrementAndGet();
+                      return RpcUtils.getStatus(TSStatusCode.SUCCESS_STATUS);
+                    default:
+                      throw new UnsupportedOperationException(method.getName());
+                  }
+                });
+    return new IoTDBRpcDataSet(
+        "select * from root.sg.d1",
+        Arrays.asList("root.sg.d1.s1", "root.sg.d1.s2"),
+        Arrays.asList("INT32", "TEXT"),
+        null,
+        false,
+        1,
+        1,
+        client,
+        1,
+        firstDataSet,
+        10,
+        0);
+  }
+}
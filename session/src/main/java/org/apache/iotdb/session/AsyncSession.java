@@ -0,0 +1,645 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.session;
+
+import org.apache.iotdb.common.rpc.thrift.TEndPoint;
+import org.apache.iotdb.common.rpc.thrift.TSStatus;
+import org.apache.iotdb.rpc.BatchExecutionException;
+import org.apache.iotdb.rpc.IoTDBConnectionException;
+import org.apache.iotdb.rpc.RedirectException;
+import org.apache.iotdb.rpc.RpcUtils;
+import org.apache.iotdb.rpc.StatementExecutionException;
+import org.apache.iotdb.rpc.TSStatusCode;
+import org.apache.iotdb.service.rpc.thrift.TSInsertRecordReq;
+import org.apache.iotdb.service.rpc.thrift.TSInsertRecordsReq;
+import org.apache.iotdb.service.rpc.thrift.TSInsertTabletReq;
+import org.apache.iotdb.service.rpc.thrift.TSInsertTabletsReq;
+import org.apache.iotdb.session.util.Version;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.write.record.Tablet;
+
+import org.apache.thrift.async.TAsyncClientManager;
+
+import java.io.IOException;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * A session whose insertions return {@link CompletableFuture}s instead of blocking until the server
+ * responds. Requests are sent by non-blocking connections driven by one selector thread, so many
+ * of them can be in flight without a thread waiting for each one. When the limit of in-flight
+ * requests is reached, new requests block the calling thread until earlier ones finish.
+ *
+ * <p>The futures are completed in the selector thread, so the callbacks chained to them should
+ * neither block nor send requests synchronously, use the async methods of {@link
+ * CompletableFuture} with an executor instead. A future fails with a {@link
+ * IoTDBConnectionException} or {@link StatementExecutionException} like the methods of {@link
+ * Session}, otherwise it completes with the status returned by the server, which may carry
+ * redirections. A request sent to several nodes completes with a success status holding the status
+ * of each node as sub status.
+ */
+public class AsyncSession {
+
+  public static final String MSG_SESSION_CLOSED = "Session is not open or has been closed";
+
+  protected String username;
+  protected String password;
+  protected ZoneId zoneId;
+  protected Version version;
+  protected boolean enableRPCCompression;
+  protected int connectionTimeoutInMs;
+  protected int connectionNum;
+  protected long requestTimeoutInMs;
+
+  protected TEndPoint defaultEndPoint;
+  protected volatile AsyncSessionConnection defaultSessionConnection;
+  private volatile boolean isClosed = true;
+  private TAsyncClientManager clientManager;
+  private final Object reconnectLock = new Object();
+
+  private final int maxInFlightRequests;
+  private final Semaphore inFlightRequests;
+
+  // Cluster version cache
+  protected boolean enableCacheLeader;
+  protected volatile Map<String, TEndPoint> deviceIdToEndpoint;
+  protected volatile Map<TEndPoint, AsyncSessionConnection> endPointToSessionConnection;
+
+  public AsyncSession(String host, int rpcPort) {
+    this(host, rpcPort, Config.DEFAULT_USER, Config.DEFAULT_PASSWORD);
+  }
+
+  public AsyncSession(String host, int rpcPort, String username, String password) {
+    this(
+        host,
+        rpcPort,
+        username,
+        password,
+        null,
+        Config.DEFAULT_ASYNC_SESSION_CONNECTION_NUM,
+        Config.DEFAULT_ASYNC_SESSION_MAX_IN_FLIGHT_REQUESTS,
+        Config.DEFAULT_ASYNC_SESSION_REQUEST_TIMEOUT_MS,
+        Config.DEFAULT_CACHE_LEADER_MODE,
+        Config.DEFAULT_VERSION);
+  }
+
+  public AsyncSession(
+      String host,
+      int rpcPort,
+      String username,
+      String password,
+      ZoneId zoneId,
+      int connectionNum,
+      int maxInFlightRequests,
+      long requestTimeoutInMs,
+      boolean enableCacheLeader,
+      Version version) {
+    if (connectionNum <= 0 || maxInFlightRequests <= 0 || requestTimeoutInMs <= 0) {
+      throw new IllegalArgumentException(
+          "connectionNum, maxInFlightRequests and requestTimeoutInMs should be greater than 0");
+    }
+    this.defaultEndPoint = new TEndPoint(host, rpcPort);
+    this.username = username;
+    this.password = password;
+    this.zoneId = zoneId == null ? ZoneId.systemDefault() : zoneId;
+    this.connectionNum = connectionNum;
+    this.maxInFlightRequests = maxInFlightRequests;
+    this.inFlightRequests = new Semaphore(maxInFlightRequests);
+    this.requestTimeoutInMs = requestTimeoutInMs;
+    this.enableCacheLeader = enableCacheLeader;
+    this.version = version;
+  }
+
+  public synchronized void open() throws IoTDBConnectionException {
+    open(false, Config.DEFAULT_CONNECTION_TIMEOUT_MS);
+  }
+
+  public synchronized void open(boolean enableRPCCompression, int connectionTimeoutInMs)
+      throws IoTDBConnectionException {
+    if (!isClosed) {
+      return;
+    }
+
+    this.enableRPCCompression = enableRPCCompression;
+    this.connectionTimeoutInMs = connectionTimeoutInMs;
+    try {
+      clientManager = new TAsyncClientManager();
+    } catch (IOException e) {
+      throw new IoTDBConnectionException(e);
+    }
+    try {
+      defaultSessionConnection = constructSessionConnection(this, defaultEndPoint);
+    } catch (IoTDBConnectionException e) {
+      clientManager.stop();
+      throw e;
+    }
+    isClosed = false;
+    if (enableCacheLeader) {
+      deviceIdToEndpoint = new ConcurrentHashMap<>();
+      endPointToSessionConnection = new ConcurrentHashMap<>();
+      endPointToSessionConnection.put(defaultEndPoint, defaultSessionConnection);
+    }
+  }
+
+  /**
+   * Close the session after the in-flight requests finish, new requests fail at once. The requests
+   * that do not finish within the request timeout fail as well.
+   */
+  public synchronized void close() {
+    if (isClosed) {
+      return;
+    }
+    isClosed = true;
+    boolean finished;
+    try {
+      finished =
+          inFlightRequests.tryAcquire(
+              maxInFlightRequests, requestTimeoutInMs, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      finished = false;
+    }
+    try {
+      if (enableCacheLeader) {
+        for (AsyncSessionConnection sessionConnection : endPointToSessionConnection.values()) {
+          close(sessionConnection, finished);
+        }
+      } else {
+        close(defaultSessionConnection, finished);
+      }
+    } finally {
+      clientManager.stop();
+      if (finished) {
+        inFlightRequests.release(maxInFlightRequests);
+      }
+    }
+  }
+
+  private void close(AsyncSessionConnection sessionConnection, boolean finished) {
+    sessionConnection.close();
+    if (!finished) {
+      // the selector thread is stopped, so the requests being sent would never complete
+      sessionConnection.abort();
+    }
+  }
+
+  public AsyncSessionConnection constructSessionConnection(
+      AsyncSession session, TEndPoint endpoint) throws IoTDBConnectionException {
+    return new AsyncSessionConnection(session, endpoint, clientManager);
+  }
+
+  /**
+   * insert data in one row
+   *
+   * @see Session#insertRecord(String, long, List, List, Object...)
+   */
+  public CompletableFuture<TSStatus> insertRecord(
+      String deviceId,
+      long time,
+      List<String> measurements,
+      List<TSDataType> types,
+      Object... values) {
+    return insertRecord(deviceId, time, measurements, types, Arrays.asList(values), false);
+  }
+
+  /**
+   * insert aligned data in one row
+   *
+   * @see Session#insertAlignedRecord(String, long, List, List, List)
+   */
+  public CompletableFuture<TSStatus> insertAlignedRecord(
+      String deviceId,
+      long time,
+      List<String> measurements,
+      List<TSDataType> types,
+      List<Object> values) {
+    return insertRecord(deviceId, time, measurements, types, values, true);
+  }
+
+  private CompletableFuture<TSStatus> insertRecord(
+      String deviceId,
+      long time,
+      List<String> measurements,
+      List<TSDataType> types,
+      List<Object> values,
+      boolean isAligned) {
+    return submit(
+        () -> {
+          TSInsertRecordReq request =
+              Session.genTSInsertRecordReq(
+                  deviceId, time, measurements, types, values, isAligned);
+          return getSessionConnection(deviceId)
+              .insertRecord(request)
+              .thenApply(status -> verifySuccess(status, deviceId));
+        });
+  }
+
+  /**
+   * insert multiple rows, which may belong to different devices
+   *
+   * @see Session#insertRecords(List, List, List, List, List)
+   */
+  public CompletableFuture<TSStatus> insertRecords(
+      List<String> deviceIds,
+      List<Long> times,
+      List<List<String>> measurementsList,
+      List<List<TSDataType>> typesList,
+      List<List<Object>> valuesList) {
+    return insertRecords(deviceIds, times, measurementsList, typesList, valuesList, false);
+  }
+
+  /**
+   * insert multiple aligned rows, which may belong to different devices
+   *
+   * @see Session#insertAlignedRecords(List, List, List, List, List)
+   */
+  public CompletableFuture<TSStatus> insertAlignedRecords(
+      List<String> deviceIds,
+      List<Long> times,
+      List<List<String>> measurementsList,
+      List<List<TSDataType>> typesList,
+      List<List<Object>> valuesList) {
+    return insertRecords(deviceIds, times, measurementsList, typesList, valuesList, true);
+  }
+
+  private CompletableFuture<TSStatus> insertRecords(
+      List<String> deviceIds,
+      List<Long> times,
+      List<List<String>> measurementsList,
+      List<List<TSDataType>> typesList,
+      List<List<Object>> valuesList,
+      boolean isAligned) {
+    int len = deviceIds.size();
+    if (len != times.size() || len != measurementsList.size() || len != valuesList.size()) {
+      throw new IllegalArgumentException(
+          "deviceIds, times, measurementsList and valuesList's size should be equal");
+    }
+    return submit(
+        () -> {
+          Map<AsyncSessionConnection, TSInsertRecordsReq> recordsGroup = new HashMap<>();
+          for (int i = 0; i < len; i++) {
+            TSInsertRecordsReq request =
+                recordsGroup.computeIfAbsent(
+                    getSessionConnection(deviceIds.get(i)), k -> new TSInsertRecordsReq());
+            request.setIsAligned(isAligned);
+            Session.updateTSInsertRecordsReq(
+                request,
+                deviceIds.get(i),
+                times.get(i),
+                measurementsList.get(i),
+                typesList.get(i),
+                valuesList.get(i));
+          }
+          return insertByGroup(
+              recordsGroup,
+              AsyncSessionConnection::insertRecords,
+              TSInsertRecordsReq::getPrefixPaths);
+        });
+  }
+
+  /**
+   * insert the data of a device
+   *
+   * @see Session#insertTablet(Tablet)
+   */
+  public CompletableFuture<TSStatus> insertTablet(Tablet tablet) {
+    return insertTablet(tablet, false);
+  }
+
+  /**
+   * insert the aligned timeseries data of a device
+   *
+   * @see Session#insertAlignedTablet(Tablet)
+   */
+  public CompletableFuture<TSStatus> insertAlignedTablet(Tablet tablet) {
+    return insertTablet(tablet, true);
+  }
+
+  private CompletableFuture<TSStatus> insertTablet(Tablet tablet, boolean isAligned) {
+    return submit(
+        () -> {
+          Session.sortTabletByTime(tablet);
+          TSInsertTabletReq request = Session.genSortedTSInsertTabletReq(tablet, isAligned);
+          return getSessionConnection(tablet.deviceId)
+              .insertTablet(request)
+              .thenApply(status -> verifySuccess(status, tablet.deviceId));
+        });
+  }
+
+  /**
+   * insert the data of several devices, the tablets are sent to the cached leader of their
+   * devices in parallel
+   *
+   * @see Session#insertTablets(Map)
+   */
+  public CompletableFuture<TSStatus> insertTablets(Map<String, Tablet> tablets) {
+    return insertTablets(tablets, false);
+  }
+
+  /**
+   * insert aligned data of several devices
+   *
+   * @see Session#insertAlignedTablets(Map)
+   */
+  public CompletableFuture<TSStatus> insertAlignedTablets(Map<String, Tablet> tablets) {
+    return insertTablets(tablets, true);
+  }
+
+  private CompletableFuture<TSStatus> insertTablets(
+      Map<String, Tablet> tablets, boolean isAligned) {
+    return submit(
+        () -> {
+          if (tablets.isEmpty()) {
+            throw new BatchExecutionException("No tablet is inserting!");
+          }
+          Map<AsyncSessionConnection, TSInsertTabletsReq> tabletGroup = new HashMap<>();
+          for (Entry<String, Tablet> entry : tablets.entrySet()) {
+            TSInsertTabletsReq request =
+                tabletGroup.computeIfAbsent(
+                    getSessionConnection(entry.getKey()), k -> new TSInsertTabletsReq());
+            Session.sortTabletByTime(entry.getValue());
+            Session.updateSortedTSInsertTabletsReq(request, entry.getValue(), isAligned);
+          }
+          return insertByGroup(
+              tabletGroup,
+              AsyncSessionConnection::insertTablets,
+              TSInsertTabletsReq::getPrefixPaths);
+        });
+  }
+
+  /**
+   * Send the request if the limit of in-flight requests allows, otherwise wait until it does.
+   * Failures of preparing the request also complete the future.
+   */
+  private CompletableFuture<TSStatus> submit(Request request) {
+    CompletableFuture<TSStatus> future = new CompletableFuture<>();
+    try {
+      inFlightRequests.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      future.completeExceptionally(new IoTDBConnectionException(e));
+      return future;
+    }
+    try {
+      if (isClosed) {
+        throw new IoTDBConnectionException(MSG_SESSION_CLOSED);
+      }
+      future = request.send();
+    } catch (IoTDBConnectionException | StatementExecutionException | RuntimeException e) {
+      inFlightRequests.release();
+      future.completeExceptionally(e);
+      return future;
+    }
+    return future.whenComplete((v, e) -> inFlightRequests.release());
+  }
+
+  /**
+   * @param requestGroup connection to request map
+   * @param insert insert function
+   * @param deviceIds devices of a request, which are used to cache the leaders redirected to
+   * @return a future of the status of the only request, or of a status holding the status of each
+   *     request as sub status. It fails by the connection exception if any, otherwise by a {@link
+   *     StatementExecutionException} of all error messages
+   */
+  private <T> CompletableFuture<TSStatus> insertByGroup(
+      Map<AsyncSessionConnection, T> requestGroup,
+      BiFunction<AsyncSessionConnection, T, CompletableFuture<TSStatus>> insert,
+      Function<T, List<String>> deviceIds) {
+    List<CompletableFuture<TSStatus>> completableFutures = new ArrayList<>();
+    requestGroup.forEach(
+        (connection, request) ->
+            completableFutures.add(
+                insert
+                    .apply(connection, request)
+                    .thenApply(status -> verifySuccess(status, deviceIds.apply(request)))));
+
+    return CompletableFuture.allOf(completableFutures.toArray(new CompletableFuture[0]))
+        .handle(
+            (v, throwable) -> {
+              if (throwable == null) {
+                if (completableFutures.size() == 1) {
+                  return completableFutures.get(0).join();
+                }
+                List<TSStatus> statusList = new ArrayList<>();
+                completableFutures.forEach(future -> statusList.add(future.join()));
+                TSStatus status = RpcUtils.getStatus(TSStatusCode.SUCCESS_STATUS);
+                status.setSubStatus(statusList);
+                return status;
+              }
+              StringBuilder errMsgBuilder = new StringBuilder();
+              for (CompletableFuture<TSStatus> completableFuture : completableFutures) {
+                try {
+                  completableFuture.join();
+                } catch (CompletionException completionException) {
+                  Throwable cause = completionException.getCause();
+                  if (cause instanceof IoTDBConnectionException) {
+                    throw completionException;
+                  }
+                  errMsgBuilder.append(cause.getMessage());
+                }
+              }
+              throw new CompletionException(
+                  new StatementExecutionException(errMsgBuilder.toString()));
+            });
+  }
+
+  private AsyncSessionConnection getSessionConnection(String deviceId)
+      throws IoTDBConnectionException {
+    TEndPoint endPoint;
+    if (enableCacheLeader && (endPoint = deviceIdToEndpoint.get(deviceId)) != null) {
+      AtomicReference<IoTDBConnectionException> exceptionReference = new AtomicReference<>();
+      AsyncSessionConnection connection =
+          endPointToSessionConnection.computeIfAbsent(
+              endPoint,
+              k -> {
+                try {
+                  return constructSessionConnection(this, endPoint);
+                } catch (IoTDBConnectionException ex) {
+                  exceptionReference.set(ex);
+                  return null;
+                }
+              });
+      if (connection != null && !connection.isBroken()) {
+        return connection;
+      }
+      // the cached leader can not be reached, send the request to the default node instead
+      deviceIdToEndpoint.remove(deviceId);
+      if (connection != null) {
+        endPointToSessionConnection.remove(endPoint, connection);
+      }
+    }
+    return getDefaultSessionConnection();
+  }
+
+  /**
+   * Reconnect to the default node if all connections to it are broken. It does not lock the
+   * session, which is held by close() while waiting for the in-flight requests.
+   */
+  private AsyncSessionConnection getDefaultSessionConnection() throws IoTDBConnectionException {
+    synchronized (reconnectLock) {
+      if (defaultSessionConnection.isBroken()) {
+        defaultSessionConnection = constructSessionConnection(this, defaultEndPoint);
+        if (enableCacheLeader) {
+          endPointToSessionConnection.put(defaultEndPoint, defaultSessionConnection);
+        }
+      }
+      return defaultSessionConnection;
+    }
+  }
+
+  private TSStatus verifySuccess(TSStatus status, String deviceId) {
+    try {
+      RpcUtils.verifySuccessWithRedirection(status);
+    } catch (RedirectException e) {
+      handleRedirection(deviceId, e.getEndPoint());
+    } catch (StatementExecutionException e) {
+      throw new CompletionException(e);
+    }
+    return status;
+  }
+
+  private TSStatus verifySuccess(TSStatus status, List<String> deviceIds) {
+    try {
+      RpcUtils.verifySuccessWithRedirectionForMultiDevices(status, deviceIds);
+    } catch (RedirectException e) {
+      e.getDeviceEndPointMap().forEach(this::handleRedirection);
+    } catch (StatementExecutionException e) {
+      throw new CompletionException(e);
+    }
+    return status;
+  }
+
+  /**
+   * Cache the leader of the device. It runs in the selector thread, so the connection to the
+   * leader is created by the next request of the device.
+   */
+  private void handleRedirection(String deviceId, TEndPoint endpoint) {
+    if (enableCacheLeader) {
+      deviceIdToEndpoint.put(deviceId, endpoint);
+    }
+  }
+
+  public boolean isEnableCacheLeader() {
+    return enableCacheLeader;
+  }
+
+  public int getMaxInFlightRequests() {
+    return maxInFlightRequests;
+  }
+
+  public long getRequestTimeoutInMs() {
+    return requestTimeoutInMs;
+  }
+
+  @FunctionalInterface
+  private interface Request {
+    CompletableFuture<TSStatus> send() throws IoTDBConnectionException, StatementExecutionException;
+  }
+
+  public static class Builder {
+    private String host = Config.DEFAULT_HOST;
+    private int rpcPort = Config.DEFAULT_PORT;
+    private String username = Config.DEFAULT_USER;
+    private String password = Config.DEFAULT_PASSWORD;
+    private ZoneId zoneId = null;
+    private int connectionNum = Config.DEFAULT_ASYNC_SESSION_CONNECTION_NUM;
+    private int maxInFlightRequests = Config.DEFAULT_ASYNC_SESSION_MAX_IN_FLIGHT_REQUESTS;
+    private long requestTimeoutInMs = Config.DEFAULT_ASYNC_SESSION_REQUEST_TIMEOUT_MS;
+    private boolean enableCacheLeader = Config.DEFAULT_CACHE_LEADER_MODE;
+    private Version version = Config.DEFAULT_VERSION;
+
+    public Builder host(String host) {
+      this.host = host;
+      return this;
+    }
+
+    public Builder port(int port) {
+      this.rpcPort = port;
+      return this;
+    }
+
+    public Builder username(String username) {
+      this.username = username;
+      return this;
+    }
+
+    public Builder password(String password) {
+      this.password = password;
+      return this;
+    }
+
+    public Builder zoneId(ZoneId zoneId) {
+      this.zoneId = zoneId;
+      return this;
+    }
+
+    public Builder connectionNum(int connectionNum) {
+      this.connectionNum = connectionNum;
+      return this;
+    }
+
+    public Builder maxInFlightRequests(int maxInFlightRequests) {
+      this.maxInFlightRequests = maxInFlightRequests;
+      return this;
+    }
+
+    public Builder requestTimeoutInMs(long requestTimeoutInMs) {
+      this.requestTimeoutInMs = requestTimeoutInMs;
+      return this;
+    }
+
+    public Builder enableCacheLeader(boolean enableCacheLeader) {
+      this.enableCacheLeader = enableCacheLeader;
+      return this;
+    }
+
+    public Builder version(Version version) {
+      this.version = version;
+      return this;
+    }
+
+    public AsyncSession build() {
+      return new AsyncSession(
+          host,
+          rpcPort,
+          username,
+          password,
+          zoneId,
+          connectionNum,
+          maxInFlightRequests,
+          requestTimeoutInMs,
+          enableCacheLeader,
+          version);
+    }
+  }
+}
@@ -0,0 +1,407 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.session;
+
+import org.apache.iotdb.common.rpc.thrift.TEndPoint;
+import org.apache.iotdb.common.rpc.thrift.TSStatus;
+import org.apache.iotdb.rpc.IoTDBConnectionException;
+import org.apache.iotdb.rpc.RpcUtils;
+import org.apache.iotdb.rpc.StatementExecutionException;
+import org.apache.iotdb.rpc.TNonblockingSocketWrapper;
+import org.apache.iotdb.service.rpc.thrift.TSCloseSessionReq;
+import org.apache.iotdb.service.rpc.thrift.TSIService;
+import org.apache.iotdb.service.rpc.thrift.TSInsertRecordReq;
+import org.apache.iotdb.service.rpc.thrift.TSInsertRecordsReq;
+import org.apache.iotdb.service.rpc.thrift.TSInsertTabletReq;
+import org.apache.iotdb.service.rpc.thrift.TSInsertTabletsReq;
+import org.apache.iotdb.service.rpc.thrift.TSOpenSessionReq;
+import org.apache.iotdb.service.rpc.thrift.TSOpenSessionResp;
+
+import org.apache.thrift.TException;
+import org.apache.thrift.async.AsyncMethodCallback;
+import org.apache.thrift.async.TAsyncClientManager;
+import org.apache.thrift.protocol.TBinaryProtocol;
+import org.apache.thrift.protocol.TCompactProtocol;
+import org.apache.thrift.protocol.TProtocolFactory;
+import org.apache.thrift.transport.TNonblockingSocket;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * The non-blocking connections of an {@link AsyncSession} to one node. Each connection holds a
+ * session of the server and sends one request at a time, requests arriving when all connections
+ * are busy wait in a queue and are sent by the selector thread as soon as a connection is free.
+ * A request fails if its response does not arrive within the request timeout of the session.
+ */
+public class AsyncSessionConnection {
+
+  private static final Logger logger = LoggerFactory.getLogger(AsyncSessionConnection.class);
+  public static final String MSG_CONNECTION_CLOSED = "All connections to %s have been closed";
+
+  private final TEndPoint endPoint;
+  private final long timeoutInMs;
+  private final List<Channel> channels = new ArrayList<>();
+  private final Queue<Channel> idleChannels = new ArrayDeque<>();
+  private final Queue<PendingCall<?>> pendingCalls = new ArrayDeque<>();
+  // channels that are neither closed nor broken
+  private int channelNum = 0;
+  private boolean closed = false;
+
+  // TestOnly
+  public AsyncSessionConnection() {
+    this.endPoint = null;
+    this.timeoutInMs = Config.DEFAULT_ASYNC_SESSION_REQUEST_TIMEOUT_MS;
+  }
+
+  public AsyncSessionConnection(
+      AsyncSession session, TEndPoint endPoint, TAsyncClientManager clientManager)
+      throws IoTDBConnectionException {
+    this.endPoint = endPoint;
+    this.timeoutInMs = session.requestTimeoutInMs;
+    TProtocolFactory protocolFactory =
+        session.enableRPCCompression
+            ? new TCompactProtocol.Factory()
+            : new TBinaryProtocol.Factory();
+    try {
+      for (int i = 0; i < session.connectionNum; i++) {
+        TNonblockingSocket transport =
+            TNonblockingSocketWrapper.wrap(
+                endPoint.getIp(), endPoint.getPort(), session.connectionTimeoutInMs);
+        TSIService.AsyncClient client =
+            new TSIService.AsyncClient(protocolFactory, clientManager, transport);
+        client.setTimeout(timeoutInMs);
+        Channel channel = new Channel(client, transport);
+        channels.add(channel);
+        idleChannels.add(channel);
+        channelNum++;
+        channel.open(session);
+      }
+    } catch (IOException | TException | StatementExecutionException e) {
+      closeChannels();
+      throw new IoTDBConnectionException(e);
+    } catch (IoTDBConnectionException e) {
+      closeChannels();
+      throw e;
+    }
+  }
+
+  public TEndPoint getEndPoint() {
+    return endPoint;
+  }
+
+  /** @return true if all connections have been closed or broken */
+  public synchronized boolean isBroken() {
+    return channelNum == 0;
+  }
+
+  /** Close the sessions after the requests being sent finish, and fail the waiting ones. */
+  public void close() {
+    List<PendingCall<?>> failedCalls;
+    synchronized (this) {
+      closed = true;
+      failedCalls = new ArrayList<>(pendingCalls);
+      pendingCalls.clear();
+    }
+    failedCalls.forEach(this::fail);
+    closeChannels();
+  }
+
+  /** Fail the requests being sent and drop their connections, the sessions are not closed. */
+  public void abort() {
+    List<PendingCall<?>> failedCalls = new ArrayList<>();
+    List<Channel> abortedChannels = new ArrayList<>();
+    synchronized (this) {
+      closed = true;
+      failedCalls.addAll(pendingCalls);
+      pendingCalls.clear();
+      for (Channel channel : channels) {
+        if (channel.sendingCall != null) {
+          failedCalls.add(channel.sendingCall);
+          channel.sendingCall = null;
+          channelNum--;
+          abortedChannels.add(channel);
+        }
+      }
+    }
+    failedCalls.forEach(this::fail);
+    abortedChannels.forEach(channel -> channel.transport.close());
+  }
+
+  protected CompletableFuture<TSStatus> insertRecord(TSInsertRecordReq request) {
+    return call(
+        (client, sessionId, callback) -> {
+          request.setSessionId(sessionId);
+          client.insertRecord(request, callback);
+        });
+  }
+
+  protected CompletableFuture<TSStatus> insertRecords(TSInsertRecordsReq request) {
+    return call(
+        (client, sessionId, callback) -> {
+          request.setSessionId(sessionId);
+          client.insertRecords(request, callback);
+        });
+  }
+
+  protected CompletableFuture<TSStatus> insertTablet(TSInsertTabletReq request) {
+    return call(
+        (client, sessionId, callback) -> {
+          request.setSessionId(sessionId);
+          client.insertTablet(request, callback);
+        });
+  }
+
+  protected CompletableFuture<TSStatus> insertTablets(TSInsertTabletsReq request) {
+    return call(
+        (client, sessionId, callback) -> {
+          request.setSessionId(sessionId);
+          client.insertTablets(request, callback);
+        });
+  }
+
+  private <T> CompletableFuture<T> call(Rpc<T> rpc) {
+    PendingCall<T> pendingCall = new PendingCall<>(rpc);
+    Channel channel;
+    synchronized (this) {
+      if (closed || channelNum == 0) {
+        channel = null;
+      } else {
+        channel = idleChannels.poll();
+        if (channel == null) {
+          pendingCalls.add(pendingCall);
+          return pendingCall.future;
+        }
+        channel.sendingCall = pendingCall;
+      }
+    }
+    if (channel == null) {
+      fail(pendingCall);
+    } else {
+      channel.send(pendingCall);
+    }
+    return pendingCall.future;
+  }
+
+  /**
+   * Hand a channel that has finished its request to the next waiting call.
+   *
+   * @return false if the request has been failed by {@link #abort}
+   */
+  private boolean release(Channel channel, PendingCall<?> finishedCall) {
+    PendingCall<?> nextCall = null;
+    List<PendingCall<?>> failedCalls = null;
+    boolean dropped;
+    synchronized (this) {
+      if (channel.sendingCall != finishedCall) {
+        return false;
+      }
+      channel.sendingCall = null;
+      dropped = closed || channel.client.hasError();
+      if (dropped) {
+        channelNum--;
+        if (channelNum == 0) {
+          failedCalls = new ArrayList<>(pendingCalls);
+          pendingCalls.clear();
+        }
+      } else {
+        nextCall = pendingCalls.poll();
+        if (nextCall == null) {
+          idleChannels.add(channel);
+        } else {
+          channel.sendingCall = nextCall;
+        }
+      }
+    }
+    if (failedCalls != null) {
+      failedCalls.forEach(this::fail);
+    }
+    if (nextCall != null) {
+      channel.send(nextCall);
+    } else if (dropped) {
+      // this runs in the selector thread, which can not wait for the closeSession response, the
+      // server closes the session when the connection is closed
+      channel.transport.close();
+    }
+    return true;
+  }
+
+  private void closeChannels() {
+    List<Channel> channels;
+    synchronized (this) {
+      channels = new ArrayList<>(idleChannels);
+      idleChannels.clear();
+      channelNum -= channels.size();
+    }
+    channels.forEach(Channel::close);
+  }
+
+  private void fail(PendingCall<?> pendingCall) {
+    pendingCall.future.completeExceptionally(
+        new IoTDBConnectionException(String.format(MSG_CONNECTION_CLOSED, endPoint)));
+  }
+
+  private static <T> AsyncMethodCallback<T> futureCallback(CompletableFuture<T> future) {
+    return new AsyncMethodCallback<T>() {
+      @Override
+      public void onComplete(T response) {
+        future.complete(response);
+      }
+
+      @Override
+      public void onError(Exception exception) {
+        future.completeExceptionally(exception);
+      }
+    };
+  }
+
+  @FunctionalInterface
+  private interface Rpc<T> {
+    void call(TSIService.AsyncClient client, long sessionId, AsyncMethodCallback<T> callback)
+        throws TException;
+  }
+
+  private static class PendingCall<T> {
+
+    private final Rpc<T> rpc;
+    private final CompletableFuture<T> future = new CompletableFuture<>();
+
+    private PendingCall(Rpc<T> rpc) {
+      this.rpc = rpc;
+    }
+  }
+
+  private class Channel {
+
+    private final TSIService.AsyncClient client;
+    private final TNonblockingSocket transport;
+    private long sessionId;
+    private boolean opened = false;
+    // the request being sent, guarded by the lock of the connection
+    private PendingCall<?> sendingCall;
+
+    private Channel(TSIService.AsyncClient client, TNonblockingSocket transport) {
+      this.client = client;
+      this.transport = transport;
+    }
+
+    private void open(AsyncSession session)
+        throws TException, StatementExecutionException, IoTDBConnectionException {
+      TSOpenSessionReq openReq = new TSOpenSessionReq();
+      openReq.setUsername(session.username);
+      openReq.setPassword(session.password);
+      openReq.setZoneId(session.zoneId.toString());
+      openReq.putToConfiguration("version", session.version.toString());
+
+      CompletableFuture<TSOpenSessionResp> future = new CompletableFuture<>();
+      client.openSession(openReq, futureCallback(future));
+      TSOpenSessionResp openResp = await(future);
+      RpcUtils.verifySuccess(openResp.getStatus());
+
+      if (Session.protocolVersion.getValue() != openResp.getServerProtocolVersion().getValue()) {
+        logger.warn(
+            "Protocol differ, Client version is {}}, but Server version is {}",
+            Session.protocolVersion.getValue(),
+            openResp.getServerProtocolVersion().getValue());
+        // less than 0.10
+        if (openResp.getServerProtocolVersion().getValue() == 0) {
+          throw new TException(
+              String.format(
+                  "Protocol not supported, Client version is %s, but Server version is %s",
+                  Session.protocolVersion.getValue(),
+                  openResp.getServerProtocolVersion().getValue()));
+        }
+      }
+      sessionId = openResp.getSessionId();
+      opened = true;
+    }
+
+    private <T> void send(PendingCall<T> pendingCall) {
+      try {
+        pendingCall.rpc.call(
+            client,
+            sessionId,
+            new AsyncMethodCallback<T>() {
+              @Override
+              public void onComplete(T response) {
+                // release first, so that requests chained to the future find a free channel
+                if (release(Channel.this, pendingCall)) {
+                  pendingCall.future.complete(response);
+                }
+              }
+
+              @Override
+              public void onError(Exception exception) {
+                // a timeout is reported here as well, the client is broken after that
+                if (release(Channel.this, pendingCall)) {
+                  pendingCall.future.completeExceptionally(
+                      new IoTDBConnectionException(exception));
+                }
+              }
+            });
+      } catch (TException e) {
+        if (release(this, pendingCall)) {
+          pendingCall.future.completeExceptionally(new IoTDBConnectionException(e));
+        }
+      }
+    }
+
+    private void close() {
+      try {
+        // the client may still be waiting for the openSession response if that timed out
+        if (opened && !client.hasError()) {
+          CompletableFuture<TSStatus> future = new CompletableFuture<>();
+          client.closeSession(new TSCloseSessionReq(sessionId), futureCallback(future));
+          await(future);
+        }
+      } catch (TException | IoTDBConnectionException e) {
+        logger.warn("Error occurs when closing session at server {}", endPoint, e);
+      } finally {
+        transport.close();
+      }
+    }
+
+    /** Wait for a response in the calling thread, it fails if it does not arrive in time. */
+    private <T> T await(CompletableFuture<T> future) throws IoTDBConnectionException {
+      try {
+        return future.get(timeoutInMs, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        future.completeExceptionally(e);
+        throw new IoTDBConnectionException(e);
+      } catch (TimeoutException e) {
+        future.completeExceptionally(e);
+        throw new IoTDBConnectionException(
+            String.format("Timed out waiting %dms for the response of %s", timeoutInMs, endPoint));
+      } catch (ExecutionException e) {
+        throw new IoTDBConnectionException(e.getCause());
+      }
+    }
+  }
+}
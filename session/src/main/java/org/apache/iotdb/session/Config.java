@@ -45,5 +45,29 @@ public class Config {
 
   public static final int DEFAULT_SESSION_POOL_MAX_SIZE = 5;
 
+  /** non-blocking connections of an async session to each node */
+  public static final int DEFAULT_ASYNC_SESSION_CONNECTION_NUM = 4;
+
+  /** requests of an async session that are sent or waiting for a connection */
+  public static final int DEFAULT_ASYNC_SESSION_MAX_IN_FLIGHT_REQUESTS = 1_000;
+
+  /** time an async session waits for the response of a request, 60s by default */
+  public static final long DEFAULT_ASYNC_SESSION_REQUEST_TIMEOUT_MS = 60_000L;
+
+  /** rows of one device that a buffered tablet writer keeps in a tablet */
+  public static final int DEFAULT_BUFFERED_WRITER_TABLET_SIZE = 1_024;
+
+  /** rows of all devices that make a buffered tablet writer send a batch */
+  public static final int DEFAULT_BUFFERED_WRITER_BATCH_ROWS = 10_000;
+
+  /** estimated bytes of buffered and unfinished rows of a buffered tablet writer */
+  public static final long DEFAULT_BUFFERED_WRITER_MAX_BUFFERED_BYTES = 64L * 1024 * 1024;
+
+  public static final long DEFAULT_BUFFERED_WRITER_LINGER_MS = 1_000;
+
+  public static final int DEFAULT_BUFFERED_WRITER_MAX_RETRIES = 3;
+
+  public static final long DEFAULT_BUFFERED_WRITER_RETRY_INTERVAL_MS = 500;
+
   public static final Version DEFAULT_VERSION = Version.V_0_13;
 }
@@ -946,7 +946,7 @@ public class Session {
     insertRecord(deviceId, request);
   }
 
-  private TSInsertRecordReq genTSInsertRecordReq(
+  static TSInsertRecordReq genTSInsertRecordReq(
       String prefixPath,
       long time,
       List<String> measurements,
@@ -1557,7 +1557,7 @@ public class Session {
     return request;
   }
 
-  private void updateTSInsertRecordsReq(
+  static void updateTSInsertRecordsReq(
       TSInsertRecordsReq request,
       String deviceId,
       Long time,
@@ -1638,7 +1638,11 @@ public class Session {
     if (!checkSorted(tablet)) {
       sortTablet(tablet);
     }
+    return genSortedTSInsertTabletReq(tablet, isAligned);
+  }
 
+  /** The tablet should have been sorted by time. */
+  static TSInsertTabletReq genSortedTSInsertTabletReq(Tablet tablet, boolean isAligned) {
     TSInsertTabletReq request = new TSInsertTabletReq();
 
     for (IMeasurementSchema measurementSchema : tablet.getSchemas()) {
@@ -1762,6 +1766,12 @@ public class Session {
     if (!checkSorted(tablet)) {
       sortTablet(tablet);
     }
+    updateSortedTSInsertTabletsReq(request, tablet, isAligned);
+  }
+
+  /** The tablet should have been sorted by time. */
+  static void updateSortedTSInsertTabletsReq(
+      TSInsertTabletsReq request, Tablet tablet, boolean isAligned) {
     request.addToPrefixPaths(tablet.deviceId);
     List<String> measurements = new ArrayList<>();
     List<Integer> dataTypes = new ArrayList<>();
@@ -1943,7 +1953,7 @@ public class Session {
    *
    * @return whether the batch has been sorted
    */
-  private boolean checkSorted(Tablet tablet) {
+  private static boolean checkSorted(Tablet tablet) {
     for (int i = 1; i < tablet.rowSize; i++) {
       if (tablet.timestamps[i] < tablet.timestamps[i - 1]) {
         return false;
@@ -1968,6 +1978,14 @@ public class Session {
   }
 
   protected void sortTablet(Tablet tablet) {
+    sortTabletByTime(tablet);
+  }
+
+  /** Sort the rows of the tablet by time if they are not sorted yet. */
+  static void sortTabletByTime(Tablet tablet) {
+    if (checkSorted(tablet)) {
+      return;
+    }
     /*
      * following part of code sort the batch data by time,
      * so we can insert continuous data in value list to get a better performance
@@ -2013,7 +2031,7 @@ public class Session {
    * @param index index
    * @return sorted list
    */
-  private Object sortList(Object valueList, TSDataType dataType, Integer[] index) {
+  private static Object sortList(Object valueList, TSDataType dataType, Integer[] index) {
     switch (dataType) {
       case BOOLEAN:
         boolean[] boolValues = (boolean[]) valueList;
@@ -2069,7 +2087,7 @@ public class Session {
    * @param index index
    * @return sorted bitMap
    */
-  private BitMap sortBitMap(BitMap bitMap, Integer[] index) {
+  private static BitMap sortBitMap(BitMap bitMap, Integer[] index) {
     BitMap sortedBitMap = new BitMap(bitMap.getSize());
     for (int i = 0; i < index.length; i++) {
       if (bitMap.isMarked(index[i])) {
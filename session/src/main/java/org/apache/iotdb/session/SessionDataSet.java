@@ -19,6 +19,7 @@
 package org.apache.iotdb.session;
 
 import org.apache.iotdb.rpc.IoTDBConnectionException;
+import org.apache.iotdb.rpc.IoTDBRpcColumnBatch;
 import org.apache.iotdb.rpc.IoTDBRpcDataSet;
 import org.apache.iotdb.rpc.StatementExecutionException;
 import org.apache.iotdb.service.rpc.thrift.TSIService;
@@ -184,6 +185,25 @@ public class SessionDataSet implements AutoCloseable {
     return constructRowRecordFromValueArray();
   }
 
+  /**
+   * Decode the rows of the current fetch batch into arrays without creating a {@link RowRecord} per
+   * row. It can be mixed with {@link #next()}, and a row returned by next() is not included.
+   *
+   * @return null if there are no more rows
+   */
+  public IoTDBRpcColumnBatch nextBatch()
+      throws StatementExecutionException, IoTDBConnectionException {
+    return ioTDBRpcDataSet.nextBatch();
+  }
+
+  /**
+   * Fetch the next batch in the background while the current one is consumed. The session must not
+   * be used for other requests until the data set is exhausted or closed.
+   */
+  public void enablePrefetch() {
+    ioTDBRpcDataSet.enablePrefetch();
+  }
+
   public void closeOperationHandle() throws StatementExecutionException, IoTDBConnectionException {
     try {
       ioTDBRpcDataSet.close();
@@ -0,0 +1,503 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.session.pool;
+
+import org.apache.iotdb.rpc.IoTDBConnectionException;
+import org.apache.iotdb.rpc.StatementExecutionException;
+import org.apache.iotdb.session.Config;
+import org.apache.iotdb.session.util.ThreadUtils;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.utils.BitMap;
+import org.apache.iotdb.tsfile.write.record.Tablet;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BufferedTabletWriter accepts records one by one, accumulates them per device into {@link Tablet}s
+ * and sends the tablets of all devices with one insertTablets call of a {@link SessionPool}. When
+ * the pool is created with enableCacheLeader, the session groups the tablets of a batch by the
+ * endpoint of their leaders.
+ *
+ * <p>A batch is sent when the buffered rows reach batchRows, when the tablet of a device is full,
+ * every lingerMs and on {@link #flush()}. Batches are sent by background threads, so the result of
+ * a batch is reported to the {@link Callback}. Failed connections are retried maxRetries times.
+ *
+ * <p>The estimated size of buffered and unfinished rows is bounded by maxBufferedBytes. When it is
+ * exceeded, a record either blocks until some batches finish or is dropped, according to the
+ * {@link OverflowPolicy}.
+ */
+public class BufferedTabletWriter implements AutoCloseable {
+
+  private static final Logger logger = LoggerFactory.getLogger(BufferedTabletWriter.class);
+  public static final String WRITER_IS_CLOSED = "Buffered tablet writer is closed";
+
+  public enum OverflowPolicy {
+    /** wait until enough buffered rows are sent */
+    BLOCK,
+    /** drop the record and report it to {@link Callback#onDropped(String, long)} */
+    DROP
+  }
+
+  /** Callback of the writer. It is called by the sender threads unless otherwise noted. */
+  public interface Callback {
+
+    default void onSuccess(Map<String, Tablet> tablets) {}
+
+    default void onFailure(Map<String, Tablet> tablets, Exception e) {}
+
+    /** called by the thread that writes the record */
+    default void onDropped(String deviceId, long time) {}
+  }
+
+  private final SessionPool pool;
+  private final boolean aligned;
+  private final int tabletSize;
+  private final int batchRows;
+  private final long maxBufferedBytes;
+  private final int maxRetries;
+  private final long retryIntervalMs;
+  private final OverflowPolicy overflowPolicy;
+  private final Callback callback;
+
+  private final ExecutorService senderExecutor;
+  private final ScheduledExecutorService lingerExecutor;
+
+  // the following fields are guarded by this
+  private Map<String, DeviceBuffer> deviceBuffers = new LinkedHashMap<>();
+  private int bufferedRows = 0;
+  private long bufferedBytes = 0;
+  // bytes of buffered rows and rows of unfinished batches
+  private long usedBytes = 0;
+  private int unfinishedBatches = 0;
+  private boolean closed = false;
+
+  @SuppressWarnings("squid:S107")
+  public BufferedTabletWriter(
+      SessionPool pool,
+      boolean aligned,
+      int tabletSize,
+      int batchRows,
+      long maxBufferedBytes,
+      long lingerMs,
+      int senderThreadNum,
+      int maxRetries,
+      long retryIntervalMs,
+      OverflowPolicy overflowPolicy,
+      Callback callback) {
+    this.pool = pool;
+    this.aligned = aligned;
+    this.tabletSize = tabletSize;
+    this.batchRows = batchRows;
+    this.maxBufferedBytes = maxBufferedBytes;
+    this.maxRetries = maxRetries;
+    this.retryIntervalMs = retryIntervalMs;
+    this.overflowPolicy = overflowPolicy;
+    this.callback = callback == null ? new Callback() {} : callback;
+
+    senderExecutor =
+        Executors.newFixedThreadPool(
+            senderThreadNum, ThreadUtils.createThreadFactory("BufferedTabletSender", true));
+    if (lingerMs > 0) {
+      lingerExecutor =
+          Executors.newSingleThreadScheduledExecutor(
+              ThreadUtils.createThreadFactory("BufferedTabletLinger", true));
+      lingerExecutor.scheduleAtFixedRate(
+          this::sendBuffered, lingerMs, lingerMs, TimeUnit.MILLISECONDS);
+    } else {
+      lingerExecutor = null;
+    }
+  }
+
+  /**
+   * Buffer a record. Measurements of a device may differ between records, the missing values are
+   * written as null.
+   *
+   * @return false if the record is dropped by {@link OverflowPolicy#DROP}
+   */
+  public boolean insertRecord(
+      String deviceId,
+      long time,
+      List<String> measurements,
+      List<TSDataType> types,
+      List<Object> values)
+      throws IoTDBConnectionException, InterruptedException {
+    long rowBytes = estimateRowSize(types, values);
+    synchronized (this) {
+      checkOpen();
+      // a single row larger than the budget is accepted when nothing else is buffered
+      while (usedBytes > 0 && usedBytes + rowBytes > maxBufferedBytes) {
+        if (overflowPolicy == OverflowPolicy.DROP) {
+          break;
+        }
+        // buffered rows are only released after they are sent
+        submitBuffered();
+        wait();
+        checkOpen();
+      }
+      if (usedBytes > 0 && usedBytes + rowBytes > maxBufferedBytes) {
+        submitBuffered();
+      } else {
+        appendRow(deviceId, time, measurements, types, values, rowBytes);
+        return true;
+      }
+    }
+    callback.onDropped(deviceId, time);
+    return false;
+  }
+
+  private void appendRow(
+      String deviceId,
+      long time,
+      List<String> measurements,
+      List<TSDataType> types,
+      List<Object> values,
+      long rowBytes) {
+    DeviceBuffer buffer = deviceBuffers.get(deviceId);
+    if (buffer != null && !buffer.accept(measurements, types)) {
+      // the type of a measurement changes, send the rows of the old type first
+      submitBuffered();
+      buffer = null;
+    }
+    if (buffer == null) {
+      buffer = new DeviceBuffer(deviceId, measurements, types);
+      deviceBuffers.put(deviceId, buffer);
+    }
+    buffer.append(time, measurements, values);
+    bufferedRows++;
+    bufferedBytes += rowBytes;
+    usedBytes += rowBytes;
+    if (bufferedRows >= batchRows || buffer.isFull()) {
+      submitBuffered();
+    }
+  }
+
+  /** Send the buffered rows and wait until all batches of the writer finish. */
+  public synchronized void flush() throws InterruptedException {
+    submitBuffered();
+    while (unfinishedBatches > 0) {
+      wait();
+    }
+  }
+
+  private synchronized void sendBuffered() {
+    submitBuffered();
+  }
+
+  private synchronized void submitBuffered() {
+    if (bufferedRows == 0) {
+      return;
+    }
+    Map<String, Tablet> tablets = new HashMap<>();
+    for (DeviceBuffer buffer : deviceBuffers.values()) {
+      tablets.put(buffer.tablet.deviceId, buffer.tablet);
+    }
+    long batchBytes = bufferedBytes;
+    deviceBuffers = new LinkedHashMap<>();
+    bufferedRows = 0;
+    bufferedBytes = 0;
+    unfinishedBatches++;
+    senderExecutor.execute(() -> send(tablets, batchBytes));
+  }
+
+  private void send(Map<String, Tablet> tablets, long batchBytes) {
+    Exception failure = null;
+    try {
+      for (int i = 0; ; i++) {
+        try {
+          if (aligned) {
+            pool.insertAlignedTablets(tablets, false);
+          } else {
+            pool.insertTablets(tablets, false);
+          }
+          failure = null;
+          break;
+        } catch (IoTDBConnectionException e) {
+          failure = e;
+          if (i >= maxRetries) {
+            break;
+          }
+          logger.warn("Insert tablets of {} devices failed, retry {}", tablets.size(), i + 1, e);
+          Thread.sleep(retryIntervalMs);
+        } catch (StatementExecutionException | RuntimeException e) {
+          failure = e;
+          break;
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      failure = e;
+    } finally {
+      release(batchBytes);
+    }
+
+    try {
+      if (failure == null) {
+        callback.onSuccess(tablets);
+      } else {
+        logger.error("Insert tablets of {} devices failed", tablets.size(), failure);
+        callback.onFailure(tablets, failure);
+      }
+    } catch (RuntimeException e) {
+      logger.error("Callback of buffered tablet writer failed", e);
+    }
+  }
+
+  private synchronized void release(long batchBytes) {
+    usedBytes -= batchBytes;
+    unfinishedBatches--;
+    notifyAll();
+  }
+
+  private void checkOpen() throws IoTDBConnectionException {
+    if (closed) {
+      throw new IoTDBConnectionException(WRITER_IS_CLOSED);
+    }
+  }
+
+  /** Send the buffered rows, wait for them and stop the threads. The pool is not closed. */
+  @Override
+  public void close() throws InterruptedException {
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      // wake up blocked writers
+      notifyAll();
+    }
+    if (lingerExecutor != null) {
+      lingerExecutor.shutdownNow();
+    }
+    try {
+      flush();
+    } finally {
+      senderExecutor.shutdown();
+    }
+  }
+
+  public synchronized int getBufferedRows() {
+    return bufferedRows;
+  }
+
+  public synchronized long getUsedBytes() {
+    return usedBytes;
+  }
+
+  private static long estimateRowSize(List<TSDataType> types, List<Object> values) {
+    // timestamp
+    long size = Long.BYTES;
+    for (int i = 0; i < types.size(); i++) {
+      switch (types.get(i)) {
+        case BOOLEAN:
+          size += 1;
+          break;
+        case INT32:
+        case FLOAT:
+          size += 4;
+          break;
+        case TEXT:
+          Object value = values.get(i);
+          size += Integer.BYTES + (value == null ? 0 : value.toString().length());
+          break;
+        default:
+          size += 8;
+      }
+    }
+    return size;
+  }
+
+  /** the rows of a device that are not sent yet */
+  private class DeviceBuffer {
+
+    private Tablet tablet;
+    private final Map<String, Integer> columnIndex = new HashMap<>();
+
+    private DeviceBuffer(String deviceId, List<String> measurements, List<TSDataType> types) {
+      List<MeasurementSchema> schemas = new ArrayList<>(measurements.size());
+      for (int i = 0; i < measurements.size(); i++) {
+        columnIndex.put(measurements.get(i), i);
+        schemas.add(new MeasurementSchema(measurements.get(i), types.get(i)));
+      }
+      tablet = new Tablet(deviceId, schemas, tabletSize);
+    }
+
+    /**
+     * Add the new measurements to the tablet.
+     *
+     * @return false if the type of a measurement differs from the buffered one
+     */
+    private boolean accept(List<String> measurements, List<TSDataType> types) {
+      List<MeasurementSchema> schemas = tablet.getSchemas();
+      List<MeasurementSchema> newSchemas = null;
+      for (int i = 0; i < measurements.size(); i++) {
+        Integer index = columnIndex.get(measurements.get(i));
+        if (index == null) {
+          if (newSchemas == null) {
+            newSchemas = new ArrayList<>(schemas);
+          }
+          columnIndex.put(measurements.get(i), newSchemas.size());
+          newSchemas.add(new MeasurementSchema(measurements.get(i), types.get(i)));
+        } else if (index < schemas.size() && schemas.get(index).getType() != types.get(i)) {
+          // the whole buffer is sent, so the column index does not need to be rolled back
+          return false;
+        }
+      }
+      if (newSchemas != null) {
+        widen(newSchemas);
+      }
+      return true;
+    }
+
+    /** copy the buffered rows to a tablet with more columns, the new columns are null */
+    private void widen(List<MeasurementSchema> newSchemas) {
+      Tablet newTablet = new Tablet(tablet.deviceId, newSchemas, tabletSize);
+      int oldColumns = tablet.getSchemas().size();
+      int rowSize = tablet.rowSize;
+      newTablet.initBitMaps();
+      System.arraycopy(tablet.timestamps, 0, newTablet.timestamps, 0, rowSize);
+      for (int column = 0; column < oldColumns; column++) {
+        System.arraycopy(tablet.values[column], 0, newTablet.values[column], 0, rowSize);
+        if (tablet.bitMaps != null && tablet.bitMaps[column] != null) {
+          BitMap.copyOfRange(tablet.bitMaps[column], 0, newTablet.bitMaps[column], 0, rowSize);
+        }
+      }
+      for (int column = oldColumns; column < newSchemas.size(); column++) {
+        for (int row = 0; row < rowSize; row++) {
+          newTablet.bitMaps[column].mark(row);
+        }
+      }
+      newTablet.rowSize = rowSize;
+      tablet = newTablet;
+    }
+
+    private void append(long time, List<String> measurements, List<Object> values) {
+      int row = tablet.rowSize++;
+      tablet.addTimestamp(row, time);
+      List<MeasurementSchema> schemas = tablet.getSchemas();
+      Object[] rowValues = new Object[schemas.size()];
+      for (int i = 0; i < measurements.size(); i++) {
+        rowValues[columnIndex.get(measurements.get(i))] = values.get(i);
+      }
+      for (int column = 0; column < schemas.size(); column++) {
+        tablet.addValue(schemas.get(column).getMeasurementId(), row, rowValues[column]);
+      }
+    }
+
+    private boolean isFull() {
+      return tablet.rowSize >= tablet.getMaxRowNumber();
+    }
+  }
+
+  public static class Builder {
+    private final SessionPool pool;
+    private boolean aligned = false;
+    private int tabletSize = Config.DEFAULT_BUFFERED_WRITER_TABLET_SIZE;
+    private int batchRows = Config.DEFAULT_BUFFERED_WRITER_BATCH_ROWS;
+    private long maxBufferedBytes = Config.DEFAULT_BUFFERED_WRITER_MAX_BUFFERED_BYTES;
+    private long lingerMs = Config.DEFAULT_BUFFERED_WRITER_LINGER_MS;
+    private int senderThreadNum = 1;
+    private int maxRetries = Config.DEFAULT_BUFFERED_WRITER_MAX_RETRIES;
+    private long retryIntervalMs = Config.DEFAULT_BUFFERED_WRITER_RETRY_INTERVAL_MS;
+    private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+    private Callback callback = null;
+
+    public Builder(SessionPool pool) {
+      this.pool = pool;
+    }
+
+    public Builder aligned(boolean aligned) {
+      this.aligned = aligned;
+      return this;
+    }
+
+    public Builder tabletSize(int tabletSize) {
+      this.tabletSize = tabletSize;
+      return this;
+    }
+
+    public Builder batchRows(int batchRows) {
+      this.batchRows = batchRows;
+      return this;
+    }
+
+    public Builder maxBufferedBytes(long maxBufferedBytes) {
+      this.maxBufferedBytes = maxBufferedBytes;
+      return this;
+    }
+
+    /** @param lingerMs interval of sending buffered rows, disabled if it is not positive */
+    public Builder lingerMs(long lingerMs) {
+      this.lingerMs = lingerMs;
+      return this;
+    }
+
+    public Builder senderThreadNum(int senderThreadNum) {
+      this.senderThreadNum = senderThreadNum;
+      return this;
+    }
+
+    public Builder maxRetries(int maxRetries) {
+      this.maxRetries = maxRetries;
+      return this;
+    }
+
+    public Builder retryIntervalMs(long retryIntervalMs) {
+      this.retryIntervalMs = retryIntervalMs;
+      return this;
+    }
+
+    public Builder overflowPolicy(OverflowPolicy overflowPolicy) {
+      this.overflowPolicy = overflowPolicy;
+      return this;
+    }
+
+    public Builder callback(Callback callback) {
+      this.callback = callback;
+      return this;
+    }
+
+    public BufferedTabletWriter build() {
+      return new BufferedTabletWriter(
+          pool,
+          aligned,
+          tabletSize,
+          batchRows,
+          maxBufferedBytes,
+          lingerMs,
+          senderThreadNum,
+          maxRetries,
+          retryIntervalMs,
+          overflowPolicy,
+          callback);
+    }
+  }
+}
@@ -0,0 +1,334 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.session;
+
+import org.apache.iotdb.common.rpc.thrift.TEndPoint;
+import org.apache.iotdb.common.rpc.thrift.TSStatus;
+import org.apache.iotdb.rpc.IoTDBConnectionException;
+import org.apache.iotdb.rpc.RpcUtils;
+import org.apache.iotdb.rpc.TSStatusCode;
+import org.apache.iotdb.service.rpc.thrift.TSInsertRecordReq;
+import org.apache.iotdb.service.rpc.thrift.TSInsertRecordsReq;
+import org.apache.iotdb.service.rpc.thrift.TSInsertTabletReq;
+import org.apache.iotdb.service.rpc.thrift.TSInsertTabletsReq;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.write.record.Tablet;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.iotdb.session.SessionCacheLeaderUT.getDeviceIdBelongedEndpoint;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class AsyncSessionCacheLeaderUT {
+
+  private MockAsyncSession session;
+
+  @After
+  public void tearDown() {
+    if (session != null) {
+      session.close();
+    }
+  }
+
+  @Test
+  public void testInsertTablet() throws IoTDBConnectionException {
+    // without leader cache
+    session = new MockAsyncSession(false, Config.DEFAULT_ASYNC_SESSION_MAX_IN_FLIGHT_REQUESTS);
+    session.open();
+    assertNull(session.deviceIdToEndpoint);
+    assertNull(session.endPointToSessionConnection);
+
+    String deviceId = "root.sg2.d1";
+    for (int i = 0; i < 10; i++) {
+      session.insertTablet(genTablet(deviceId)).join();
+    }
+    assertNull(session.deviceIdToEndpoint);
+    assertEquals(10, session.getDefaultConnection().getRequestNum());
+    session.close();
+
+    // with leader cache
+    session = new MockAsyncSession(true, Config.DEFAULT_ASYNC_SESSION_MAX_IN_FLIGHT_REQUESTS);
+    session.open();
+    assertEquals(0, session.deviceIdToEndpoint.size());
+    assertEquals(1, session.endPointToSessionConnection.size());
+
+    for (int i = 0; i < 10; i++) {
+      session.insertTablet(genTablet(deviceId)).join();
+    }
+    assertEquals(1, session.deviceIdToEndpoint.size());
+    assertEquals(getDeviceIdBelongedEndpoint(deviceId), session.deviceIdToEndpoint.get(deviceId));
+    assertEquals(2, session.endPointToSessionConnection.size());
+    // only the first request is sent to the default node
+    assertEquals(1, session.getDefaultConnection().getRequestNum());
+  }
+
+  @Test
+  public void testInsertTablets() throws IoTDBConnectionException {
+    session = new MockAsyncSession(true, Config.DEFAULT_ASYNC_SESSION_MAX_IN_FLIGHT_REQUESTS);
+    session.open();
+
+    List<String> deviceIds =
+        Arrays.asList("root.sg1.d1", "root.sg2.d1", "root.sg3.d1", "root.sg4.d1");
+    Map<String, Tablet> tablets = new HashMap<>();
+    for (String deviceId : deviceIds) {
+      tablets.put(deviceId, genTablet(deviceId));
+    }
+    // all tablets are sent to the default node, which redirects them
+    TSStatus status = session.insertTablets(tablets).join();
+    assertEquals(TSStatusCode.NEED_REDIRECTION.getStatusCode(), status.getCode());
+    assertEquals(4, status.getSubStatus().size());
+    // the tablets are sent to their leaders, each of which returns its own status
+    status = session.insertAlignedTablets(tablets).join();
+    assertEquals(TSStatusCode.SUCCESS_STATUS.getStatusCode(), status.getCode());
+    assertEquals(4, status.getSubStatus().size());
+
+    assertEquals(4, session.deviceIdToEndpoint.size());
+    for (String deviceId : deviceIds) {
+      assertEquals(
+          getDeviceIdBelongedEndpoint(deviceId), session.deviceIdToEndpoint.get(deviceId));
+    }
+    assertEquals(4, session.endPointToSessionConnection.size());
+    for (MockAsyncSessionConnection connection : session.connections) {
+      assertEquals(
+          connection == session.getDefaultConnection() ? 2 : 1, connection.getRequestNum());
+    }
+  }
+
+  @Test
+  public void testInsertRecordsWithBrokenConnection() throws IoTDBConnectionException {
+    session = new MockAsyncSession(true, Config.DEFAULT_ASYNC_SESSION_MAX_IN_FLIGHT_REQUESTS);
+    session.open();
+
+    String deviceId = "root.sg2.d1";
+    List<String> measurements = Arrays.asList("s1", "s2");
+    List<TSDataType> types = Arrays.asList(TSDataType.INT64, TSDataType.INT64);
+    session.insertRecord(deviceId, 1, measurements, types, 1L, 2L).join();
+    session.insertRecord(deviceId, 2, measurements, types, 1L, 2L).join();
+    MockAsyncSessionConnection leaderConnection =
+        (MockAsyncSessionConnection)
+            session.endPointToSessionConnection.get(getDeviceIdBelongedEndpoint(deviceId));
+    assertEquals(1, leaderConnection.getRequestNum());
+
+    // the broken leader is skipped, and reconnected after the default node redirects again
+    leaderConnection.setConnectionBroken(true);
+    session
+        .insertRecords(
+            Collections.singletonList(deviceId),
+            Collections.singletonList(3L),
+            Collections.singletonList(measurements),
+            Collections.singletonList(types),
+            Collections.singletonList(Arrays.asList(1L, 2L)))
+        .join();
+    assertEquals(2, session.getDefaultConnection().getRequestNum());
+    assertEquals(getDeviceIdBelongedEndpoint(deviceId), session.deviceIdToEndpoint.get(deviceId));
+
+    session.insertRecord(deviceId, 4, measurements, types, 1L, 2L).join();
+    MockAsyncSessionConnection newLeaderConnection =
+        (MockAsyncSessionConnection)
+            session.endPointToSessionConnection.get(getDeviceIdBelongedEndpoint(deviceId));
+    assertNotSame(leaderConnection, newLeaderConnection);
+    assertEquals(1, newLeaderConnection.getRequestNum());
+    assertEquals(1, leaderConnection.getRequestNum());
+  }
+
+  @Test
+  public void testMaxInFlightRequests() throws Exception {
+    session = new MockAsyncSession(false, 2);
+    session.open();
+    MockAsyncSessionConnection connection = session.getDefaultConnection();
+    connection.setAutoComplete(false);
+
+    CompletableFuture<TSStatus> first = session.insertTablet(genTablet("root.sg1.d1"));
+    CompletableFuture<TSStatus> second = session.insertTablet(genTablet("root.sg1.d1"));
+    CountDownLatch submitted = new CountDownLatch(1);
+    Thread thread =
+        new Thread(
+            () -> {
+              session.insertTablet(genTablet("root.sg1.d1"));
+              submitted.countDown();
+            });
+    thread.start();
+    // the third request waits for the first two
+    assertFalse(submitted.await(200, TimeUnit.MILLISECONDS));
+    assertEquals(2, connection.getRequestNum());
+
+    connection.completeAll();
+    first.join();
+    second.join();
+    assertTrue(submitted.await(10, TimeUnit.SECONDS));
+    thread.join();
+    assertEquals(3, connection.getRequestNum());
+    connection.completeAll();
+  }
+
+  private static Tablet genTablet(String deviceId) {
+    List<MeasurementSchema> schemaList = new ArrayList<>();
+    schemaList.add(new MeasurementSchema("s1", TSDataType.INT64));
+    Tablet tablet = new Tablet(deviceId, new ArrayList<>(schemaList), 10);
+    for (long time = 0; time < 10; time++) {
+      tablet.addTimestamp(tablet.rowSize, time);
+      tablet.addValue("s1", tablet.rowSize, time);
+      tablet.rowSize++;
+    }
+    return tablet;
+  }
+
+  static class MockAsyncSession extends AsyncSession {
+
+    private final List<MockAsyncSessionConnection> connections = new ArrayList<>();
+
+    MockAsyncSession(boolean enableCacheLeader, int maxInFlightRequests) {
+      super(
+          "127.0.0.1",
+          55560,
+          Config.DEFAULT_USER,
+          Config.DEFAULT_PASSWORD,
+          null,
+          Config.DEFAULT_ASYNC_SESSION_CONNECTION_NUM,
+          maxInFlightRequests,
+          Config.DEFAULT_ASYNC_SESSION_REQUEST_TIMEOUT_MS,
+          enableCacheLeader,
+          Config.DEFAULT_VERSION);
+    }
+
+    @Override
+    public AsyncSessionConnection constructSessionConnection(
+        AsyncSession session, TEndPoint endpoint) {
+      MockAsyncSessionConnection connection = new MockAsyncSessionConnection(endpoint);
+      connections.add(connection);
+      return connection;
+    }
+
+    MockAsyncSessionConnection getDefaultConnection() {
+      return (MockAsyncSessionConnection) defaultSessionConnection;
+    }
+  }
+
+  static class MockAsyncSessionConnection extends AsyncSessionConnection {
+
+    private final TEndPoint endPoint;
+    private final List<CompletableFuture<TSStatus>> uncompletedFutures = new ArrayList<>();
+    private int requestNum = 0;
+    private boolean autoComplete = true;
+    private boolean connectionBroken = false;
+
+    MockAsyncSessionConnection(TEndPoint endPoint) {
+      super();
+      this.endPoint = endPoint;
+    }
+
+    @Override
+    public boolean isBroken() {
+      return connectionBroken;
+    }
+
+    @Override
+    public void close() {}
+
+    @Override
+    protected CompletableFuture<TSStatus> insertRecord(TSInsertRecordReq request) {
+      return respond(getRedirectStatus(request.getPrefixPath()));
+    }
+
+    @Override
+    protected CompletableFuture<TSStatus> insertRecords(TSInsertRecordsReq request) {
+      return respond(getRedirectStatus(request.getPrefixPaths()));
+    }
+
+    @Override
+    protected CompletableFuture<TSStatus> insertTablet(TSInsertTabletReq request) {
+      return respond(getRedirectStatus(request.getPrefixPath()));
+    }
+
+    @Override
+    protected CompletableFuture<TSStatus> insertTablets(TSInsertTabletsReq request) {
+      return respond(getRedirectStatus(request.getPrefixPaths()));
+    }
+
+    private synchronized CompletableFuture<TSStatus> respond(TSStatus status) {
+      requestNum++;
+      CompletableFuture<TSStatus> future = new CompletableFuture<>();
+      if (autoComplete) {
+        future.complete(status);
+      } else {
+        uncompletedFutures.add(future);
+      }
+      return future;
+    }
+
+    private TSStatus getRedirectStatus(String deviceId) {
+      TSStatus status = RpcUtils.getStatus(TSStatusCode.NEED_REDIRECTION);
+      status.setRedirectNode(getDeviceIdBelongedEndpoint(deviceId));
+      return status;
+    }
+
+    private TSStatus getRedirectStatus(List<String> deviceIds) {
+      List<TSStatus> subStatus = new ArrayList<>();
+      for (String deviceId : deviceIds) {
+        subStatus.add(getRedirectStatus(deviceId));
+      }
+      TSStatus status = RpcUtils.getStatus(TSStatusCode.NEED_REDIRECTION);
+      status.setSubStatus(subStatus);
+      return status;
+    }
+
+    synchronized int getRequestNum() {
+      return requestNum;
+    }
+
+    synchronized void setAutoComplete(boolean autoComplete) {
+      this.autoComplete = autoComplete;
+    }
+
+    synchronized void setConnectionBroken(boolean connectionBroken) {
+      this.connectionBroken = connectionBroken;
+    }
+
+    void completeAll() {
+      List<CompletableFuture<TSStatus>> futures;
+      synchronized (this) {
+        futures = new ArrayList<>(uncompletedFutures);
+        uncompletedFutures.clear();
+      }
+      futures.forEach(future -> future.complete(RpcUtils.SUCCESS_STATUS));
+    }
+
+    @Override
+    public String toString() {
+      return "MockAsyncSessionConnection{" + " endPoint=" + endPoint + "}";
+    }
+  }
+}
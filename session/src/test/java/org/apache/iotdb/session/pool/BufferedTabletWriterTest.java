@@ -0,0 +1,209 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.session.pool;
+
+import org.apache.iotdb.rpc.IoTDBConnectionException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.write.record.Tablet;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class BufferedTabletWriterTest {
+
+  @Test
+  public void testBatchRows() throws Exception {
+    MockSessionPool pool = new MockSessionPool();
+    BufferedTabletWriter writer =
+        new BufferedTabletWriter.Builder(pool).batchRows(4).lingerMs(0).build();
+
+    writer.insertRecord(
+        "root.sg.d1",
+        1,
+        Collections.singletonList("s1"),
+        Collections.singletonList(TSDataType.INT64),
+        Collections.singletonList(1L));
+    writer.insertRecord(
+        "root.sg.d1",
+        2,
+        Arrays.asList("s1", "s2"),
+        Arrays.asList(TSDataType.INT64, TSDataType.TEXT),
+        Arrays.asList(2L, "a"));
+    writer.insertRecord(
+        "root.sg.d2",
+        1,
+        Collections.singletonList("s1"),
+        Collections.singletonList(TSDataType.DOUBLE),
+        Collections.singletonList(1.0));
+    assertEquals(3, writer.getBufferedRows());
+    assertTrue(pool.batches.isEmpty());
+
+    writer.insertRecord(
+        "root.sg.d1",
+        3,
+        Collections.singletonList("s2"),
+        Collections.singletonList(TSDataType.TEXT),
+        Collections.singletonList("b"));
+    assertEquals(0, writer.getBufferedRows());
+    writer.flush();
+    assertEquals(0, writer.getUsedBytes());
+
+    assertEquals(1, pool.batches.size());
+    Map<String, Tablet> tablets = pool.batches.get(0);
+    assertEquals(2, tablets.size());
+
+    Tablet d1 = tablets.get("root.sg.d1");
+    assertEquals(3, d1.rowSize);
+    assertEquals(2, d1.getSchemas().size());
+    long[] s1 = (long[]) d1.values[0];
+    assertEquals(1L, s1[0]);
+    assertEquals(2L, s1[1]);
+    assertTrue(d1.bitMaps[0].isMarked(2));
+    assertTrue(d1.bitMaps[1].isMarked(0));
+    assertFalse(d1.bitMaps[1].isMarked(1));
+    assertFalse(d1.bitMaps[1].isMarked(2));
+    assertEquals(3, d1.timestamps[2]);
+
+    assertEquals(1, tablets.get("root.sg.d2").rowSize);
+    writer.close();
+  }
+
+  @Test
+  public void testRetryAndFailure() throws Exception {
+    MockSessionPool pool = new MockSessionPool();
+    pool.failure = new IoTDBConnectionException("mock failure");
+    AtomicReference<Exception> failure = new AtomicReference<>();
+    BufferedTabletWriter writer =
+        new BufferedTabletWriter.Builder(pool)
+            .lingerMs(0)
+            .maxRetries(2)
+            .retryIntervalMs(0)
+            .callback(
+                new BufferedTabletWriter.Callback() {
+                  @Override
+                  public void onFailure(Map<String, Tablet> tablets, Exception e) {
+                    failure.set(e);
+                  }
+                })
+            .build();
+
+    writer.insertRecord(
+        "root.sg.d1",
+        1,
+        Collections.singletonList("s1"),
+        Collections.singletonList(TSDataType.INT32),
+        Collections.singletonList(1));
+    writer.flush();
+
+    assertEquals(3, pool.calls.get());
+    assertNotNull(failure.get());
+    assertEquals(0, writer.getUsedBytes());
+    writer.close();
+  }
+
+  @Test
+  public void testDropWhenBufferIsFull() throws Exception {
+    MockSessionPool pool = new MockSessionPool();
+    pool.blocker = new CountDownLatch(1);
+    AtomicInteger dropped = new AtomicInteger();
+    BufferedTabletWriter writer =
+        new BufferedTabletWriter.Builder(pool)
+            .lingerMs(0)
+            .maxBufferedBytes(32)
+            .overflowPolicy(BufferedTabletWriter.OverflowPolicy.DROP)
+            .callback(
+                new BufferedTabletWriter.Callback() {
+                  @Override
+                  public void onDropped(String deviceId, long time) {
+                    dropped.incrementAndGet();
+                  }
+                })
+            .build();
+
+    // each row is estimated as 16 bytes
+    for (int i = 0; i < 4; i++) {
+      writer.insertRecord(
+          "root.sg.d1",
+          i,
+          Collections.singletonList("s1"),
+          Collections.singletonList(TSDataType.INT64),
+          Collections.singletonList((long) i));
+    }
+    assertEquals(2, dropped.get());
+
+    pool.blocker.countDown();
+    writer.flush();
+    assertTrue(
+        writer.insertRecord(
+            "root.sg.d1",
+            4,
+            Collections.singletonList("s1"),
+            Collections.singletonList(TSDataType.INT64),
+            Collections.singletonList(4L)));
+    writer.close();
+
+    assertEquals(2, pool.batches.size());
+    assertEquals(2, pool.batches.get(0).get("root.sg.d1").rowSize);
+    assertEquals(1, pool.batches.get(1).get("root.sg.d1").rowSize);
+  }
+
+  private static class MockSessionPool extends SessionPool {
+
+    private final List<Map<String, Tablet>> batches =
+        Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger calls = new AtomicInteger();
+    private volatile IoTDBConnectionException failure;
+    private volatile CountDownLatch blocker;
+
+    private MockSessionPool() {
+      super("127.0.0.1", 6667, "root", "root", 1);
+    }
+
+    @Override
+    public void insertTablets(Map<String, Tablet> tablets, boolean sorted)
+        throws IoTDBConnectionException {
+      calls.incrementAndGet();
+      if (blocker != null) {
+        try {
+          blocker.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      if (failure != null) {
+        throw failure;
+      }
+      batches.add(tablets);
+    }
+  }
+}
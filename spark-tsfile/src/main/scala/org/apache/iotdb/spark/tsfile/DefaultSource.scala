@@ -83,7 +83,21 @@ private[tsfile] class DefaultSource extends FileFormat with DataSourceRegister {
     true
   }
 
-  override def buildReader(
+  /**
+    * Read in columnar batches when whole stage codegen can consume them and every column, the
+    * partition columns included, has a type the column vectors are filled with.
+    */
+  override def supportBatch(sparkSession: SparkSession, schema: StructType): Boolean = {
+    val conf = sparkSession.sessionState.conf
+    sparkSession.conf.get(DefaultSource.enableVectorizedReader, "true").toBoolean &&
+      conf.wholeStageEnabled && schema.length <= conf.wholeStageMaxNumFields &&
+      schema.forall(field => field.dataType match {
+        case BooleanType | IntegerType | LongType | FloatType | DoubleType | StringType => true
+        case _ => false
+      })
+  }
+
+  override def buildReaderWithPartitionValues(
                             sparkSession: SparkSession,
                             dataSchema: StructType,
                             partitionSchema: StructType,
@@ -92,52 +106,42 @@ private[tsfile] class DefaultSource extends FileFormat with DataSourceRegister {
                             options: Map[String, String],
                             hadoopConf: Configuration): (PartitionedFile) => Iterator[InternalRow]
   = {
+    if (!supportBatch(sparkSession, StructType(requiredSchema ++ partitionSchema))) {
+      return super.buildReaderWithPartitionValues(sparkSession, dataSchema, partitionSchema,
+        requiredSchema, filters, options, hadoopConf)
+    }
+
     val broadcastedConf =
       sparkSession.sparkContext.broadcast(new SerializableConfiguration(hadoopConf))
+    val isNarrow = options.getOrElse(DefaultSource.isNarrowForm, "").equals("narrow_form")
 
     (file: PartitionedFile) => {
-      val log = LoggerFactory.getLogger(classOf[DefaultSource])
-      log.info("This partition starts from " + file.start.asInstanceOf[java.lang.Long]
-        + " and ends at " + (file.start + file.length).asInstanceOf[java.lang.Long])
-      log.info(file.toString())
-
-      val conf = broadcastedConf.value.value
-      val in = new HDFSInput(new Path(new URI(file.filePath)), conf)
+      val queryDataSets = DefaultSource.queryFile(broadcastedConf.value.value, file, dataSchema,
+        requiredSchema, filters, options)
 
-      val reader: TsFileSequenceReader = new TsFileSequenceReader(in)
-
-      val tsFileMetaData = reader.readFileMetadata
+      // the batches are passed as rows and unpacked by the scan, like the vectorized Parquet reader
+      new TsFileBatchIterator(queryDataSets, requiredSchema, partitionSchema,
+        file.partitionValues, isNarrow).asInstanceOf[Iterator[InternalRow]]
+    }
+  }
 
-      val readTsFile: TsFileReader = new TsFileReader(reader)
+  override def buildReader(
+                            sparkSession: SparkSession,
+                            dataSchema: StructType,
+                            partitionSchema: StructType,
+                            requiredSchema: StructType,
+                            filters: Seq[Filter],
+                            options: Map[String, String],
+                            hadoopConf: Configuration): (PartitionedFile) => Iterator[InternalRow]
+  = {
+    val broadcastedConf =
+      sparkSession.sparkContext.broadcast(new SerializableConfiguration(hadoopConf))
 
-      Option(TaskContext.get()).foreach { taskContext => {
-        taskContext.addTaskCompletionListener { _ => readTsFile.close() }
-        log.info("task Id: " + taskContext.taskAttemptId() + " partition Id: " +
-          taskContext.partitionId())
-      }
-      }
+    (file: PartitionedFile) => {
+      val queryDataSets = DefaultSource.queryFile(broadcastedConf.value.value, file, dataSchema,
+        requiredSchema, filters, options)
 
       if (options.getOrElse(DefaultSource.isNarrowForm, "").equals("narrow_form")) {
-        val deviceNames = reader.getAllDevices()
-
-        val measurementNames = new java.util.HashSet[String]()
-
-        requiredSchema.foreach((field: StructField) => {
-          if (field.name != QueryConstant.RESERVED_TIME
-            && field.name != NarrowConverter.DEVICE_NAME) {
-            measurementNames += field.name
-          }
-        })
-
-        // construct queryExpression based on queriedSchema and filters
-        val queryExpressions = NarrowConverter.toQueryExpression(dataSchema, deviceNames,
-          measurementNames, filters, reader, file.start.asInstanceOf[java.lang.Long],
-          (file.start + file.length).asInstanceOf[java.lang.Long])
-
-        val queryDataSets = Executor.query(readTsFile, queryExpressions,
-          file.start.asInstanceOf[java.lang.Long],
-          (file.start + file.length).asInstanceOf[java.lang.Long])
-
         var queryDataSet: QueryDataSet = null
         var deviceName: String = null
 
@@ -204,16 +208,7 @@ private[tsfile] class DefaultSource extends FileFormat with DataSourceRegister {
         }
       }
       else {
-        // get queriedSchema from requiredSchema
-        var queriedSchema = WideConverter.prepSchema(requiredSchema, tsFileMetaData, reader)
-
-        // construct queryExpression based on queriedSchema and filters
-        val queryExpression = WideConverter.toQueryExpression(queriedSchema, filters)
-
-
-        val queryDataSet = readTsFile.query(queryExpression,
-          file.start.asInstanceOf[java.lang.Long],
-          (file.start + file.length).asInstanceOf[java.lang.Long])
+        val queryDataSet = queryDataSets.get(0)
 
         new Iterator[InternalRow] {
           private val rowBuffer = Array.fill[Any](requiredSchema.length)(null)
@@ -278,6 +273,76 @@ private[tsfile] class DefaultSource extends FileFormat with DataSourceRegister {
 private[tsfile] object DefaultSource {
   val path = "path"
   val isNarrowForm = "form"
+  /** SparkSQL conf to turn the columnar batch reader on or off, on by default */
+  val enableVectorizedReader = "spark.sql.tsfile.enableVectorizedReader"
+
+  /**
+    * Query one partitioned file with the required columns and the pushed down filters.
+    *
+    * @return the query data sets, one per device in the narrow form and a single one in the wide
+    *         form
+    */
+  def queryFile(conf: Configuration,
+                file: PartitionedFile,
+                dataSchema: StructType,
+                requiredSchema: StructType,
+                filters: Seq[Filter],
+                options: Map[String, String]): java.util.List[QueryDataSet] = {
+    val log = LoggerFactory.getLogger(classOf[DefaultSource])
+    log.info("This partition starts from " + file.start.asInstanceOf[java.lang.Long]
+      + " and ends at " + (file.start + file.length).asInstanceOf[java.lang.Long])
+    log.info(file.toString())
+
+    val in = new HDFSInput(new Path(new URI(file.filePath)), conf)
+
+    val reader: TsFileSequenceReader = new TsFileSequenceReader(in)
+
+    val tsFileMetaData = reader.readFileMetadata
+
+    val readTsFile: TsFileReader = new TsFileReader(reader)
+
+    Option(TaskContext.get()).foreach { taskContext => {
+      taskContext.addTaskCompletionListener { _ => readTsFile.close() }
+      log.info("task Id: " + taskContext.taskAttemptId() + " partition Id: " +
+        taskContext.partitionId())
+    }
+    }
+
+    if (options.getOrElse(isNarrowForm, "").equals("narrow_form")) {
+      val deviceNames = reader.getAllDevices()
+
+      val measurementNames = new java.util.HashSet[String]()
+
+      requiredSchema.foreach((field: StructField) => {
+        if (field.name != QueryConstant.RESERVED_TIME
+          && field.name != NarrowConverter.DEVICE_NAME) {
+          measurementNames += field.name
+        }
+      })
+
+      // construct queryExpression based on queriedSchema and filters
+      val queryExpressions = NarrowConverter.toQueryExpression(dataSchema, deviceNames,
+        measurementNames, filters, reader, file.start.asInstanceOf[java.lang.Long],
+        (file.start + file.length).asInstanceOf[java.lang.Long])
+
+      Executor.query(readTsFile, queryExpressions,
+        file.start.asInstanceOf[java.lang.Long],
+        (file.start + file.length).asInstanceOf[java.lang.Long])
+    }
+    else {
+      // get queriedSchema from requiredSchema
+      val queriedSchema = WideConverter.prepSchema(requiredSchema, tsFileMetaData, reader)
+
+      // construct queryExpression based on queriedSchema and filters
+      val queryExpression = WideConverter.toQueryExpression(queriedSchema, filters)
+
+      val queryDataSets = new java.util.ArrayList[QueryDataSet]()
+      queryDataSets.add(readTsFile.query(queryExpression,
+        file.start.asInstanceOf[java.lang.Long],
+        (file.start + file.length).asInstanceOf[java.lang.Long]))
+      queryDataSets
+    }
+  }
 
   class SerializableConfiguration(@transient var value: Configuration) extends Serializable {
     private def writeObject(out: ObjectOutputStream): Unit = {
@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.spark.tsfile
+
+import java.nio.charset.StandardCharsets
+import java.util.NoSuchElementException
+
+import org.apache.iotdb.tsfile.common.constant.QueryConstant
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType
+import org.apache.iotdb.tsfile.read.common.{Field, Path, RowRecord}
+import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet
+import org.apache.spark.sql.catalyst.InternalRow
+import org.apache.spark.sql.execution.vectorized.{ColumnVectorUtils, OnHeapColumnVector, WritableColumnVector}
+import org.apache.spark.sql.types.StructType
+import org.apache.spark.sql.vectorized.{ColumnVector, ColumnarBatch}
+
+/**
+  * Read the query data sets of one partitioned file into columnar batches. Values are written
+  * straight from the TsFile fields into column vectors, so no intermediate Row is built and
+  * encoded for each record. The batch is reused, the consumer must be done with it before
+  * calling next() again.
+  *
+  * @param queryDataSets   data sets to read, one per device in the narrow form
+  * @param requiredSchema  the columns to read
+  * @param partitionSchema the partition columns appended after the required ones
+  * @param partitionValues the values of the partition columns of this file
+  * @param isNarrowForm    true if the table is in the narrow form
+  * @param capacity        the max number of rows in one batch
+  */
+private[tsfile] class TsFileBatchIterator(queryDataSets: java.util.List[QueryDataSet],
+                                          requiredSchema: StructType,
+                                          partitionSchema: StructType,
+                                          partitionValues: InternalRow,
+                                          isNarrowForm: Boolean,
+                                          capacity: Int = TsFileBatchIterator.DEFAULT_CAPACITY)
+  extends Iterator[ColumnarBatch] {
+
+  import TsFileBatchIterator._
+
+  private val vectors: Array[OnHeapColumnVector] =
+    OnHeapColumnVector.allocateColumns(capacity, StructType(requiredSchema ++ partitionSchema))
+
+  private val batch = new ColumnarBatch(vectors.map(_.asInstanceOf[ColumnVector]))
+
+  partitionSchema.indices.foreach(i => {
+    val vector = vectors(requiredSchema.length + i)
+    ColumnVectorUtils.populate(vector, partitionValues, i)
+    vector.setIsConstant()
+  })
+
+  /** The index of the data set currently read */
+  private var dataSetIndex = 0
+
+  /**
+    * positions(i) is where the i-th required column lies in the fields of the current data set,
+    * or one of TIME_POSITION, DEVICE_POSITION and ABSENT_POSITION. Null if not computed yet.
+    */
+  private var positions: Array[Int] = _
+
+  private var deviceName: Array[Byte] = _
+
+  private var batchReady = false
+
+  override def hasNext: Boolean = {
+    if (!batchReady) {
+      batchReady = loadBatch()
+    }
+    batchReady
+  }
+
+  override def next(): ColumnarBatch = {
+    if (!hasNext) {
+      throw new NoSuchElementException("No more batch in the TsFile")
+    }
+    batchReady = false
+    batch
+  }
+
+  private def loadBatch(): Boolean = {
+    requiredSchema.indices.foreach(i => vectors(i).reset())
+    var rowCount = 0
+    while (rowCount < capacity && moveToDataSetWithNext()) {
+      putRecord(rowCount, queryDataSets.get(dataSetIndex).next())
+      rowCount += 1
+    }
+    batch.setNumRows(rowCount)
+    rowCount > 0
+  }
+
+  /**
+    * Skip the exhausted data sets.
+    *
+    * @return true if the data set at dataSetIndex has a next record
+    */
+  private def moveToDataSetWithNext(): Boolean = {
+    while (dataSetIndex < queryDataSets.size()) {
+      val dataSet = queryDataSets.get(dataSetIndex)
+      if (positions == null) {
+        preparePositions(dataSet)
+      }
+      if (dataSet.hasNext) {
+        return true
+      }
+      dataSetIndex += 1
+      positions = null
+    }
+    false
+  }
+
+  private def preparePositions(dataSet: QueryDataSet): Unit = {
+    val paths = dataSet.getPaths
+    val device = if (isNarrowForm && !paths.isEmpty) paths.get(0).getDevice else null
+    deviceName = if (device == null) null else device.getBytes(StandardCharsets.UTF_8)
+    positions = requiredSchema.fields.map(field => {
+      if (field.name == QueryConstant.RESERVED_TIME) {
+        TIME_POSITION
+      } else if (isNarrowForm && field.name == NarrowConverter.DEVICE_NAME) {
+        DEVICE_POSITION
+      } else if (isNarrowForm) {
+        paths.indexOf(new Path(device, field.name))
+      } else {
+        paths.indexOf(new Path(field.name, true))
+      }
+    })
+  }
+
+  private def putRecord(row: Int, record: RowRecord): Unit = {
+    val fields = record.getFields
+    var i = 0
+    while (i < positions.length) {
+      positions(i) match {
+        case TIME_POSITION => vectors(i).putLong(row, record.getTimestamp)
+        case DEVICE_POSITION =>
+          if (deviceName == null) vectors(i).putNull(row)
+          else vectors(i).putByteArray(row, deviceName)
+        case ABSENT_POSITION => vectors(i).putNull(row)
+        case position => putField(vectors(i), row, fields.get(position))
+      }
+      i += 1
+    }
+  }
+}
+
+private[tsfile] object TsFileBatchIterator {
+  val DEFAULT_CAPACITY = 4096
+
+  val ABSENT_POSITION: Int = -1
+  val TIME_POSITION: Int = -2
+  val DEVICE_POSITION: Int = -3
+
+  /**
+    * Write one TsFile data point into a column vector, the counterpart of Converter.toSqlValue.
+    */
+  def putField(vector: WritableColumnVector, row: Int, field: Field): Unit = {
+    if (field == null || field.getDataType == null) {
+      vector.putNull(row)
+    } else {
+      field.getDataType match {
+        case TSDataType.BOOLEAN => vector.putBoolean(row, field.getBoolV)
+        case TSDataType.INT32 => vector.putInt(row, field.getIntV)
+        case TSDataType.INT64 => vector.putLong(row, field.getLongV)
+        case TSDataType.FLOAT => vector.putFloat(row, field.getFloatV)
+        case TSDataType.DOUBLE => vector.putDouble(row, field.getDoubleV)
+        case TSDataType.TEXT => vector.putByteArray(row, field.getBinaryV.getValues)
+        case other => throw new UnsupportedOperationException(s"Unsupported type $other")
+      }
+    }
+  }
+}
@@ -257,6 +257,41 @@ class TSFileSuit extends FunSuite with BeforeAndAfterAll {
     Assert.assertEquals(16, newDf.count())
   }
 
+  test("testVectorizedReaderWide") {
+    val sql = "select * from tsfile_table where `device_1.sensor_1` >0 " +
+      "and `device_1.sensor_1` <10 or `device_1.sensor_2` >0"
+    try {
+      spark.conf.set(DefaultSource.enableVectorizedReader, "false")
+      spark.read.tsfile(tsfileFolder1).createOrReplaceTempView("tsfile_table")
+      val expected = spark.sql(sql).collect().map(_.toString()).sorted
+
+      spark.conf.set(DefaultSource.enableVectorizedReader, "true")
+      spark.read.tsfile(tsfileFolder1).createOrReplaceTempView("tsfile_table")
+      val actual = spark.sql(sql).collect().map(_.toString()).sorted
+
+      Assert.assertEquals(16, actual.length)
+      Assert.assertArrayEquals(expected.asInstanceOf[Array[AnyRef]],
+        actual.asInstanceOf[Array[AnyRef]])
+    } finally {
+      spark.conf.unset(DefaultSource.enableVectorizedReader)
+    }
+  }
+
+  test("testVectorizedReaderNarrow") {
+    try {
+      spark.conf.set(DefaultSource.enableVectorizedReader, "false")
+      val expected = spark.read.tsfile(tsfile1, true).collect().map(_.toString()).sorted
+
+      spark.conf.set(DefaultSource.enableVectorizedReader, "true")
+      val actual = spark.read.tsfile(tsfile1, true).collect().map(_.toString()).sorted
+
+      Assert.assertArrayEquals(expected.asInstanceOf[Array[AnyRef]],
+        actual.asInstanceOf[Array[AnyRef]])
+    } finally {
+      spark.conf.unset(DefaultSource.enableVectorizedReader)
+    }
+  }
+
   test("testQuerySchema") {
     val df = spark.read.format("org.apache.iotdb.spark.tsfile").load(tsfile1)
 
@@ -108,6 +108,20 @@ struct TSendPlanNodeResp {
   2: optional string message
 }
 
+struct TLoadTsFilePieceReq {
+  1: required string uuid
+  2: required common.TConsensusGroupId consensusGroupId
+  3: required i32 pieceIndex
+  4: required string fileName
+  5: required i64 startIndex
+  6: required binary body
+}
+
+struct TLoadCleanupReq {
+  1: required string uuid
+  2: required common.TConsensusGroupId consensusGroupId
+}
+
 struct TFetchFragmentInstanceStateReq {
   1: required TFragmentInstanceId fragmentInstanceId
 }
@@ -173,6 +187,16 @@ service InternalService {
   */
   TSendPlanNodeResp sendPlanNode(TSendPlanNodeReq req);
 
+  /**
+  * receive a part of a file of a LOAD statement before its LoadTsFileNode is sent
+  */
+  common.TSStatus sendLoadTsFilePiece(TLoadTsFilePieceReq req);
+
+  /**
+  * remove the received files of a LOAD statement whose LoadTsFileNode is not executed
+  */
+  common.TSStatus cleanupLoadTsFile(TLoadCleanupReq req);
+
   TFragmentInstanceStateResp fetchFragmentInstanceState(TFetchFragmentInstanceStateReq req);
 
   TCancelResp cancelQuery(TCancelQueryReq req);
@@ -55,6 +55,11 @@ public abstract class LRUCache<K, T> implements Cache<K, T> {
     cache.clear();
   }
 
+  /** @return the cached value, or null if the key is not cached */
+  public synchronized T getIfPresent(K key) {
+    return cache.get(key);
+  }
+
   public synchronized void put(K key, T value) {
     cache.put(key, value);
   }
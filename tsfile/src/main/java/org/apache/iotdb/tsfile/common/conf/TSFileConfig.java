@@ -111,8 +111,39 @@ public class TSFileConfig implements Serializable {
   private double freqEncodingSNR = 40;
   /** Default block size for FREQ encoding is 1024. */
   private int freqEncodingBlockSize = 1024;
-  /** Data compression method, TsFile supports UNCOMPRESSED, SNAPPY or LZ4. */
+  /** Data compression method, TsFile supports UNCOMPRESSED, SNAPPY, LZ4, GZIP or ZSTD. */
   private CompressionType compressor = CompressionType.SNAPPY;
+  /** Compression level of ZSTD, from 1 (fastest) to 22 (best ratio). */
+  private int zstdCompressionLevel = 3;
+  /**
+   * Max byte size of the ZSTD dictionary trained for each storage group, 0 means no dictionary.
+   */
+  private int zstdDictionarySize = 0;
+  /** Max number of pages sampled to train a ZSTD dictionary. */
+  private int zstdDictionarySampleNum = 100;
+  /**
+   * Chunks of one file closer than this many bytes are read with a single IO when they are loaded
+   * together, the bytes in between are read and dropped.
+   */
+  private int coalescedReadMaxGapSize = 64 * 1024;
+  /**
+   * Whether to write a hash index of the timeseries metadata next to each sealed TsFile, so that
+   * a series lookup costs one probe and one read instead of walking the MetadataIndexNode tree.
+   */
+  private boolean enableTimeseriesMetadataHashIndex = false;
+  /**
+   * Whether to write a bloom filter of the values of each TEXT, INT32 and INT64 chunk next to the
+   * sealed TsFile, so that equality filters can skip chunks.
+   */
+  private boolean enableValueBloomFilter = false;
+  /** A chunk with more distinct values than this gets no value bloom filter. */
+  private int valueBloomFilterMaxDistinctCount = 256;
+  /**
+   * Interval of the pre-aggregated buckets written next to the sealed TsFile for each chunk, in
+   * the precision of timestamps. Group by time queries whose windows are made of whole buckets are
+   * answered from them. 0 means no buckets are written.
+   */
+  private long rollupInterval = 0;
   /** Line count threshold for checking page memory occupied size. */
   private int pageCheckSizeThreshold = 100;
   /** Default endian value is BIG_ENDIAN. */
@@ -431,4 +462,68 @@ public class TSFileConfig implements Serializable {
   public void setFreqEncodingBlockSize(int freqEncodingBlockSize) {
     this.freqEncodingBlockSize = freqEncodingBlockSize;
   }
+
+  public int getZstdCompressionLevel() {
+    return zstdCompressionLevel;
+  }
+
+  public void setZstdCompressionLevel(int zstdCompressionLevel) {
+    this.zstdCompressionLevel = zstdCompressionLevel;
+  }
+
+  public int getZstdDictionarySize() {
+    return zstdDictionarySize;
+  }
+
+  public void setZstdDictionarySize(int zstdDictionarySize) {
+    this.zstdDictionarySize = zstdDictionarySize;
+  }
+
+  public int getZstdDictionarySampleNum() {
+    return zstdDictionarySampleNum;
+  }
+
+  public void setZstdDictionarySampleNum(int zstdDictionarySampleNum) {
+    this.zstdDictionarySampleNum = zstdDictionarySampleNum;
+  }
+
+  public int getCoalescedReadMaxGapSize() {
+    return coalescedReadMaxGapSize;
+  }
+
+  public void setCoalescedReadMaxGapSize(int coalescedReadMaxGapSize) {
+    this.coalescedReadMaxGapSize = coalescedReadMaxGapSize;
+  }
+
+  public boolean isEnableTimeseriesMetadataHashIndex() {
+    return enableTimeseriesMetadataHashIndex;
+  }
+
+  public void setEnableTimeseriesMetadataHashIndex(boolean enableTimeseriesMetadataHashIndex) {
+    this.enableTimeseriesMetadataHashIndex = enableTimeseriesMetadataHashIndex;
+  }
+
+  public boolean isEnableValueBloomFilter() {
+    return enableValueBloomFilter;
+  }
+
+  public void setEnableValueBloomFilter(boolean enableValueBloomFilter) {
+    this.enableValueBloomFilter = enableValueBloomFilter;
+  }
+
+  public int getValueBloomFilterMaxDistinctCount() {
+    return valueBloomFilterMaxDistinctCount;
+  }
+
+  public void setValueBloomFilterMaxDistinctCount(int valueBloomFilterMaxDistinctCount) {
+    this.valueBloomFilterMaxDistinctCount = valueBloomFilterMaxDistinctCount;
+  }
+
+  public long getRollupInterval() {
+    return rollupInterval;
+  }
+
+  public void setRollupInterval(long rollupInterval) {
+    this.rollupInterval = rollupInterval;
+  }
 }
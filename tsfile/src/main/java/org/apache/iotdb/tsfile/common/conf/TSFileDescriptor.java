@@ -80,6 +80,16 @@ public class TSFileDescriptor {
     writer.setString(conf::setTimeEncoder, "time_encoder");
     writer.setString(conf::setValueEncoder, "value_encoder");
     writer.setString(conf::setCompressor, "compressor");
+    writer.setInt(conf::setZstdCompressionLevel, "zstd_compression_level");
+    writer.setInt(conf::setZstdDictionarySize, "zstd_dictionary_size");
+    writer.setInt(conf::setZstdDictionarySampleNum, "zstd_dictionary_sample_num");
+    writer.setInt(conf::setCoalescedReadMaxGapSize, "coalesced_read_max_gap_size");
+    writer.setBoolean(
+        conf::setEnableTimeseriesMetadataHashIndex, "enable_timeseries_metadata_hash_index");
+    writer.setBoolean(conf::setEnableValueBloomFilter, "enable_value_bloom_filter");
+    writer.setInt(
+        conf::setValueBloomFilterMaxDistinctCount, "value_bloom_filter_max_distinct_count");
+    writer.setLong(conf::setRollupInterval, "rollup_interval");
     writer.setInt(conf::setBatchSize, "batch_size");
     writer.setInt(conf::setFreqEncodingBlockSize, "freq_block_size");
     writer.setDouble(conf::setFreqEncodingSNR, "freq_snr");
@@ -100,10 +110,18 @@ public class TSFileDescriptor {
       set(setter, propertyKey, Integer::parseInt);
     }
 
+    public void setLong(Consumer<Long> setter, String propertyKey) {
+      set(setter, propertyKey, Long::parseLong);
+    }
+
     public void setDouble(Consumer<Double> setter, String propertyKey) {
       set(setter, propertyKey, Double::parseDouble);
     }
 
+    public void setBoolean(Consumer<Boolean> setter, String propertyKey) {
+      set(setter, propertyKey, Boolean::parseBoolean);
+    }
+
     public void setString(Consumer<String> setter, String propertyKey) {
       set(setter, propertyKey, Function.identity());
     }
@@ -19,12 +19,17 @@
 
 package org.apache.iotdb.tsfile.compress;
 
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
 import org.apache.iotdb.tsfile.exception.compress.CompressionTypeNotSupportedException;
 import org.apache.iotdb.tsfile.exception.compress.GZIPCompressOverflowException;
 import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdDictCompress;
 import net.jpountz.lz4.LZ4Compressor;
 import net.jpountz.lz4.LZ4Factory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.xerial.snappy.Snappy;
 
 import java.io.ByteArrayInputStream;
@@ -32,12 +37,14 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.Serializable;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 
 import static org.apache.iotdb.tsfile.file.metadata.enums.CompressionType.GZIP;
 import static org.apache.iotdb.tsfile.file.metadata.enums.CompressionType.LZ4;
 import static org.apache.iotdb.tsfile.file.metadata.enums.CompressionType.SNAPPY;
+import static org.apache.iotdb.tsfile.file.metadata.enums.CompressionType.ZSTD;
 
 /** compress data according to type in schema. */
 public interface ICompressor extends Serializable {
@@ -65,11 +72,21 @@ public interface ICompressor extends Serializable {
         return new IOTDBLZ4Compressor();
       case GZIP:
         return new GZIPCompressor();
+      case ZSTD:
+        return new ZstdCompressor();
       default:
         throw new CompressionTypeNotSupportedException(name.toString());
     }
   }
 
+  /**
+   * @return a compressor with the given ZSTD dictionary if the given compressor is a ZSTD one,
+   *     otherwise the given compressor
+   */
+  static ICompressor withZstdDictionary(ICompressor compressor, int dictionaryId) {
+    return compressor.getType() == ZSTD ? new ZstdCompressor(dictionaryId) : compressor;
+  }
+
   byte[] compress(byte[] data) throws IOException;
 
   /**
@@ -311,4 +328,88 @@ public interface ICompressor extends Serializable {
       return GZIP;
     }
   }
+
+  class ZstdCompressor implements ICompressor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ZstdCompressor.class);
+
+    private final int level;
+
+    /** null if data is compressed without dictionary */
+    private final transient ZstdDictCompress dictionary;
+
+    public ZstdCompressor() {
+      this(0);
+    }
+
+    /** @param dictionaryId id of a dictionary known by {@link ZstdDictionaryManager}, or 0 */
+    public ZstdCompressor(int dictionaryId) {
+      this(TSFileDescriptor.getInstance().getConfig().getZstdCompressionLevel(), dictionaryId);
+    }
+
+    /** @param dictionaryId id of a known dictionary, 0 means no dictionary */
+    public ZstdCompressor(int level, int dictionaryId) {
+      this.level = level;
+      ZstdDictCompress dict = null;
+      if (dictionaryId != 0) {
+        try {
+          dict = ZstdDictionaryManager.getInstance().getCompressDictionary(dictionaryId, level);
+        } catch (IOException e) {
+          // data compressed without dictionary is still readable anywhere
+          logger.warn("Cannot load ZSTD dictionary {}, compress without it", dictionaryId, e);
+        }
+      }
+      this.dictionary = dict;
+    }
+
+    @Override
+    public byte[] compress(byte[] data) throws IOException {
+      if (data == null) {
+        return new byte[0];
+      }
+      return compress(data, 0, data.length);
+    }
+
+    @Override
+    public byte[] compress(byte[] data, int offset, int length) throws IOException {
+      byte[] maxCompressed = new byte[getMaxBytesForCompression(length)];
+      int compressedSize = compress(data, offset, length, maxCompressed);
+      return compressedSize < maxCompressed.length
+          ? Arrays.copyOf(maxCompressed, compressedSize)
+          : maxCompressed;
+    }
+
+    @Override
+    public int compress(byte[] data, int offset, int length, byte[] compressed) throws IOException {
+      long compressedSize =
+          dictionary == null
+              ? Zstd.compressByteArray(
+                  compressed, 0, compressed.length, data, offset, length, level)
+              : Zstd.compressFastDict(compressed, 0, data, offset, length, dictionary);
+      if (Zstd.isError(compressedSize)) {
+        throw new IOException("ZSTD compression failed: " + Zstd.getErrorName(compressedSize));
+      }
+      return (int) compressedSize;
+    }
+
+    @Override
+    public int compress(ByteBuffer data, ByteBuffer compressed) throws IOException {
+      int length = data.remaining();
+      byte[] dataBefore = new byte[length];
+      data.get(dataBefore, 0, length);
+      byte[] res = compress(dataBefore, 0, length);
+      compressed.put(res);
+      return res.length;
+    }
+
+    @Override
+    public int getMaxBytesForCompression(int uncompressedDataSize) {
+      return (int) Zstd.compressBound(uncompressedDataSize);
+    }
+
+    @Override
+    public CompressionType getType() {
+      return ZSTD;
+    }
+  }
 }
@@ -22,6 +22,8 @@ package org.apache.iotdb.tsfile.compress;
 import org.apache.iotdb.tsfile.exception.compress.CompressionTypeNotSupportedException;
 import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdDictDecompress;
 import net.jpountz.lz4.LZ4Compressor;
 import net.jpountz.lz4.LZ4Factory;
 import net.jpountz.lz4.LZ4SafeDecompressor;
@@ -31,6 +33,7 @@ import org.xerial.snappy.Snappy;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 /** uncompress data according to type in metadata. */
 public interface IUnCompressor {
@@ -54,6 +57,8 @@ public interface IUnCompressor {
         return new LZ4UnCompressor();
       case GZIP:
         return new GZIPUnCompressor();
+      case ZSTD:
+        return new ZstdUnCompressor();
       default:
         throw new CompressionTypeNotSupportedException(name.toString());
     }
@@ -312,4 +317,77 @@ public interface IUnCompressor {
       return CompressionType.GZIP;
     }
   }
+
+  class ZstdUnCompressor implements IUnCompressor {
+
+    /** max byte size of a ZSTD frame header, which holds the dictionary id */
+    private static final int FRAME_HEADER_SIZE_MAX = 18;
+
+    @Override
+    public int getUncompressedLength(byte[] array, int offset, int length) throws IOException {
+      long size = Zstd.decompressedSize(array, offset, length);
+      if (size <= 0 || size > Integer.MAX_VALUE) {
+        throw new IOException("ZSTD frame does not record a valid uncompressed size: " + size);
+      }
+      return (int) size;
+    }
+
+    @Override
+    public int getUncompressedLength(ByteBuffer buffer) throws IOException {
+      byte[] bytes = new byte[buffer.remaining()];
+      buffer.duplicate().get(bytes);
+      return getUncompressedLength(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public byte[] uncompress(byte[] byteArray) throws IOException {
+      if (null == byteArray) {
+        return new byte[0];
+      }
+      byte[] output = new byte[getUncompressedLength(byteArray, 0, byteArray.length)];
+      uncompress(byteArray, 0, byteArray.length, output, 0);
+      return output;
+    }
+
+    @Override
+    public int uncompress(byte[] byteArray, int offset, int length, byte[] output, int outOffset)
+        throws IOException {
+      ZstdDictDecompress dictionary = getDictionary(byteArray, offset, length);
+      long size =
+          dictionary == null
+              ? Zstd.decompressByteArray(
+                  output, outOffset, output.length - outOffset, byteArray, offset, length)
+              : Zstd.decompressFastDict(output, outOffset, byteArray, offset, length, dictionary);
+      if (Zstd.isError(size)) {
+        throw new IOException("ZSTD decompression failed: " + Zstd.getErrorName(size));
+      }
+      return (int) size;
+    }
+
+    @Override
+    public int uncompress(ByteBuffer compressed, ByteBuffer uncompressed) throws IOException {
+      int length = compressed.remaining();
+      byte[] dataBefore = new byte[length];
+      compressed.get(dataBefore, 0, length);
+      byte[] res = uncompress(dataBefore);
+      uncompressed.put(res);
+      return res.length;
+    }
+
+    /** the dictionary the frame is compressed with, or null if none is used */
+    private ZstdDictDecompress getDictionary(byte[] byteArray, int offset, int length)
+        throws IOException {
+      byte[] frameHeader =
+          Arrays.copyOfRange(byteArray, offset, offset + Math.min(length, FRAME_HEADER_SIZE_MAX));
+      int dictionaryId = (int) Zstd.getDictIdFromFrame(frameHeader);
+      return dictionaryId == 0
+          ? null
+          : ZstdDictionaryManager.getInstance().getDecompressDictionary(dictionaryId);
+    }
+
+    @Override
+    public CompressionType getCodecName() {
+      return CompressionType.ZSTD;
+    }
+  }
 }
@@ -0,0 +1,316 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.tsfile.compress;
+
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.file.MetaMarker;
+import org.apache.iotdb.tsfile.file.header.ChunkHeader;
+import org.apache.iotdb.tsfile.file.header.PageHeader;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.fileSystem.FSFactoryProducer;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.reader.TsFileInput;
+import org.apache.iotdb.tsfile.utils.PublicBAOS;
+import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
+
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdDictCompress;
+import com.github.luben.zstd.ZstdDictDecompress;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Trains and caches ZSTD dictionaries. Every ZSTD frame records the id of the dictionary it was
+ * compressed with, and the dictionaries used by the chunks of a TsFile are written next to it as
+ * {tsfile}.dict, which is loaded when the TsFile is opened. So a TsFile stays readable wherever it
+ * is moved, loaded or compacted together with its dictionary file.
+ *
+ * <p>Each storage group compresses with the dictionary trained from the pages of its first sealed
+ * TsFile compressed by ZSTD, see {@link #trainIfAbsent}.
+ *
+ * <p>Layout of the dictionary file, in big endian: dictionary count (int), then the length (int)
+ * and the content of each dictionary.
+ */
+public class ZstdDictionaryManager {
+
+  private static final Logger logger = LoggerFactory.getLogger(ZstdDictionaryManager.class);
+
+  public static final String FILE_SUFFIX = ".dict";
+
+  private static final String TEMP_SUFFIX = ".tmp";
+
+  /** contents of the known dictionaries by id */
+  private final Map<Integer, byte[]> dictionaries = new ConcurrentHashMap<>();
+
+  /** id of the dictionary each storage group compresses with */
+  private final Map<String, Integer> storageGroupDictionaries = new ConcurrentHashMap<>();
+
+  /** key is dictionary id in the high 32 bits and compression level in the low 32 bits */
+  private final Map<Long, ZstdDictCompress> compressDictionaries = new ConcurrentHashMap<>();
+
+  private final Map<Integer, ZstdDictDecompress> decompressDictionaries =
+      new ConcurrentHashMap<>();
+
+  private ZstdDictionaryManager() {}
+
+  public static ZstdDictionaryManager getInstance() {
+    return ZstdDictionaryManagerHolder.INSTANCE;
+  }
+
+  public ZstdDictCompress getCompressDictionary(int dictionaryId, int level) throws IOException {
+    long key = ((long) dictionaryId << 32) | (level & 0xFFFFFFFFL);
+    ZstdDictCompress dictionary = compressDictionaries.get(key);
+    if (dictionary == null) {
+      dictionary = new ZstdDictCompress(getDictionary(dictionaryId), level);
+      ZstdDictCompress previous = compressDictionaries.putIfAbsent(key, dictionary);
+      if (previous != null) {
+        dictionary = previous;
+      }
+    }
+    return dictionary;
+  }
+
+  public ZstdDictDecompress getDecompressDictionary(int dictionaryId) throws IOException {
+    ZstdDictDecompress dictionary = decompressDictionaries.get(dictionaryId);
+    if (dictionary == null) {
+      dictionary = new ZstdDictDecompress(getDictionary(dictionaryId));
+      ZstdDictDecompress previous = decompressDictionaries.putIfAbsent(dictionaryId, dictionary);
+      if (previous != null) {
+        dictionary = previous;
+      }
+    }
+    return dictionary;
+  }
+
+  private byte[] getDictionary(int dictionaryId) throws IOException {
+    byte[] dictionary = dictionaries.get(dictionaryId);
+    if (dictionary == null) {
+      throw new IOException(
+          String.format(
+              "ZSTD dictionary %s is not found, the %s file of the TsFile may be missing",
+              Integer.toUnsignedString(dictionaryId), FILE_SUFFIX));
+    }
+    return dictionary;
+  }
+
+  /** @return id of the dictionary the storage group compresses with, 0 if it has none */
+  public int getDictionaryId(String storageGroup) {
+    return storageGroupDictionaries.getOrDefault(storageGroup, 0);
+  }
+
+  /**
+   * Train a dictionary for the storage group from the pages of its sealed TsFile, unless the
+   * storage group has one already or the TsFile has no page compressed by ZSTD.
+   *
+   * @param dictionarySize max byte size of the dictionary, 0 means no dictionary is used
+   * @param maxSampleCount at most so many pages are used as samples
+   */
+  public void trainIfAbsent(
+      String storageGroup, String tsFilePath, int dictionarySize, int maxSampleCount) {
+    if (dictionarySize <= 0 || storageGroupDictionaries.containsKey(storageGroup)) {
+      return;
+    }
+    List<byte[]> samples = new ArrayList<>();
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(tsFilePath)) {
+      collectPageSamples(reader, samples, maxSampleCount);
+    } catch (IOException e) {
+      logger.warn("Cannot sample the pages of {} to train ZSTD dictionary", tsFilePath, e);
+      return;
+    }
+    if (samples.isEmpty()) {
+      return;
+    }
+    try {
+      int dictionaryId = train(samples, dictionarySize);
+      storageGroupDictionaries.putIfAbsent(storageGroup, dictionaryId);
+      logger.info(
+          "Storage group {} compresses with ZSTD dictionary {} from now on",
+          storageGroup,
+          Integer.toUnsignedString(dictionaryId));
+    } catch (IOException e) {
+      logger.warn("Cannot train ZSTD dictionary for storage group {}", storageGroup, e);
+    }
+  }
+
+  /**
+   * Train a dictionary from sample data.
+   *
+   * @param samples uncompressed sample data, e.g. page contents
+   * @param dictionarySize max byte size of the dictionary
+   * @return id of the trained dictionary
+   */
+  public int train(List<byte[]> samples, int dictionarySize) throws IOException {
+    byte[] buffer = new byte[dictionarySize];
+    long size = Zstd.trainFromBuffer(samples.toArray(new byte[0][]), buffer);
+    if (Zstd.isError(size)) {
+      throw new IOException("Failed to train ZSTD dictionary: " + Zstd.getErrorName(size));
+    }
+    byte[] dictionary = Arrays.copyOf(buffer, (int) size);
+    int dictionaryId = register(dictionary);
+    logger.info(
+        "Trained ZSTD dictionary {} of {} bytes from {} samples",
+        Integer.toUnsignedString(dictionaryId),
+        size,
+        samples.size());
+    return dictionaryId;
+  }
+
+  private int register(byte[] dictionary) throws IOException {
+    int dictionaryId = (int) Zstd.getDictIdFromDict(dictionary);
+    if (dictionaryId == 0) {
+      throw new IOException("Not a ZSTD dictionary");
+    }
+    dictionaries.putIfAbsent(dictionaryId, dictionary);
+    return dictionaryId;
+  }
+
+  /** Collect the uncompressed pages of the chunks compressed by ZSTD. */
+  private void collectPageSamples(
+      TsFileSequenceReader reader, List<byte[]> samples, int maxSampleCount) throws IOException {
+    reader.position((long) TSFileConfig.MAGIC_STRING.getBytes().length + 1);
+    byte marker;
+    while (samples.size() < maxSampleCount
+        && (marker = reader.readMarker()) != MetaMarker.SEPARATOR) {
+      switch (marker) {
+        case MetaMarker.CHUNK_HEADER:
+        case MetaMarker.TIME_CHUNK_HEADER:
+        case MetaMarker.VALUE_CHUNK_HEADER:
+        case MetaMarker.ONLY_ONE_PAGE_CHUNK_HEADER:
+        case MetaMarker.ONLY_ONE_PAGE_TIME_CHUNK_HEADER:
+        case MetaMarker.ONLY_ONE_PAGE_VALUE_CHUNK_HEADER:
+          ChunkHeader header = reader.readChunkHeader(marker);
+          if (header.getCompressionType() != CompressionType.ZSTD) {
+            reader.position(reader.position() + header.getDataSize());
+            break;
+          }
+          int dataSize = header.getDataSize();
+          while (dataSize > 0) {
+            PageHeader pageHeader =
+                reader.readPageHeader(
+                    header.getDataType(),
+                    (header.getChunkType() & 0x3F) == MetaMarker.CHUNK_HEADER);
+            ByteBuffer pageData = reader.readPage(pageHeader, header.getCompressionType());
+            if (samples.size() < maxSampleCount && pageData.hasRemaining()) {
+              byte[] sample = new byte[pageData.remaining()];
+              pageData.get(sample);
+              samples.add(sample);
+            }
+            dataSize -= pageHeader.getSerializedPageSize();
+          }
+          break;
+        case MetaMarker.CHUNK_GROUP_HEADER:
+          reader.readChunkGroupHeader();
+          break;
+        case MetaMarker.OPERATION_INDEX_RANGE:
+          reader.readPlanIndex();
+          break;
+        default:
+          MetaMarker.handleUnexpectedMarker(marker);
+      }
+    }
+  }
+
+  /**
+   * Load the dictionaries written next to the given TsFile, so that its pages can be uncompressed.
+   *
+   * @return ids of the loaded dictionaries, empty if the TsFile has no dictionary file
+   */
+  public List<Integer> loadDictionaries(String tsFilePath) throws IOException {
+    String dictionaryFilePath = tsFilePath + FILE_SUFFIX;
+    if (!FSFactoryProducer.getFSFactory().getFile(dictionaryFilePath).exists()) {
+      return new ArrayList<>();
+    }
+    TsFileInput input = FSFactoryProducer.getFileInputFactory().getTsFileInput(dictionaryFilePath);
+    try {
+      long size = input.size();
+      if (size > Integer.MAX_VALUE) {
+        throw new IOException("ZSTD dictionary file " + dictionaryFilePath + " is too large");
+      }
+      ByteBuffer buffer = ByteBuffer.allocate((int) size);
+      while (buffer.hasRemaining()) {
+        if (input.read(buffer, buffer.position()) < 0) {
+          throw new IOException("ZSTD dictionary file " + dictionaryFilePath + " is truncated");
+        }
+      }
+      buffer.flip();
+      int count = ReadWriteIOUtils.readInt(buffer);
+      List<Integer> dictionaryIds = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        byte[] dictionary = new byte[ReadWriteIOUtils.readInt(buffer)];
+        buffer.get(dictionary);
+        dictionaryIds.add(register(dictionary));
+      }
+      return dictionaryIds;
+    } catch (BufferUnderflowException | NegativeArraySizeException e) {
+      throw new IOException("ZSTD dictionary file " + dictionaryFilePath + " is corrupted", e);
+    } finally {
+      input.close();
+    }
+  }
+
+  /**
+   * Write the given dictionaries next to the TsFile, replacing its dictionary file atomically.
+   * The dictionaries must be known by this manager.
+   */
+  public void writeDictionaries(String tsFilePath, Collection<Integer> dictionaryIds)
+      throws IOException {
+    PublicBAOS content = new PublicBAOS();
+    ReadWriteIOUtils.write(dictionaryIds.size(), content);
+    for (int dictionaryId : dictionaryIds) {
+      byte[] dictionary = getDictionary(dictionaryId);
+      ReadWriteIOUtils.write(dictionary.length, content);
+      content.write(dictionary);
+    }
+    File dictionaryFile = new File(tsFilePath + FILE_SUFFIX);
+    File tempFile = new File(dictionaryFile.getPath() + TEMP_SUFFIX);
+    try (FileOutputStream outputStream = new FileOutputStream(tempFile)) {
+      outputStream.write(content.getBuf(), 0, content.size());
+      outputStream.getFD().sync();
+    }
+    Files.move(
+        tempFile.toPath(),
+        dictionaryFile.toPath(),
+        StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  private static class ZstdDictionaryManagerHolder {
+
+    private ZstdDictionaryManagerHolder() {
+      throw new IllegalAccessError("Utility class");
+    }
+
+    private static final ZstdDictionaryManager INSTANCE = new ZstdDictionaryManager();
+  }
+}
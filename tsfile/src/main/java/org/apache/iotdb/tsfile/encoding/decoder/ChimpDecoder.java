@@ -0,0 +1,198 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.tsfile.encoding.decoder;
+
+import org.apache.iotdb.tsfile.encoding.encoder.ChimpEncoder;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Decoder for {@link ChimpEncoder}. A whole block is decoded into an array the first time a value
+ * of it is requested, so the bit stream is walked in one tight loop and bulk reads are plain array
+ * copies.
+ */
+public abstract class ChimpDecoder extends Decoder {
+
+  /** a read of more bits may not fit into the 8 bytes starting from the byte of its first bit */
+  private static final int MAX_BITS_PER_READ = Long.SIZE - Byte.SIZE + 1;
+
+  /** leading zeros indexed by their 3-bit representation */
+  private static final int[] LEADING_ZEROS = {0, 8, 12, 16, 18, 20, 22, 24};
+
+  private final int valueBits;
+  private final int centerBitsLength;
+
+  /** raw bits of the values of the current block */
+  protected long[] block = new long[0];
+
+  protected int blockSize = 0;
+  protected int blockIndex = 0;
+
+  /** bytes of the current block, followed by {@link Long#BYTES} bytes of padding */
+  private ByteBuffer blockBytes = ByteBuffer.allocate(0);
+
+  private long bitPosition = 0;
+
+  protected ChimpDecoder(int valueBits, int centerBitsLength) {
+    super(TSEncoding.CHIMP);
+    this.valueBits = valueBits;
+    this.centerBitsLength = centerBitsLength;
+  }
+
+  @Override
+  public final boolean hasNext(ByteBuffer buffer) {
+    return blockIndex < blockSize || buffer.hasRemaining();
+  }
+
+  @Override
+  public void reset() {
+    blockSize = 0;
+    blockIndex = 0;
+  }
+
+  /** @return raw bits of the next value */
+  protected long nextBits(ByteBuffer buffer) {
+    if (blockIndex == blockSize) {
+      loadBlock(buffer);
+    }
+    return block[blockIndex++];
+  }
+
+  /**
+   * Makes sure the current block has unread values.
+   *
+   * @return the number of unread values in the current block, 0 if there is no more data
+   */
+  protected int ensureBlock(ByteBuffer buffer) {
+    if (blockIndex == blockSize && buffer.hasRemaining()) {
+      loadBlock(buffer);
+    }
+    return blockSize - blockIndex;
+  }
+
+  private void loadBlock(ByteBuffer buffer) {
+    blockSize = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
+    blockIndex = 0;
+    if (block.length < blockSize) {
+      block = new long[blockSize];
+    }
+    int byteLength = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
+    if (blockBytes.capacity() < byteLength + Long.BYTES) {
+      blockBytes = ByteBuffer.allocate(byteLength + Long.BYTES);
+    }
+    buffer.get(blockBytes.array(), 0, byteLength);
+    bitPosition = 0;
+
+    long value = readBits(valueBits);
+    block[0] = value;
+    int storedLeadingZeros = Integer.MAX_VALUE;
+    for (int i = 1; i < blockSize; i++) {
+      switch ((int) readBits(2)) {
+        case 0b01:
+          int leadingZeros = LEADING_ZEROS[(int) readBits(3)];
+          int significantBits = (int) readBits(centerBitsLength);
+          int trailingZeros = valueBits - leadingZeros - significantBits;
+          value ^= readBits(significantBits) << trailingZeros;
+          storedLeadingZeros = Integer.MAX_VALUE;
+          break;
+        case 0b10:
+          value ^= readBits(valueBits - storedLeadingZeros);
+          break;
+        case 0b11:
+          storedLeadingZeros = LEADING_ZEROS[(int) readBits(3)];
+          value ^= readBits(valueBits - storedLeadingZeros);
+          break;
+        default:
+          // same as the previous value
+          storedLeadingZeros = Integer.MAX_VALUE;
+          break;
+      }
+      block[i] = value;
+    }
+  }
+
+  /** Reads the next {@code bits} (1 to 64) bits of the block, most significant bit first. */
+  private long readBits(int bits) {
+    if (bits > MAX_BITS_PER_READ) {
+      long high = readBits(bits - Integer.SIZE);
+      return (high << Integer.SIZE) | readBits(Integer.SIZE);
+    }
+    // the padding makes the 8 bytes from any position inside the block readable
+    long word = blockBytes.getLong((int) (bitPosition >>> 3)) << (bitPosition & 7);
+    bitPosition += bits;
+    return word >>> (Long.SIZE - bits);
+  }
+
+  public static class FloatChimpDecoder extends ChimpDecoder {
+
+    public FloatChimpDecoder() {
+      super(Float.SIZE, 5);
+    }
+
+    @Override
+    public final float readFloat(ByteBuffer buffer) {
+      return Float.intBitsToFloat((int) nextBits(buffer));
+    }
+
+    @Override
+    public int readFloats(ByteBuffer buffer, float[] values, int offset, int size) {
+      int read = 0;
+      while (read < size) {
+        int available = Math.min(ensureBlock(buffer), size - read);
+        if (available == 0) {
+          break;
+        }
+        for (int i = 0; i < available; i++) {
+          values[offset + read++] = Float.intBitsToFloat((int) block[blockIndex++]);
+        }
+      }
+      return read;
+    }
+  }
+
+  public static class DoubleChimpDecoder extends ChimpDecoder {
+
+    public DoubleChimpDecoder() {
+      super(Double.SIZE, 6);
+    }
+
+    @Override
+    public final double readDouble(ByteBuffer buffer) {
+      return Double.longBitsToDouble(nextBits(buffer));
+    }
+
+    @Override
+    public int readDoubles(ByteBuffer buffer, double[] values, int offset, int size) {
+      int read = 0;
+      while (read < size) {
+        int available = Math.min(ensureBlock(buffer), size - read);
+        if (available == 0) {
+          break;
+        }
+        for (int i = 0; i < available; i++) {
+          values[offset + read++] = Double.longBitsToDouble(block[blockIndex++]);
+        }
+      }
+      return read;
+    }
+  }
+}
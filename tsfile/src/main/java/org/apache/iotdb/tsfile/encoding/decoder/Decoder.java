@@ -32,6 +32,8 @@ public abstract class Decoder {
 
   private static final String ERROR_MSG = "Decoder not found: %s , DataType is : %s";
 
+  private static final int SKIP_BATCH_SIZE = 256;
+
   private TSEncoding type;
 
   public Decoder(TSEncoding type) {
@@ -123,6 +125,15 @@ public abstract class Decoder {
         }
       case FREQ:
         return new FreqDecoder();
+      case CHIMP:
+        switch (dataType) {
+          case FLOAT:
+            return new ChimpDecoder.FloatChimpDecoder();
+          case DOUBLE:
+            return new ChimpDecoder.DoubleChimpDecoder();
+          default:
+            throw new TsFileDecodingException(String.format(ERROR_MSG, encoding, dataType));
+        }
       default:
         throw new TsFileDecodingException(String.format(ERROR_MSG, encoding, dataType));
     }
@@ -160,6 +171,117 @@ public abstract class Decoder {
     throw new TsFileDecodingException("Method readBigDecimal is not supported by Decoder");
   }
 
+  /**
+   * Decode at most {@code size} int values into {@code values} starting at {@code offset}.
+   * Decoders with a cheaper way than one {@link #readInt} call per value should override this.
+   *
+   * @return number of values actually decoded, less than {@code size} only if the buffer is
+   *     exhausted
+   */
+  public int readInts(ByteBuffer buffer, int[] values, int offset, int size) throws IOException {
+    int count = 0;
+    while (count < size && hasNext(buffer)) {
+      values[offset + count++] = readInt(buffer);
+    }
+    return count;
+  }
+
+  /** @see #readInts(ByteBuffer, int[], int, int) */
+  public int readLongs(ByteBuffer buffer, long[] values, int offset, int size) throws IOException {
+    int count = 0;
+    while (count < size && hasNext(buffer)) {
+      values[offset + count++] = readLong(buffer);
+    }
+    return count;
+  }
+
+  /** @see #readInts(ByteBuffer, int[], int, int) */
+  public int readFloats(ByteBuffer buffer, float[] values, int offset, int size)
+      throws IOException {
+    int count = 0;
+    while (count < size && hasNext(buffer)) {
+      values[offset + count++] = readFloat(buffer);
+    }
+    return count;
+  }
+
+  /** @see #readInts(ByteBuffer, int[], int, int) */
+  public int readDoubles(ByteBuffer buffer, double[] values, int offset, int size)
+      throws IOException {
+    int count = 0;
+    while (count < size && hasNext(buffer)) {
+      values[offset + count++] = readDouble(buffer);
+    }
+    return count;
+  }
+
+  /**
+   * Skip the next {@code size} values of {@code dataType} without returning them.
+   *
+   * @return number of values actually skipped, less than {@code size} only if the buffer is
+   *     exhausted
+   */
+  public int skip(ByteBuffer buffer, TSDataType dataType, int size) throws IOException {
+    int skipped = 0;
+    int read;
+    switch (dataType) {
+      case BOOLEAN:
+        while (skipped < size && hasNext(buffer)) {
+          readBoolean(buffer);
+          skipped++;
+        }
+        return skipped;
+      case INT32:
+        int[] ints = new int[Math.min(size, SKIP_BATCH_SIZE)];
+        while (skipped < size) {
+          read = readInts(buffer, ints, 0, Math.min(ints.length, size - skipped));
+          if (read == 0) {
+            break;
+          }
+          skipped += read;
+        }
+        return skipped;
+      case INT64:
+        long[] longs = new long[Math.min(size, SKIP_BATCH_SIZE)];
+        while (skipped < size) {
+          read = readLongs(buffer, longs, 0, Math.min(longs.length, size - skipped));
+          if (read == 0) {
+            break;
+          }
+          skipped += read;
+        }
+        return skipped;
+      case FLOAT:
+        float[] floats = new float[Math.min(size, SKIP_BATCH_SIZE)];
+        while (skipped < size) {
+          read = readFloats(buffer, floats, 0, Math.min(floats.length, size - skipped));
+          if (read == 0) {
+            break;
+          }
+          skipped += read;
+        }
+        return skipped;
+      case DOUBLE:
+        double[] doubles = new double[Math.min(size, SKIP_BATCH_SIZE)];
+        while (skipped < size) {
+          read = readDoubles(buffer, doubles, 0, Math.min(doubles.length, size - skipped));
+          if (read == 0) {
+            break;
+          }
+          skipped += read;
+        }
+        return skipped;
+      case TEXT:
+        while (skipped < size && hasNext(buffer)) {
+          readBinary(buffer);
+          skipped++;
+        }
+        return skipped;
+      default:
+        throw new TsFileDecodingException(String.format(ERROR_MSG, type, dataType));
+    }
+  }
+
   public abstract boolean hasNext(ByteBuffer buffer) throws IOException;
 
   public abstract void reset();
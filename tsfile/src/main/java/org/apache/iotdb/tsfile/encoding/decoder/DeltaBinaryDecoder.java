@@ -68,7 +68,7 @@ public abstract class DeltaBinaryDecoder extends Decoder {
    * @return number of bytes
    */
   protected int ceil(int v) {
-    return (int) Math.ceil((double) (v) / 8.0);
+    return (v + 7) / 8;
   }
 
   @Override
@@ -106,6 +106,25 @@ public abstract class DeltaBinaryDecoder extends Decoder {
       return readT(buffer);
     }
 
+    @Override
+    public int readInts(ByteBuffer buffer, int[] values, int offset, int size) {
+      int read = 0;
+      while (read < size) {
+        if (nextReadIndex == readIntTotalCount) {
+          if (!buffer.hasRemaining()) {
+            break;
+          }
+          values[offset + read++] = loadIntBatch(buffer);
+        } else {
+          int length = Math.min(size - read, readIntTotalCount - nextReadIndex);
+          System.arraycopy(data, nextReadIndex, values, offset + read, length);
+          nextReadIndex += length;
+          read += length;
+        }
+      }
+      return read;
+    }
+
     /**
      * if remaining data has been run out, load next pack from InputStream.
      *
@@ -119,8 +138,10 @@ public abstract class DeltaBinaryDecoder extends Decoder {
       readHeader(buffer);
 
       encodingLength = ceil(packNum * packWidth);
-      deltaBuf = new byte[encodingLength];
-      buffer.get(deltaBuf);
+      if (deltaBuf == null || deltaBuf.length < encodingLength) {
+        deltaBuf = new byte[encodingLength];
+      }
+      buffer.get(deltaBuf, 0, encodingLength);
       allocateDataArray();
 
       previous = firstValue;
@@ -131,6 +152,14 @@ public abstract class DeltaBinaryDecoder extends Decoder {
     }
 
     private void readPack() {
+      if (packWidth == 0) {
+        // all deltas equal minDeltaBase, nothing to unpack
+        for (int i = 0; i < packNum; i++) {
+          previous += minDeltaBase;
+          data[i] = previous;
+        }
+        return;
+      }
       for (int i = 0; i < packNum; i++) {
         readValue(i);
         previous = data[i];
@@ -145,7 +174,9 @@ public abstract class DeltaBinaryDecoder extends Decoder {
 
     @Override
     protected void allocateDataArray() {
-      data = new int[packNum];
+      if (data == null || data.length < packNum) {
+        data = new int[packNum];
+      }
     }
 
     @Override
@@ -198,8 +229,10 @@ public abstract class DeltaBinaryDecoder extends Decoder {
       readHeader(buffer);
 
       encodingLength = ceil(packNum * packWidth);
-      deltaBuf = new byte[encodingLength];
-      buffer.get(deltaBuf);
+      if (deltaBuf == null || deltaBuf.length < encodingLength) {
+        deltaBuf = new byte[encodingLength];
+      }
+      buffer.get(deltaBuf, 0, encodingLength);
       allocateDataArray();
 
       previous = firstValue;
@@ -210,6 +243,14 @@ public abstract class DeltaBinaryDecoder extends Decoder {
     }
 
     private void readPack() {
+      if (packWidth == 0) {
+        // all deltas equal minDeltaBase, nothing to unpack
+        for (int i = 0; i < packNum; i++) {
+          previous += minDeltaBase;
+          data[i] = previous;
+        }
+        return;
+      }
       for (int i = 0; i < packNum; i++) {
         readValue(i);
         previous = data[i];
@@ -222,6 +263,25 @@ public abstract class DeltaBinaryDecoder extends Decoder {
       return readT(buffer);
     }
 
+    @Override
+    public int readLongs(ByteBuffer buffer, long[] values, int offset, int size) {
+      int read = 0;
+      while (read < size) {
+        if (nextReadIndex == readIntTotalCount) {
+          if (!buffer.hasRemaining()) {
+            break;
+          }
+          values[offset + read++] = loadIntBatch(buffer);
+        } else {
+          int length = Math.min(size - read, readIntTotalCount - nextReadIndex);
+          System.arraycopy(data, nextReadIndex, values, offset + read, length);
+          nextReadIndex += length;
+          read += length;
+        }
+      }
+      return read;
+    }
+
     @Override
     protected void readHeader(ByteBuffer buffer) {
       minDeltaBase = ReadWriteIOUtils.readLong(buffer);
@@ -230,7 +290,9 @@ public abstract class DeltaBinaryDecoder extends Decoder {
 
     @Override
     protected void allocateDataArray() {
-      data = new long[packNum];
+      if (data == null || data.length < packNum) {
+        data = new long[packNum];
+      }
     }
 
     @Override
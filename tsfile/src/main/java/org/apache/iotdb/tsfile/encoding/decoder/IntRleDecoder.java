@@ -29,6 +29,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 /** Decoder for int value using rle or bit-packing. */
 public class IntRleDecoder extends RleDecoder {
@@ -99,6 +100,36 @@ public class IntRleDecoder extends RleDecoder {
     return result;
   }
 
+  @Override
+  public int readInts(ByteBuffer buffer, int[] values, int offset, int size) throws IOException {
+    int read = 0;
+    while (read < size) {
+      if (!isLengthAndBitWidthReaded) {
+        if (!buffer.hasRemaining()) {
+          break;
+        }
+        // start to read a new rle+bit-packing pattern
+        readLengthAndBitWidth(buffer);
+      }
+      if (currentCount == 0) {
+        readNext();
+      }
+      // copy the rest of the current run or bit-packed group at once
+      int num = Math.min(size - read, currentCount);
+      if (mode == Mode.RLE) {
+        Arrays.fill(values, offset + read, offset + read + num, currentValue);
+      } else {
+        System.arraycopy(currentBuffer, bitPackingNum - currentCount, values, offset + read, num);
+      }
+      currentCount -= num;
+      read += num;
+      if (!hasNextPackage()) {
+        isLengthAndBitWidthReaded = false;
+      }
+    }
+    return read;
+  }
+
   @Override
   protected void initPacker() {
     packer = new IntPacker(bitWidth);
@@ -112,7 +143,10 @@ public class IntRleDecoder extends RleDecoder {
 
   @Override
   protected void readBitPackingBuffer(int bitPackedGroupCount, int lastBitPackedNum) {
-    currentBuffer = new int[bitPackedGroupCount * TSFileConfig.RLE_MIN_REPEATED_NUM];
+    int valueCount = bitPackedGroupCount * TSFileConfig.RLE_MIN_REPEATED_NUM;
+    if (currentBuffer == null || currentBuffer.length < valueCount) {
+      currentBuffer = new int[valueCount];
+    }
     byte[] bytes = new byte[bitPackedGroupCount * bitWidth];
     int bytesToRead = bitPackedGroupCount * bitWidth;
     bytesToRead = Math.min(bytesToRead, byteCache.remaining());
@@ -58,6 +58,15 @@ public class LongGorillaDecoder extends GorillaDecoderV2 {
     return returnValue;
   }
 
+  @Override
+  public int readLongs(ByteBuffer in, long[] values, int offset, int size) {
+    int read = 0;
+    while (read < size && hasNext) {
+      values[offset + read++] = readLong(in);
+    }
+    return read;
+  }
+
   protected long cacheNext(ByteBuffer in) {
     readNext(in);
     if (storedValue == GORILLA_ENCODING_ENDING_LONG) {
@@ -20,10 +20,12 @@
 package org.apache.iotdb.tsfile.encoding.decoder;
 
 import org.apache.iotdb.tsfile.exception.encoding.TsFileDecodingException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.nio.ByteBuffer;
 
@@ -63,6 +65,65 @@ public class PlainDecoder extends Decoder {
     return buffer.getDouble();
   }
 
+  @Override
+  public int readInts(ByteBuffer buffer, int[] values, int offset, int size) {
+    int read = 0;
+    while (read < size && buffer.hasRemaining()) {
+      values[offset + read++] = ReadWriteForEncodingUtils.readVarInt(buffer);
+    }
+    return read;
+  }
+
+  @Override
+  public int readLongs(ByteBuffer buffer, long[] values, int offset, int size) {
+    int read = Math.min(size, buffer.remaining() / Long.BYTES);
+    buffer.asLongBuffer().get(values, offset, read);
+    buffer.position(buffer.position() + read * Long.BYTES);
+    return read;
+  }
+
+  @Override
+  public int readFloats(ByteBuffer buffer, float[] values, int offset, int size) {
+    int read = Math.min(size, buffer.remaining() / Float.BYTES);
+    buffer.asFloatBuffer().get(values, offset, read);
+    buffer.position(buffer.position() + read * Float.BYTES);
+    return read;
+  }
+
+  @Override
+  public int readDoubles(ByteBuffer buffer, double[] values, int offset, int size) {
+    int read = Math.min(size, buffer.remaining() / Double.BYTES);
+    buffer.asDoubleBuffer().get(values, offset, read);
+    buffer.position(buffer.position() + read * Double.BYTES);
+    return read;
+  }
+
+  @Override
+  public int skip(ByteBuffer buffer, TSDataType dataType, int size) throws IOException {
+    int width;
+    switch (dataType) {
+      case BOOLEAN:
+        width = Byte.BYTES;
+        break;
+      case INT64:
+        width = Long.BYTES;
+        break;
+      case FLOAT:
+        width = Float.BYTES;
+        break;
+      case DOUBLE:
+        width = Double.BYTES;
+        break;
+      default:
+        // var-length values have to be walked through
+        return super.skip(buffer, dataType, size);
+    }
+    // fixed-width values, jump directly to the target offset
+    int skipped = Math.min(size, buffer.remaining() / width);
+    buffer.position(buffer.position() + skipped * width);
+    return skipped;
+  }
+
   @Override
   public Binary readBinary(ByteBuffer buffer) {
     int length = readInt(buffer);
@@ -132,9 +132,10 @@ public abstract class RleDecoder extends Decoder {
    */
   protected void readLengthAndBitWidth(ByteBuffer buffer) {
     length = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
-    byte[] tmp = new byte[length];
-    buffer.get(tmp, 0, length);
-    byteCache = ByteBuffer.wrap(tmp);
+    // byteCache is only read, so a view of the page buffer is enough
+    byteCache = buffer.slice();
+    byteCache.limit(length);
+    buffer.position(buffer.position() + length);
     isLengthAndBitWidthReaded = true;
     bitWidth = ReadWriteIOUtils.read(byteCache);
     initPacker();
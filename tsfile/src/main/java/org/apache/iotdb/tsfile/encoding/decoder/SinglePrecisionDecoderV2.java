@@ -42,6 +42,15 @@ public class SinglePrecisionDecoderV2 extends IntGorillaDecoder {
     return Float.intBitsToFloat(readInt(in));
   }
 
+  @Override
+  public int readFloats(ByteBuffer in, float[] values, int offset, int size) {
+    int read = 0;
+    while (read < size && hasNext) {
+      values[offset + read++] = readFloat(in);
+    }
+    return read;
+  }
+
   @Override
   protected int cacheNext(ByteBuffer in) {
     readNext(in);
@@ -0,0 +1,205 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.tsfile.encoding.encoder;
+
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+/**
+ * Encoder for FLOAT and DOUBLE values based on the Chimp algorithm (Liakos, Papakonstantinopoulou
+ * and Kotidis, VLDB 2022).
+ *
+ * <p>Like Gorilla, each value is XORed with its predecessor, but the XOR is stored with one of four
+ * 2-bit flags:
+ *
+ * <ul>
+ *   <li>00: the value equals its predecessor
+ *   <li>01: the XOR has more than {@link #TRAILING_ZEROS_THRESHOLD} trailing zeros, the rounded
+ *       leading zeros (3 bits), the number of center bits and the center bits are stored
+ *   <li>10: the rounded leading zeros equal the previous ones, the remaining bits are stored
+ *   <li>11: the rounded leading zeros (3 bits) and the remaining bits are stored
+ * </ul>
+ *
+ * <p>Values are buffered until {@link #flush} and written as a block of {@code <count><byte
+ * length><bits>}, so the decoder knows the block length up front and can decode it in one pass
+ * without an ending marker, which also keeps NaN a valid value.
+ */
+public abstract class ChimpEncoder extends Encoder {
+
+  public static final int TRAILING_ZEROS_THRESHOLD = 6;
+  public static final int LEADING_ZEROS_REPRESENTATION_LENGTH = 3;
+
+  /** leading zeros rounded down to one of the 8 representable values */
+  public static final short[] LEADING_ZEROS_ROUND = {
+    0, 0, 0, 0, 0, 0, 0, 0, 8, 8, 8, 8, 12, 12, 12, 12, 16, 16, 18, 18, 20, 20, 22, 22, 24, 24,
+    24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24,
+    24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24
+  };
+
+  /** the 3-bit representation of a rounded leading zeros value */
+  public static final short[] LEADING_ZEROS_REPRESENTATION = {
+    0, 0, 0, 0, 0, 0, 0, 0, 1, 1, 1, 1, 2, 2, 2, 2, 3, 3, 4, 4, 5, 5, 6, 6, 7, 7, 7, 7, 7, 7, 7, 7,
+    7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7,
+    7
+  };
+
+  private static final int FLAG_LENGTH = 2;
+  private static final int INITIAL_BLOCK_SIZE = 1024;
+
+  private final int valueBits;
+  private final int centerBitsLength;
+
+  /** bytes of the current block, prefixed with the value count and byte length when flushed */
+  private byte[] block = new byte[INITIAL_BLOCK_SIZE];
+
+  private int blockLength = 0;
+
+  private int count = 0;
+  private long storedValue = 0;
+  private int storedLeadingZeros = Integer.MAX_VALUE;
+
+  private long bitBuffer = 0;
+  private int bitsInBuffer = 0;
+
+  protected ChimpEncoder(int valueBits, int centerBitsLength) {
+    super(TSEncoding.CHIMP);
+    this.valueBits = valueBits;
+    this.centerBitsLength = centerBitsLength;
+  }
+
+  @Override
+  public final int getOneItemMaxSize() {
+    return (FLAG_LENGTH + LEADING_ZEROS_REPRESENTATION_LENGTH + valueBits) / Byte.SIZE + 1;
+  }
+
+  @Override
+  public final long getMaxByteSize() {
+    // buffered block, the byte being filled and the two var int headers
+    return blockLength + 1L + 2 * (Integer.BYTES + 1);
+  }
+
+  @Override
+  public void flush(ByteArrayOutputStream out) {
+    if (count == 0) {
+      return;
+    }
+    if (bitsInBuffer > 0) {
+      writeByte((int) (bitBuffer << (Byte.SIZE - bitsInBuffer)));
+    }
+    ReadWriteForEncodingUtils.writeUnsignedVarInt(count, out);
+    ReadWriteForEncodingUtils.writeUnsignedVarInt(blockLength, out);
+    out.write(block, 0, blockLength);
+    reset();
+  }
+
+  private void reset() {
+    blockLength = 0;
+    count = 0;
+    storedValue = 0;
+    storedLeadingZeros = Integer.MAX_VALUE;
+    bitBuffer = 0;
+    bitsInBuffer = 0;
+  }
+
+  /** @param value the raw bits of the value in the lowest {@code valueBits} bits */
+  protected void encodeBits(long value) {
+    if (count++ == 0) {
+      writeBits(value, valueBits);
+      storedValue = value;
+      return;
+    }
+    long xor = storedValue ^ value;
+    storedValue = value;
+    if (xor == 0) {
+      writeBits(0b00, FLAG_LENGTH);
+      storedLeadingZeros = Integer.MAX_VALUE;
+      return;
+    }
+
+    int leadingZeros =
+        LEADING_ZEROS_ROUND[Long.numberOfLeadingZeros(xor) - (Long.SIZE - valueBits)];
+    int trailingZeros = Long.numberOfTrailingZeros(xor);
+    if (trailingZeros > TRAILING_ZEROS_THRESHOLD) {
+      int significantBits = valueBits - leadingZeros - trailingZeros;
+      writeBits(0b01, FLAG_LENGTH);
+      writeBits(LEADING_ZEROS_REPRESENTATION[leadingZeros], LEADING_ZEROS_REPRESENTATION_LENGTH);
+      writeBits(significantBits, centerBitsLength);
+      writeBits(xor >>> trailingZeros, significantBits);
+      storedLeadingZeros = Integer.MAX_VALUE;
+    } else if (leadingZeros == storedLeadingZeros) {
+      writeBits(0b10, FLAG_LENGTH);
+      writeBits(xor, valueBits - leadingZeros);
+    } else {
+      writeBits(0b11, FLAG_LENGTH);
+      writeBits(LEADING_ZEROS_REPRESENTATION[leadingZeros], LEADING_ZEROS_REPRESENTATION_LENGTH);
+      writeBits(xor, valueBits - leadingZeros);
+      storedLeadingZeros = leadingZeros;
+    }
+  }
+
+  /** Writes the lowest {@code bits} bits of the value, most significant bit first. */
+  private void writeBits(long value, int bits) {
+    if (bits > Integer.SIZE) {
+      writeBits(value >>> Integer.SIZE, bits - Integer.SIZE);
+      bits = Integer.SIZE;
+    }
+    // at most 7 pending bits, so the buffer never holds more than 39 bits
+    bitBuffer = (bitBuffer << bits) | (value & ((1L << bits) - 1));
+    bitsInBuffer += bits;
+    while (bitsInBuffer >= Byte.SIZE) {
+      bitsInBuffer -= Byte.SIZE;
+      writeByte((int) (bitBuffer >>> bitsInBuffer));
+    }
+  }
+
+  private void writeByte(int b) {
+    if (blockLength == block.length) {
+      block = Arrays.copyOf(block, block.length * 2);
+    }
+    block[blockLength++] = (byte) b;
+  }
+
+  public static class FloatChimpEncoder extends ChimpEncoder {
+
+    public FloatChimpEncoder() {
+      super(Float.SIZE, 5);
+    }
+
+    @Override
+    public final void encode(float value, ByteArrayOutputStream out) {
+      encodeBits(Float.floatToRawIntBits(value) & 0xFFFFFFFFL);
+    }
+  }
+
+  public static class DoubleChimpEncoder extends ChimpEncoder {
+
+    public DoubleChimpEncoder() {
+      super(Double.SIZE, 6);
+    }
+
+    @Override
+    public final void encode(double value, ByteArrayOutputStream out) {
+      encodeBits(Double.doubleToRawLongBits(value));
+    }
+  }
+}
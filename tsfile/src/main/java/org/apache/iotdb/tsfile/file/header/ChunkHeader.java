@@ -176,7 +176,15 @@ public class ChunkHeader {
     ByteBuffer buffer = ByteBuffer.allocate(chunkHeaderSize);
     input.read(buffer, offset);
     buffer.flip();
+    return deserializeFrom(buffer);
+  }
 
+  /**
+   * deserialize from a buffer holding the whole chunk header from its current position, the
+   * position is moved to the end of the chunk header.
+   */
+  public static ChunkHeader deserializeFrom(ByteBuffer buffer) {
+    int startPosition = buffer.position();
     byte chunkType = buffer.get();
     // read measurementID
     String measurementID = ReadWriteIOUtils.readVarIntString(buffer);
@@ -184,8 +192,7 @@ public class ChunkHeader {
     TSDataType dataType = ReadWriteIOUtils.readDataType(buffer);
     CompressionType type = ReadWriteIOUtils.readCompressionType(buffer);
     TSEncoding encoding = ReadWriteIOUtils.readEncoding(buffer);
-    chunkHeaderSize =
-        chunkHeaderSize - Integer.BYTES - 1 + ReadWriteForEncodingUtils.uVarIntSize(dataSize);
+    int chunkHeaderSize = buffer.position() - startPosition;
     return new ChunkHeader(
         chunkType, measurementID, dataSize, chunkHeaderSize, dataType, type, encoding);
   }
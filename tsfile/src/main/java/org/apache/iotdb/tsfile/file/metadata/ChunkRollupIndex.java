@@ -0,0 +1,232 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.tsfile.file.metadata;
+
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.statistics.ChunkRollup;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+import org.apache.iotdb.tsfile.utils.PublicBAOS;
+import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Rollups of the chunks of a TsFile, written next to the TsFile as {tsfile}.rollup when the file
+ * is sealed and memory mapped on first use.
+ *
+ * <p>Layout of the index file, in big endian:
+ *
+ * <ul>
+ *   <li>header: version (byte), TsFile size (long), meta offset (long), bucket interval (long),
+ *       entry count (int)
+ *   <li>entries in ascending order of chunk offset: chunk header offset (long), position of the
+ *       rollup in this file (int)
+ *   <li>rollups: data type (byte), bucket count (int), serialized statistics of each bucket
+ * </ul>
+ *
+ * Chunks without an entry have no rollup.
+ */
+public class ChunkRollupIndex {
+
+  private static final Logger logger = LoggerFactory.getLogger(ChunkRollupIndex.class);
+
+  public static final String FILE_SUFFIX = ".rollup";
+
+  private static final byte VERSION = 1;
+  private static final int HEADER_SIZE = Byte.BYTES + 3 * Long.BYTES + Integer.BYTES;
+  private static final int ENTRY_SIZE = Long.BYTES + Integer.BYTES;
+
+  private final ByteBuffer buffer;
+  private final long interval;
+  private final int entryCount;
+
+  private ChunkRollupIndex(ByteBuffer buffer, long interval, int entryCount) {
+    this.buffer = buffer;
+    this.interval = interval;
+    this.entryCount = entryCount;
+  }
+
+  /**
+   * Load the rollups of the given TsFile.
+   *
+   * @return null if the TsFile has no rollups or they do not belong to the TsFile
+   */
+  public static ChunkRollupIndex load(String tsFilePath, long tsFileSize, long metaOffset) {
+    File indexFile = new File(tsFilePath + FILE_SUFFIX);
+    if (!indexFile.exists()) {
+      return null;
+    }
+    try (FileChannel channel = FileChannel.open(indexFile.toPath(), StandardOpenOption.READ)) {
+      long indexFileSize = channel.size();
+      if (indexFileSize < HEADER_SIZE || indexFileSize > Integer.MAX_VALUE) {
+        logger.warn("Rollup file {} has an illegal size {}, ignore it", indexFile, indexFileSize);
+        return null;
+      }
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, indexFileSize);
+      if (buffer.get() != VERSION
+          || buffer.getLong() != tsFileSize
+          || buffer.getLong() != metaOffset) {
+        logger.warn("Rollup file {} does not match its TsFile", indexFile);
+        return null;
+      }
+      long interval = buffer.getLong();
+      int entryCount = buffer.getInt();
+      if (interval <= 0
+          || entryCount < 0
+          || HEADER_SIZE + (long) entryCount * ENTRY_SIZE > indexFileSize) {
+        logger.warn("Rollup file {} is corrupted, ignore it", indexFile);
+        return null;
+      }
+      return new ChunkRollupIndex(buffer, interval, entryCount);
+    } catch (IOException e) {
+      logger.warn("Cannot load rollup file {}, ignore it", indexFile, e);
+      return null;
+    }
+  }
+
+  /** @return the rollup of the chunk, or null if the chunk has none */
+  public ChunkRollup get(long offsetOfChunkHeader) {
+    int low = 0;
+    int high = entryCount - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      int position = HEADER_SIZE + mid * ENTRY_SIZE;
+      long offset = buffer.getLong(position);
+      if (offset < offsetOfChunkHeader) {
+        low = mid + 1;
+      } else if (offset > offsetOfChunkHeader) {
+        high = mid - 1;
+      } else {
+        return deserializeRollup(buffer.getInt(position + Long.BYTES));
+      }
+    }
+    return null;
+  }
+
+  private ChunkRollup deserializeRollup(int position) {
+    ByteBuffer rollupBuffer = buffer.duplicate();
+    try {
+      rollupBuffer.position(position);
+      TSDataType dataType = TSDataType.deserializeFrom(rollupBuffer);
+      int bucketCount = ReadWriteIOUtils.readInt(rollupBuffer);
+      List<Statistics<? extends Serializable>> buckets = new ArrayList<>(bucketCount);
+      for (int i = 0; i < bucketCount; i++) {
+        buckets.add(Statistics.deserialize(rollupBuffer, dataType));
+      }
+      return new ChunkRollup(dataType, interval, buckets);
+    } catch (IllegalArgumentException | BufferUnderflowException e) {
+      logger.warn("Rollup at {} is corrupted, ignore it", position, e);
+      return null;
+    }
+  }
+
+  /** Collects the rollups of chunks while they are written into a TsFile. */
+  public static class Builder {
+
+    private final long interval;
+    private long[] offsets = new long[16];
+    private int[] positions = new int[16];
+    private int size;
+    private final PublicBAOS rollups = new PublicBAOS();
+
+    public Builder(long interval) {
+      this.interval = interval;
+    }
+
+    /**
+     * Record the rollup of a chunk. Chunks must be added in ascending order of offset, the rollup
+     * is serialized at once so it can be reused.
+     */
+    public void add(long offsetOfChunkHeader, ChunkRollup rollup) throws IOException {
+      if (rollup.getInterval() != interval) {
+        // e.g. copied from a file written with another interval, the chunk is left without rollup
+        return;
+      }
+      if (size == offsets.length) {
+        offsets = Arrays.copyOf(offsets, size << 1);
+        positions = Arrays.copyOf(positions, size << 1);
+      }
+      offsets[size] = offsetOfChunkHeader;
+      positions[size] = rollups.size();
+      size++;
+      ReadWriteIOUtils.write(rollup.getDataType(), rollups);
+      ReadWriteIOUtils.write(rollup.getBuckets().size(), rollups);
+      for (Statistics<? extends Serializable> bucket : rollup.getBuckets()) {
+        bucket.serialize(rollups);
+      }
+    }
+
+    public boolean isEmpty() {
+      return size == 0;
+    }
+
+    /**
+     * Write the rollups to the given file.
+     *
+     * @param tsFileSize size of the sealed TsFile
+     * @param metaOffset meta offset of the sealed TsFile
+     */
+    public void serializeTo(File indexFile, long tsFileSize, long metaOffset) throws IOException {
+      int dataStart = HEADER_SIZE + size * ENTRY_SIZE;
+      ByteBuffer buffer = ByteBuffer.allocate(dataStart);
+      buffer.put(VERSION);
+      buffer.putLong(tsFileSize);
+      buffer.putLong(metaOffset);
+      buffer.putLong(interval);
+      buffer.putInt(size);
+      for (int i = 0; i < size; i++) {
+        buffer.putLong(offsets[i]);
+        buffer.putInt(dataStart + positions[i]);
+      }
+      buffer.flip();
+      ByteBuffer data = ByteBuffer.wrap(rollups.getBuf(), 0, rollups.size());
+      try (FileChannel channel =
+          FileChannel.open(
+              indexFile.toPath(),
+              StandardOpenOption.CREATE,
+              StandardOpenOption.WRITE,
+              StandardOpenOption.TRUNCATE_EXISTING)) {
+        while (buffer.hasRemaining()) {
+          channel.write(buffer);
+        }
+        while (data.hasRemaining()) {
+          channel.write(data);
+        }
+      } catch (IOException e) {
+        Files.deleteIfExists(indexFile.toPath());
+        throw e;
+      }
+    }
+  }
+}
@@ -0,0 +1,206 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.tsfile.file.metadata;
+
+import org.apache.iotdb.tsfile.utils.ValueBloomFilter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Value bloom filters of the chunks of a TsFile, written next to the TsFile as {tsfile}.vbf when
+ * the file is sealed and memory mapped on first use. Filters are attached to the statistics of the
+ * chunk metadata, so that equality filters can skip chunks in {@code Filter.satisfy(Statistics)}.
+ *
+ * <p>Layout of the index file, in big endian:
+ *
+ * <ul>
+ *   <li>header: version (byte), TsFile size (long), meta offset (long), word count of each filter
+ *       (int), entry count (int)
+ *   <li>entries in ascending order of chunk offset: chunk header offset (long), filter words (long
+ *       * word count)
+ * </ul>
+ *
+ * Chunks without an entry have no filter and are never skipped by it.
+ */
+public class ChunkValueBloomFilterIndex {
+
+  private static final Logger logger = LoggerFactory.getLogger(ChunkValueBloomFilterIndex.class);
+
+  public static final String FILE_SUFFIX = ".vbf";
+
+  private static final byte VERSION = 1;
+  private static final int HEADER_SIZE = Byte.BYTES + 2 * Long.BYTES + 2 * Integer.BYTES;
+
+  private final ByteBuffer buffer;
+  private final int wordCount;
+  private final int entrySize;
+  private final int entryCount;
+
+  private ChunkValueBloomFilterIndex(ByteBuffer buffer, int wordCount, int entryCount) {
+    this.buffer = buffer;
+    this.wordCount = wordCount;
+    this.entrySize = Long.BYTES * (1 + wordCount);
+    this.entryCount = entryCount;
+  }
+
+  /**
+   * Load the value bloom filters of the given TsFile.
+   *
+   * @return null if the TsFile has no filters or they do not belong to the TsFile
+   */
+  public static ChunkValueBloomFilterIndex load(
+      String tsFilePath, long tsFileSize, long metaOffset) {
+    File indexFile = new File(tsFilePath + FILE_SUFFIX);
+    if (!indexFile.exists()) {
+      return null;
+    }
+    try (FileChannel channel = FileChannel.open(indexFile.toPath(), StandardOpenOption.READ)) {
+      long indexFileSize = channel.size();
+      if (indexFileSize < HEADER_SIZE) {
+        logger.warn("Value bloom filter file {} is truncated, ignore it", indexFile);
+        return null;
+      }
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, indexFileSize);
+      if (buffer.get() != VERSION
+          || buffer.getLong() != tsFileSize
+          || buffer.getLong() != metaOffset) {
+        logger.warn("Value bloom filter file {} does not match its TsFile", indexFile);
+        return null;
+      }
+      int wordCount = buffer.getInt();
+      int entryCount = buffer.getInt();
+      if (wordCount <= 0
+          || Integer.bitCount(wordCount) != 1
+          || entryCount < 0
+          || HEADER_SIZE + (long) entryCount * Long.BYTES * (1 + wordCount) != indexFileSize) {
+        logger.warn("Value bloom filter file {} is corrupted, ignore it", indexFile);
+        return null;
+      }
+      return new ChunkValueBloomFilterIndex(buffer, wordCount, entryCount);
+    } catch (IOException e) {
+      logger.warn("Cannot load value bloom filter file {}, ignore it", indexFile, e);
+      return null;
+    }
+  }
+
+  /** @return the value bloom filter of the chunk, or null if the chunk has none */
+  public ValueBloomFilter get(long offsetOfChunkHeader) {
+    int low = 0;
+    int high = entryCount - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      int position = HEADER_SIZE + mid * entrySize;
+      long offset = buffer.getLong(position);
+      if (offset < offsetOfChunkHeader) {
+        low = mid + 1;
+      } else if (offset > offsetOfChunkHeader) {
+        high = mid - 1;
+      } else {
+        long[] words = new long[wordCount];
+        for (int i = 0; i < wordCount; i++) {
+          words[i] = buffer.getLong(position + Long.BYTES * (i + 1));
+        }
+        return new ValueBloomFilter(words);
+      }
+    }
+    return null;
+  }
+
+  /** Collects the value bloom filters of chunks while they are written into a TsFile. */
+  public static class Builder {
+
+    private long[] offsets = new long[16];
+    private long[] words;
+    private int wordCount;
+    private int size;
+
+    /**
+     * Record the filter of a chunk. Chunks must be added in ascending order of offset, the words of
+     * the filter are copied so it can be reused.
+     */
+    public void add(long offsetOfChunkHeader, ValueBloomFilter filter) {
+      long[] filterWords = filter.getWords();
+      if (words == null) {
+        wordCount = filterWords.length;
+        words = new long[offsets.length * wordCount];
+      } else if (filterWords.length != wordCount) {
+        // the filter size was changed while writing, the chunk is left without filter
+        return;
+      }
+      if (size == offsets.length) {
+        offsets = Arrays.copyOf(offsets, size << 1);
+        words = Arrays.copyOf(words, (size << 1) * wordCount);
+      }
+      offsets[size] = offsetOfChunkHeader;
+      System.arraycopy(filterWords, 0, words, size * wordCount, wordCount);
+      size++;
+    }
+
+    public boolean isEmpty() {
+      return size == 0;
+    }
+
+    /**
+     * Write the filters to the given file.
+     *
+     * @param tsFileSize size of the sealed TsFile
+     * @param metaOffset meta offset of the sealed TsFile
+     */
+    public void serializeTo(File indexFile, long tsFileSize, long metaOffset) throws IOException {
+      ByteBuffer buffer =
+          ByteBuffer.allocate(HEADER_SIZE + size * Long.BYTES * (1 + wordCount));
+      buffer.put(VERSION);
+      buffer.putLong(tsFileSize);
+      buffer.putLong(metaOffset);
+      buffer.putInt(wordCount);
+      buffer.putInt(size);
+      for (int i = 0; i < size; i++) {
+        buffer.putLong(offsets[i]);
+        for (int j = 0; j < wordCount; j++) {
+          buffer.putLong(words[i * wordCount + j]);
+        }
+      }
+      buffer.flip();
+      try (FileChannel channel =
+          FileChannel.open(
+              indexFile.toPath(),
+              StandardOpenOption.CREATE,
+              StandardOpenOption.WRITE,
+              StandardOpenOption.TRUNCATE_EXISTING)) {
+        while (buffer.hasRemaining()) {
+          channel.write(buffer);
+        }
+      } catch (IOException e) {
+        Files.deleteIfExists(indexFile.toPath());
+        throw e;
+      }
+    }
+  }
+}
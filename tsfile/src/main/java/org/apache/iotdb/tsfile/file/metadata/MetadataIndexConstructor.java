@@ -46,10 +46,25 @@ public class MetadataIndexConstructor {
    * @param deviceTimeseriesMetadataMap device => TimeseriesMetadata list
    * @param out tsfile output
    */
-  @SuppressWarnings("squid:S3776") // Suppress high Cognitive Complexity warning
   public static MetadataIndexNode constructMetadataIndex(
       Map<String, List<TimeseriesMetadata>> deviceTimeseriesMetadataMap, TsFileOutput out)
       throws IOException {
+    return constructMetadataIndex(deviceTimeseriesMetadataMap, out, null);
+  }
+
+  /**
+   * Construct metadata index tree
+   *
+   * @param deviceTimeseriesMetadataMap device => TimeseriesMetadata list
+   * @param out tsfile output
+   * @param hashIndexBuilder records the position of each TimeseriesMetadata, may be null
+   */
+  @SuppressWarnings("squid:S3776") // Suppress high Cognitive Complexity warning
+  public static MetadataIndexNode constructMetadataIndex(
+      Map<String, List<TimeseriesMetadata>> deviceTimeseriesMetadataMap,
+      TsFileOutput out,
+      TimeseriesMetadataHashIndex.Builder hashIndexBuilder)
+      throws IOException {
 
     Map<String, MetadataIndexNode> deviceMetadataIndexMap = new TreeMap<>();
 
@@ -62,6 +77,9 @@ public class MetadataIndexConstructor {
       TimeseriesMetadata timeseriesMetadata;
       MetadataIndexNode currentIndexNode =
           new MetadataIndexNode(MetadataIndexNodeType.LEAF_MEASUREMENT);
+      if (hashIndexBuilder != null) {
+        hashIndexBuilder.startDevice(entry.getKey());
+      }
       for (int i = 0; i < entry.getValue().size(); i++) {
         timeseriesMetadata = entry.getValue().get(i);
         if (i % config.getMaxDegreeOfIndexNode() == 0) {
@@ -72,7 +90,12 @@ public class MetadataIndexConstructor {
           currentIndexNode.addEntry(
               new MetadataIndexEntry(timeseriesMetadata.getMeasurementId(), out.getPosition()));
         }
+        long offset = out.getPosition();
         timeseriesMetadata.serializeTo(out.wrapAsStream());
+        if (hashIndexBuilder != null) {
+          hashIndexBuilder.add(
+              timeseriesMetadata.getMeasurementId(), offset, (int) (out.getPosition() - offset));
+        }
       }
       addCurrentIndexNodeToQueue(currentIndexNode, measurementMetadataIndexQueue, out);
       deviceMetadataIndexMap.put(
@@ -0,0 +1,275 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.tsfile.file.metadata;
+
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.utils.Pair;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An open addressing hash index from (device, measurement) to the position of the serialized
+ * TimeseriesMetadata in a TsFile. It is written next to the TsFile as {tsfile}.tsidx when the file
+ * is sealed and memory mapped on first use, so that finding a series costs one hash probe and one
+ * read instead of walking the MetadataIndexNode tree.
+ *
+ * <p>Layout of the index file, in big endian:
+ *
+ * <ul>
+ *   <li>header: version (byte), TsFile size (long), meta offset (long), slot count (int), entry
+ *       count (int), device count (int)
+ *   <li>slots: hash (long, 0 means empty), offset (long), length (int), device index (int)
+ *   <li>devices: length (int) and UTF-8 bytes of each device
+ * </ul>
+ *
+ * The TsFile size and the meta offset are checked against the TsFile when loading, an index that
+ * does not match its TsFile is ignored.
+ */
+public class TimeseriesMetadataHashIndex {
+
+  private static final Logger logger = LoggerFactory.getLogger(TimeseriesMetadataHashIndex.class);
+
+  public static final String FILE_SUFFIX = ".tsidx";
+
+  private static final byte VERSION = 1;
+  private static final int HEADER_SIZE = Byte.BYTES + 2 * Long.BYTES + 3 * Integer.BYTES;
+  private static final int SLOT_SIZE = 2 * Long.BYTES + 2 * Integer.BYTES;
+
+  private final ByteBuffer buffer;
+  private final int slotMask;
+  private final String[] devices;
+
+  private TimeseriesMetadataHashIndex(ByteBuffer buffer, int slotCount, String[] devices) {
+    this.buffer = buffer;
+    this.slotMask = slotCount - 1;
+    this.devices = devices;
+  }
+
+  /**
+   * Load the hash index of the given TsFile.
+   *
+   * @return null if the TsFile has no index or the index does not belong to the TsFile
+   */
+  public static TimeseriesMetadataHashIndex load(
+      String tsFilePath, long tsFileSize, long metaOffset) {
+    File indexFile = new File(tsFilePath + FILE_SUFFIX);
+    if (!indexFile.exists()) {
+      return null;
+    }
+    try (FileChannel channel = FileChannel.open(indexFile.toPath(), StandardOpenOption.READ)) {
+      long indexFileSize = channel.size();
+      if (indexFileSize < HEADER_SIZE) {
+        logger.warn("Timeseries metadata hash index {} is truncated, ignore it", indexFile);
+        return null;
+      }
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, indexFileSize);
+      if (buffer.get() != VERSION
+          || buffer.getLong() != tsFileSize
+          || buffer.getLong() != metaOffset) {
+        logger.warn("Timeseries metadata hash index {} does not match its TsFile", indexFile);
+        return null;
+      }
+      int slotCount = buffer.getInt();
+      buffer.getInt(); // entry count
+      int deviceCount = buffer.getInt();
+      long slotsEnd = HEADER_SIZE + (long) slotCount * SLOT_SIZE;
+      if (slotCount <= 0 || Integer.bitCount(slotCount) != 1 || slotsEnd > indexFileSize) {
+        logger.warn("Timeseries metadata hash index {} is corrupted, ignore it", indexFile);
+        return null;
+      }
+      buffer.position((int) slotsEnd);
+      String[] devices = new String[deviceCount];
+      for (int i = 0; i < deviceCount; i++) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        devices[i] = new String(bytes, TSFileConfig.STRING_CHARSET);
+      }
+      return new TimeseriesMetadataHashIndex(buffer, slotCount, devices);
+    } catch (IOException | BufferUnderflowException | IllegalArgumentException e) {
+      logger.warn("Cannot load timeseries metadata hash index {}, ignore it", indexFile, e);
+      return null;
+    }
+  }
+
+  /**
+   * Find the position of the TimeseriesMetadata of a series. The caller should check the
+   * measurement id of the deserialized TimeseriesMetadata, a measurement which is not in the
+   * TsFile may share its hash with another measurement of the same device.
+   *
+   * @return offset and length of the serialized TimeseriesMetadata, or null if the series is not
+   *     in the TsFile
+   */
+  public Pair<Long, Integer> get(String device, String measurement) {
+    long hash = hash(device, measurement);
+    int slot = (int) hash & slotMask;
+    while (true) {
+      int position = HEADER_SIZE + slot * SLOT_SIZE;
+      long slotHash = buffer.getLong(position);
+      if (slotHash == 0) {
+        return null;
+      }
+      if (slotHash == hash
+          && devices[buffer.getInt(position + 2 * Long.BYTES + Integer.BYTES)].equals(device)) {
+        return new Pair<>(
+            buffer.getLong(position + Long.BYTES), buffer.getInt(position + 2 * Long.BYTES));
+      }
+      slot = (slot + 1) & slotMask;
+    }
+  }
+
+  /** 64-bit FNV-1a of the device and the measurement, followed by the murmur3 finalizer. */
+  static long hash(String device, String measurement) {
+    long hash = 0xcbf29ce484222325L;
+    for (int i = 0; i < device.length(); i++) {
+      hash = (hash ^ device.charAt(i)) * 0x100000001b3L;
+    }
+    // separate the device from the measurement by a noncharacter
+    hash = (hash ^ 0xffff) * 0x100000001b3L;
+    for (int i = 0; i < measurement.length(); i++) {
+      hash = (hash ^ measurement.charAt(i)) * 0x100000001b3L;
+    }
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    hash *= 0xc4ceb9fe1a85ec53L;
+    hash ^= hash >>> 33;
+    // 0 marks an empty slot
+    return hash == 0 ? 1 : hash;
+  }
+
+  /** Collects the positions of TimeseriesMetadata while they are written into a TsFile. */
+  public static class Builder {
+
+    private final List<String> devices = new ArrayList<>();
+    private long[] hashes = new long[16];
+    private long[] offsets = new long[16];
+    private int[] lengths = new int[16];
+    private int[] deviceIndexes = new int[16];
+    private int size;
+
+    /** Following entries belong to this device. */
+    public void startDevice(String device) {
+      devices.add(device);
+    }
+
+    public void add(String measurement, long offset, int length) {
+      if (size == hashes.length) {
+        int newLength = size << 1;
+        hashes = Arrays.copyOf(hashes, newLength);
+        offsets = Arrays.copyOf(offsets, newLength);
+        lengths = Arrays.copyOf(lengths, newLength);
+        deviceIndexes = Arrays.copyOf(deviceIndexes, newLength);
+      }
+      int deviceIndex = devices.size() - 1;
+      hashes[size] = hash(devices.get(deviceIndex), measurement);
+      offsets[size] = offset;
+      lengths[size] = length;
+      deviceIndexes[size] = deviceIndex;
+      size++;
+    }
+
+    /**
+     * Write the index to the given file.
+     *
+     * @param tsFileSize size of the sealed TsFile
+     * @param metaOffset meta offset of the sealed TsFile
+     * @return false if nothing is written because two measurements of one device share a hash
+     */
+    public boolean serializeTo(File indexFile, long tsFileSize, long metaOffset)
+        throws IOException {
+      // smallest power of 2 not less than twice the entry count, keeps the load factor <= 0.5
+      int slotCount = Integer.highestOneBit(Math.max(1, (size << 1) - 1)) << 1;
+      int slotMask = slotCount - 1;
+      long[] slotHashes = new long[slotCount];
+      int[] slotEntries = new int[slotCount];
+      for (int i = 0; i < size; i++) {
+        int slot = (int) hashes[i] & slotMask;
+        while (slotHashes[slot] != 0) {
+          if (slotHashes[slot] == hashes[i]
+              && deviceIndexes[slotEntries[slot]] == deviceIndexes[i]) {
+            return false;
+          }
+          slot = (slot + 1) & slotMask;
+        }
+        slotHashes[slot] = hashes[i];
+        slotEntries[slot] = i;
+      }
+
+      List<byte[]> deviceBytes = new ArrayList<>(devices.size());
+      int devicesSize = 0;
+      for (String device : devices) {
+        byte[] bytes = device.getBytes(TSFileConfig.STRING_CHARSET);
+        deviceBytes.add(bytes);
+        devicesSize += Integer.BYTES + bytes.length;
+      }
+
+      ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + slotCount * SLOT_SIZE + devicesSize);
+      buffer.put(VERSION);
+      buffer.putLong(tsFileSize);
+      buffer.putLong(metaOffset);
+      buffer.putInt(slotCount);
+      buffer.putInt(size);
+      buffer.putInt(devices.size());
+      for (int slot = 0; slot < slotCount; slot++) {
+        if (slotHashes[slot] == 0) {
+          buffer.position(buffer.position() + SLOT_SIZE);
+          continue;
+        }
+        int entry = slotEntries[slot];
+        buffer.putLong(slotHashes[slot]);
+        buffer.putLong(offsets[entry]);
+        buffer.putInt(lengths[entry]);
+        buffer.putInt(deviceIndexes[entry]);
+      }
+      for (byte[] bytes : deviceBytes) {
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+      }
+      buffer.flip();
+      try (FileChannel channel =
+          FileChannel.open(
+              indexFile.toPath(),
+              StandardOpenOption.CREATE,
+              StandardOpenOption.WRITE,
+              StandardOpenOption.TRUNCATE_EXISTING)) {
+        while (buffer.hasRemaining()) {
+          channel.write(buffer);
+        }
+      } catch (IOException e) {
+        Files.deleteIfExists(indexFile.toPath());
+        throw e;
+      }
+      return true;
+    }
+  }
+}
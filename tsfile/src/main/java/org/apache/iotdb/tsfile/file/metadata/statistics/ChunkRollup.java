@@ -0,0 +1,207 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.tsfile.file.metadata.statistics;
+
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.utils.Binary;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Statistics of the points of one chunk, bucketed by a fixed time interval. Bucket i covers
+ * [i * interval, (i + 1) * interval), only buckets with points are kept. A group by time window
+ * which does not cut any bucket can be computed from the buckets without reading the pages of the
+ * chunk, whose boundaries rarely align with the windows.
+ *
+ * <p>Points must be added in ascending order of time. Once a point is added out of order or the
+ * buckets hold too few points to be worth keeping, the rollup is discarded until reset.
+ */
+public class ChunkRollup {
+
+  // do not keep buckets holding less points than this on average
+  private static final int MIN_AVERAGE_POINT_NUM_IN_BUCKET = 4;
+  private static final int MIN_BUCKET_NUM_TO_CHECK = 64;
+
+  private final TSDataType dataType;
+  private final long interval;
+  private final List<Statistics<? extends Serializable>> buckets;
+
+  private Statistics<? extends Serializable> currentBucket;
+  // exclusive end time of currentBucket
+  private long currentBucketEndTime;
+  private long pointNum;
+  private boolean discarded;
+
+  public ChunkRollup(TSDataType dataType, long interval) {
+    this.dataType = dataType;
+    this.interval = interval;
+    this.buckets = new ArrayList<>();
+  }
+
+  /** Wrap the buckets of a persisted rollup, which must be in ascending order of time. */
+  public ChunkRollup(
+      TSDataType dataType, long interval, List<Statistics<? extends Serializable>> buckets) {
+    this.dataType = dataType;
+    this.interval = interval;
+    this.buckets = buckets;
+  }
+
+  public void update(long time, boolean value) {
+    Statistics<? extends Serializable> bucket = getBucket(time);
+    if (bucket != null) {
+      bucket.update(time, value);
+    }
+  }
+
+  public void update(long time, int value) {
+    Statistics<? extends Serializable> bucket = getBucket(time);
+    if (bucket != null) {
+      bucket.update(time, value);
+    }
+  }
+
+  public void update(long time, long value) {
+    Statistics<? extends Serializable> bucket = getBucket(time);
+    if (bucket != null) {
+      bucket.update(time, value);
+    }
+  }
+
+  public void update(long time, float value) {
+    Statistics<? extends Serializable> bucket = getBucket(time);
+    if (bucket != null) {
+      bucket.update(time, value);
+    }
+  }
+
+  public void update(long time, double value) {
+    Statistics<? extends Serializable> bucket = getBucket(time);
+    if (bucket != null) {
+      bucket.update(time, value);
+    }
+  }
+
+  public void update(long time, Binary value) {
+    Statistics<? extends Serializable> bucket = getBucket(time);
+    if (bucket != null) {
+      bucket.update(time, value);
+    }
+  }
+
+  public void update(long[] times, boolean[] values, int batchSize) {
+    for (int i = 0; i < batchSize; i++) {
+      update(times[i], values[i]);
+    }
+  }
+
+  public void update(long[] times, int[] values, int batchSize) {
+    for (int i = 0; i < batchSize; i++) {
+      update(times[i], values[i]);
+    }
+  }
+
+  public void update(long[] times, long[] values, int batchSize) {
+    for (int i = 0; i < batchSize; i++) {
+      update(times[i], values[i]);
+    }
+  }
+
+  public void update(long[] times, float[] values, int batchSize) {
+    for (int i = 0; i < batchSize; i++) {
+      update(times[i], values[i]);
+    }
+  }
+
+  public void update(long[] times, double[] values, int batchSize) {
+    for (int i = 0; i < batchSize; i++) {
+      update(times[i], values[i]);
+    }
+  }
+
+  public void update(long[] times, Binary[] values, int batchSize) {
+    for (int i = 0; i < batchSize; i++) {
+      update(times[i], values[i]);
+    }
+  }
+
+  /** @return the bucket the point of the given time belongs to, null if discarded */
+  private Statistics<? extends Serializable> getBucket(long time) {
+    if (discarded) {
+      return null;
+    }
+    pointNum++;
+    if (currentBucket != null) {
+      if (time < currentBucket.getEndTime()) {
+        // first and last values of the buckets rely on the order of time
+        discard();
+        return null;
+      }
+      if (time < currentBucketEndTime) {
+        return currentBucket;
+      }
+    }
+    if (buckets.size() >= MIN_BUCKET_NUM_TO_CHECK
+        && (long) buckets.size() * MIN_AVERAGE_POINT_NUM_IN_BUCKET > pointNum) {
+      discard();
+      return null;
+    }
+    long bucketStartTime = time - Math.floorMod(time, interval);
+    currentBucketEndTime =
+        bucketStartTime > Long.MAX_VALUE - interval ? Long.MAX_VALUE : bucketStartTime + interval;
+    currentBucket = Statistics.getStatsByType(dataType);
+    buckets.add(currentBucket);
+    return currentBucket;
+  }
+
+  /** Whether the buckets cover all the added points. */
+  public boolean isUsable() {
+    return !discarded && !buckets.isEmpty();
+  }
+
+  /** Mark the rollup unusable until reset, e.g. when points are written without passing it. */
+  public void discard() {
+    discarded = true;
+    buckets.clear();
+    currentBucket = null;
+  }
+
+  public void reset() {
+    buckets.clear();
+    currentBucket = null;
+    pointNum = 0;
+    discarded = false;
+  }
+
+  public TSDataType getDataType() {
+    return dataType;
+  }
+
+  public long getInterval() {
+    return interval;
+  }
+
+  /** @return the buckets in ascending order of time */
+  public List<Statistics<? extends Serializable>> getBuckets() {
+    return Collections.unmodifiableList(buckets);
+  }
+}
@@ -24,6 +24,7 @@ import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
 import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
+import org.apache.iotdb.tsfile.utils.ValueBloomFilter;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -58,6 +59,18 @@ public abstract class Statistics<T extends Serializable> {
   private long startTime = Long.MAX_VALUE;
   private long endTime = Long.MIN_VALUE;
 
+  /**
+   * bloom filter of the values, only attached to chunk statistics when the TsFile has one for the
+   * chunk. It is not serialized with the statistics.
+   */
+  private ValueBloomFilter valueBloomFilter;
+
+  /**
+   * rollup of the points, only attached to chunk statistics while the chunk is copied into another
+   * TsFile. It is not serialized with the statistics.
+   */
+  private ChunkRollup chunkRollup;
+
   static final String STATS_UNSUPPORTED_MSG = "%s statistics does not support: %s";
 
   /**
@@ -166,6 +179,9 @@ public abstract class Statistics<T extends Serializable> {
         this.count += stats.count;
         mergeStatisticsValue((Statistics<T>) stats);
         isEmpty = false;
+        // the filter and the rollup do not cover the merged values
+        valueBloomFilter = null;
+        chunkRollup = null;
       }
     } else {
       Class<?> thisClass = this.getClass();
@@ -371,6 +387,22 @@ public abstract class Statistics<T extends Serializable> {
     this.count = count;
   }
 
+  public ValueBloomFilter getValueBloomFilter() {
+    return valueBloomFilter;
+  }
+
+  public void setValueBloomFilter(ValueBloomFilter valueBloomFilter) {
+    this.valueBloomFilter = valueBloomFilter;
+  }
+
+  public ChunkRollup getChunkRollup() {
+    return chunkRollup;
+  }
+
+  public void setChunkRollup(ChunkRollup chunkRollup) {
+    this.chunkRollup = chunkRollup;
+  }
+
   public abstract long calculateRamSize();
 
   @Override
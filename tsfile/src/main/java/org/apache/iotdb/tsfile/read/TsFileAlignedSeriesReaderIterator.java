@@ -28,6 +28,7 @@ import org.apache.iotdb.tsfile.utils.Pair;
 import org.apache.iotdb.tsfile.write.schema.IMeasurementSchema;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -60,8 +61,19 @@ public class TsFileAlignedSeriesReaderIterator {
     AlignedChunkMetadata alignedChunkMetadata = alignedChunkMetadataList.get(++curIdx);
     IChunkMetadata timeChunkMetadata = alignedChunkMetadata.getTimeChunkMetadata();
     List<IChunkMetadata> valueChunkMetadataList = alignedChunkMetadata.getValueChunkMetadataList();
+    // read the time chunk and all value chunks of the chunk group together
+    List<ChunkMetadata> chunkMetadataList = new ArrayList<>();
+    chunkMetadataList.add((ChunkMetadata) timeChunkMetadata);
+    for (IChunkMetadata valueChunkMetadata : valueChunkMetadataList) {
+      if (valueChunkMetadata != null) {
+        chunkMetadataList.add((ChunkMetadata) valueChunkMetadata);
+      }
+    }
+    List<Chunk> chunks = reader.readMemChunks(chunkMetadataList);
+    Chunk timeChunk = chunks.get(0);
+
     int schemaIdx = 0;
-    Chunk timeChunk = reader.readMemChunk((ChunkMetadata) timeChunkMetadata);
+    int chunkIdx = 1;
     Chunk[] valueChunks = new Chunk[schemaList.size()];
     long totalSize = 0;
     for (IChunkMetadata valueChunkMetadata : valueChunkMetadataList) {
@@ -73,7 +85,7 @@ public class TsFileAlignedSeriesReaderIterator {
           .equals(schemaList.get(schemaIdx).getMeasurementId())) {
         schemaIdx++;
       }
-      Chunk chunk = reader.readMemChunk((ChunkMetadata) valueChunkMetadata);
+      Chunk chunk = chunks.get(chunkIdx++);
       valueChunks[schemaIdx++] = chunk;
       totalSize += chunk.getHeader().getSerializedSize() + chunk.getHeader().getDataSize();
     }
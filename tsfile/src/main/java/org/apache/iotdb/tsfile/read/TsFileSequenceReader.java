@@ -22,6 +22,7 @@ import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
 import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
 import org.apache.iotdb.tsfile.common.constant.TsFileConstant;
 import org.apache.iotdb.tsfile.compress.IUnCompressor;
+import org.apache.iotdb.tsfile.compress.ZstdDictionaryManager;
 import org.apache.iotdb.tsfile.encoding.decoder.Decoder;
 import org.apache.iotdb.tsfile.exception.TsFileRuntimeException;
 import org.apache.iotdb.tsfile.exception.TsFileStatisticsMistakesException;
@@ -33,16 +34,20 @@ import org.apache.iotdb.tsfile.file.metadata.AlignedChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.AlignedTimeSeriesMetadata;
 import org.apache.iotdb.tsfile.file.metadata.ChunkGroupMetadata;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.file.metadata.ChunkRollupIndex;
+import org.apache.iotdb.tsfile.file.metadata.ChunkValueBloomFilterIndex;
 import org.apache.iotdb.tsfile.file.metadata.IChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.ITimeSeriesMetadata;
 import org.apache.iotdb.tsfile.file.metadata.MetadataIndexEntry;
 import org.apache.iotdb.tsfile.file.metadata.MetadataIndexNode;
 import org.apache.iotdb.tsfile.file.metadata.TimeseriesMetadata;
+import org.apache.iotdb.tsfile.file.metadata.TimeseriesMetadataHashIndex;
 import org.apache.iotdb.tsfile.file.metadata.TsFileMetadata;
 import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.MetadataIndexNodeType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.file.metadata.statistics.ChunkRollup;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.fileSystem.FSFactoryProducer;
 import org.apache.iotdb.tsfile.read.common.BatchData;
@@ -69,6 +74,7 @@ import java.io.IOException;
 import java.io.Serializable;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -108,6 +114,15 @@ public class TsFileSequenceReader implements AutoCloseable {
   private boolean cacheDeviceMetadata;
   private long minPlanIndex = Long.MAX_VALUE;
   private long maxPlanIndex = Long.MIN_VALUE;
+  // loaded lazily, null if the file has no usable hash index
+  private volatile TimeseriesMetadataHashIndex hashIndex;
+  private volatile boolean hashIndexLoaded;
+  // loaded lazily, null if the file has no usable value bloom filters
+  private volatile ChunkValueBloomFilterIndex valueBloomFilterIndex;
+  private volatile boolean valueBloomFilterIndexLoaded;
+  // loaded lazily, null if the file has no usable rollups
+  private volatile ChunkRollupIndex chunkRollupIndex;
+  private volatile boolean chunkRollupIndexLoaded;
 
   /**
    * Create a file reader of the given file. The reader will read the tail of the file to get the
@@ -138,6 +153,7 @@ public class TsFileSequenceReader implements AutoCloseable {
       if (loadMetadataSize) {
         loadMetadataSize();
       }
+      loadZstdDictionaries();
     } catch (Throwable e) {
       tsFileInput.close();
       throw e;
@@ -176,6 +192,7 @@ public class TsFileSequenceReader implements AutoCloseable {
       if (loadMetadataSize) { // NOTE no autoRepair here
         loadMetadataSize();
       }
+      loadZstdDictionaries();
     } catch (Throwable e) {
       tsFileInput.close();
       throw e;
@@ -197,6 +214,13 @@ public class TsFileSequenceReader implements AutoCloseable {
     this.fileMetadataSize = fileMetadataSize;
   }
 
+  /** Load the ZSTD dictionaries written next to the file, before any page of it is read. */
+  private void loadZstdDictionaries() throws IOException {
+    if (file != null) {
+      ZstdDictionaryManager.getInstance().loadDictionaries(file);
+    }
+  }
+
   public void loadMetadataSize() throws IOException {
     ByteBuffer metadataSize = ByteBuffer.allocate(Integer.BYTES);
     if (readTailMagic().equals(TSFileConfig.MAGIC_STRING)) {
@@ -346,6 +370,15 @@ public class TsFileSequenceReader implements AutoCloseable {
 
   public TimeseriesMetadata readTimeseriesMetadata(Path path, boolean ignoreNotExists)
       throws IOException {
+    TimeseriesMetadataHashIndex timeseriesMetadataHashIndex = getHashIndex();
+    if (timeseriesMetadataHashIndex != null) {
+      TimeseriesMetadata timeseriesMetadata =
+          readTimeseriesMetadataByHashIndex(timeseriesMetadataHashIndex, path);
+      // fall back to the index tree to report a missing device
+      if (timeseriesMetadata != null || ignoreNotExists) {
+        return timeseriesMetadata;
+      }
+    }
     readFileMetadata();
     MetadataIndexNode deviceMetadataIndexNode = tsFileMetaData.getMetadataIndex();
     Pair<MetadataIndexEntry, Long> metadataIndexPair =
@@ -448,6 +481,10 @@ public class TsFileSequenceReader implements AutoCloseable {
   /* Find the leaf node that contains path, return all the sensors in that leaf node which are also in allSensors set */
   public List<TimeseriesMetadata> readTimeseriesMetadata(Path path, Set<String> allSensors)
       throws IOException {
+    TimeseriesMetadataHashIndex timeseriesMetadataHashIndex = getHashIndex();
+    if (timeseriesMetadataHashIndex != null) {
+      return readTimeseriesMetadataByHashIndex(timeseriesMetadataHashIndex, path, allSensors);
+    }
     Pair<MetadataIndexEntry, Long> metadataIndexPair = getLeafMetadataIndexPair(path);
     if (metadataIndexPair == null) {
       return Collections.emptyList();
@@ -471,6 +508,167 @@ public class TsFileSequenceReader implements AutoCloseable {
     return timeseriesMetadataList;
   }
 
+  /**
+   * Get the hash index of the TimeseriesMetadata written next to this file, it is loaded on first
+   * use.
+   *
+   * @return null if the hash index is disabled or the file has no usable one
+   */
+  private TimeseriesMetadataHashIndex getHashIndex() throws IOException {
+    if (!config.isEnableTimeseriesMetadataHashIndex() || file == null) {
+      return null;
+    }
+    if (!hashIndexLoaded) {
+      synchronized (this) {
+        if (!hashIndexLoaded) {
+          readFileMetadata();
+          hashIndex =
+              TimeseriesMetadataHashIndex.load(
+                  file, tsFileInput.size(), tsFileMetaData.getMetaOffset());
+          hashIndexLoaded = true;
+        }
+      }
+    }
+    return hashIndex;
+  }
+
+  /**
+   * Attach the value bloom filters written next to this file to the statistics of the given chunk
+   * metadata, so that equality filters can skip chunks by {@code Filter.satisfy(Statistics)}.
+   */
+  public void attachValueBloomFilters(List<? extends IChunkMetadata> chunkMetadataList)
+      throws IOException {
+    if (!config.isEnableValueBloomFilter() || file == null) {
+      return;
+    }
+    if (!valueBloomFilterIndexLoaded) {
+      synchronized (this) {
+        if (!valueBloomFilterIndexLoaded) {
+          readFileMetadata();
+          valueBloomFilterIndex =
+              ChunkValueBloomFilterIndex.load(
+                  file, tsFileInput.size(), tsFileMetaData.getMetaOffset());
+          valueBloomFilterIndexLoaded = true;
+        }
+      }
+    }
+    if (valueBloomFilterIndex == null) {
+      return;
+    }
+    for (IChunkMetadata chunkMetadata : chunkMetadataList) {
+      if (chunkMetadata instanceof AlignedChunkMetadata) {
+        for (IChunkMetadata valueChunkMetadata :
+            ((AlignedChunkMetadata) chunkMetadata).getValueChunkMetadataList()) {
+          attachValueBloomFilter(valueChunkMetadata);
+        }
+      } else {
+        attachValueBloomFilter(chunkMetadata);
+      }
+    }
+  }
+
+  private void attachValueBloomFilter(IChunkMetadata chunkMetadata) {
+    if (chunkMetadata != null && chunkMetadata.getStatistics().getValueBloomFilter() == null) {
+      chunkMetadata
+          .getStatistics()
+          .setValueBloomFilter(valueBloomFilterIndex.get(chunkMetadata.getOffsetOfChunkHeader()));
+    }
+  }
+
+  /**
+   * Read the rollup written next to this file for the given chunk.
+   *
+   * @return null if the chunk has no rollup or it does not match the chunk
+   */
+  public ChunkRollup readChunkRollup(ChunkMetadata chunkMetadata) throws IOException {
+    if (config.getRollupInterval() <= 0 || file == null) {
+      return null;
+    }
+    if (!chunkRollupIndexLoaded) {
+      synchronized (this) {
+        if (!chunkRollupIndexLoaded) {
+          readFileMetadata();
+          chunkRollupIndex =
+              ChunkRollupIndex.load(file, tsFileInput.size(), tsFileMetaData.getMetaOffset());
+          chunkRollupIndexLoaded = true;
+        }
+      }
+    }
+    if (chunkRollupIndex == null) {
+      return null;
+    }
+    ChunkRollup chunkRollup = chunkRollupIndex.get(chunkMetadata.getOffsetOfChunkHeader());
+    if (chunkRollup == null || chunkRollup.getDataType() != chunkMetadata.getDataType()) {
+      return null;
+    }
+    long pointNum = 0;
+    for (Statistics<? extends Serializable> bucket : chunkRollup.getBuckets()) {
+      pointNum += bucket.getCount();
+    }
+    return pointNum == chunkMetadata.getStatistics().getCount() ? chunkRollup : null;
+  }
+
+  private TimeseriesMetadata readTimeseriesMetadataByHashIndex(
+      TimeseriesMetadataHashIndex timeseriesMetadataHashIndex, Path path) throws IOException {
+    Pair<Long, Integer> position =
+        timeseriesMetadataHashIndex.get(path.getDevice(), path.getMeasurement());
+    if (position == null) {
+      return null;
+    }
+    TimeseriesMetadata timeseriesMetadata =
+        deserializeTimeseriesMetadata(readData(position.left, position.right));
+    // a missing measurement may share its hash with another one of the same device
+    return timeseriesMetadata.getMeasurementId().equals(path.getMeasurement())
+        ? timeseriesMetadata
+        : null;
+  }
+
+  /**
+   * The TimeseriesMetadata of one device are written contiguously, so all the wanted ones are read
+   * with one IO as long as they are close enough to each other.
+   */
+  private List<TimeseriesMetadata> readTimeseriesMetadataByHashIndex(
+      TimeseriesMetadataHashIndex timeseriesMetadataHashIndex, Path path, Set<String> allSensors)
+      throws IOException {
+    String device = path.getDevice();
+    Pair<Long, Integer> position = timeseriesMetadataHashIndex.get(device, path.getMeasurement());
+    if (position == null) {
+      return Collections.emptyList();
+    }
+    long start = position.left;
+    long end = position.left + position.right;
+    for (String sensor : allSensors) {
+      Pair<Long, Integer> sensorPosition = timeseriesMetadataHashIndex.get(device, sensor);
+      if (sensorPosition != null) {
+        long sensorStart = Math.min(start, sensorPosition.left);
+        long sensorEnd = Math.max(end, sensorPosition.left + sensorPosition.right);
+        if (sensorEnd - sensorStart <= MAX_READ_BUFFER_SIZE) {
+          start = sensorStart;
+          end = sensorEnd;
+        }
+      }
+    }
+    List<TimeseriesMetadata> timeseriesMetadataList = new ArrayList<>();
+    ByteBuffer buffer = readData(start, (int) (end - start));
+    while (buffer.hasRemaining()) {
+      TimeseriesMetadata timeseriesMetadata = deserializeTimeseriesMetadata(buffer);
+      if (allSensors.contains(timeseriesMetadata.getMeasurementId())) {
+        timeseriesMetadataList.add(timeseriesMetadata);
+      }
+    }
+    return timeseriesMetadataList;
+  }
+
+  private TimeseriesMetadata deserializeTimeseriesMetadata(ByteBuffer buffer) {
+    try {
+      return TimeseriesMetadata.deserializeFrom(buffer, true);
+    } catch (Exception e) {
+      logger.error(
+          "Something error happened while deserializing TimeseriesMetadata of file {}", file);
+      throw e;
+    }
+  }
+
   /* Get leaf MetadataIndexPair which contains path */
   private Pair<MetadataIndexEntry, Long> getLeafMetadataIndexPair(Path path) throws IOException {
     readFileMetadata();
@@ -1100,6 +1298,99 @@ public class TsFileSequenceReader implements AutoCloseable {
     }
   }
 
+  /**
+   * read memory chunks of this file together. Chunks close to each other, e.g. the value chunks of
+   * an aligned device in one chunk group, are read by one IO instead of two IOs (header and data)
+   * per chunk.
+   *
+   * @param metadataList given chunk meta data of this file
+   * @return chunks in the order of metadataList
+   */
+  public List<Chunk> readMemChunks(List<ChunkMetadata> metadataList) throws IOException {
+    try {
+      int size = metadataList.size();
+      int maxGapSize = TSFileDescriptor.getInstance().getConfig().getCoalescedReadMaxGapSize();
+      long[] sortedOffsets =
+          metadataList.stream().mapToLong(ChunkMetadata::getOffsetOfChunkHeader).sorted().toArray();
+
+      // the first round reads the headers, and the whole chunk if the next requested chunk starts
+      // within the max gap, which is then known to hold all data of this chunk
+      long[] offsets = new long[size];
+      int[] lengths = new int[size];
+      for (int i = 0; i < size; i++) {
+        ChunkMetadata metadata = metadataList.get(i);
+        offsets[i] = metadata.getOffsetOfChunkHeader();
+        lengths[i] = ChunkHeader.getSerializedSize(metadata.getMeasurementUid());
+        int next = Arrays.binarySearch(sortedOffsets, offsets[i]) + 1;
+        while (next < size && sortedOffsets[next] == offsets[i]) {
+          next++;
+        }
+        if (next < size && sortedOffsets[next] - offsets[i] <= maxGapSize) {
+          lengths[i] = Math.max(lengths[i], (int) (sortedOffsets[next] - offsets[i]));
+        }
+      }
+      ByteBuffer[] buffers = tsFileInput.readVectored(offsets, lengths, maxGapSize);
+
+      ChunkHeader[] headers = new ChunkHeader[size];
+      ByteBuffer[] chunkData = new ByteBuffer[size];
+      List<Integer> unread = new ArrayList<>();
+      for (int i = 0; i < size; i++) {
+        headers[i] = ChunkHeader.deserializeFrom(buffers[i]);
+        if (buffers[i].remaining() >= headers[i].getDataSize()) {
+          chunkData[i] = copyOf(buffers[i], headers[i].getDataSize());
+        } else {
+          unread.add(i);
+        }
+      }
+
+      // the second round reads the data of the other chunks
+      if (!unread.isEmpty()) {
+        long[] dataOffsets = new long[unread.size()];
+        int[] dataLengths = new int[unread.size()];
+        for (int i = 0; i < unread.size(); i++) {
+          int index = unread.get(i);
+          dataOffsets[i] = offsets[index] + headers[index].getSerializedSize();
+          dataLengths[i] = headers[index].getDataSize();
+        }
+        buffers = tsFileInput.readVectored(dataOffsets, dataLengths, maxGapSize);
+        for (int i = 0; i < unread.size(); i++) {
+          chunkData[unread.get(i)] = copyOf(buffers[i], dataLengths[i]);
+        }
+      }
+
+      List<Chunk> chunks = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        ChunkMetadata metadata = metadataList.get(i);
+        chunks.add(
+            new Chunk(
+                headers[i],
+                chunkData[i],
+                metadata.getDeleteIntervalList(),
+                metadata.getStatistics()));
+      }
+      return chunks;
+    } catch (Throwable t) {
+      logger.error("Exception happened while reading chunks of {}", file, t);
+      throw t;
+    }
+  }
+
+  /**
+   * Chunk data is expected to own its whole backing array, so the data is copied out of a merged
+   * read unless the slice already covers the whole array.
+   */
+  private static ByteBuffer copyOf(ByteBuffer slice, int length) {
+    if (slice.arrayOffset() + slice.position() == 0 && slice.array().length == length) {
+      slice.limit(length);
+      return slice;
+    }
+    ByteBuffer buffer = ByteBuffer.allocate(length);
+    slice.limit(slice.position() + length);
+    buffer.put(slice);
+    buffer.flip();
+    return buffer;
+  }
+
   /**
    * read memory chunk.
    *
@@ -1683,6 +1974,7 @@ public class TsFileSequenceReader implements AutoCloseable {
     }
     List<ChunkMetadata> chunkMetadataList = readChunkMetaDataList(timeseriesMetaData);
     chunkMetadataList.sort(Comparator.comparingLong(IChunkMetadata::getStartTime));
+    attachValueBloomFilters(chunkMetadataList);
     return chunkMetadataList;
   }
 
@@ -1694,6 +1986,7 @@ public class TsFileSequenceReader implements AutoCloseable {
     }
     List<IChunkMetadata> chunkMetadataList = readIChunkMetaDataList(timeseriesMetaData);
     chunkMetadataList.sort(Comparator.comparingLong(IChunkMetadata::getStartTime));
+    attachValueBloomFilters(chunkMetadataList);
     return chunkMetadataList;
   }
 
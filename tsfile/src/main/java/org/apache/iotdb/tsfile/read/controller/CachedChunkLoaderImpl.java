@@ -31,7 +31,10 @@ import org.apache.iotdb.tsfile.read.reader.chunk.ChunkReader;
 
 import java.io.IOException;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 /** Read one Chunk and cache it into a LRUCache, only used in tsfile module. */
@@ -75,6 +78,43 @@ public class CachedChunkLoaderImpl implements IChunkLoader {
         chunkMetaData.getStatistics());
   }
 
+  @Override
+  public List<Chunk> loadChunks(List<ChunkMetadata> chunkMetadataList) throws IOException {
+    List<ChunkCacheKey> keys = new ArrayList<>(chunkMetadataList.size());
+    List<ChunkMetadata> missedChunkMetadataList = new ArrayList<>();
+    Map<ChunkCacheKey, Chunk> chunkMap = new HashMap<>();
+    for (ChunkMetadata chunkMetadata : chunkMetadataList) {
+      ChunkCacheKey key = new ChunkCacheKey(chunkMetadata);
+      keys.add(key);
+      Chunk chunk = chunkCache.getIfPresent(key);
+      if (chunk != null) {
+        chunkMap.put(key, chunk);
+      } else {
+        missedChunkMetadataList.add(chunkMetadata);
+      }
+    }
+    if (!missedChunkMetadataList.isEmpty()) {
+      List<Chunk> missedChunks = reader.readMemChunks(missedChunkMetadataList);
+      for (int i = 0; i < missedChunks.size(); i++) {
+        ChunkCacheKey key = new ChunkCacheKey(missedChunkMetadataList.get(i));
+        chunkCache.put(key, missedChunks.get(i));
+        chunkMap.put(key, missedChunks.get(i));
+      }
+    }
+
+    List<Chunk> chunks = new ArrayList<>(chunkMetadataList.size());
+    for (int i = 0; i < chunkMetadataList.size(); i++) {
+      Chunk chunk = chunkMap.get(keys.get(i));
+      chunks.add(
+          new Chunk(
+              chunk.getHeader(),
+              chunk.getData().duplicate(),
+              chunkMetadataList.get(i).getDeleteIntervalList(),
+              chunkMetadataList.get(i).getStatistics()));
+    }
+    return chunks;
+  }
+
   @Override
   public void close() throws IOException {
     reader.close();
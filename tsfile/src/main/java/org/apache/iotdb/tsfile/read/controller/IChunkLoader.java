@@ -25,12 +25,23 @@ import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 import org.apache.iotdb.tsfile.read.reader.IChunkReader;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 public interface IChunkLoader {
 
   /** read all content of any chunk. */
   Chunk loadChunk(ChunkMetadata chunkMetaData) throws IOException;
 
+  /** read all chunks of one file, e.g. the time and value chunks of an aligned series. */
+  default List<Chunk> loadChunks(List<ChunkMetadata> chunkMetadataList) throws IOException {
+    List<Chunk> chunks = new ArrayList<>(chunkMetadataList.size());
+    for (ChunkMetadata chunkMetadata : chunkMetadataList) {
+      chunks.add(loadChunk(chunkMetadata));
+    }
+    return chunks;
+  }
+
   /** close the file reader. */
   void close() throws IOException;
 
@@ -120,6 +120,7 @@ public class MetadataQuerierByFileImpl implements IMetadataQuerier {
       for (ITimeSeriesMetadata timeseriesMetadata : timeseriesMetaDataList) {
         List<IChunkMetadata> chunkMetadataList =
             tsFileReader.readIChunkMetaDataList(timeseriesMetadata);
+        tsFileReader.attachValueBloomFilters(chunkMetadataList);
         String measurementId;
         if (timeseriesMetadata instanceof AlignedTimeSeriesMetadata) {
           measurementId =
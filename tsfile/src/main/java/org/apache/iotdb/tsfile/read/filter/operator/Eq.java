@@ -46,6 +46,10 @@ public class Eq<T extends Comparable<T>> extends UnaryFilter<T> {
       return ((Long) value) >= statistics.getStartTime()
           && ((Long) value) <= statistics.getEndTime();
     } else {
+      if (statistics.getValueBloomFilter() != null
+          && !statistics.getValueBloomFilter().mightContain(value)) {
+        return false;
+      }
       if (statistics.getType() == TSDataType.TEXT || statistics.getType() == TSDataType.BOOLEAN) {
         return true;
       }
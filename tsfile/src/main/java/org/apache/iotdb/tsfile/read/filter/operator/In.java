@@ -23,6 +23,7 @@ import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 import org.apache.iotdb.tsfile.read.filter.factory.FilterSerializeId;
 import org.apache.iotdb.tsfile.read.filter.factory.FilterType;
 import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
+import org.apache.iotdb.tsfile.utils.ValueBloomFilter;
 
 import java.io.DataOutputStream;
 import java.io.IOException;
@@ -58,7 +59,16 @@ public class In<T extends Comparable<T>> implements Filter {
 
   @Override
   public boolean satisfy(Statistics statistics) {
-    return true;
+    ValueBloomFilter valueBloomFilter = statistics.getValueBloomFilter();
+    if (filterType == FilterType.TIME_FILTER || not || valueBloomFilter == null) {
+      return true;
+    }
+    for (T value : values) {
+      if (valueBloomFilter.mightContain(value)) {
+        return true;
+      }
+    }
+    return false;
   }
 
   @Override
@@ -26,6 +26,8 @@ import java.nio.channels.ClosedByInterruptException;
 import java.nio.channels.ClosedChannelException;
 import java.nio.channels.FileChannel;
 import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
+import java.util.Comparator;
 
 public interface TsFileInput {
 
@@ -97,6 +99,60 @@ public interface TsFileInput {
    */
   int read(ByteBuffer dst, long position) throws IOException;
 
+  /**
+   * Reads several ranges of this TsFileInput. Ranges (in the order of their offsets) whose gap is
+   * not larger than {@code maxGapSize} are merged and read by one positional read, the bytes in
+   * the gaps are dropped. This method does not modify this TsFileInput's position.
+   *
+   * @param offsets start positions of the ranges, need not be sorted and ranges may overlap
+   * @param lengths lengths of the ranges
+   * @param maxGapSize max number of unwanted bytes read to save one IO
+   * @return one buffer per range in the order of {@code offsets}, slices of the merged reads, so
+   *     a buffer may share its backing array with others
+   * @throws IOException If the end of the input is reached before a range is read completely or
+   *     some other I/O error occurs
+   */
+  default ByteBuffer[] readVectored(long[] offsets, int[] lengths, int maxGapSize)
+      throws IOException {
+    Integer[] order = new Integer[offsets.length];
+    for (int i = 0; i < order.length; i++) {
+      order[i] = i;
+    }
+    Arrays.sort(order, Comparator.comparingLong(i -> offsets[i]));
+
+    ByteBuffer[] results = new ByteBuffer[offsets.length];
+    int next = 0;
+    while (next < order.length) {
+      int first = next;
+      long start = offsets[order[next]];
+      long end = start + lengths[order[next]];
+      next++;
+      while (next < order.length
+          && offsets[order[next]] - end <= maxGapSize
+          && offsets[order[next]] + lengths[order[next]] - start <= Integer.MAX_VALUE) {
+        end = Math.max(end, offsets[order[next]] + lengths[order[next]]);
+        next++;
+      }
+
+      ByteBuffer merged = ByteBuffer.allocate((int) (end - start));
+      while (merged.hasRemaining()) {
+        if (read(merged, start + merged.position()) < 0) {
+          throw new IOException(
+              String.format(
+                  "reach the end of %s, want to read [%d, %d), actually read until %d",
+                  getFilePath(), start, end, start + merged.position()));
+        }
+      }
+      for (int i = first; i < next; i++) {
+        int index = order[i];
+        merged.limit((int) (offsets[index] - start) + lengths[index]);
+        merged.position((int) (offsets[index] - start));
+        results[index] = merged.slice();
+      }
+    }
+    return results;
+  }
+
   /** read a byte from the Input. */
   int read() throws IOException;
 
@@ -30,19 +30,30 @@ import org.apache.iotdb.tsfile.read.common.block.TsBlock;
 import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
 import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
 import org.apache.iotdb.tsfile.read.common.block.column.TimeColumnBuilder;
+import org.apache.iotdb.tsfile.read.filter.GroupByFilter;
+import org.apache.iotdb.tsfile.read.filter.TimeFilter;
+import org.apache.iotdb.tsfile.read.filter.basic.BinaryFilter;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.filter.basic.UnaryFilter;
+import org.apache.iotdb.tsfile.read.filter.factory.FilterType;
 import org.apache.iotdb.tsfile.read.filter.operator.AndFilter;
+import org.apache.iotdb.tsfile.read.filter.operator.NotFilter;
 import org.apache.iotdb.tsfile.read.reader.IPageReader;
 import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
 public class PageReader implements IPageReader {
 
+  /** max number of points decoded by one bulk decoder call */
+  private static final int DECODE_BATCH_SIZE = 1024;
+
   private PageHeader pageHeader;
 
   protected TSDataType dataType;
@@ -161,81 +172,207 @@ public class PageReader implements IPageReader {
   @Override
   public TsBlock getAllSatisfiedData() throws IOException {
     TsBlockBuilder builder = new TsBlockBuilder(Collections.singletonList(dataType));
+    if (filter != null && !filter.satisfy(getStatistics())) {
+      return builder.build();
+    }
+    // the time part of the filter can be checked before any value is decoded
+    List<Filter> timeFilters = new ArrayList<>();
+    List<Filter> valueFilters = new ArrayList<>();
+    splitConjuncts(filter, timeFilters, valueFilters);
+    Filter timeFilter = and(timeFilters);
+    Filter valueFilter = and(valueFilters);
+
+    // decode the time column first and select rows by deletions and time filter
+    long[] times = decodeTimeColumn();
+    int[] selection = new int[times.length];
+    int selectedCount = 0;
+    for (int i = 0; i < times.length; i++) {
+      if (!isDeleted(times[i]) && (timeFilter == null || timeFilter.satisfy(times[i], null))) {
+        selection[selectedCount++] = i;
+      }
+    }
+    if (selectedCount == 0) {
+      // nothing selected, the value column is never decoded
+      return builder.build();
+    }
+
+    // values before the first selected row are skipped, those after the last one never decoded
+    int position = valueDecoder.skip(valueBuffer, dataType, selection[0]);
+    int end = selection[selectedCount - 1] + 1;
+    int cursor = 0;
     TimeColumnBuilder timeBuilder = builder.getTimeColumnBuilder();
     ColumnBuilder valueBuilder = builder.getColumnBuilder(0);
-    if (filter == null || filter.satisfy(getStatistics())) {
-      switch (dataType) {
-        case BOOLEAN:
-          while (timeDecoder.hasNext(timeBuffer)) {
-            long timestamp = timeDecoder.readLong(timeBuffer);
-            boolean aBoolean = valueDecoder.readBoolean(valueBuffer);
-            if (!isDeleted(timestamp) && (filter == null || filter.satisfy(timestamp, aBoolean))) {
-              timeBuilder.writeLong(timestamp);
+    switch (dataType) {
+      case BOOLEAN:
+        for (; position < end; position++) {
+          boolean aBoolean = valueDecoder.readBoolean(valueBuffer);
+          if (position == selection[cursor]) {
+            cursor++;
+            if (valueFilter == null || valueFilter.satisfy(times[position], aBoolean)) {
+              timeBuilder.writeLong(times[position]);
               valueBuilder.writeBoolean(aBoolean);
               builder.declarePosition();
             }
           }
-          break;
-        case INT32:
-          while (timeDecoder.hasNext(timeBuffer)) {
-            long timestamp = timeDecoder.readLong(timeBuffer);
-            int anInt = valueDecoder.readInt(valueBuffer);
-            if (!isDeleted(timestamp) && (filter == null || filter.satisfy(timestamp, anInt))) {
-              timeBuilder.writeLong(timestamp);
+        }
+        break;
+      case INT32:
+        int[] ints = new int[Math.min(DECODE_BATCH_SIZE, end - position)];
+        while (position < end) {
+          int size = Math.min(ints.length, end - position);
+          int count = valueDecoder.readInts(valueBuffer, ints, 0, size);
+          if (count == 0) {
+            break;
+          }
+          for (; cursor < selectedCount && selection[cursor] < position + count; cursor++) {
+            int row = selection[cursor];
+            int anInt = ints[row - position];
+            if (valueFilter == null || valueFilter.satisfy(times[row], anInt)) {
+              timeBuilder.writeLong(times[row]);
               valueBuilder.writeInt(anInt);
               builder.declarePosition();
             }
           }
-          break;
-        case INT64:
-          while (timeDecoder.hasNext(timeBuffer)) {
-            long timestamp = timeDecoder.readLong(timeBuffer);
-            long aLong = valueDecoder.readLong(valueBuffer);
-            if (!isDeleted(timestamp) && (filter == null || filter.satisfy(timestamp, aLong))) {
-              timeBuilder.writeLong(timestamp);
+          position += count;
+        }
+        break;
+      case INT64:
+        long[] longs = new long[Math.min(DECODE_BATCH_SIZE, end - position)];
+        while (position < end) {
+          int size = Math.min(longs.length, end - position);
+          int count = valueDecoder.readLongs(valueBuffer, longs, 0, size);
+          if (count == 0) {
+            break;
+          }
+          for (; cursor < selectedCount && selection[cursor] < position + count; cursor++) {
+            int row = selection[cursor];
+            long aLong = longs[row - position];
+            if (valueFilter == null || valueFilter.satisfy(times[row], aLong)) {
+              timeBuilder.writeLong(times[row]);
               valueBuilder.writeLong(aLong);
               builder.declarePosition();
             }
           }
-          break;
-        case FLOAT:
-          while (timeDecoder.hasNext(timeBuffer)) {
-            long timestamp = timeDecoder.readLong(timeBuffer);
-            float aFloat = valueDecoder.readFloat(valueBuffer);
-            if (!isDeleted(timestamp) && (filter == null || filter.satisfy(timestamp, aFloat))) {
-              timeBuilder.writeLong(timestamp);
+          position += count;
+        }
+        break;
+      case FLOAT:
+        float[] floats = new float[Math.min(DECODE_BATCH_SIZE, end - position)];
+        while (position < end) {
+          int size = Math.min(floats.length, end - position);
+          int count = valueDecoder.readFloats(valueBuffer, floats, 0, size);
+          if (count == 0) {
+            break;
+          }
+          for (; cursor < selectedCount && selection[cursor] < position + count; cursor++) {
+            int row = selection[cursor];
+            float aFloat = floats[row - position];
+            if (valueFilter == null || valueFilter.satisfy(times[row], aFloat)) {
+              timeBuilder.writeLong(times[row]);
               valueBuilder.writeFloat(aFloat);
               builder.declarePosition();
             }
           }
-          break;
-        case DOUBLE:
-          while (timeDecoder.hasNext(timeBuffer)) {
-            long timestamp = timeDecoder.readLong(timeBuffer);
-            double aDouble = valueDecoder.readDouble(valueBuffer);
-            if (!isDeleted(timestamp) && (filter == null || filter.satisfy(timestamp, aDouble))) {
-              timeBuilder.writeLong(timestamp);
+          position += count;
+        }
+        break;
+      case DOUBLE:
+        double[] doubles = new double[Math.min(DECODE_BATCH_SIZE, end - position)];
+        while (position < end) {
+          int size = Math.min(doubles.length, end - position);
+          int count = valueDecoder.readDoubles(valueBuffer, doubles, 0, size);
+          if (count == 0) {
+            break;
+          }
+          for (; cursor < selectedCount && selection[cursor] < position + count; cursor++) {
+            int row = selection[cursor];
+            double aDouble = doubles[row - position];
+            if (valueFilter == null || valueFilter.satisfy(times[row], aDouble)) {
+              timeBuilder.writeLong(times[row]);
               valueBuilder.writeDouble(aDouble);
               builder.declarePosition();
             }
           }
-          break;
-        case TEXT:
-          while (timeDecoder.hasNext(timeBuffer)) {
-            long timestamp = timeDecoder.readLong(timeBuffer);
-            Binary aBinary = valueDecoder.readBinary(valueBuffer);
-            if (!isDeleted(timestamp) && (filter == null || filter.satisfy(timestamp, aBinary))) {
-              timeBuilder.writeLong(timestamp);
+          position += count;
+        }
+        break;
+      case TEXT:
+        for (; position < end; position++) {
+          Binary aBinary = valueDecoder.readBinary(valueBuffer);
+          if (position == selection[cursor]) {
+            cursor++;
+            if (valueFilter == null || valueFilter.satisfy(times[position], aBinary)) {
+              timeBuilder.writeLong(times[position]);
               valueBuilder.writeBinary(aBinary);
               builder.declarePosition();
             }
           }
+        }
+        break;
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(dataType));
+    }
+    return builder.build();
+  }
+
+  private long[] decodeTimeColumn() throws IOException {
+    long[] times = new long[getTimeColumnSizeHint()];
+    int size = 0;
+    int read = timeDecoder.readLongs(timeBuffer, times, 0, times.length);
+    while (read > 0) {
+      size += read;
+      if (size == times.length) {
+        if (!timeDecoder.hasNext(timeBuffer)) {
           break;
-        default:
-          throw new UnSupportedDataTypeException(String.valueOf(dataType));
+        }
+        times = Arrays.copyOf(times, size << 1);
       }
+      read = timeDecoder.readLongs(timeBuffer, times, size, times.length - size);
     }
-    return builder.build();
+    return size == times.length ? times : Arrays.copyOf(times, size);
+  }
+
+  private int getTimeColumnSizeHint() {
+    if (pageHeader != null && pageHeader.getStatistics() != null) {
+      return (int) Math.max(1, pageHeader.getStatistics().getCount());
+    }
+    return DECODE_BATCH_SIZE;
+  }
+
+  /** collect the conjuncts of filter that only involve time and those that involve values */
+  private static void splitConjuncts(
+      Filter filter, List<Filter> timeFilters, List<Filter> valueFilters) {
+    if (filter == null) {
+      return;
+    }
+    if (filter instanceof AndFilter) {
+      splitConjuncts(((AndFilter) filter).getLeft(), timeFilters, valueFilters);
+      splitConjuncts(((AndFilter) filter).getRight(), timeFilters, valueFilters);
+    } else if (isTimeFilter(filter)) {
+      timeFilters.add(filter);
+    } else {
+      valueFilters.add(filter);
+    }
+  }
+
+  private static boolean isTimeFilter(Filter filter) {
+    if (filter instanceof UnaryFilter) {
+      return ((UnaryFilter<?>) filter).getFilterType() == FilterType.TIME_FILTER;
+    } else if (filter instanceof BinaryFilter) {
+      return isTimeFilter(((BinaryFilter) filter).getLeft())
+          && isTimeFilter(((BinaryFilter) filter).getRight());
+    } else if (filter instanceof NotFilter) {
+      return isTimeFilter(((NotFilter) filter).getFilter());
+    }
+    return filter instanceof TimeFilter.TimeIn || filter instanceof GroupByFilter;
+  }
+
+  private static Filter and(List<Filter> filters) {
+    Filter result = null;
+    for (Filter filter : filters) {
+      result = result == null ? filter : new AndFilter(result, filter);
+    }
+    return result;
   }
 
   @Override
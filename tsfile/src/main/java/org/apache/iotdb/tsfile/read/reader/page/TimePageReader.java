@@ -25,11 +25,13 @@ import org.apache.iotdb.tsfile.read.common.TimeRange;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 public class TimePageReader {
 
+  private static final int DEFAULT_TIME_BATCH_SIZE = 1024;
+
   private final PageHeader pageHeader;
 
   /** decoder for time column */
@@ -63,10 +65,7 @@ public class TimePageReader {
 
   public long[] nextTimeBatch() throws IOException {
     long[] timeBatch = new long[(int) pageHeader.getStatistics().getCount()];
-    int index = 0;
-    while (timeDecoder.hasNext(timeBuffer)) {
-      timeBatch[index++] = timeDecoder.readLong(timeBuffer);
-    }
+    timeDecoder.readLongs(timeBuffer, timeBatch, 0, timeBatch.length);
     return timeBatch;
   }
 
@@ -78,11 +77,17 @@ public class TimePageReader {
     if (pageHeader.getStatistics() != null) {
       return nextTimeBatch();
     } else {
-      List<Long> timeList = new ArrayList<>();
-      while (timeDecoder.hasNext(timeBuffer)) {
-        timeList.add(timeDecoder.readLong(timeBuffer));
+      long[] timeBatch = new long[DEFAULT_TIME_BATCH_SIZE];
+      int size = 0;
+      int read = timeDecoder.readLongs(timeBuffer, timeBatch, 0, timeBatch.length);
+      while (read > 0) {
+        size += read;
+        if (size == timeBatch.length) {
+          timeBatch = Arrays.copyOf(timeBatch, size << 1);
+        }
+        read = timeDecoder.readLongs(timeBuffer, timeBatch, size, timeBatch.length - size);
       }
-      return timeList.stream().mapToLong(t -> t).toArray();
+      return Arrays.copyOf(timeBatch, size);
     }
   }
 
@@ -26,13 +26,22 @@ import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.read.common.BatchData;
 import org.apache.iotdb.tsfile.read.common.BatchDataFactory;
 import org.apache.iotdb.tsfile.read.common.TimeRange;
+import org.apache.iotdb.tsfile.read.common.block.column.BinaryColumn;
+import org.apache.iotdb.tsfile.read.common.block.column.BooleanColumn;
+import org.apache.iotdb.tsfile.read.common.block.column.Column;
+import org.apache.iotdb.tsfile.read.common.block.column.DoubleColumn;
+import org.apache.iotdb.tsfile.read.common.block.column.FloatColumn;
+import org.apache.iotdb.tsfile.read.common.block.column.IntColumn;
+import org.apache.iotdb.tsfile.read.common.block.column.LongColumn;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
 import org.apache.iotdb.tsfile.utils.TsPrimitiveType;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.List;
+import java.util.Optional;
 
 public class ValuePageReader {
 
@@ -239,6 +248,99 @@ public class ValuePageReader {
     return valueBatch;
   }
 
+  /**
+   * return the whole page as a column aligned with timeBatch, rows without value or deleted are
+   * null. Returns null if the page is empty.
+   */
+  public Column nextValueColumn(long[] timeBatch) throws IOException {
+    if (valueBuffer == null || bitmap == null) {
+      return null;
+    }
+    int rowCount = timeBatch.length;
+    boolean[] isNull = new boolean[rowCount];
+    int nonNullCount = 0;
+    for (int i = 0; i < rowCount; i++) {
+      isNull[i] = ((bitmap[i / 8] & 0xFF) & (MASK >>> (i % 8))) == 0;
+      if (!isNull[i]) {
+        nonNullCount++;
+      }
+    }
+    switch (dataType) {
+      case BOOLEAN:
+        boolean[] booleanValues = new boolean[rowCount];
+        for (int i = 0; i < rowCount; i++) {
+          if (!isNull[i]) {
+            booleanValues[i] = valueDecoder.readBoolean(valueBuffer);
+          }
+        }
+        markDeleted(timeBatch, isNull);
+        return new BooleanColumn(rowCount, Optional.of(isNull), booleanValues);
+      case INT32:
+        int[] intValues = new int[rowCount];
+        valueDecoder.readInts(valueBuffer, intValues, 0, nonNullCount);
+        // spread the densely decoded values to their rows, back to front
+        for (int i = rowCount - 1, j = nonNullCount - 1; j >= 0; i--) {
+          if (!isNull[i]) {
+            intValues[i] = intValues[j--];
+          }
+        }
+        markDeleted(timeBatch, isNull);
+        return new IntColumn(rowCount, Optional.of(isNull), intValues);
+      case INT64:
+        long[] longValues = new long[rowCount];
+        valueDecoder.readLongs(valueBuffer, longValues, 0, nonNullCount);
+        // spread the densely decoded values to their rows, back to front
+        for (int i = rowCount - 1, j = nonNullCount - 1; j >= 0; i--) {
+          if (!isNull[i]) {
+            longValues[i] = longValues[j--];
+          }
+        }
+        markDeleted(timeBatch, isNull);
+        return new LongColumn(rowCount, Optional.of(isNull), longValues);
+      case FLOAT:
+        float[] floatValues = new float[rowCount];
+        valueDecoder.readFloats(valueBuffer, floatValues, 0, nonNullCount);
+        // spread the densely decoded values to their rows, back to front
+        for (int i = rowCount - 1, j = nonNullCount - 1; j >= 0; i--) {
+          if (!isNull[i]) {
+            floatValues[i] = floatValues[j--];
+          }
+        }
+        markDeleted(timeBatch, isNull);
+        return new FloatColumn(rowCount, Optional.of(isNull), floatValues);
+      case DOUBLE:
+        double[] doubleValues = new double[rowCount];
+        valueDecoder.readDoubles(valueBuffer, doubleValues, 0, nonNullCount);
+        // spread the densely decoded values to their rows, back to front
+        for (int i = rowCount - 1, j = nonNullCount - 1; j >= 0; i--) {
+          if (!isNull[i]) {
+            doubleValues[i] = doubleValues[j--];
+          }
+        }
+        markDeleted(timeBatch, isNull);
+        return new DoubleColumn(rowCount, Optional.of(isNull), doubleValues);
+      case TEXT:
+        Binary[] binaryValues = new Binary[rowCount];
+        for (int i = 0; i < rowCount; i++) {
+          if (!isNull[i]) {
+            binaryValues[i] = valueDecoder.readBinary(valueBuffer);
+          }
+        }
+        markDeleted(timeBatch, isNull);
+        return new BinaryColumn(rowCount, Optional.of(isNull), binaryValues);
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(dataType));
+    }
+  }
+
+  private void markDeleted(long[] timeBatch, boolean[] isNull) {
+    for (int i = 0; i < timeBatch.length; i++) {
+      if (!isNull[i] && isDeleted(timeBatch[i])) {
+        isNull[i] = true;
+      }
+    }
+  }
+
   public Statistics getStatistics() {
     return pageHeader.getStatistics();
   }
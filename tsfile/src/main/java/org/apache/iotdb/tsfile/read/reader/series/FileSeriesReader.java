@@ -49,13 +49,15 @@ public class FileSeriesReader extends AbstractFileSeriesReader {
       this.chunkReader = new ChunkReader(chunk, filter);
     } else {
       AlignedChunkMetadata alignedChunkMetadata = (AlignedChunkMetadata) chunkMetaData;
-      Chunk timeChunk =
-          chunkLoader.loadChunk((ChunkMetadata) (alignedChunkMetadata.getTimeChunkMetadata()));
-      List<Chunk> valueChunkList = new ArrayList<>();
+      // the time chunk and value chunks are in one chunk group, so load them together
+      List<ChunkMetadata> chunkMetadataList = new ArrayList<>();
+      chunkMetadataList.add((ChunkMetadata) alignedChunkMetadata.getTimeChunkMetadata());
       for (IChunkMetadata metadata : alignedChunkMetadata.getValueChunkMetadataList()) {
-        valueChunkList.add(chunkLoader.loadChunk((ChunkMetadata) metadata));
+        chunkMetadataList.add((ChunkMetadata) metadata);
       }
-      this.chunkReader = new AlignedChunkReader(timeChunk, valueChunkList, filter);
+      List<Chunk> chunks = chunkLoader.loadChunks(chunkMetadataList);
+      this.chunkReader =
+          new AlignedChunkReader(chunks.get(0), chunks.subList(1, chunks.size()), filter);
     }
   }
 
@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.tsfile.utils;
+
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+
+import java.util.Arrays;
+
+/**
+ * A bloom filter of the values of one chunk, used to skip chunks by equality predicates which
+ * min/max statistics cannot answer, e.g. {@code status = 'FAULT'} on a TEXT series.
+ *
+ * <p>The filter is sized for a low number of distinct values. Once more distinct values than that
+ * are added it is saturated: adding becomes a no-op and the filter must not be persisted, because
+ * its false positive rate is no longer bounded.
+ */
+public class ValueBloomFilter {
+
+  private static final int HASH_FUNCTION_SIZE = 3;
+  // 16 bits per value with 3 hash functions gives a false positive rate of about 0.5%
+  private static final int BITS_PER_VALUE = 16;
+
+  private final long[] words;
+  private final int bitMask;
+  private final int maxDistinctCount;
+  // number of added values that set at least one new bit, estimates the distinct count
+  private int distinctCount;
+  private boolean discarded;
+
+  /** Create an empty filter for at most the given number of distinct values. */
+  public ValueBloomFilter(int maxDistinctCount) {
+    int bitSize = Math.max(Long.SIZE, Integer.highestOneBit(maxDistinctCount * BITS_PER_VALUE));
+    this.words = new long[bitSize / Long.SIZE];
+    this.bitMask = bitSize - 1;
+    this.maxDistinctCount = maxDistinctCount;
+  }
+
+  /** Wrap the words of a persisted filter, the word count must be a power of 2. */
+  public ValueBloomFilter(long[] words) {
+    this.words = words;
+    this.bitMask = words.length * Long.SIZE - 1;
+    this.maxDistinctCount = Integer.MAX_VALUE;
+  }
+
+  public static boolean isSupported(TSDataType dataType) {
+    return dataType == TSDataType.TEXT
+        || dataType == TSDataType.INT32
+        || dataType == TSDataType.INT64;
+  }
+
+  public void add(long value) {
+    if (isUsable()) {
+      addHash(hash(value));
+    }
+  }
+
+  public void add(Binary value) {
+    if (isUsable()) {
+      addHash(hash(value.getValues()));
+    }
+  }
+
+  private void addHash(long hash) {
+    int hash1 = (int) hash;
+    int hash2 = (int) (hash >>> 32);
+    boolean changed = false;
+    for (int i = 0; i < HASH_FUNCTION_SIZE; i++) {
+      int bit = (hash1 + i * hash2) & bitMask;
+      long mask = 1L << bit;
+      if ((words[bit >>> 6] & mask) == 0) {
+        words[bit >>> 6] |= mask;
+        changed = true;
+      }
+    }
+    if (changed) {
+      distinctCount++;
+    }
+  }
+
+  /**
+   * @param value INT32, INT64 or TEXT value
+   * @return false if the value was never added, true if it may have been added or is of another
+   *     type
+   */
+  public boolean mightContain(Object value) {
+    long hash;
+    if (value instanceof Binary) {
+      hash = hash(((Binary) value).getValues());
+    } else if (value instanceof Integer || value instanceof Long) {
+      hash = hash(((Number) value).longValue());
+    } else {
+      return true;
+    }
+    int hash1 = (int) hash;
+    int hash2 = (int) (hash >>> 32);
+    for (int i = 0; i < HASH_FUNCTION_SIZE; i++) {
+      int bit = (hash1 + i * hash2) & bitMask;
+      if ((words[bit >>> 6] & (1L << bit)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Whether the filter covers all the added values with the expected false positive rate. */
+  public boolean isUsable() {
+    return !discarded && distinctCount <= maxDistinctCount;
+  }
+
+  /** Mark the filter unusable until reset, e.g. when values are written without passing it. */
+  public void discard() {
+    discarded = true;
+  }
+
+  public void reset() {
+    Arrays.fill(words, 0);
+    distinctCount = 0;
+    discarded = false;
+  }
+
+  public long[] getWords() {
+    return words;
+  }
+
+  private static long hash(long value) {
+    // murmur3 finalizer
+    value ^= value >>> 33;
+    value *= 0xff51afd7ed558ccdL;
+    value ^= value >>> 33;
+    value *= 0xc4ceb9fe1a85ec53L;
+    value ^= value >>> 33;
+    return value;
+  }
+
+  private static long hash(byte[] bytes) {
+    // 64-bit FNV-1a
+    long hash = 0xcbf29ce484222325L;
+    for (byte b : bytes) {
+      hash = (hash ^ (b & 0xff)) * 0x100000001b3L;
+    }
+    return hash(hash);
+  }
+}
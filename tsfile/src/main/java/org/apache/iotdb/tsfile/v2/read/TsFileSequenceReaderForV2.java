@@ -562,6 +562,16 @@ public class TsFileSequenceReaderForV2 extends TsFileSequenceReader implements A
     return chunk;
   }
 
+  /** chunk headers of old files are in another format, so chunks are read one by one. */
+  @Override
+  public List<Chunk> readMemChunks(List<ChunkMetadata> metadataList) throws IOException {
+    List<Chunk> chunks = new ArrayList<>(metadataList.size());
+    for (ChunkMetadata metadata : metadataList) {
+      chunks.add(readMemChunk(metadata));
+    }
+    return chunks;
+  }
+
   /**
    * not thread safe.
    *
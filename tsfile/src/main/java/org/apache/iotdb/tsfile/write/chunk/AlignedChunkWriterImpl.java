@@ -220,6 +220,14 @@ public class AlignedChunkWriterImpl implements IChunkWriter {
     }
   }
 
+  @Override
+  public void setZstdDictionary(int dictionaryId) {
+    timeChunkWriter.setZstdDictionary(dictionaryId);
+    for (ValueChunkWriter valueChunkWriter : valueChunkWriterList) {
+      valueChunkWriter.setZstdDictionary(dictionaryId);
+    }
+  }
+
   /** Used for compaction to control the target chunk size. */
   public boolean checkIsChunkSizeOverThreshold(long threshold) {
     if (timeChunkWriter.estimateMaxSeriesMemSize() > threshold) {
@@ -25,10 +25,12 @@ import org.apache.iotdb.tsfile.exception.write.PageException;
 import org.apache.iotdb.tsfile.file.header.ChunkHeader;
 import org.apache.iotdb.tsfile.file.header.PageHeader;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.statistics.ChunkRollup;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.utils.PublicBAOS;
 import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
+import org.apache.iotdb.tsfile.utils.ValueBloomFilter;
 import org.apache.iotdb.tsfile.write.page.PageWriter;
 import org.apache.iotdb.tsfile.write.schema.IMeasurementSchema;
 import org.apache.iotdb.tsfile.write.writer.TsFileIOWriter;
@@ -92,6 +94,12 @@ public class ChunkWriterImpl implements IChunkWriter {
 
   private Statistics<?> firstPageStatistics;
 
+  /** bloom filter of the values of this chunk, null if disabled or not supported by the type */
+  private ValueBloomFilter valueBloomFilter;
+
+  /** rollup of the points of this chunk, null if disabled */
+  private ChunkRollup chunkRollup;
+
   /** @param schema schema of this measurement */
   public ChunkWriterImpl(IMeasurementSchema schema) {
     this.measurementSchema = schema;
@@ -112,6 +120,19 @@ public class ChunkWriterImpl implements IChunkWriter {
     this.pageWriter.setTimeEncoder(measurementSchema.getTimeEncoder());
     this.pageWriter.setValueEncoder(measurementSchema.getValueEncoder());
 
+    if (TSFileDescriptor.getInstance().getConfig().isEnableValueBloomFilter()
+        && ValueBloomFilter.isSupported(measurementSchema.getType())) {
+      this.valueBloomFilter =
+          new ValueBloomFilter(
+              TSFileDescriptor.getInstance().getConfig().getValueBloomFilterMaxDistinctCount());
+      this.pageWriter.setValueBloomFilter(valueBloomFilter);
+    }
+    long rollupInterval = TSFileDescriptor.getInstance().getConfig().getRollupInterval();
+    if (rollupInterval > 0) {
+      this.chunkRollup = new ChunkRollup(measurementSchema.getType(), rollupInterval);
+      this.pageWriter.setChunkRollup(chunkRollup);
+    }
+
     // check if the measurement schema uses SDT
     checkSdtEncoding();
   }
@@ -316,6 +337,12 @@ public class ChunkWriterImpl implements IChunkWriter {
     numOfPages = 0;
     firstPageStatistics = null;
     this.statistics = Statistics.getStatsByType(measurementSchema.getType());
+    if (valueBloomFilter != null) {
+      valueBloomFilter.reset();
+    }
+    if (chunkRollup != null) {
+      chunkRollup.reset();
+    }
   }
 
   @Override
@@ -348,6 +375,11 @@ public class ChunkWriterImpl implements IChunkWriter {
     pageWriter = null;
   }
 
+  @Override
+  public void setZstdDictionary(int dictionaryId) {
+    pageWriter.setZstdDictionary(dictionaryId);
+  }
+
   public TSDataType getDataType() {
     return measurementSchema.getType();
   }
@@ -358,6 +390,13 @@ public class ChunkWriterImpl implements IChunkWriter {
    */
   public void writePageHeaderAndDataIntoBuff(ByteBuffer data, PageHeader header)
       throws PageException {
+    // the values of this page are not added to the value bloom filter and the rollup
+    if (valueBloomFilter != null) {
+      valueBloomFilter.discard();
+    }
+    if (chunkRollup != null) {
+      chunkRollup.discard();
+    }
     // write the page header to pageBuffer
     try {
       logger.debug(
@@ -427,6 +466,12 @@ public class ChunkWriterImpl implements IChunkWriter {
         pageBuffer.size(),
         numOfPages,
         0);
+    if (valueBloomFilter != null && valueBloomFilter.isUsable()) {
+      writer.addValueBloomFilter(valueBloomFilter);
+    }
+    if (chunkRollup != null && chunkRollup.isUsable()) {
+      writer.addChunkRollup(chunkRollup);
+    }
 
     long dataOffset = writer.getPos();
 
@@ -45,4 +45,10 @@ public interface IChunkWriter {
 
   /** set the current pageWriter to null, friendly for gc */
   void clearPageWriter();
+
+  /**
+   * Compress the following pages with the given dictionary if the chunk is compressed by ZSTD, the
+   * dictionary must be added to the TsFileIOWriter the chunk is written to.
+   */
+  void setZstdDictionary(int dictionaryId);
 }
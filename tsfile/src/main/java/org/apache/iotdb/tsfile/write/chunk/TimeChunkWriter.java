@@ -201,6 +201,11 @@ public class TimeChunkWriter {
     pageWriter = null;
   }
 
+  /** Compress the following pages with the given dictionary if they are compressed by ZSTD. */
+  public void setZstdDictionary(int dictionaryId) {
+    pageWriter.setZstdDictionary(dictionaryId);
+  }
+
   public int getNumOfPages() {
     return numOfPages;
   }
@@ -30,6 +30,7 @@ import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.utils.PublicBAOS;
+import org.apache.iotdb.tsfile.utils.ValueBloomFilter;
 import org.apache.iotdb.tsfile.write.page.ValuePageWriter;
 import org.apache.iotdb.tsfile.write.writer.TsFileIOWriter;
 
@@ -78,6 +79,9 @@ public class ValueChunkWriter {
 
   private Statistics<?> firstPageStatistics;
 
+  /** bloom filter of the values of this chunk, null if disabled or not supported by the type */
+  private ValueBloomFilter valueBloomFilter;
+
   public ValueChunkWriter(
       String measurementId,
       CompressionType compressionType,
@@ -99,6 +103,14 @@ public class ValueChunkWriter {
 
     this.pageWriter =
         new ValuePageWriter(valueEncoder, ICompressor.getCompressor(compressionType), dataType);
+
+    if (TSFileDescriptor.getInstance().getConfig().isEnableValueBloomFilter()
+        && ValueBloomFilter.isSupported(dataType)) {
+      this.valueBloomFilter =
+          new ValueBloomFilter(
+              TSFileDescriptor.getInstance().getConfig().getValueBloomFilterMaxDistinctCount());
+      this.pageWriter.setValueBloomFilter(valueBloomFilter);
+    }
   }
 
   public void write(long time, long value, boolean isNull) {
@@ -196,6 +208,9 @@ public class ValueChunkWriter {
     numOfPages = 0;
     firstPageStatistics = null;
     this.statistics = Statistics.getStatsByType(dataType);
+    if (valueBloomFilter != null) {
+      valueBloomFilter.reset();
+    }
   }
 
   public long estimateMaxSeriesMemSize() {
@@ -263,6 +278,11 @@ public class ValueChunkWriter {
     pageWriter = null;
   }
 
+  /** Compress the following pages with the given dictionary if they are compressed by ZSTD. */
+  public void setZstdDictionary(int dictionaryId) {
+    pageWriter.setZstdDictionary(dictionaryId);
+  }
+
   public int getNumOfPages() {
     return numOfPages;
   }
@@ -309,6 +329,9 @@ public class ValueChunkWriter {
         pageBuffer.size(),
         numOfPages,
         TsFileConstant.VALUE_COLUMN_MASK);
+    if (valueBloomFilter != null && valueBloomFilter.isUsable()) {
+      writer.addValueBloomFilter(valueBloomFilter);
+    }
 
     long dataOffset = writer.getPos();
 
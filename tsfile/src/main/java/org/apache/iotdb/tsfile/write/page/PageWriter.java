@@ -22,10 +22,12 @@ import org.apache.iotdb.tsfile.compress.ICompressor;
 import org.apache.iotdb.tsfile.encoding.encoder.Encoder;
 import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.statistics.ChunkRollup;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.utils.PublicBAOS;
 import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
+import org.apache.iotdb.tsfile.utils.ValueBloomFilter;
 import org.apache.iotdb.tsfile.write.schema.IMeasurementSchema;
 
 import org.slf4j.Logger;
@@ -60,6 +62,12 @@ public class PageWriter {
    */
   private Statistics<? extends Serializable> statistics;
 
+  /** bloom filter of the values of the chunk, kept across pages, may be null */
+  private ValueBloomFilter valueBloomFilter;
+
+  /** rollup of the points of the chunk, kept across pages, may be null */
+  private ChunkRollup chunkRollup;
+
   public PageWriter() {
     this(null, null);
   }
@@ -82,6 +90,9 @@ public class PageWriter {
     timeEncoder.encode(time, timeOut);
     valueEncoder.encode(value, valueOut);
     statistics.update(time, value);
+    if (chunkRollup != null) {
+      chunkRollup.update(time, value);
+    }
   }
 
   /** write a time value pair into encoder */
@@ -89,6 +100,9 @@ public class PageWriter {
     timeEncoder.encode(time, timeOut);
     valueEncoder.encode(value, valueOut);
     statistics.update(time, value);
+    if (chunkRollup != null) {
+      chunkRollup.update(time, value);
+    }
   }
 
   /** write a time value pair into encoder */
@@ -96,6 +110,12 @@ public class PageWriter {
     timeEncoder.encode(time, timeOut);
     valueEncoder.encode(value, valueOut);
     statistics.update(time, value);
+    if (chunkRollup != null) {
+      chunkRollup.update(time, value);
+    }
+    if (valueBloomFilter != null) {
+      valueBloomFilter.add(value);
+    }
   }
 
   /** write a time value pair into encoder */
@@ -103,6 +123,12 @@ public class PageWriter {
     timeEncoder.encode(time, timeOut);
     valueEncoder.encode(value, valueOut);
     statistics.update(time, value);
+    if (chunkRollup != null) {
+      chunkRollup.update(time, value);
+    }
+    if (valueBloomFilter != null) {
+      valueBloomFilter.add(value);
+    }
   }
 
   /** write a time value pair into encoder */
@@ -110,6 +136,9 @@ public class PageWriter {
     timeEncoder.encode(time, timeOut);
     valueEncoder.encode(value, valueOut);
     statistics.update(time, value);
+    if (chunkRollup != null) {
+      chunkRollup.update(time, value);
+    }
   }
 
   /** write a time value pair into encoder */
@@ -117,6 +146,9 @@ public class PageWriter {
     timeEncoder.encode(time, timeOut);
     valueEncoder.encode(value, valueOut);
     statistics.update(time, value);
+    if (chunkRollup != null) {
+      chunkRollup.update(time, value);
+    }
   }
 
   /** write a time value pair into encoder */
@@ -124,6 +156,12 @@ public class PageWriter {
     timeEncoder.encode(time, timeOut);
     valueEncoder.encode(value, valueOut);
     statistics.update(time, value);
+    if (chunkRollup != null) {
+      chunkRollup.update(time, value);
+    }
+    if (valueBloomFilter != null) {
+      valueBloomFilter.add(value);
+    }
   }
 
   /** write time series into encoder */
@@ -133,6 +171,9 @@ public class PageWriter {
       valueEncoder.encode(values[i], valueOut);
     }
     statistics.update(timestamps, values, batchSize);
+    if (chunkRollup != null) {
+      chunkRollup.update(timestamps, values, batchSize);
+    }
   }
 
   /** write time series into encoder */
@@ -141,7 +182,15 @@ public class PageWriter {
       timeEncoder.encode(timestamps[i], timeOut);
       valueEncoder.encode(values[i], valueOut);
     }
+    if (valueBloomFilter != null) {
+      for (int i = 0; i < batchSize; i++) {
+        valueBloomFilter.add(values[i]);
+      }
+    }
     statistics.update(timestamps, values, batchSize);
+    if (chunkRollup != null) {
+      chunkRollup.update(timestamps, values, batchSize);
+    }
   }
 
   /** write time series into encoder */
@@ -150,7 +199,15 @@ public class PageWriter {
       timeEncoder.encode(timestamps[i], timeOut);
       valueEncoder.encode(values[i], valueOut);
     }
+    if (valueBloomFilter != null) {
+      for (int i = 0; i < batchSize; i++) {
+        valueBloomFilter.add(values[i]);
+      }
+    }
     statistics.update(timestamps, values, batchSize);
+    if (chunkRollup != null) {
+      chunkRollup.update(timestamps, values, batchSize);
+    }
   }
 
   /** write time series into encoder */
@@ -160,6 +217,9 @@ public class PageWriter {
       valueEncoder.encode(values[i], valueOut);
     }
     statistics.update(timestamps, values, batchSize);
+    if (chunkRollup != null) {
+      chunkRollup.update(timestamps, values, batchSize);
+    }
   }
 
   /** write time series into encoder */
@@ -169,6 +229,9 @@ public class PageWriter {
       valueEncoder.encode(values[i], valueOut);
     }
     statistics.update(timestamps, values, batchSize);
+    if (chunkRollup != null) {
+      chunkRollup.update(timestamps, values, batchSize);
+    }
   }
 
   /** write time series into encoder */
@@ -177,7 +240,15 @@ public class PageWriter {
       timeEncoder.encode(timestamps[i], timeOut);
       valueEncoder.encode(values[i], valueOut);
     }
+    if (valueBloomFilter != null) {
+      for (int i = 0; i < batchSize; i++) {
+        valueBloomFilter.add(values[i]);
+      }
+    }
     statistics.update(timestamps, values, batchSize);
+    if (chunkRollup != null) {
+      chunkRollup.update(timestamps, values, batchSize);
+    }
   }
 
   /** flush all data remained in encoders. */
@@ -282,6 +353,19 @@ public class PageWriter {
     this.valueEncoder = encoder;
   }
 
+  public void setValueBloomFilter(ValueBloomFilter valueBloomFilter) {
+    this.valueBloomFilter = valueBloomFilter;
+  }
+
+  public void setChunkRollup(ChunkRollup chunkRollup) {
+    this.chunkRollup = chunkRollup;
+  }
+
+  /** Compress the following pages with the given dictionary if they are compressed by ZSTD. */
+  public void setZstdDictionary(int dictionaryId) {
+    this.compressor = ICompressor.withZstdDictionary(compressor, dictionaryId);
+  }
+
   public void initStatistics(TSDataType dataType) {
     statistics = Statistics.getStatsByType(dataType);
   }
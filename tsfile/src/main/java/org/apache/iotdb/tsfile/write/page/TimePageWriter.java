@@ -41,7 +41,7 @@ public class TimePageWriter {
 
   private static final Logger logger = LoggerFactory.getLogger(TimePageWriter.class);
 
-  private final ICompressor compressor;
+  private ICompressor compressor;
 
   // time
   private Encoder timeEncoder;
@@ -167,6 +167,11 @@ public class TimePageWriter {
     this.timeEncoder = encoder;
   }
 
+  /** Compress the following pages with the given dictionary if they are compressed by ZSTD. */
+  public void setZstdDictionary(int dictionaryId) {
+    this.compressor = ICompressor.withZstdDictionary(compressor, dictionaryId);
+  }
+
   public void initStatistics() {
     statistics = new TimeStatistics();
   }
@@ -26,6 +26,7 @@ import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.utils.PublicBAOS;
 import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
+import org.apache.iotdb.tsfile.utils.ValueBloomFilter;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -43,7 +44,7 @@ import java.nio.channels.WritableByteChannel;
 public class ValuePageWriter {
   private static final Logger logger = LoggerFactory.getLogger(ValuePageWriter.class);
 
-  private final ICompressor compressor;
+  private ICompressor compressor;
 
   // value
   private Encoder valueEncoder;
@@ -55,6 +56,9 @@ public class ValuePageWriter {
    */
   private Statistics<? extends Serializable> statistics;
 
+  /** bloom filter of the values of the chunk, kept across pages, may be null */
+  private ValueBloomFilter valueBloomFilter;
+
   private byte bitmap;
 
   private int size;
@@ -97,6 +101,9 @@ public class ValuePageWriter {
     if (!isNull) {
       valueEncoder.encode(value, valueOut);
       statistics.update(time, value);
+      if (valueBloomFilter != null) {
+        valueBloomFilter.add(value);
+      }
     }
   }
 
@@ -106,6 +113,9 @@ public class ValuePageWriter {
     if (!isNull) {
       valueEncoder.encode(value, valueOut);
       statistics.update(time, value);
+      if (valueBloomFilter != null) {
+        valueBloomFilter.add(value);
+      }
     }
   }
 
@@ -133,6 +143,9 @@ public class ValuePageWriter {
     if (!isNull) {
       valueEncoder.encode(value, valueOut);
       statistics.update(time, value);
+      if (valueBloomFilter != null) {
+        valueBloomFilter.add(value);
+      }
     }
   }
 
@@ -160,6 +173,11 @@ public class ValuePageWriter {
     for (int i = 0; i < batchSize; i++) {
       valueEncoder.encode(values[i], valueOut);
     }
+    if (valueBloomFilter != null) {
+      for (int i = 0; i < batchSize; i++) {
+        valueBloomFilter.add(values[i]);
+      }
+    }
     statistics.update(timestamps, values, batchSize);
   }
 
@@ -168,6 +186,11 @@ public class ValuePageWriter {
     for (int i = 0; i < batchSize; i++) {
       valueEncoder.encode(values[i], valueOut);
     }
+    if (valueBloomFilter != null) {
+      for (int i = 0; i < batchSize; i++) {
+        valueBloomFilter.add(values[i]);
+      }
+    }
     statistics.update(timestamps, values, batchSize);
   }
 
@@ -192,6 +215,11 @@ public class ValuePageWriter {
     for (int i = 0; i < batchSize; i++) {
       valueEncoder.encode(values[i], valueOut);
     }
+    if (valueBloomFilter != null) {
+      for (int i = 0; i < batchSize; i++) {
+        valueBloomFilter.add(values[i]);
+      }
+    }
     statistics.update(timestamps, values, batchSize);
   }
 
@@ -301,6 +329,15 @@ public class ValuePageWriter {
     this.valueEncoder = encoder;
   }
 
+  public void setValueBloomFilter(ValueBloomFilter valueBloomFilter) {
+    this.valueBloomFilter = valueBloomFilter;
+  }
+
+  /** Compress the following pages with the given dictionary if they are compressed by ZSTD. */
+  public void setZstdDictionary(int dictionaryId) {
+    this.compressor = ICompressor.withZstdDictionary(compressor, dictionaryId);
+  }
+
   public void initStatistics(TSDataType dataType) {
     statistics = Statistics.getStatsByType(dataType);
   }
@@ -20,19 +20,24 @@ package org.apache.iotdb.tsfile.write.writer;
 
 import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
 import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.compress.ZstdDictionaryManager;
 import org.apache.iotdb.tsfile.file.MetaMarker;
 import org.apache.iotdb.tsfile.file.header.ChunkGroupHeader;
 import org.apache.iotdb.tsfile.file.header.ChunkHeader;
 import org.apache.iotdb.tsfile.file.metadata.ChunkGroupMetadata;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.file.metadata.ChunkRollupIndex;
+import org.apache.iotdb.tsfile.file.metadata.ChunkValueBloomFilterIndex;
 import org.apache.iotdb.tsfile.file.metadata.IChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.MetadataIndexConstructor;
 import org.apache.iotdb.tsfile.file.metadata.MetadataIndexNode;
 import org.apache.iotdb.tsfile.file.metadata.TimeseriesMetadata;
+import org.apache.iotdb.tsfile.file.metadata.TimeseriesMetadataHashIndex;
 import org.apache.iotdb.tsfile.file.metadata.TsFileMetadata;
 import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.file.metadata.statistics.ChunkRollup;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.fileSystem.FSFactoryProducer;
 import org.apache.iotdb.tsfile.read.common.Chunk;
@@ -40,6 +45,7 @@ import org.apache.iotdb.tsfile.read.common.Path;
 import org.apache.iotdb.tsfile.utils.BytesUtils;
 import org.apache.iotdb.tsfile.utils.PublicBAOS;
 import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
+import org.apache.iotdb.tsfile.utils.ValueBloomFilter;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -51,8 +57,10 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.TreeMap;
 
 /**
@@ -88,6 +96,18 @@ public class TsFileIOWriter implements AutoCloseable {
   // for upgrade tool and split tool
   Map<String, List<TimeseriesMetadata>> deviceTimeseriesMetadataMap;
 
+  // positions of the TimeseriesMetadata, null if no hash index is written
+  private TimeseriesMetadataHashIndex.Builder hashIndexBuilder;
+
+  // value bloom filters of the flushed chunks, null if no chunk has one
+  private ChunkValueBloomFilterIndex.Builder valueBloomFilterBuilder;
+
+  // rollups of the flushed chunks, null if no chunk has one
+  private ChunkRollupIndex.Builder chunkRollupBuilder;
+
+  // ZSTD dictionaries written next to the file, null if none is added yet
+  private Set<Integer> zstdDictionaryIds;
+
   // the two longs marks the index range of operations in current MemTable
   // and are serialized after MetaMarker.OPERATION_INDEX_RANGE to recover file-level range
   private long minPlanIndex;
@@ -223,6 +243,12 @@ public class TsFileIOWriter implements AutoCloseable {
             chunkHeader.getDataType(),
             out.getPosition(),
             chunkMetadata.getStatistics());
+    if (chunkMetadata.getStatistics().getValueBloomFilter() != null) {
+      addValueBloomFilter(chunkMetadata.getStatistics().getValueBloomFilter());
+    }
+    if (chunkMetadata.getStatistics().getChunkRollup() != null) {
+      addChunkRollup(chunkMetadata.getStatistics().getChunkRollup());
+    }
     chunkHeader.serializeTo(out.wrapAsStream());
     out.write(chunk.getData());
     endCurrentChunk();
@@ -234,6 +260,53 @@ public class TsFileIOWriter implements AutoCloseable {
     }
   }
 
+  /**
+   * Record the value bloom filter of the chunk being flushed, it is written next to the file when
+   * the file is sealed.
+   */
+  public void addValueBloomFilter(ValueBloomFilter valueBloomFilter) {
+    if (file == null) {
+      return;
+    }
+    if (valueBloomFilterBuilder == null) {
+      valueBloomFilterBuilder = new ChunkValueBloomFilterIndex.Builder();
+    }
+    valueBloomFilterBuilder.add(currentChunkMetadata.getOffsetOfChunkHeader(), valueBloomFilter);
+  }
+
+  /**
+   * Record the rollup of the chunk being flushed, it is written next to the file when the file is
+   * sealed.
+   */
+  public void addChunkRollup(ChunkRollup chunkRollup) throws IOException {
+    if (file == null) {
+      return;
+    }
+    if (chunkRollupBuilder == null) {
+      chunkRollupBuilder = new ChunkRollupIndex.Builder(chunkRollup.getInterval());
+    }
+    chunkRollupBuilder.add(currentChunkMetadata.getOffsetOfChunkHeader(), chunkRollup);
+  }
+
+  /**
+   * Record a ZSTD dictionary the following chunks are compressed with. The dictionaries are written
+   * next to the file at once rather than when the file is sealed, so that the chunks stay readable
+   * if the file has to be recovered.
+   */
+  public void addZstdDictionary(int dictionaryId) throws IOException {
+    if (file == null) {
+      throw new IOException("ZSTD dictionaries can only be written next to a file");
+    }
+    if (zstdDictionaryIds == null) {
+      // the file may be reopened to be recovered or written further
+      zstdDictionaryIds =
+          new LinkedHashSet<>(ZstdDictionaryManager.getInstance().loadDictionaries(file.getPath()));
+    }
+    if (zstdDictionaryIds.add(dictionaryId)) {
+      ZstdDictionaryManager.getInstance().writeDictionaries(file.getPath(), zstdDictionaryIds);
+    }
+  }
+
   /** end chunk and write some log. */
   public void endCurrentChunk() {
     chunkMetadataList.add(currentChunkMetadata);
@@ -290,6 +363,7 @@ public class TsFileIOWriter implements AutoCloseable {
 
     // write magic string
     out.write(MAGIC_STRING_BYTES);
+    long fileSize = out.getPosition();
 
     // close file
     out.close();
@@ -297,6 +371,45 @@ public class TsFileIOWriter implements AutoCloseable {
       resourceLogger.debug("{} writer is closed.", file.getName());
     }
     canWrite = false;
+
+    writeIndexFiles(fileSize, metaOffset);
+  }
+
+  /**
+   * Write the hash index of the TimeseriesMetadata, the value bloom filters and the rollups of the
+   * chunks next to the sealed file. They are only accelerators, failing to write them does not
+   * fail the file.
+   */
+  private void writeIndexFiles(long fileSize, long metaOffset) {
+    if (hashIndexBuilder != null) {
+      File indexFile = new File(file.getPath() + TimeseriesMetadataHashIndex.FILE_SUFFIX);
+      try {
+        if (!hashIndexBuilder.serializeTo(indexFile, fileSize, metaOffset)) {
+          logger.info("Hash collision in {}, skip writing the timeseries metadata index", file);
+        }
+      } catch (IOException e) {
+        logger.warn("Cannot write timeseries metadata hash index {}", indexFile, e);
+      }
+      hashIndexBuilder = null;
+    }
+    if (valueBloomFilterBuilder != null && !valueBloomFilterBuilder.isEmpty()) {
+      File indexFile = new File(file.getPath() + ChunkValueBloomFilterIndex.FILE_SUFFIX);
+      try {
+        valueBloomFilterBuilder.serializeTo(indexFile, fileSize, metaOffset);
+      } catch (IOException e) {
+        logger.warn("Cannot write value bloom filters {}", indexFile, e);
+      }
+    }
+    valueBloomFilterBuilder = null;
+    if (chunkRollupBuilder != null && !chunkRollupBuilder.isEmpty()) {
+      File indexFile = new File(file.getPath() + ChunkRollupIndex.FILE_SUFFIX);
+      try {
+        chunkRollupBuilder.serializeTo(indexFile, fileSize, metaOffset);
+      } catch (IOException e) {
+        logger.warn("Cannot write chunk rollups {}", indexFile, e);
+      }
+    }
+    chunkRollupBuilder = null;
   }
 
   /**
@@ -316,8 +429,13 @@ public class TsFileIOWriter implements AutoCloseable {
       flushOneChunkMetadata(entry.getKey(), entry.getValue());
     }
 
+    if (config.isEnableTimeseriesMetadataHashIndex() && file != null) {
+      hashIndexBuilder = new TimeseriesMetadataHashIndex.Builder();
+    }
+
     // construct TsFileMetadata and return
-    return MetadataIndexConstructor.constructMetadataIndex(deviceTimeseriesMetadataMap, out);
+    return MetadataIndexConstructor.constructMetadataIndex(
+        deviceTimeseriesMetadataMap, out, hashIndexBuilder);
   }
 
   /**
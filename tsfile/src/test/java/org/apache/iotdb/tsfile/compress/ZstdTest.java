@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.tsfile.compress;
+
+import org.apache.iotdb.tsfile.compress.ICompressor.ZstdCompressor;
+import org.apache.iotdb.tsfile.compress.IUnCompressor.ZstdUnCompressor;
+import org.apache.iotdb.tsfile.constant.TestConstant;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class ZstdTest {
+
+  private final String tsFilePath = TestConstant.BASE_OUTPUT_PATH + "zstd.tsfile";
+
+  private String randomString(int length) {
+    StringBuilder builder = new StringBuilder(length);
+    for (int i = 0; i < length; i++) {
+      builder.append((char) (ThreadLocalRandom.current().nextInt(33, 128)));
+    }
+    return builder.toString();
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(Paths.get(tsFilePath + ZstdDictionaryManager.FILE_SUFFIX));
+  }
+
+  @Test
+  public void testBytes() throws IOException {
+    ICompressor compressor = new ZstdCompressor(3, 0);
+    IUnCompressor unCompressor = new ZstdUnCompressor();
+
+    byte[] uncom = randomString(500000).getBytes(StandardCharsets.UTF_8);
+    byte[] compressed = compressor.compress(uncom, 0, uncom.length);
+    Assert.assertEquals(compressor.compress(uncom).length, compressed.length);
+    Assert.assertEquals(
+        uncom.length, unCompressor.getUncompressedLength(compressed, 0, compressed.length));
+    Assert.assertArrayEquals(uncom, unCompressor.uncompress(compressed));
+  }
+
+  @Test
+  public void testByteBuffer() throws IOException {
+    ICompressor compressor = ICompressor.getCompressor(CompressionType.ZSTD);
+    IUnCompressor unCompressor = IUnCompressor.getUnCompressor(CompressionType.ZSTD);
+
+    byte[] uncom = randomString(10000).getBytes(StandardCharsets.UTF_8);
+    ByteBuffer source = ByteBuffer.wrap(uncom);
+    ByteBuffer compressed = ByteBuffer.allocate(compressor.getMaxBytesForCompression(uncom.length));
+    compressor.compress(source, compressed);
+    compressed.flip();
+
+    ByteBuffer uncompressed = ByteBuffer.allocate(unCompressor.getUncompressedLength(compressed));
+    unCompressor.uncompress(compressed, uncompressed);
+    Assert.assertArrayEquals(uncom, uncompressed.array());
+  }
+
+  private int trainDictionary() throws IOException {
+    List<byte[]> samples = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      samples.add(
+          ("root.sg.d" + i % 10 + ".s" + i % 7 + ",temperature," + i)
+              .getBytes(StandardCharsets.UTF_8));
+    }
+    return ZstdDictionaryManager.getInstance().train(samples, 4096);
+  }
+
+  @Test
+  public void testDictionary() throws IOException {
+    int dictionaryId = trainDictionary();
+    Assert.assertNotEquals(0, dictionaryId);
+
+    ICompressor dictCompressor = new ZstdCompressor(3, dictionaryId);
+    ICompressor plainCompressor = new ZstdCompressor(3, 0);
+    IUnCompressor unCompressor = new ZstdUnCompressor();
+
+    byte[] uncom = "root.sg.d3.s5,temperature,12345".getBytes(StandardCharsets.UTF_8);
+    byte[] compressed = dictCompressor.compress(uncom);
+    // small pages benefit from the shared dictionary
+    Assert.assertTrue(compressed.length < plainCompressor.compress(uncom).length);
+    Assert.assertArrayEquals(uncom, unCompressor.uncompress(compressed));
+  }
+
+  @Test
+  public void testDictionaryFile() throws IOException {
+    ZstdDictionaryManager manager = ZstdDictionaryManager.getInstance();
+    Assert.assertTrue(manager.loadDictionaries(tsFilePath).isEmpty());
+
+    int dictionaryId = trainDictionary();
+    manager.writeDictionaries(tsFilePath, Collections.singletonList(dictionaryId));
+    Assert.assertEquals(
+        Collections.singletonList(dictionaryId), manager.loadDictionaries(tsFilePath));
+
+    try {
+      manager.writeDictionaries(tsFilePath, Collections.singletonList(dictionaryId + 1));
+      Assert.fail();
+    } catch (IOException e) {
+      // an unknown dictionary can not be written
+    }
+    // the dictionary file is left untouched
+    Assert.assertEquals(
+        Collections.singletonList(dictionaryId), manager.loadDictionaries(tsFilePath));
+  }
+}
@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.tsfile.encoding;
+
+import org.apache.iotdb.tsfile.encoding.decoder.ChimpDecoder;
+import org.apache.iotdb.tsfile.encoding.decoder.Decoder;
+import org.apache.iotdb.tsfile.encoding.decoder.DoublePrecisionDecoderV2;
+import org.apache.iotdb.tsfile.encoding.encoder.ChimpEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.DoublePrecisionEncoderV2;
+import org.apache.iotdb.tsfile.encoding.encoder.Encoder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Compare CHIMP with GORILLA on DOUBLE series of different shapes: compressed size and encode /
+ * decode throughput. Each page holds {@code pointsPerPage} points, as flushed by a page writer.
+ */
+public class FloatEncodingBenchmark {
+
+  private static int pointNum = 1_000_000;
+  private static int pointsPerPage = 10_000;
+  private static final int WARM_UP_ROUNDS = 5;
+  private static final int ROUNDS = 10;
+
+  public static void main(String[] args) throws IOException {
+    if (args.length == 2) {
+      pointNum = Integer.parseInt(args[0]);
+      pointsPerPage = Integer.parseInt(args[1]);
+    }
+    Random random = new Random(0);
+
+    // temperature-like readings with two decimal places
+    double[] rounded = new double[pointNum];
+    double value = 20;
+    for (int i = 0; i < pointNum; i++) {
+      value += random.nextGaussian() * 0.1;
+      rounded[i] = Math.round(value * 100) / 100.0;
+    }
+    // a periodic signal with full precision noise
+    double[] noisy = new double[pointNum];
+    for (int i = 0; i < pointNum; i++) {
+      noisy[i] = Math.sin(i / 100.0) * 50 + random.nextGaussian() * 0.5;
+    }
+    // a slowly changing value which repeats most of the time
+    double[] stable = new double[pointNum];
+    value = 100;
+    for (int i = 0; i < pointNum; i++) {
+      if (random.nextInt(10) == 0) {
+        value = Math.round((value + random.nextGaussian()) * 10) / 10.0;
+      }
+      stable[i] = value;
+    }
+
+    run("rounded", rounded);
+    run("noisy", noisy);
+    run("stable", stable);
+  }
+
+  private static void run(String dataName, double[] data) throws IOException {
+    measure(
+        dataName, "GORILLA", data, DoublePrecisionEncoderV2::new, DoublePrecisionDecoderV2::new);
+    measure(
+        dataName,
+        "CHIMP",
+        data,
+        ChimpEncoder.DoubleChimpEncoder::new,
+        ChimpDecoder.DoubleChimpDecoder::new);
+  }
+
+  private static void measure(
+      String dataName,
+      String encodingName,
+      double[] data,
+      Supplier<Encoder> encoderSupplier,
+      Supplier<Decoder> decoderSupplier)
+      throws IOException {
+    byte[][] pages = null;
+    long encodeTime = 0;
+    long decodeTime = 0;
+    double[] decoded = new double[pointsPerPage];
+    for (int round = 0; round < WARM_UP_ROUNDS + ROUNDS; round++) {
+      long start = System.nanoTime();
+      pages = encode(data, encoderSupplier);
+      long encoded = System.nanoTime();
+      for (byte[] page : pages) {
+        ByteBuffer buffer = ByteBuffer.wrap(page);
+        Decoder decoder = decoderSupplier.get();
+        while (decoder.readDoubles(buffer, decoded, 0, decoded.length) > 0) {
+          // values are only decoded
+        }
+      }
+      if (round >= WARM_UP_ROUNDS) {
+        encodeTime += encoded - start;
+        decodeTime += System.nanoTime() - encoded;
+      }
+    }
+
+    long size = 0;
+    for (byte[] page : pages) {
+      size += page.length;
+    }
+    System.out.println(
+        String.format(
+            "%-8s %-8s %6.2f bits per value, encode %7.1f M values/s, decode %7.1f M values/s",
+            dataName,
+            encodingName,
+            (double) size * Byte.SIZE / data.length,
+            (double) data.length * ROUNDS * 1000 / encodeTime,
+            (double) data.length * ROUNDS * 1000 / decodeTime));
+  }
+
+  private static byte[][] encode(double[] data, Supplier<Encoder> encoderSupplier)
+      throws IOException {
+    byte[][] pages = new byte[(data.length + pointsPerPage - 1) / pointsPerPage][];
+    Encoder encoder = encoderSupplier.get();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (int i = 0; i < pages.length; i++) {
+      out.reset();
+      int end = Math.min(data.length, (i + 1) * pointsPerPage);
+      for (int j = i * pointsPerPage; j < end; j++) {
+        encoder.encode(data[j], out);
+      }
+      encoder.flush(out);
+      pages[i] = out.toByteArray();
+    }
+    return pages;
+  }
+}
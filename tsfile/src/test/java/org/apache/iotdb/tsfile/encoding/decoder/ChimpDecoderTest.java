@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.tsfile.encoding.decoder;
+
+import org.apache.iotdb.tsfile.encoding.encoder.ChimpEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.Encoder;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ChimpDecoderTest {
+
+  private static final int POINT_NUM = 10000;
+
+  @Test
+  public void testDoubleSpecialValues() throws IOException {
+    double[] values = {
+      0.0, -0.0, Double.MAX_VALUE, Double.MIN_VALUE, Double.NaN, Double.POSITIVE_INFINITY,
+      Double.NEGATIVE_INFINITY, Double.NaN, 1.5, 1.5, 1.5, -1.5, 0.1, 0.2
+    };
+    assertDoubleRoundTrip(values, 1);
+  }
+
+  @Test
+  public void testFloatSpecialValues() throws IOException {
+    float[] values = {
+      0.0f, -0.0f, Float.MAX_VALUE, Float.MIN_VALUE, Float.NaN, Float.POSITIVE_INFINITY,
+      Float.NEGATIVE_INFINITY, Float.NaN, 1.5f, 1.5f, 1.5f, -1.5f, 0.1f, 0.2f
+    };
+    assertFloatRoundTrip(values, 1);
+  }
+
+  @Test
+  public void testDoubleRandom() throws IOException {
+    Random random = new Random(0);
+    double[] values = new double[POINT_NUM];
+    double value = 20;
+    for (int i = 0; i < POINT_NUM; i++) {
+      // a mix of rounded sensor readings, repeats and full precision noise
+      if (i % 3 == 0) {
+        value = Math.round((value + random.nextGaussian()) * 100) / 100.0;
+      } else if (i % 3 == 1) {
+        value = value + random.nextDouble();
+      }
+      values[i] = value;
+    }
+    for (int repeat = 1; repeat <= 3; repeat++) {
+      assertDoubleRoundTrip(values, repeat);
+    }
+  }
+
+  @Test
+  public void testFloatRandom() throws IOException {
+    Random random = new Random(0);
+    float[] values = new float[POINT_NUM];
+    float value = 20;
+    for (int i = 0; i < POINT_NUM; i++) {
+      if (i % 3 == 0) {
+        value = Math.round((value + (float) random.nextGaussian()) * 100) / 100.0f;
+      } else if (i % 3 == 1) {
+        value = value + random.nextFloat();
+      }
+      values[i] = value;
+    }
+    for (int repeat = 1; repeat <= 3; repeat++) {
+      assertFloatRoundTrip(values, repeat);
+    }
+  }
+
+  @Test
+  public void testEmpty() throws IOException {
+    Encoder encoder = new ChimpEncoder.DoubleChimpEncoder();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    encoder.flush(out);
+    assertEquals(0, out.size());
+    assertFalse(new ChimpDecoder.DoubleChimpDecoder().hasNext(ByteBuffer.wrap(out.toByteArray())));
+  }
+
+  @Test
+  public void testBulkRead() throws IOException {
+    Encoder encoder = new ChimpEncoder.DoubleChimpEncoder();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    double[] values = new double[POINT_NUM];
+    for (int i = 0; i < POINT_NUM; i++) {
+      values[i] = Math.sin(i / 100.0) * 50;
+      encoder.encode(values[i], out);
+      // several blocks in one buffer, as written by repeated flushes
+      if (i % 1000 == 999) {
+        encoder.flush(out);
+      }
+    }
+    encoder.flush(out);
+
+    ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+    Decoder decoder = new ChimpDecoder.DoubleChimpDecoder();
+    double[] actual = new double[POINT_NUM];
+    assertEquals(7, decoder.readDoubles(buffer, actual, 0, 7));
+    assertEquals(values[7], decoder.readDouble(buffer), 0);
+    assertEquals(POINT_NUM - 8, decoder.readDoubles(buffer, actual, 8, POINT_NUM));
+    assertFalse(decoder.hasNext(buffer));
+    actual[7] = values[7];
+    assertArrayEquals(values, actual, 0);
+  }
+
+  private void assertDoubleRoundTrip(double[] values, int repeat) throws IOException {
+    Encoder encoder = new ChimpEncoder.DoubleChimpEncoder();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (int i = 0; i < repeat; i++) {
+      for (double value : values) {
+        encoder.encode(value, out);
+      }
+      encoder.flush(out);
+    }
+
+    ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+    Decoder decoder = new ChimpDecoder.DoubleChimpDecoder();
+    for (int i = 0; i < repeat; i++) {
+      for (double expected : values) {
+        assertTrue(decoder.hasNext(buffer));
+        assertEquals(
+            Double.doubleToRawLongBits(expected),
+            Double.doubleToRawLongBits(decoder.readDouble(buffer)));
+      }
+    }
+    assertFalse(decoder.hasNext(buffer));
+  }
+
+  private void assertFloatRoundTrip(float[] values, int repeat) throws IOException {
+    Encoder encoder = new ChimpEncoder.FloatChimpEncoder();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (int i = 0; i < repeat; i++) {
+      for (float value : values) {
+        encoder.encode(value, out);
+      }
+      encoder.flush(out);
+    }
+
+    ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+    Decoder decoder = new ChimpDecoder.FloatChimpDecoder();
+    for (int i = 0; i < repeat; i++) {
+      for (float expected : values) {
+        assertTrue(decoder.hasNext(buffer));
+        assertEquals(
+            Float.floatToRawIntBits(expected), Float.floatToRawIntBits(decoder.readFloat(buffer)));
+      }
+    }
+    assertFalse(decoder.hasNext(buffer));
+  }
+}
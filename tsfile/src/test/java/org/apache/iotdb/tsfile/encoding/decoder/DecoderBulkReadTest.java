@@ -0,0 +1,216 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.tsfile.encoding.decoder;
+
+import org.apache.iotdb.tsfile.encoding.encoder.Encoder;
+import org.apache.iotdb.tsfile.encoding.encoder.TSEncodingBuilder;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class DecoderBulkReadTest {
+
+  private static final int POINT_NUM = 3000;
+
+  private static final int BATCH_SIZE = 7;
+
+  private static final TSEncoding[] ENCODINGS = {
+    TSEncoding.PLAIN, TSEncoding.RLE, TSEncoding.TS_2DIFF, TSEncoding.GORILLA
+  };
+
+  /** runs of repeated values, constant steps and jumps, to cover the different pack shapes */
+  private static long valueAt(int i) {
+    if (i % 500 < 100) {
+      return 42;
+    } else if (i % 500 < 300) {
+      return i * 3L;
+    }
+    return (i * 7919L) % 1013;
+  }
+
+  private static ByteBuffer encode(TSEncoding encoding, TSDataType dataType) throws IOException {
+    Encoder encoder = TSEncodingBuilder.getEncodingBuilder(encoding).getEncoder(dataType);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (int i = 0; i < POINT_NUM; i++) {
+      switch (dataType) {
+        case INT32:
+          encoder.encode((int) valueAt(i), out);
+          break;
+        case INT64:
+          encoder.encode(valueAt(i), out);
+          break;
+        case FLOAT:
+          encoder.encode(valueAt(i) / 4.0f, out);
+          break;
+        case DOUBLE:
+          encoder.encode(valueAt(i) / 4.0d, out);
+          break;
+        default:
+          throw new UnsupportedOperationException(dataType.toString());
+      }
+    }
+    encoder.flush(out);
+    return ByteBuffer.wrap(out.toByteArray());
+  }
+
+  @Test
+  public void testReadInts() throws IOException {
+    for (TSEncoding encoding : ENCODINGS) {
+      ByteBuffer page = encode(encoding, TSDataType.INT32);
+
+      // one value per call as the reference
+      ByteBuffer buffer = page.duplicate();
+      Decoder decoder = Decoder.getDecoderByType(encoding, TSDataType.INT32);
+      int[] expected = new int[POINT_NUM];
+      int expectedCount = 0;
+      while (decoder.hasNext(buffer)) {
+        expected[expectedCount++] = decoder.readInt(buffer);
+      }
+      assertEquals(encoding.toString(), POINT_NUM, expectedCount);
+
+      // odd batch size so that batches cross the pack and run boundaries
+      buffer = page.duplicate();
+      decoder = Decoder.getDecoderByType(encoding, TSDataType.INT32);
+      int[] actual = new int[POINT_NUM];
+      int actualCount = 0;
+      while (actualCount < POINT_NUM) {
+        int size = Math.min(BATCH_SIZE, POINT_NUM - actualCount);
+        int read = decoder.readInts(buffer, actual, actualCount, size);
+        if (read == 0) {
+          break;
+        }
+        actualCount += read;
+      }
+      assertEquals(encoding.toString(), POINT_NUM, actualCount);
+      assertArrayEquals(encoding.toString(), expected, actual);
+      assertEquals(0, decoder.readInts(buffer, actual, 0, 1));
+    }
+  }
+
+  @Test
+  public void testReadLongs() throws IOException {
+    for (TSEncoding encoding : ENCODINGS) {
+      ByteBuffer page = encode(encoding, TSDataType.INT64);
+
+      // one value per call as the reference
+      ByteBuffer buffer = page.duplicate();
+      Decoder decoder = Decoder.getDecoderByType(encoding, TSDataType.INT64);
+      long[] expected = new long[POINT_NUM];
+      int expectedCount = 0;
+      while (decoder.hasNext(buffer)) {
+        expected[expectedCount++] = decoder.readLong(buffer);
+      }
+      assertEquals(encoding.toString(), POINT_NUM, expectedCount);
+
+      // odd batch size so that batches cross the pack and run boundaries
+      buffer = page.duplicate();
+      decoder = Decoder.getDecoderByType(encoding, TSDataType.INT64);
+      long[] actual = new long[POINT_NUM];
+      int actualCount = 0;
+      while (actualCount < POINT_NUM) {
+        int size = Math.min(BATCH_SIZE, POINT_NUM - actualCount);
+        int read = decoder.readLongs(buffer, actual, actualCount, size);
+        if (read == 0) {
+          break;
+        }
+        actualCount += read;
+      }
+      assertEquals(encoding.toString(), POINT_NUM, actualCount);
+      assertArrayEquals(encoding.toString(), expected, actual);
+      assertEquals(0, decoder.readLongs(buffer, actual, 0, 1));
+    }
+  }
+
+  @Test
+  public void testReadFloats() throws IOException {
+    for (TSEncoding encoding : ENCODINGS) {
+      ByteBuffer page = encode(encoding, TSDataType.FLOAT);
+
+      // one value per call as the reference
+      ByteBuffer buffer = page.duplicate();
+      Decoder decoder = Decoder.getDecoderByType(encoding, TSDataType.FLOAT);
+      float[] expected = new float[POINT_NUM];
+      int expectedCount = 0;
+      while (decoder.hasNext(buffer)) {
+        expected[expectedCount++] = decoder.readFloat(buffer);
+      }
+      assertEquals(encoding.toString(), POINT_NUM, expectedCount);
+
+      // odd batch size so that batches cross the pack and run boundaries
+      buffer = page.duplicate();
+      decoder = Decoder.getDecoderByType(encoding, TSDataType.FLOAT);
+      float[] actual = new float[POINT_NUM];
+      int actualCount = 0;
+      while (actualCount < POINT_NUM) {
+        int size = Math.min(BATCH_SIZE, POINT_NUM - actualCount);
+        int read = decoder.readFloats(buffer, actual, actualCount, size);
+        if (read == 0) {
+          break;
+        }
+        actualCount += read;
+      }
+      assertEquals(encoding.toString(), POINT_NUM, actualCount);
+      assertArrayEquals(encoding.toString(), expected, actual, 0);
+      assertEquals(0, decoder.readFloats(buffer, actual, 0, 1));
+    }
+  }
+
+  @Test
+  public void testReadDoubles() throws IOException {
+    for (TSEncoding encoding : ENCODINGS) {
+      ByteBuffer page = encode(encoding, TSDataType.DOUBLE);
+
+      // one value per call as the reference
+      ByteBuffer buffer = page.duplicate();
+      Decoder decoder = Decoder.getDecoderByType(encoding, TSDataType.DOUBLE);
+      double[] expected = new double[POINT_NUM];
+      int expectedCount = 0;
+      while (decoder.hasNext(buffer)) {
+        expected[expectedCount++] = decoder.readDouble(buffer);
+      }
+      assertEquals(encoding.toString(), POINT_NUM, expectedCount);
+
+      // odd batch size so that batches cross the pack and run boundaries
+      buffer = page.duplicate();
+      decoder = Decoder.getDecoderByType(encoding, TSDataType.DOUBLE);
+      double[] actual = new double[POINT_NUM];
+      int actualCount = 0;
+      while (actualCount < POINT_NUM) {
+        int size = Math.min(BATCH_SIZE, POINT_NUM - actualCount);
+        int read = decoder.readDoubles(buffer, actual, actualCount, size);
+        if (read == 0) {
+          break;
+        }
+        actualCount += read;
+      }
+      assertEquals(encoding.toString(), POINT_NUM, actualCount);
+      assertArrayEquals(encoding.toString(), expected, actual, 0);
+      assertEquals(0, decoder.readDoubles(buffer, actual, 0, 1));
+    }
+  }
+}
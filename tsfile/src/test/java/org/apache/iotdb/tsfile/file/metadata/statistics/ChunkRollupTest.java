@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.tsfile.file.metadata.statistics;
+
+import org.apache.iotdb.tsfile.file.metadata.ChunkRollupIndex;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ChunkRollupTest {
+
+  @Test
+  public void testUpdate() {
+    ChunkRollup rollup = new ChunkRollup(TSDataType.INT64, 10);
+    long[] times = new long[25];
+    long[] values = new long[25];
+    for (int i = 0; i < 25; i++) {
+      times[i] = i + 5;
+      values[i] = i * 2L;
+    }
+    rollup.update(times, values, 25);
+    rollup.update(100, 7L);
+
+    assertTrue(rollup.isUsable());
+    List<Statistics<? extends Serializable>> buckets = rollup.getBuckets();
+    assertEquals(4, buckets.size());
+    // [0, 10) holds times 5 to 9
+    assertEquals(5, buckets.get(0).getCount());
+    assertEquals(5, buckets.get(0).getStartTime());
+    assertEquals(9, buckets.get(0).getEndTime());
+    assertEquals(0L, buckets.get(0).getFirstValue());
+    assertEquals(8L, buckets.get(0).getLastValue());
+    assertEquals(20.0, buckets.get(0).getSumDoubleValue(), 0);
+    // [10, 20) holds times 10 to 19
+    assertEquals(10, buckets.get(1).getCount());
+    assertEquals(10L, buckets.get(1).getMinValue());
+    assertEquals(28L, buckets.get(1).getMaxValue());
+    assertEquals(100, buckets.get(3).getStartTime());
+    assertEquals(1, buckets.get(3).getCount());
+  }
+
+  @Test
+  public void testNegativeTime() {
+    ChunkRollup rollup = new ChunkRollup(TSDataType.DOUBLE, 10);
+    rollup.update(-11, 1.0);
+    rollup.update(-10, 2.0);
+    rollup.update(-1, 3.0);
+    rollup.update(0, 4.0);
+    List<Statistics<? extends Serializable>> buckets = rollup.getBuckets();
+    assertEquals(3, buckets.size());
+    assertEquals(1, buckets.get(0).getCount());
+    assertEquals(2, buckets.get(1).getCount());
+    assertEquals(5.0, buckets.get(1).getSumDoubleValue(), 0);
+    assertEquals(1, buckets.get(2).getCount());
+  }
+
+  @Test
+  public void testDiscard() {
+    ChunkRollup rollup = new ChunkRollup(TSDataType.INT32, 10);
+    rollup.update(20, 1);
+    rollup.update(15, 1);
+    assertFalse(rollup.isUsable());
+    rollup.update(30, 1);
+    assertFalse(rollup.isUsable());
+
+    rollup.reset();
+    rollup.update(30, 1);
+    assertTrue(rollup.isUsable());
+    assertEquals(1, rollup.getBuckets().size());
+
+    // one point in each bucket is not worth keeping
+    rollup.reset();
+    for (int i = 0; i < 1000; i++) {
+      rollup.update(i * 10L, i);
+    }
+    assertFalse(rollup.isUsable());
+    assertTrue(rollup.getBuckets().isEmpty());
+  }
+
+  @Test
+  public void testIndexFile() throws IOException {
+    File tsFile = Files.createTempFile("chunk_rollup", ".tsfile").toFile();
+    File indexFile = new File(tsFile.getPath() + ChunkRollupIndex.FILE_SUFFIX);
+    try {
+      ChunkRollupIndex.Builder builder = new ChunkRollupIndex.Builder(10);
+      ChunkRollup rollup = new ChunkRollup(TSDataType.FLOAT, 10);
+      for (int i = 0; i < 20; i++) {
+        rollup.reset();
+        for (int j = 0; j <= i; j++) {
+          rollup.update(i * 100L + j * 5, (float) j);
+        }
+        builder.add(i * 1000L, rollup);
+      }
+      // written with another interval
+      builder.add(20000L, new ChunkRollup(TSDataType.FLOAT, 20));
+      builder.serializeTo(indexFile, 12345, 678);
+
+      assertNull(ChunkRollupIndex.load(tsFile.getPath(), 12345, 679));
+      ChunkRollupIndex index = ChunkRollupIndex.load(tsFile.getPath(), 12345, 678);
+      for (int i = 0; i < 20; i++) {
+        ChunkRollup loaded = index.get(i * 1000L);
+        assertEquals(TSDataType.FLOAT, loaded.getDataType());
+        assertEquals(10, loaded.getInterval());
+        List<Statistics<? extends Serializable>> buckets = loaded.getBuckets();
+        assertEquals(i / 2 + 1, buckets.size());
+        long pointNum = 0;
+        for (Statistics<? extends Serializable> bucket : buckets) {
+          pointNum += bucket.getCount();
+        }
+        assertEquals(i + 1, pointNum);
+        assertEquals(i * 100L, buckets.get(0).getStartTime());
+        assertEquals((float) i, buckets.get(buckets.size() - 1).getLastValue());
+        assertNull(index.get(i * 1000L + 1));
+      }
+      assertNull(index.get(20000L));
+    } finally {
+      Files.deleteIfExists(indexFile.toPath());
+      Files.deleteIfExists(tsFile.toPath());
+    }
+  }
+}
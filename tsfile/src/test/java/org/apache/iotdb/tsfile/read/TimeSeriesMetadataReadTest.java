@@ -22,6 +22,7 @@ import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
 import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
 import org.apache.iotdb.tsfile.constant.TestConstant;
 import org.apache.iotdb.tsfile.file.metadata.TimeseriesMetadata;
+import org.apache.iotdb.tsfile.file.metadata.TimeseriesMetadataHashIndex;
 import org.apache.iotdb.tsfile.read.common.Path;
 import org.apache.iotdb.tsfile.utils.FileGenerator;
 
@@ -59,6 +60,10 @@ public class TimeSeriesMetadataReadTest {
     if (file.exists()) {
       file.delete();
     }
+    File hashIndexFile = new File(FILE_PATH + TimeseriesMetadataHashIndex.FILE_SUFFIX);
+    if (hashIndexFile.exists()) {
+      hashIndexFile.delete();
+    }
   }
 
   @Test
@@ -91,4 +96,46 @@ public class TimeSeriesMetadataReadTest {
       Assert.assertEquals("s" + i, timeseriesMetadataList.get(i - 5).getMeasurementId());
     }
   }
+
+  @Test
+  public void testReadTimeseriesMetadataByHashIndex() throws IOException {
+    // rewrite the file with the hash index
+    conf.setEnableTimeseriesMetadataHashIndex(true);
+    try {
+      FileGenerator.generateFile(100, 10000, FILE_PATH);
+      Assert.assertTrue(new File(FILE_PATH + TimeseriesMetadataHashIndex.FILE_SUFFIX).exists());
+
+      Set<String> allSensors = new HashSet<>();
+      for (int i = 1; i <= 8; i++) {
+        allSensors.add("s" + i);
+      }
+      try (TsFileSequenceReader reader = new TsFileSequenceReader(FILE_PATH)) {
+        for (String device : new String[] {"d1", "d2", "d3"}) {
+          for (String sensor : allSensors) {
+            Path path = new Path(device, sensor);
+            conf.setEnableTimeseriesMetadataHashIndex(false);
+            TimeseriesMetadata expected = reader.readTimeseriesMetadata(path, true);
+            conf.setEnableTimeseriesMetadataHashIndex(true);
+            TimeseriesMetadata actual = reader.readTimeseriesMetadata(path, true);
+            if (expected == null) {
+              Assert.assertNull(actual);
+              Assert.assertTrue(reader.readTimeseriesMetadata(path, allSensors).isEmpty());
+              continue;
+            }
+            Assert.assertEquals(expected.getMeasurementId(), actual.getMeasurementId());
+            Assert.assertEquals(expected.getStatistics(), actual.getStatistics());
+            Assert.assertEquals(
+                expected.getChunkMetadataList().size(), actual.getChunkMetadataList().size());
+
+            List<TimeseriesMetadata> timeseriesMetadataList =
+                reader.readTimeseriesMetadata(path, allSensors);
+            Assert.assertEquals(
+                reader.readDeviceMetadata(device).size(), timeseriesMetadataList.size());
+          }
+        }
+      }
+    } finally {
+      conf.setEnableTimeseriesMetadataHashIndex(false);
+    }
+  }
 }
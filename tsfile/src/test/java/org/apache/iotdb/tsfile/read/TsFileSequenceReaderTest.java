@@ -29,7 +29,10 @@ import org.apache.iotdb.tsfile.file.header.PageHeader;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.fileSystem.FSFactoryProducer;
+import org.apache.iotdb.tsfile.read.common.Chunk;
 import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.reader.TsFileInput;
 import org.apache.iotdb.tsfile.utils.FileGenerator;
 import org.apache.iotdb.tsfile.utils.Pair;
 import org.apache.iotdb.tsfile.utils.TsFileGeneratorUtils;
@@ -172,4 +175,53 @@ public class TsFileSequenceReaderTest {
         TsFileCheckStatus.COMPLETE_FILE,
         reader.selfCheck(new HashMap<>(), new ArrayList<>(), false));
   }
+
+  @Test
+  public void testReadVectored() throws IOException {
+    TsFileInput input = FSFactoryProducer.getFileInputFactory().getTsFileInput(FILE_PATH);
+    try {
+      // unsorted, overlapping, adjacent and far away ranges
+      long[] offsets = {100, 0, 40, 50, 1000};
+      int[] lengths = {20, 50, 20, 10, 30};
+      for (int maxGapSize : new int[] {0, 10, 10000}) {
+        ByteBuffer[] buffers = input.readVectored(offsets, lengths, maxGapSize);
+        for (int i = 0; i < offsets.length; i++) {
+          ByteBuffer expected = ByteBuffer.allocate(lengths[i]);
+          input.read(expected, offsets[i]);
+          expected.flip();
+          Assert.assertEquals(expected, buffers[i]);
+        }
+      }
+    } finally {
+      input.close();
+    }
+  }
+
+  @Test
+  public void testReadMemChunks() throws IOException {
+    int prevMaxGapSize = TSFileDescriptor.getInstance().getConfig().getCoalescedReadMaxGapSize();
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(FILE_PATH)) {
+      List<ChunkMetadata> chunkMetadataList = new ArrayList<>();
+      for (List<ChunkMetadata> metadataList : reader.readChunkMetadataInDevice("d1").values()) {
+        chunkMetadataList.addAll(metadataList);
+      }
+      for (int maxGapSize : new int[] {0, 100, 1024 * 1024}) {
+        TSFileDescriptor.getInstance().getConfig().setCoalescedReadMaxGapSize(maxGapSize);
+        List<Chunk> chunks = reader.readMemChunks(chunkMetadataList);
+        Assert.assertEquals(chunkMetadataList.size(), chunks.size());
+        for (int i = 0; i < chunks.size(); i++) {
+          Chunk expected = reader.readMemChunk(chunkMetadataList.get(i));
+          Chunk actual = chunks.get(i);
+          Assert.assertEquals(
+              expected.getHeader().getMeasurementID(), actual.getHeader().getMeasurementID());
+          Assert.assertEquals(
+              expected.getHeader().getSerializedSize(), actual.getHeader().getSerializedSize());
+          Assert.assertEquals(expected.getData(), actual.getData());
+          Assert.assertEquals(expected.getData().array().length, actual.getData().array().length);
+        }
+      }
+    } finally {
+      TSFileDescriptor.getInstance().getConfig().setCoalescedReadMaxGapSize(prevMaxGapSize);
+    }
+  }
 }
@@ -32,9 +32,15 @@ import org.apache.iotdb.tsfile.encoding.encoder.IntRleEncoder;
 import org.apache.iotdb.tsfile.encoding.encoder.LongRleEncoder;
 import org.apache.iotdb.tsfile.encoding.encoder.PlainEncoder;
 import org.apache.iotdb.tsfile.encoding.encoder.SinglePrecisionEncoderV1;
+import org.apache.iotdb.tsfile.file.header.PageHeader;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.BatchData;
 import org.apache.iotdb.tsfile.read.common.TimeRange;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.filter.TimeFilter;
+import org.apache.iotdb.tsfile.read.filter.ValueFilter;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.filter.factory.FilterFactory;
 import org.apache.iotdb.tsfile.read.reader.page.PageReader;
 import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.write.page.PageWriter;
@@ -312,4 +318,49 @@ public class PageReaderTest {
         };
     test.testDelete(TSDataType.INT64);
   }
+
+  @Test
+  public void testTsBlockWithTimeAndValueFilter() throws IOException {
+    // PLAIN jumps to the first selected value, RLE decodes and drops the skipped ones
+    checkTsBlockWithFilter(new PlainEncoder(TSDataType.INT64, 0), new PlainDecoder());
+    checkTsBlockWithFilter(new LongRleEncoder(), new LongRleDecoder());
+  }
+
+  private void checkTsBlockWithFilter(Encoder encoder, Decoder decoder) throws IOException {
+    PageWriter pageWriter = new PageWriter();
+    pageWriter.setTimeEncoder(new DeltaBinaryEncoder.LongDeltaEncoder());
+    pageWriter.setValueEncoder(encoder);
+    pageWriter.initStatistics(TSDataType.INT64);
+    for (int i = 0; i < 1000; i++) {
+      pageWriter.write(i, i * 2L);
+    }
+    ByteBuffer page = ByteBuffer.wrap(pageWriter.getUncompressedBytes().array());
+    PageHeader pageHeader =
+        new PageHeader(page.remaining(), page.remaining(), pageWriter.getStatistics());
+
+    Filter filter = FilterFactory.and(TimeFilter.gtEq(900L), ValueFilter.gt(1850L));
+    PageReader pageReader =
+        new PageReader(
+            pageHeader,
+            page,
+            TSDataType.INT64,
+            decoder,
+            new DeltaBinaryDecoder.LongDeltaDecoder(),
+            filter);
+    List<TimeRange> deleteIntervals = new ArrayList<>();
+    deleteIntervals.add(new TimeRange(950, 960));
+    pageReader.setDeleteIntervalList(deleteIntervals);
+
+    TsBlock tsBlock = pageReader.getAllSatisfiedData();
+    int index = 0;
+    for (long time = 926; time < 1000; time++) {
+      if (time >= 950 && time <= 960) {
+        continue;
+      }
+      Assert.assertEquals(time, tsBlock.getTimeByIndex(index));
+      Assert.assertEquals(time * 2, tsBlock.getColumn(0).getLong(index));
+      index++;
+    }
+    Assert.assertEquals(index, tsBlock.getPositionCount());
+  }
 }
@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.tsfile.utils;
+
+import org.apache.iotdb.tsfile.file.metadata.ChunkValueBloomFilterIndex;
+import org.apache.iotdb.tsfile.file.metadata.statistics.BinaryStatistics;
+import org.apache.iotdb.tsfile.file.metadata.statistics.IntegerStatistics;
+import org.apache.iotdb.tsfile.read.filter.ValueFilter;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ValueBloomFilterTest {
+
+  @Test
+  public void testMightContain() {
+    ValueBloomFilter filter = new ValueBloomFilter(256);
+    for (int i = 0; i < 100; i++) {
+      filter.add(i * 7L);
+      filter.add(new Binary("state" + i));
+    }
+    assertTrue(filter.isUsable());
+    for (int i = 0; i < 100; i++) {
+      assertTrue(filter.mightContain(i * 7L));
+      assertTrue(filter.mightContain(i * 7));
+      assertTrue(filter.mightContain(new Binary("state" + i)));
+    }
+    // values of other types are never rejected
+    assertTrue(filter.mightContain(1.5));
+
+    int falsePositives = 0;
+    for (int i = 0; i < 10000; i++) {
+      if (filter.mightContain(new Binary("other" + i))) {
+        falsePositives++;
+      }
+    }
+    assertTrue(falsePositives < 500);
+  }
+
+  @Test
+  public void testSaturateAndDiscard() {
+    ValueBloomFilter filter = new ValueBloomFilter(16);
+    for (long i = 0; i < 1000; i++) {
+      filter.add(i);
+    }
+    assertFalse(filter.isUsable());
+
+    filter.reset();
+    assertTrue(filter.isUsable());
+    assertFalse(filter.mightContain(1L));
+    filter.add(1L);
+    filter.discard();
+    assertFalse(filter.isUsable());
+  }
+
+  @Test
+  public void testSatisfy() {
+    ValueBloomFilter filter = new ValueBloomFilter(256);
+    filter.add(new Binary("OK"));
+    filter.add(new Binary("WARN"));
+    BinaryStatistics statistics = new BinaryStatistics();
+    statistics.update(1, new Binary("OK"));
+    statistics.update(2, new Binary("WARN"));
+
+    Binary fault = new Binary("FAULT");
+    Binary warn = new Binary("WARN");
+    // without the bloom filter, TEXT statistics can not skip anything
+    assertTrue(ValueFilter.eq(fault).satisfy(statistics));
+    statistics.setValueBloomFilter(filter);
+    assertFalse(ValueFilter.eq(fault).satisfy(statistics));
+    assertTrue(ValueFilter.eq(warn).satisfy(statistics));
+    assertFalse(ValueFilter.in(new HashSet<>(Arrays.asList(fault)), false).satisfy(statistics));
+    assertTrue(
+        ValueFilter.in(new HashSet<>(Arrays.asList(fault, warn)), false).satisfy(statistics));
+    assertTrue(ValueFilter.in(new HashSet<>(Arrays.asList(warn)), true).satisfy(statistics));
+
+    // merged statistics are not covered by the filter any more
+    BinaryStatistics other = new BinaryStatistics();
+    other.update(3, fault);
+    statistics.mergeStatistics(other);
+    assertNull(statistics.getValueBloomFilter());
+    assertTrue(ValueFilter.eq(fault).satisfy(statistics));
+
+    ValueBloomFilter intFilter = new ValueBloomFilter(256);
+    intFilter.add(3);
+    intFilter.add(5);
+    IntegerStatistics intStatistics = new IntegerStatistics();
+    intStatistics.update(1, 3);
+    intStatistics.update(2, 5);
+    intStatistics.setValueBloomFilter(intFilter);
+    // 4 is within [min, max], only the bloom filter can skip it
+    assertFalse(ValueFilter.eq(4).satisfy(intStatistics));
+    assertTrue(ValueFilter.eq(5).satisfy(intStatistics));
+  }
+
+  @Test
+  public void testIndexFile() throws IOException {
+    File tsFile = Files.createTempFile("value_bloom_filter", ".tsfile").toFile();
+    File indexFile = new File(tsFile.getPath() + ChunkValueBloomFilterIndex.FILE_SUFFIX);
+    try {
+      ChunkValueBloomFilterIndex.Builder builder = new ChunkValueBloomFilterIndex.Builder();
+      ValueBloomFilter filter = new ValueBloomFilter(64);
+      for (int i = 0; i < 40; i++) {
+        filter.reset();
+        filter.add(i);
+        builder.add(i * 100L, filter);
+      }
+      builder.serializeTo(indexFile, 12345, 678);
+
+      assertNull(ChunkValueBloomFilterIndex.load(tsFile.getPath(), 12346, 678));
+      ChunkValueBloomFilterIndex index =
+          ChunkValueBloomFilterIndex.load(tsFile.getPath(), 12345, 678);
+      for (int i = 0; i < 40; i++) {
+        ValueBloomFilter loaded = index.get(i * 100L);
+        assertEquals(filter.getWords().length, loaded.getWords().length);
+        assertTrue(loaded.mightContain(i));
+        assertNull(index.get(i * 100L + 1));
+      }
+    } finally {
+      Files.deleteIfExists(indexFile.toPath());
+      Files.deleteIfExists(tsFile.toPath());
+    }
+  }
+}